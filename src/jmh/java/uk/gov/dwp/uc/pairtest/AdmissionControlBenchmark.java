@@ -0,0 +1,47 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.uc.pairtest.admission.TokenBucketAdmissionControl;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission decisions for accounts drawn at random from {@code accounts} ids. With a million accounts most lookups miss
+ * the CPU caches, and the table keeps rebuilding as accounts go idle. Run with {@code -t} to see it scale across cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AdmissionControlBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int accounts;
+
+    private TokenBucketAdmissionControl admissionControl;
+
+    @Setup
+    public void setup() {
+        admissionControl = new TokenBucketAdmissionControl(20, 50, Duration.ofSeconds(1), 4_194_304);
+    }
+
+    @Benchmark
+    public boolean tryAdmit() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return admissionControl.tryAdmit(random.nextInt(accounts), random.nextInt(1, 26));
+    }
+}
@@ -0,0 +1,87 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares purchases per second through the blocking and asynchronous services while the downstream calls are slowed
+ * down. The blocking service needs one caller thread per in-flight purchase; the asynchronous one is driven by a
+ * single caller submitting {@value #PURCHASES_PER_BATCH} purchases at a time.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncTicketServiceBenchmark {
+
+    private static final Long ACCOUNT_ID = 123456789L;
+    private static final int PURCHASES_PER_BATCH = 256;
+    private static final int MAXIMUM_CONCURRENT_PURCHASES = 4096;
+    private static final int MAXIMUM_QUEUED_PURCHASES = 65536;
+
+    @Param({"100", "1000"})
+    private long downstreamDelayMicros;
+
+    private TicketServiceImpl blockingTicketService;
+    private AsyncTicketServiceImpl asyncTicketService;
+    private TicketTypeRequest[][] validRequests;
+
+    @Setup
+    public void setup() {
+        validRequests = TicketRequestFixtures.validRequests();
+        blockingTicketService = new TicketServiceImpl(new TicketRequestValidator(),
+                new InMemoryTicketPaymentService(downstreamDelayMicros), new InMemorySeatReservationService(downstreamDelayMicros));
+        asyncTicketService = new AsyncTicketServiceImpl(new TicketRequestValidator(),
+                new InMemoryTicketPaymentService(downstreamDelayMicros), new InMemorySeatReservationService(downstreamDelayMicros),
+                Executors.newVirtualThreadPerTaskExecutor(), MAXIMUM_CONCURRENT_PURCHASES, MAXIMUM_QUEUED_PURCHASES, Duration.ofSeconds(5));
+    }
+
+    @TearDown
+    public void tearDown() {
+        asyncTicketService.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int next() {
+            return next++ & (TicketRequestFixtures.NUMBER_OF_FIXTURES - 1);
+        }
+    }
+
+    @Benchmark
+    public void blockingPurchase(Cursor cursor) {
+        blockingTicketService.purchaseTickets(ACCOUNT_ID, validRequests[cursor.next()]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PURCHASES_PER_BATCH)
+    public void asyncPurchase(Cursor cursor) {
+        CompletableFuture<?>[] purchases = new CompletableFuture<?>[PURCHASES_PER_BATCH];
+        for (int i = 0; i < PURCHASES_PER_BATCH; i++) {
+            purchases[i] = asyncTicketService.purchaseTickets(ACCOUNT_ID, validRequests[cursor.next()]);
+        }
+        CompletableFuture.allOf(purchases).join();
+    }
+}
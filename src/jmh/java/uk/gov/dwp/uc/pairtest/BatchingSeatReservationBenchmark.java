@@ -0,0 +1,73 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import thirdparty.seatbooking.SeatReservationService;
+import uk.gov.dwp.uc.pairtest.batch.BatchingSeatReservationService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reserving seats with one round trip per call against micro-batched round trips over a single simulated
+ * connection to the booking system, so the round trip latency is paid once per call or once per batch respectively.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class BatchingSeatReservationBenchmark {
+
+    @Param({"200"})
+    private long roundTripMicros;
+
+    @Param({"50"})
+    private long maximumBatchDelayMicros;
+
+    private SeatReservationService perCallSeatReservationService;
+    private BatchingSeatReservationService batchingSeatReservationService;
+
+    @Setup
+    public void setup() {
+        InMemorySeatReservationService singleConnection = new InMemorySeatReservationService(roundTripMicros);
+        perCallSeatReservationService = (accountId, totalSeatsToAllocate) -> {
+            synchronized (singleConnection) {
+                singleConnection.reserveSeat(accountId, totalSeatsToAllocate);
+            }
+        };
+        batchingSeatReservationService = new BatchingSeatReservationService(
+                (accountIds, seatCounts) -> SimulatedLatency.pause(roundTripMicros), 64, maximumBatchDelayMicros, 8192);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%nMean batch size %.1f, mean queue wait %.1fus, max queue wait %.1fus%n",
+                batchingSeatReservationService.getBatchMetrics().getMeanBatchSize(),
+                batchingSeatReservationService.getBatchMetrics().getMeanQueueWaitMicros(),
+                batchingSeatReservationService.getBatchMetrics().getMaximumQueueWaitMicros());
+        batchingSeatReservationService.close();
+    }
+
+    @Benchmark
+    public void reservePerCall() {
+        perCallSeatReservationService.reserveSeat(123456789L, 2);
+    }
+
+    @Benchmark
+    public void reserveBatched() {
+        batchingSeatReservationService.reserveSeat(123456789L, 2);
+    }
+}
@@ -0,0 +1,32 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the selected benchmarks once per thread count with the GC profiler attached, so throughput, average latency and
+ * allocation rate are reported for each level of concurrency.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar uk.gov.dwp.uc.pairtest.BenchmarkRunner [include-regex]}
+ */
+public class BenchmarkRunner {
+
+    private static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "uk.gov.dwp.uc.pairtest.*Benchmark";
+
+        for (int threads : THREAD_COUNTS) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .build();
+
+            new Runner(options).run();
+        }
+    }
+}
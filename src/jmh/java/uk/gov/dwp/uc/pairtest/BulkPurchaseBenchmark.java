@@ -0,0 +1,111 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatch;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatchResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purchases the same set of orders by calling {@link TicketService#purchaseTickets(Long, TicketTypeRequest...)} once per
+ * order and by a single call to the bulk {@link TicketService#purchaseTickets(TicketOrderBatch)}. About one order in
+ * eight is invalid. The {@code summarise} pair isolates validation and pricing from the downstream calls.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkPurchaseBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int numberOfOrders;
+
+    private TicketRequestValidator ticketRequestValidator;
+    private TicketServiceImpl ticketService;
+    private long[] accountIds;
+    private TicketTypeRequest[][] ticketTypeRequests;
+    private TicketOrderBatch ticketOrders;
+
+    @Setup
+    public void setup() {
+        ticketRequestValidator = new TicketRequestValidator();
+        ticketService = new TicketServiceImpl(
+                ticketRequestValidator,
+                new InMemoryTicketPaymentService(0),
+                new InMemorySeatReservationService(0));
+
+        SplittableRandom random = new SplittableRandom(20240501L);
+        accountIds = new long[numberOfOrders];
+        int[] numberOfAdultTickets = new int[numberOfOrders];
+        int[] numberOfChildTickets = new int[numberOfOrders];
+        int[] numberOfInfantTickets = new int[numberOfOrders];
+        ticketTypeRequests = new TicketTypeRequest[numberOfOrders][];
+
+        for (int order = 0; order < numberOfOrders; order++) {
+            accountIds[order] = 100_000L + order;
+            numberOfAdultTickets[order] = random.nextInt(8) == 0 ? 0 : random.nextInt(1, 10);
+            numberOfChildTickets[order] = random.nextInt(0, 10);
+            numberOfInfantTickets[order] = random.nextInt(0, Math.max(1, numberOfAdultTickets[order]) + 1);
+
+            List<TicketTypeRequest> requests = new ArrayList<>();
+            addRequest(requests, Type.ADULT, numberOfAdultTickets[order]);
+            addRequest(requests, Type.CHILD, numberOfChildTickets[order]);
+            addRequest(requests, Type.INFANT, numberOfInfantTickets[order]);
+            ticketTypeRequests[order] = requests.toArray(new TicketTypeRequest[0]);
+        }
+
+        ticketOrders = new TicketOrderBatch(accountIds, numberOfAdultTickets, numberOfChildTickets, numberOfInfantTickets);
+    }
+
+    @Benchmark
+    public int purchaseInLoop() {
+        int numberOfAcceptedOrders = 0;
+        for (int order = 0; order < numberOfOrders; order++) {
+            if (ticketService.tryPurchaseTickets(accountIds[order], ticketTypeRequests[order]).isValid()) {
+                numberOfAcceptedOrders++;
+            }
+        }
+        return numberOfAcceptedOrders;
+    }
+
+    @Benchmark
+    public int purchaseInBulk() {
+        return ticketService.purchaseTickets(ticketOrders).getNumberOfAcceptedOrders();
+    }
+
+    @Benchmark
+    public void summariseInLoop(Blackhole blackhole) {
+        for (int order = 0; order < numberOfOrders; order++) {
+            blackhole.consume(ticketRequestValidator.summarise(accountIds[order], ticketTypeRequests[order]));
+        }
+    }
+
+    @Benchmark
+    public TicketOrderBatchResult summariseInBulk() {
+        return ticketRequestValidator.summarise(ticketOrders);
+    }
+
+    private static void addRequest(List<TicketTypeRequest> requests, Type type, int noOfTickets) {
+        if (noOfTickets > 0) {
+            requests.add(new TicketTypeRequest(type, noOfTickets));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import thirdparty.paymentgateway.TicketPaymentService;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.exception.DependencyUnavailableException;
+import uk.gov.dwp.uc.pairtest.resilience.Bulkhead;
+import uk.gov.dwp.uc.pairtest.resilience.CircuitBreaker;
+import uk.gov.dwp.uc.pairtest.resilience.DependencyGuard;
+import uk.gov.dwp.uc.pairtest.resilience.FaultInjectingTicketPaymentService;
+import uk.gov.dwp.uc.pairtest.resilience.FaultInjector;
+import uk.gov.dwp.uc.pairtest.resilience.ResilientTicketPaymentService;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purchases tickets from 8 threads while every payment takes {@code latencySpikeMillis}, and samples the latency of each
+ * purchase. Unguarded, every purchase waits for the gateway; guarded, the circuit opens after the first slow calls and
+ * purchases fail fast, with one trial call let through every second.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class DegradedDependencyBenchmark {
+
+    private static final Long ACCOUNT_ID = 123456789L;
+
+    @Param({"false", "true"})
+    private boolean guarded;
+
+    @Param({"20"})
+    private long latencySpikeMillis;
+
+    private TicketServiceImpl ticketService;
+    private TicketTypeRequest[][] validRequests;
+
+    @Setup
+    public void setup() {
+        FaultInjector faultInjector = new FaultInjector();
+        faultInjector.injectLatency(Duration.ofMillis(latencySpikeMillis), 1.0);
+
+        TicketPaymentService ticketPaymentService = new FaultInjectingTicketPaymentService(faultInjector);
+        if (guarded) {
+            CircuitBreaker circuitBreaker = new CircuitBreaker(Duration.ofSeconds(10), 20, 50, 50,
+                    Duration.ofMillis(latencySpikeMillis / 2), Duration.ofSeconds(1), System::nanoTime);
+            ticketPaymentService = new ResilientTicketPaymentService(ticketPaymentService,
+                    new DependencyGuard("payment", new Bulkhead(4), circuitBreaker, System::nanoTime));
+        }
+
+        ticketService = new TicketServiceImpl(new TicketRequestValidator(), ticketPaymentService, new InMemorySeatReservationService(0));
+        validRequests = TicketRequestFixtures.validRequests();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int next() {
+            return next++ & (TicketRequestFixtures.NUMBER_OF_FIXTURES - 1);
+        }
+    }
+
+    @Benchmark
+    public void purchaseTickets(Cursor cursor, Blackhole blackhole) {
+        try {
+            ticketService.purchaseTickets(ACCOUNT_ID, validRequests[cursor.next()]);
+        } catch (DependencyUnavailableException e) {
+            blackhole.consume(e);
+        }
+    }
+}
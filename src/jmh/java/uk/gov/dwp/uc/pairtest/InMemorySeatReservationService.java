@@ -0,0 +1,28 @@
+package uk.gov.dwp.uc.pairtest;
+
+import thirdparty.seatbooking.SeatReservationService;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Seat reservation stub that counts the seats reserved and optionally waits to simulate the booking round trip.
+ */
+final class InMemorySeatReservationService implements SeatReservationService {
+
+    private final long delayMicros;
+    private final LongAdder totalSeatsReserved = new LongAdder();
+
+    InMemorySeatReservationService(long delayMicros) {
+        this.delayMicros = delayMicros;
+    }
+
+    @Override
+    public void reserveSeat(long accountId, int totalSeatsToAllocate) {
+        SimulatedLatency.pause(delayMicros);
+        totalSeatsReserved.add(totalSeatsToAllocate);
+    }
+
+    long getTotalSeatsReserved() {
+        return totalSeatsReserved.sum();
+    }
+}
@@ -0,0 +1,28 @@
+package uk.gov.dwp.uc.pairtest;
+
+import thirdparty.paymentgateway.TicketPaymentService;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Payment stub that records the amount charged and optionally waits to simulate the gateway round trip.
+ */
+final class InMemoryTicketPaymentService implements TicketPaymentService {
+
+    private final long delayMicros;
+    private final LongAdder totalAmountPaid = new LongAdder();
+
+    InMemoryTicketPaymentService(long delayMicros) {
+        this.delayMicros = delayMicros;
+    }
+
+    @Override
+    public void makePayment(long accountId, int totalAmountToPay) {
+        SimulatedLatency.pause(delayMicros);
+        totalAmountPaid.add(totalAmountToPay);
+    }
+
+    long getTotalAmountPaid() {
+        return totalAmountPaid.sum();
+    }
+}
@@ -0,0 +1,194 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+import uk.gov.dwp.uc.pairtest.pricing.PricingRuleCompiler;
+import uk.gov.dwp.uc.pairtest.pricing.PricingRules;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices purchases against 10,000 rules: 1,000 screening classifications, 24 hourly time bands, 8,994 class, band and
+ * ticket type prices and 4 discount steps. {@code compiledRules} reads the lookup tables built by
+ * {@link PricingRuleCompiler}; {@code interpretedRules} walks the same rules for every purchase, the way a rule engine
+ * without a compile step would. {@code compile} measures building the tables.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingRulesBenchmark {
+
+    private static final int NUMBER_OF_SCREENINGS = 1_000;
+    private static final int NUMBER_OF_SCREENING_CLASSES = 125;
+    private static final int NUMBER_OF_TIME_BANDS = 24;
+    private static final int NUMBER_OF_PURCHASES = 1 << 12;
+
+    private Properties properties;
+    private PricingRules pricingRules;
+    private InterpretedRules interpretedRules;
+
+    private long[] screeningIds;
+    private int[] minutesOfDay;
+    private int[][] ticketCounts;
+    private int purchase;
+
+    @Setup
+    public void setup() {
+        properties = new Properties();
+        for (int screening = 0; screening < NUMBER_OF_SCREENINGS; screening++) {
+            properties.setProperty("screening." + screening, "CLASS" + screening % NUMBER_OF_SCREENING_CLASSES);
+        }
+        for (int hour = 0; hour < NUMBER_OF_TIME_BANDS; hour++) {
+            properties.setProperty("band.H" + hour, String.format("%02d:00-%02d:00", hour, hour + 1));
+        }
+        for (Type ticketType : Type.values()) {
+            properties.setProperty("price.*.*." + ticketType.name(), "1000");
+        }
+        int numberOfPriceRules = 10_000 - NUMBER_OF_SCREENINGS - NUMBER_OF_TIME_BANDS - Type.values().length - 4;
+        for (int rule = 0; rule < numberOfPriceRules; rule++) {
+            int cell = rule / Type.values().length;
+            properties.setProperty("price.CLASS" + cell / NUMBER_OF_TIME_BANDS % NUMBER_OF_SCREENING_CLASSES
+                            + ".H" + cell % NUMBER_OF_TIME_BANDS + "." + Type.values()[rule % Type.values().length],
+                    String.valueOf(500 + rule % 3000));
+        }
+        properties.setProperty("discount.5", "5");
+        properties.setProperty("discount.10", "10");
+        properties.setProperty("discount.15", "15");
+        properties.setProperty("discount.20", "20");
+
+        pricingRules = PricingRuleCompiler.compile(properties);
+        interpretedRules = new InterpretedRules(properties);
+
+        SplittableRandom random = new SplittableRandom(42);
+        screeningIds = new long[NUMBER_OF_PURCHASES];
+        minutesOfDay = new int[NUMBER_OF_PURCHASES];
+        ticketCounts = new int[NUMBER_OF_PURCHASES][];
+        for (int i = 0; i < NUMBER_OF_PURCHASES; i++) {
+            screeningIds[i] = random.nextInt(NUMBER_OF_SCREENINGS + 100);
+            minutesOfDay[i] = random.nextInt(24 * 60);
+            ticketCounts[i] = new int[]{random.nextInt(1, 10), random.nextInt(8), random.nextInt(4)};
+        }
+    }
+
+    @Benchmark
+    public int compiledRules() {
+        int i = purchase++ & (NUMBER_OF_PURCHASES - 1);
+        int[] counts = ticketCounts[i];
+        return pricingRules.getTotalPricePence(screeningIds[i], minutesOfDay[i], counts[0], counts[1], counts[2]);
+    }
+
+    @Benchmark
+    public int interpretedRules() {
+        int i = purchase++ & (NUMBER_OF_PURCHASES - 1);
+        int[] counts = ticketCounts[i];
+        return interpretedRules.getTotalPricePence(screeningIds[i], minutesOfDay[i], counts[0], counts[1], counts[2]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 20)
+    public PricingRules compile() {
+        return PricingRuleCompiler.compile(properties);
+    }
+
+    /**
+     * Keeps the parsed rules as lists and scans them on every purchase: the screening's class, the band containing the
+     * minute, the most specific price for each ticket type and the largest discount step reached.
+     */
+    private static final class InterpretedRules {
+
+        private final List<String[]> screeningRules = new ArrayList<>();
+        private final List<Object[]> bandRules = new ArrayList<>();
+        private final List<Object[]> priceRules = new ArrayList<>();
+        private final List<int[]> discountRules = new ArrayList<>();
+
+        private InterpretedRules(Properties properties) {
+            for (String name : properties.stringPropertyNames()) {
+                String value = properties.getProperty(name);
+                String[] parts = name.split("\\.");
+                switch (parts[0]) {
+                    case "screening" -> screeningRules.add(new String[]{parts[1], value});
+                    case "band" -> {
+                        String[] startAndEnd = value.split("-");
+                        bandRules.add(new Object[]{parts[1], toMinute(startAndEnd[0]), toMinute(startAndEnd[1])});
+                    }
+                    case "price" -> priceRules.add(new Object[]{parts[1], parts[2], Type.valueOf(parts[3]), Integer.parseInt(value)});
+                    case "discount" -> discountRules.add(new int[]{Integer.parseInt(parts[1]), Integer.parseInt(value)});
+                    default -> throw new IllegalArgumentException(name);
+                }
+            }
+        }
+
+        private int getTotalPricePence(long screeningId, int minuteOfDay, int adults, int children, int infants) {
+            String screeningClass = PricingRules.DEFAULT_NAME;
+            String screening = Long.toString(screeningId);
+            for (String[] screeningRule : screeningRules) {
+                if (screeningRule[0].equals(screening)) {
+                    screeningClass = screeningRule[1];
+                    break;
+                }
+            }
+
+            String timeBand = PricingRules.DEFAULT_NAME;
+            for (Object[] bandRule : bandRules) {
+                int start = (int) bandRule[1];
+                int end = (int) bandRule[2];
+                if (start <= minuteOfDay && (minuteOfDay < end || end == 0)) {
+                    timeBand = (String) bandRule[0];
+                    break;
+                }
+            }
+
+            int[] bestSpecificity = {-1, -1, -1};
+            int[] pricesPence = new int[3];
+            for (Object[] priceRule : priceRules) {
+                boolean anyClass = priceRule[0].equals("*");
+                boolean anyBand = priceRule[1].equals("*");
+                if ((anyClass || priceRule[0].equals(screeningClass)) && (anyBand || priceRule[1].equals(timeBand))) {
+                    int type = ((Type) priceRule[2]).ordinal();
+                    int specificity = (anyClass ? 0 : 2) + (anyBand ? 0 : 1);
+                    if (specificity > bestSpecificity[type]) {
+                        bestSpecificity[type] = specificity;
+                        pricesPence[type] = (int) priceRule[3];
+                    }
+                }
+            }
+
+            int numberOfTickets = adults + children + infants;
+            int discountPercent = 0;
+            int bestMinimum = -1;
+            for (int[] discountRule : discountRules) {
+                if (discountRule[0] <= numberOfTickets && discountRule[0] > bestMinimum) {
+                    bestMinimum = discountRule[0];
+                    discountPercent = discountRule[1];
+                }
+            }
+
+            long totalPricePence = (long) adults * pricesPence[0] + (long) children * pricesPence[1] + (long) infants * pricesPence[2];
+            return (int) (totalPricePence * (100 - discountPercent) / 100);
+        }
+
+        private static int toMinute(String time) {
+            String[] hoursAndMinutes = time.split(":");
+            return Integer.parseInt(hoursAndMinutes[0]) * 60 % (24 * 60) + Integer.parseInt(hoursAndMinutes[1]);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.pricing.PricingTable;
+import uk.gov.dwp.uc.pairtest.pricing.PricingTableReference;
+
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.dwp.uc.pairtest.config.Config.ADULT_TICKET_PRICE_PENCE;
+import static uk.gov.dwp.uc.pairtest.config.Config.CHILD_TICKET_PRICE_PENCE;
+
+/**
+ * Compares pricing a purchase with the compile-time constants switch that {@code TicketServiceImpl} used to have against
+ * reading a snapshot from a {@link PricingTableReference}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PricingTableBenchmark {
+
+    private PricingTableReference pricingTableReference;
+    private TicketTypeRequest[][] validRequests;
+    private int next;
+
+    @Setup
+    public void setup() {
+        pricingTableReference = new PricingTableReference(PricingTable.DEFAULT);
+        validRequests = TicketRequestFixtures.validRequests();
+    }
+
+    @Benchmark
+    public int constantSwitchPricing() {
+        int totalTicketPricePence = 0;
+        for (TicketTypeRequest ticketTypeRequest : validRequests[nextIndex()]) {
+            totalTicketPricePence += switch (ticketTypeRequest.getTicketType()) {
+                case ADULT -> ticketTypeRequest.getNoOfTickets() * ADULT_TICKET_PRICE_PENCE;
+                case CHILD -> ticketTypeRequest.getNoOfTickets() * CHILD_TICKET_PRICE_PENCE;
+                case INFANT -> 0;
+            };
+        }
+        return totalTicketPricePence;
+    }
+
+    @Benchmark
+    public int pricingTableSnapshot() {
+        PricingTable pricingTable = pricingTableReference.get();
+        int totalTicketPricePence = 0;
+        for (TicketTypeRequest ticketTypeRequest : validRequests[nextIndex()]) {
+            totalTicketPricePence += ticketTypeRequest.getNoOfTickets() * pricingTable.getPricePence(ticketTypeRequest.getTicketType());
+        }
+        return totalTicketPricePence;
+    }
+
+    private int nextIndex() {
+        return next++ & (TicketRequestFixtures.NUMBER_OF_FIXTURES - 1);
+    }
+}
@@ -0,0 +1,100 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.uc.pairtest.admission.AdmissionControl;
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.event.FilePurchaseEventSink;
+import uk.gov.dwp.uc.pairtest.event.OverflowPolicy;
+import uk.gov.dwp.uc.pairtest.event.PurchaseEventRingBuffer;
+import uk.gov.dwp.uc.pairtest.event.PurchaseEventSink;
+import uk.gov.dwp.uc.pairtest.journal.PurchaseJournal;
+import uk.gov.dwp.uc.pairtest.metrics.PurchaseMetrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what publishing a purchase event costs. {@code publish} hands events straight to the ring buffer: under
+ * {@code DROP} and {@code SAMPLE} that is the publisher's own cost, while under {@code BLOCK} publishers are held to the
+ * consumer's pace, so its throughput is the most the consumer can drain into the sink. {@code purchaseWithEvents} and
+ * {@code purchaseWithoutEvents} price the same basket through {@link TicketServiceImpl} with and without the stage.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PurchaseEventBenchmark {
+
+    private static final TicketPurchaseSummary PURCHASE_SUMMARY = TicketPurchaseSummary.valid(2, 1, 1, 6500, 3);
+    private static final TicketBasket TICKET_BASKET = TicketBasket.of(2, 1, 1);
+
+    @Param({"DROP", "BLOCK", "SAMPLE"})
+    private OverflowPolicy overflowPolicy;
+
+    @Param({"discard", "file"})
+    private String sink;
+
+    private Path eventFile;
+    private PurchaseEventRingBuffer ringBuffer;
+    private TicketServiceImpl ticketServiceWithEvents;
+    private TicketServiceImpl ticketServiceWithoutEvents;
+    private long purchaseId;
+
+    @Setup
+    public void setup() throws IOException {
+        PurchaseEventSink purchaseEventSink = (event, endOfBatch) -> {
+        };
+        if (sink.equals("file")) {
+            eventFile = Files.createTempFile("purchase-events", ".csv");
+            purchaseEventSink = new FilePurchaseEventSink(eventFile);
+        }
+        ringBuffer = new PurchaseEventRingBuffer(overflowPolicy, purchaseEventSink);
+
+        ticketServiceWithEvents = new TicketServiceImpl(new TicketRequestValidator(), new InMemoryTicketPaymentService(0),
+                new InMemorySeatReservationService(0), PurchaseMetrics.NO_OP, PurchaseJournal.NO_OP, AdmissionControl.ALLOW_ALL,
+                ringBuffer);
+        ticketServiceWithoutEvents = new TicketServiceImpl(new TicketRequestValidator(), new InMemoryTicketPaymentService(0),
+                new InMemorySeatReservationService(0));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        ringBuffer.close();
+        System.out.printf("%nPublished %d, dropped %d, sink failures %d%n",
+                ringBuffer.getPublishedCount(), ringBuffer.getDroppedCount(), ringBuffer.getSinkFailureCount());
+        if (eventFile != null) {
+            Files.delete(eventFile);
+        }
+    }
+
+    @Benchmark
+    public void publish() {
+        ringBuffer.publish(purchaseId++, 123456789L, PURCHASE_SUMMARY);
+    }
+
+    @Benchmark
+    public TicketPurchaseSummary purchaseWithEvents() {
+        return ticketServiceWithEvents.tryPurchaseTickets(123456789L, TICKET_BASKET);
+    }
+
+    @Benchmark
+    public TicketPurchaseSummary purchaseWithoutEvents() {
+        return ticketServiceWithoutEvents.tryPurchaseTickets(123456789L, TICKET_BASKET);
+    }
+}
@@ -0,0 +1,94 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.journal.JournalDurability;
+import uk.gov.dwp.uc.pairtest.journal.MappedPurchaseJournal;
+import uk.gov.dwp.uc.pairtest.metrics.PurchaseMetrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Appends paid records to a journal in a temporary directory on local disk, and runs whole purchases through
+ * {@code TicketServiceImpl} with the journal recording both stages, for each durability mode.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PurchaseJournalBenchmark {
+
+    private static final long ACCOUNT_ID = 123456789L;
+
+    @Param({"OS_CACHE", "PERIODIC", "GROUP_COMMIT"})
+    private JournalDurability durability;
+
+    private Path journalDirectory;
+    private MappedPurchaseJournal journal;
+    private TicketServiceImpl ticketService;
+    private TicketTypeRequest[][] validRequests;
+    private final TicketPurchaseSummary purchaseSummary = TicketPurchaseSummary.valid(2, 1, 1, 6500, 3);
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        journalDirectory = Files.createTempDirectory("purchase-journal-benchmark");
+        journal = new MappedPurchaseJournal(journalDirectory, durability);
+        ticketService = new TicketServiceImpl(
+                new TicketRequestValidator(),
+                new InMemoryTicketPaymentService(0),
+                new InMemorySeatReservationService(0),
+                PurchaseMetrics.NO_OP,
+                journal);
+        validRequests = TicketRequestFixtures.validRequests();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(journalDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int next() {
+            return next++ & (TicketRequestFixtures.NUMBER_OF_FIXTURES - 1);
+        }
+    }
+
+    @Benchmark
+    public long appendIntent() {
+        return journal.recordIntent(ACCOUNT_ID, purchaseSummary);
+    }
+
+    @Benchmark
+    public void purchaseWithJournal(Cursor cursor) {
+        ticketService.purchaseTickets(ACCOUNT_ID, validRequests[cursor.next()]);
+    }
+}
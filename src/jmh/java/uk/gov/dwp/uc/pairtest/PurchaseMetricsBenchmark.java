@@ -0,0 +1,61 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.metrics.PurchaseMetrics;
+import uk.gov.dwp.uc.pairtest.metrics.StripedPurchaseMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what metrics recording adds to a purchase. Run with {@code -prof gc} to confirm recording does not allocate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PurchaseMetricsBenchmark {
+
+    private static final Long ACCOUNT_ID = 123456789L;
+
+    @Param({"none", "striped"})
+    private String metrics;
+
+    private TicketServiceImpl ticketService;
+    private TicketTypeRequest[][] validRequests;
+
+    @Setup
+    public void setup() {
+        PurchaseMetrics purchaseMetrics = metrics.equals("striped") ? new StripedPurchaseMetrics() : PurchaseMetrics.NO_OP;
+        ticketService = new TicketServiceImpl(new TicketRequestValidator(),
+                new InMemoryTicketPaymentService(0), new InMemorySeatReservationService(0), purchaseMetrics);
+        validRequests = TicketRequestFixtures.validRequests();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int next() {
+            return next++ & (TicketRequestFixtures.NUMBER_OF_FIXTURES - 1);
+        }
+    }
+
+    @Benchmark
+    public void purchaseValidTickets(Cursor cursor) {
+        ticketService.purchaseTickets(ACCOUNT_ID, validRequests[cursor.next()]);
+    }
+}
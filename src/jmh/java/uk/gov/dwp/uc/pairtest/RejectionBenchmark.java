@@ -0,0 +1,84 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rejecting an invalid purchase the way {@code TicketServiceImpl} used to - throwing a new exception with a
+ * filled-in stack trace - against throwing the cached stackless exception and against the non-throwing
+ * {@link TicketService#tryPurchaseTickets}. Every throw is caught a few frames up, as a caller would.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RejectionBenchmark {
+
+    private static final Long ACCOUNT_ID = 123456789L;
+
+    private TicketRequestValidator ticketRequestValidator;
+    private TicketServiceImpl ticketService;
+    private TicketTypeRequest[][] invalidRequests;
+
+    @Setup
+    public void setup() {
+        ticketRequestValidator = new TicketRequestValidator();
+        ticketService = new TicketServiceImpl(
+                ticketRequestValidator,
+                new InMemoryTicketPaymentService(0),
+                new InMemorySeatReservationService(0));
+        invalidRequests = TicketRequestFixtures.invalidRequests();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int next() {
+            return next++ & (TicketRequestFixtures.NUMBER_OF_FIXTURES - 1);
+        }
+    }
+
+    @Benchmark
+    public void throwNewException(Cursor cursor, Blackhole blackhole) {
+        try {
+            TicketPurchaseSummary purchaseSummary = ticketRequestValidator.summarise(ACCOUNT_ID, invalidRequests[cursor.next()]);
+            if (!purchaseSummary.isValid()) {
+                throw new InvalidPurchaseException();
+            }
+        } catch (InvalidPurchaseException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void throwCachedException(Cursor cursor, Blackhole blackhole) {
+        try {
+            ticketService.purchaseTickets(ACCOUNT_ID, invalidRequests[cursor.next()]);
+        } catch (InvalidPurchaseException e) {
+            blackhole.consume(e.getRejectionReason());
+        }
+    }
+
+    @Benchmark
+    public Object tryPurchase(Cursor cursor) {
+        return ticketService.tryPurchaseTickets(ACCOUNT_ID, invalidRequests[cursor.next()]).getRejectionReason();
+    }
+}
@@ -0,0 +1,97 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import thirdparty.seatbooking.SeatInventory;
+import uk.gov.dwp.uc.pairtest.hold.SeatHold;
+import uk.gov.dwp.uc.pairtest.hold.SeatHoldService;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates seat holds with {@code outstandingHolds} already waiting to expire. {@code holdAndCancel} and
+ * {@code scheduledTaskAndCancel} compare a timing wheel with one scheduled task per hold; {@code holdAndExpire} lets
+ * every hold run out, with the clock moved on so that the number outstanding stays steady.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SeatHoldBenchmark {
+
+    private static final long SCREENING_ID = 1L;
+    private static final long ACCOUNT_ID = 123456789L;
+    private static final long TICK_NANOS = Duration.ofMillis(10).toNanos();
+    private static final int HOLDS_PER_TICK = 64;
+
+    @Param({"1000", "1000000"})
+    private int outstandingHolds;
+
+    private final AtomicLong nanoClock = new AtomicLong();
+    private SeatHoldService seatHoldService;
+    private ScheduledThreadPoolExecutor scheduler;
+    private Duration timeToLive;
+    private long operations;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        SeatInventory seatInventory = new SeatInventory();
+        seatInventory.addScreening(SCREENING_ID, Integer.MAX_VALUE);
+        seatHoldService = new SeatHoldService(seatInventory, SCREENING_ID, Duration.ofNanos(TICK_NANOS), nanoClock::get);
+        scheduler = new ScheduledThreadPoolExecutor(1);
+        scheduler.setRemoveOnCancelPolicy(true);
+
+        timeToLive = Duration.ofNanos(TICK_NANOS * (outstandingHolds / HOLDS_PER_TICK));
+        for (int i = 0; i < outstandingHolds; i++) {
+            seatHoldService.hold(ACCOUNT_ID, 1, timeToLive);
+            scheduler.schedule(() -> { }, 1, TimeUnit.DAYS);
+            if (i % HOLDS_PER_TICK == 0) {
+                nanoClock.addAndGet(TICK_NANOS);
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean holdAndCancel() {
+        SeatHold seatHold = seatHoldService.hold(ACCOUNT_ID, 1, timeToLive);
+        return seatHoldService.cancel(seatHold);
+    }
+
+    @Benchmark
+    public boolean scheduledTaskAndCancel() {
+        ScheduledFuture<?> expiry = scheduler.schedule(() -> { }, timeToLive.toNanos(), TimeUnit.NANOSECONDS);
+        return expiry.cancel(false);
+    }
+
+    @Benchmark
+    public int holdAndExpire() {
+        seatHoldService.hold(ACCOUNT_ID, 1, timeToLive);
+        if (++operations % HOLDS_PER_TICK != 0) {
+            return 0;
+        }
+        nanoClock.addAndGet(TICK_NANOS);
+        return seatHoldService.expireHolds();
+    }
+}
@@ -0,0 +1,58 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import thirdparty.seatbooking.SeatInventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserves and then releases seats from 32 threads, spread across {@code screenings} screenings. With one screening
+ * every thread contends on the same capacity counter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class SeatInventoryBenchmark {
+
+    @Param({"1", "32"})
+    private int screenings;
+
+    private SeatInventory seatInventory;
+
+    @Setup
+    public void setup() {
+        seatInventory = new SeatInventory();
+        for (int screeningId = 0; screeningId < screenings; screeningId++) {
+            seatInventory.addScreening(screeningId, 1_000_000);
+        }
+    }
+
+    @Benchmark
+    public boolean reserveAndRelease() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long reservationId = seatInventory.tryReserve(random.nextInt(screenings), 123456789L, random.nextInt(1, 5));
+        return reservationId != SeatInventory.NO_RESERVATION && seatInventory.release(reservationId);
+    }
+
+    @Benchmark
+    public long reserveUntilFull() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return seatInventory.tryReserve(random.nextInt(screenings), 123456789L, random.nextInt(1, 5));
+    }
+}
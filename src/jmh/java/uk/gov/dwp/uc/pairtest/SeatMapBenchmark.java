@@ -0,0 +1,133 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import thirdparty.seatbooking.SeatAllocation;
+import thirdparty.seatbooking.SeatMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocates parties of 1-6 in a 500-seat auditorium of 20 rows of 25. {@code allocateAndRelease} seats and then
+ * releases a party from 4 threads with the auditorium held at {@code occupancyPercent} full. {@code fillUp} seats
+ * parties in a fresh auditorium until one no longer fits, and at the end of the run prints how fragmented the free
+ * seats were at 50%, 75% and 90% occupancy and how many parties had to be split, for a fill where one booking in
+ * five is cancelled along the way.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatMapBenchmark {
+
+    private static final int ROWS = 20;
+    private static final int SEATS_PER_ROW = 25;
+    private static final int LARGEST_PARTY = 6;
+
+    @State(Scope.Benchmark)
+    public static class OccupiedSeatMap {
+
+        @Param({"0", "50", "90"})
+        private int occupancyPercent;
+
+        private SeatMap seatMap;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            seatMap = new SeatMap(ROWS, SEATS_PER_ROW);
+            SplittableRandom random = new SplittableRandom(42);
+            int seatsToFill = seatMap.getCapacity() * occupancyPercent / 100;
+            while (seatMap.getCapacity() - seatMap.getFreeSeatCount() < seatsToFill) {
+                seatMap.allocate(Math.min(random.nextInt(1, LARGEST_PARTY + 1), seatsToFill - seatMap.getCapacity() + seatMap.getFreeSeatCount()));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class EmptySeatMap {
+
+        private final SplittableRandom random = new SplittableRandom(42);
+        private SeatMap seatMap;
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            seatMap = new SeatMap(ROWS, SEATS_PER_ROW);
+        }
+
+        @TearDown(Level.Trial)
+        public void report() {
+            SeatMap seatMap = new SeatMap(ROWS, SEATS_PER_ROW);
+            SplittableRandom random = new SplittableRandom(42);
+            List<SeatAllocation> held = new ArrayList<>();
+            int parties = 0;
+            int splitParties = 0;
+            int firstSplitOccupancyPercent = -1;
+            int nextReportPercent = 50;
+
+            while (true) {
+                int occupancyPercent = 100 - seatMap.getFreeSeatCount() * 100 / seatMap.getCapacity();
+                if (occupancyPercent >= nextReportPercent) {
+                    System.out.printf("%nAt %d%% occupancy: %s", occupancyPercent, seatMap.getFragmentation().toText());
+                    nextReportPercent = nextReportPercent == 50 ? 75 : nextReportPercent == 75 ? 90 : 101;
+                }
+
+                if (!held.isEmpty() && random.nextInt(5) == 0) {
+                    seatMap.release(held.remove(random.nextInt(held.size())));
+                    continue;
+                }
+
+                SeatAllocation seatAllocation = seatMap.allocate(random.nextInt(1, LARGEST_PARTY + 1));
+                if (seatAllocation == null) {
+                    break;
+                }
+                held.add(seatAllocation);
+                parties++;
+                if (!seatAllocation.isContiguous()) {
+                    splitParties++;
+                    if (firstSplitOccupancyPercent < 0) {
+                        firstSplitOccupancyPercent = occupancyPercent;
+                    }
+                }
+            }
+            System.out.printf("Seated %d parties, %d split, first split at %d%% occupancy, %d seats left unsold%n",
+                    parties, splitParties, firstSplitOccupancyPercent, seatMap.getFreeSeatCount());
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean allocateAndRelease(OccupiedSeatMap occupiedSeatMap) {
+        SeatAllocation seatAllocation = occupiedSeatMap.seatMap.allocate(ThreadLocalRandom.current().nextInt(1, LARGEST_PARTY + 1));
+        if (seatAllocation == null) {
+            return false;
+        }
+        occupiedSeatMap.seatMap.release(seatAllocation);
+        return true;
+    }
+
+    @Benchmark
+    public int fillUp(EmptySeatMap emptySeatMap) {
+        int parties = 0;
+        while (emptySeatMap.seatMap.allocate(emptySeatMap.random.nextInt(1, LARGEST_PARTY + 1)) != null) {
+            parties++;
+        }
+        return parties;
+    }
+}
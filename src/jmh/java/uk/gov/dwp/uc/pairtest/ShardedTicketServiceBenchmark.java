@@ -0,0 +1,87 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.uc.pairtest.admission.TokenBucketAdmissionControl;
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.journal.PurchaseJournal;
+import uk.gov.dwp.uc.pairtest.metrics.StripedPurchaseMetrics;
+import uk.gov.dwp.uc.pairtest.shard.ConsistentHashRing;
+import uk.gov.dwp.uc.pairtest.shard.ShardedTicketService;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purchases baskets for random accounts through one shared {@link TicketServiceImpl}, whose admission control and
+ * metrics are shared by every thread, and through a {@link ShardedTicketService} with one shard per core, each with
+ * its own service. Run it through {@link BenchmarkRunner} to repeat it at 1 to 64 threads.
+ * <p>
+ * A shard makes its payment and seat reservation calls on its own thread, so a slow downstream holds up every account
+ * on the shard. {@code downstreamDelayMicros} adds that latency to each call, to show what the sharded service gives
+ * up against the shared one once the dependencies are no longer free.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShardedTicketServiceBenchmark {
+
+    private static final int NUMBER_OF_ACCOUNTS = 100_000;
+    private static final TicketBasket TICKET_BASKET = TicketBasket.of(2, 1, 1);
+
+    @Param({"shared", "sharded"})
+    private String implementation;
+
+    @Param({"0", "100"})
+    private long downstreamDelayMicros;
+
+    private TicketService ticketService;
+
+    @Setup
+    public void setup() {
+        if (implementation.equals("shared")) {
+            ticketService = createTicketService(downstreamDelayMicros);
+        } else {
+            ConsistentHashRing ring = new ConsistentHashRing(Runtime.getRuntime().availableProcessors());
+            ticketService = new ShardedTicketService(ring, shard -> createTicketService(downstreamDelayMicros));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (ticketService instanceof ShardedTicketService shardedTicketService) {
+            shardedTicketService.close();
+        }
+    }
+
+    @Benchmark
+    public TicketPurchaseSummary purchaseTickets() {
+        return ticketService.tryPurchaseTickets(ThreadLocalRandom.current().nextLong(1, NUMBER_OF_ACCOUNTS), TICKET_BASKET);
+    }
+
+    private static TicketServiceImpl createTicketService(long downstreamDelayMicros) {
+        // Limits high enough that no purchase is rate limited, so both sides do the same work.
+        return new TicketServiceImpl(
+                new TicketRequestValidator(),
+                new InMemoryTicketPaymentService(downstreamDelayMicros),
+                new InMemorySeatReservationService(downstreamDelayMicros),
+                new StripedPurchaseMetrics(),
+                PurchaseJournal.NO_OP,
+                new TokenBucketAdmissionControl(Integer.MAX_VALUE, Integer.MAX_VALUE, Duration.ofSeconds(1), 4_194_304));
+    }
+}
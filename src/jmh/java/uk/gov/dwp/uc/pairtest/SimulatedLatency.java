@@ -0,0 +1,18 @@
+package uk.gov.dwp.uc.pairtest;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Parks the calling thread for a fixed time to stand in for a remote call. A delay of zero returns straight away.
+ */
+final class SimulatedLatency {
+
+    private SimulatedLatency() {
+    }
+
+    static void pause(long delayMicros) {
+        if (delayMicros > 0) {
+            LockSupport.parkNanos(delayMicros * 1_000L);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds each purchase the way a caller would - fresh request objects, a varargs array and a boxed account id, or a
+ * basket and a primitive id - and runs it through {@code TicketServiceImpl}. Run with {@code -prof gc} to compare the
+ * bytes allocated per purchase.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TicketBasketBenchmark {
+
+    private static final long FIRST_ACCOUNT_ID = 100_000L;
+
+    private TicketServiceImpl ticketService;
+    private int[][] ticketCounts;
+    private int next;
+
+    @Setup
+    public void setup() {
+        ticketService = new TicketServiceImpl(
+                new TicketRequestValidator(),
+                new InMemoryTicketPaymentService(0),
+                new InMemorySeatReservationService(0));
+
+        TicketTypeRequest[][] validRequests = TicketRequestFixtures.validRequests();
+        ticketCounts = new int[validRequests.length][];
+        for (int i = 0; i < validRequests.length; i++) {
+            TicketBasket ticketBasket = TicketBasket.fromRequests(validRequests[i]);
+            ticketCounts[i] = new int[]{
+                    ticketBasket.getNumberOfTickets(Type.ADULT),
+                    ticketBasket.getNumberOfTickets(Type.CHILD),
+                    ticketBasket.getNumberOfTickets(Type.INFANT)};
+        }
+    }
+
+    @Benchmark
+    public void purchaseWithVarargs() {
+        int index = nextIndex();
+        int[] counts = ticketCounts[index];
+
+        List<TicketTypeRequest> ticketTypeRequests = new ArrayList<>(3);
+        ticketTypeRequests.add(new TicketTypeRequest(Type.ADULT, counts[0]));
+        if (counts[1] > 0) {
+            ticketTypeRequests.add(new TicketTypeRequest(Type.CHILD, counts[1]));
+        }
+        if (counts[2] > 0) {
+            ticketTypeRequests.add(new TicketTypeRequest(Type.INFANT, counts[2]));
+        }
+        ticketService.purchaseTickets(FIRST_ACCOUNT_ID + index, ticketTypeRequests.toArray(new TicketTypeRequest[0]));
+    }
+
+    @Benchmark
+    public void purchaseWithBasket() {
+        int index = nextIndex();
+        int[] counts = ticketCounts[index];
+        ticketService.purchaseTickets(FIRST_ACCOUNT_ID + index, TicketBasket.of(counts[0], counts[1], counts[2]));
+    }
+
+    private int nextIndex() {
+        return next++ & (TicketRequestFixtures.NUMBER_OF_FIXTURES - 1);
+    }
+}
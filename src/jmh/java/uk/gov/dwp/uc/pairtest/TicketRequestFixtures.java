@@ -0,0 +1,80 @@
+package uk.gov.dwp.uc.pairtest;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the request shapes used by the benchmarks. Seeded so every run sees the same mix.
+ */
+final class TicketRequestFixtures {
+
+    static final int NUMBER_OF_FIXTURES = 1024;
+
+    private static final long SEED = 20240501L;
+
+    private TicketRequestFixtures() {
+    }
+
+    /**
+     * Valid purchases of 1-25 tickets, with some requests repeating a ticket type across several objects.
+     */
+    static TicketTypeRequest[][] validRequests() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        TicketTypeRequest[][] fixtures = new TicketTypeRequest[NUMBER_OF_FIXTURES][];
+
+        for (int i = 0; i < NUMBER_OF_FIXTURES; i++) {
+            int totalTickets = random.nextInt(1, 26);
+            int adults = random.nextInt(1, totalTickets + 1);
+            int infants = random.nextInt(0, Math.min(adults, totalTickets - adults) + 1);
+            int children = totalTickets - adults - infants;
+
+            List<TicketTypeRequest> requests = new ArrayList<>();
+            addRequests(requests, Type.ADULT, adults, random.nextBoolean());
+            addRequests(requests, Type.CHILD, children, random.nextBoolean());
+            addRequests(requests, Type.INFANT, infants, random.nextBoolean());
+            fixtures[i] = requests.toArray(new TicketTypeRequest[0]);
+        }
+
+        return fixtures;
+    }
+
+    /**
+     * Requests that fail each of the validation rules in turn.
+     */
+    static TicketTypeRequest[][] invalidRequests() {
+        TicketTypeRequest[][] shapes = {
+                {},
+                {new TicketTypeRequest(Type.ADULT, 0)},
+                {new TicketTypeRequest(Type.ADULT, 1), null},
+                {new TicketTypeRequest(null, 1)},
+                {new TicketTypeRequest(Type.CHILD, 3)},
+                {new TicketTypeRequest(Type.ADULT, 1), new TicketTypeRequest(Type.INFANT, 2)},
+                {new TicketTypeRequest(Type.ADULT, 20), new TicketTypeRequest(Type.CHILD, 6)},
+                {new TicketTypeRequest(Type.ADULT, 13), new TicketTypeRequest(Type.ADULT, 13)}
+        };
+
+        TicketTypeRequest[][] fixtures = new TicketTypeRequest[NUMBER_OF_FIXTURES][];
+        for (int i = 0; i < NUMBER_OF_FIXTURES; i++) {
+            fixtures[i] = shapes[i % shapes.length];
+        }
+        return fixtures;
+    }
+
+    private static void addRequests(List<TicketTypeRequest> requests, Type type, int noOfTickets, boolean splitAcrossRequests) {
+        if (noOfTickets == 0) {
+            return;
+        }
+
+        if (splitAcrossRequests && noOfTickets > 1) {
+            int firstRequest = noOfTickets / 2;
+            requests.add(new TicketTypeRequest(type, firstRequest));
+            requests.add(new TicketTypeRequest(type, noOfTickets - firstRequest));
+        } else {
+            requests.add(new TicketTypeRequest(type, noOfTickets));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TicketRequestValidatorBenchmark {
+
+    private static final Long ACCOUNT_ID = 123456789L;
+
+    private TicketRequestValidator ticketRequestValidator;
+    private TicketTypeRequest[][] validRequests;
+    private TicketTypeRequest[][] invalidRequests;
+    private int next;
+
+    @Setup
+    public void setup() {
+        ticketRequestValidator = new TicketRequestValidator();
+        validRequests = TicketRequestFixtures.validRequests();
+        invalidRequests = TicketRequestFixtures.invalidRequests();
+    }
+
+    @Benchmark
+    public boolean validateValidRequest() {
+        return ticketRequestValidator.isTicketRequestValid(ACCOUNT_ID, validRequests[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean validateInvalidRequest() {
+        return ticketRequestValidator.isTicketRequestValid(ACCOUNT_ID, invalidRequests[nextIndex()]);
+    }
+
+    private int nextIndex() {
+        return next++ & (TicketRequestFixtures.NUMBER_OF_FIXTURES - 1);
+    }
+}
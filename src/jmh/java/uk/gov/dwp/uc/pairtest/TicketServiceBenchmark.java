@@ -0,0 +1,79 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketServiceBenchmark {
+
+    private static final Long ACCOUNT_ID = 123456789L;
+
+    @Param({"0"})
+    private long downstreamDelayMicros;
+
+    private TicketRequestValidator ticketRequestValidator;
+    private TicketServiceImpl ticketService;
+    private TicketTypeRequest[][] validRequests;
+    private TicketTypeRequest[][] invalidRequests;
+
+    @Setup
+    public void setup() {
+        ticketRequestValidator = new TicketRequestValidator();
+        ticketService = new TicketServiceImpl(
+                ticketRequestValidator,
+                new InMemoryTicketPaymentService(downstreamDelayMicros),
+                new InMemorySeatReservationService(downstreamDelayMicros));
+        validRequests = TicketRequestFixtures.validRequests();
+        invalidRequests = TicketRequestFixtures.invalidRequests();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int next() {
+            return next++ & (TicketRequestFixtures.NUMBER_OF_FIXTURES - 1);
+        }
+    }
+
+    @Benchmark
+    public void purchaseValidTickets(Cursor cursor) {
+        ticketService.purchaseTickets(ACCOUNT_ID, validRequests[cursor.next()]);
+    }
+
+    @Benchmark
+    public void purchaseInvalidTickets(Cursor cursor, Blackhole blackhole) {
+        try {
+            ticketService.purchaseTickets(ACCOUNT_ID, invalidRequests[cursor.next()]);
+        } catch (InvalidPurchaseException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public int summariseAndPrice(Cursor cursor) {
+        TicketPurchaseSummary purchaseSummary = ticketRequestValidator.summarise(ACCOUNT_ID, validRequests[cursor.next()]);
+        return purchaseSummary.getTotalTicketPricePence() + purchaseSummary.getNumberOfSeatsToReserve();
+    }
+}
@@ -0,0 +1,35 @@
+package uk.gov.dwp.uc.pairtest;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How long a simulated downstream call takes. Real services have a long right tail, so the usual choice is
+ * {@link #logNormal}, which is fixed by its median and its 99th percentile.
+ */
+interface LatencyDistribution {
+
+    LatencyDistribution NONE = () -> 0;
+
+    long sampleNanos();
+
+    static LatencyDistribution constant(Duration latency) {
+        long latencyNanos = latency.toNanos();
+        return () -> latencyNanos;
+    }
+
+    static LatencyDistribution logNormal(Duration median, Duration percentile99) {
+        if (percentile99.compareTo(median) < 0) {
+            throw new IllegalArgumentException("99th percentile " + percentile99 + " is below median " + median);
+        }
+        if (median.isZero()) {
+            return NONE;
+        }
+
+        double mu = Math.log(median.toNanos());
+        // 2.3263 is the standard normal's 99th percentile.
+        double sigma = (Math.log(percentile99.toNanos()) - mu) / 2.3263;
+        return () -> (long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+    }
+
+}
@@ -0,0 +1,90 @@
+package uk.gov.dwp.uc.pairtest;
+
+import uk.gov.dwp.uc.pairtest.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The outcome of one {@link OpenModelLoadGenerator} run. Response times include any time a purchase spent waiting to
+ * start; service times do not.
+ */
+final class LoadTestReport {
+
+    private final int offeredPerSecond;
+    private final long acceptedPurchases;
+    private final long rejectedPurchases;
+    private final long failedPurchases;
+    private final long elapsedNanos;
+    private final LatencyHistogram responseTimes;
+    private final LatencyHistogram serviceTimes;
+
+    LoadTestReport(int offeredPerSecond, long acceptedPurchases, long rejectedPurchases, long failedPurchases, long elapsedNanos,
+                   LatencyHistogram responseTimes, LatencyHistogram serviceTimes) {
+        this.offeredPerSecond = offeredPerSecond;
+        this.acceptedPurchases = acceptedPurchases;
+        this.rejectedPurchases = rejectedPurchases;
+        this.failedPurchases = failedPurchases;
+        this.elapsedNanos = elapsedNanos;
+        this.responseTimes = responseTimes;
+        this.serviceTimes = serviceTimes;
+    }
+
+    double getAchievedPerSecond() {
+        return (acceptedPurchases + rejectedPurchases + failedPurchases) * 1e9 / elapsedNanos;
+    }
+
+    long getResponseTimeNanos(double percentile) {
+        return responseTimes.getValueAtPercentile(percentile);
+    }
+
+    long getMaximumResponseTimeNanos() {
+        return responseTimes.getMaximumValue();
+    }
+
+    long getFailedPurchases() {
+        return failedPurchases;
+    }
+
+    /**
+     * @return a description of each way the run missed the SLO, or an empty list if it met it
+     */
+    List<String> findSloViolations(LoadTestSettings settings) {
+        List<String> violations = new ArrayList<>();
+        checkLatency(violations, "p99", getResponseTimeNanos(99.0), settings.sloPercentile99().toNanos());
+        checkLatency(violations, "p99.9", getResponseTimeNanos(99.9), settings.sloPercentile999().toNanos());
+        checkLatency(violations, "max", getMaximumResponseTimeNanos(), settings.sloMaximum().toNanos());
+
+        double minimumPerSecond = offeredPerSecond * settings.sloMinimumThroughputRatio();
+        if (getAchievedPerSecond() < minimumPerSecond) {
+            violations.add(String.format(Locale.ROOT, "throughput %.0f/s is below %.0f/s", getAchievedPerSecond(), minimumPerSecond));
+        }
+        if (failedPurchases > 0) {
+            violations.add(failedPurchases + " purchases failed");
+        }
+        return violations;
+    }
+
+    String toText() {
+        return String.format(Locale.ROOT,
+                "offered %d/s, achieved %.0f/s (%d accepted, %d rejected, %d failed)%n"
+                        + "response time  p50 %s  p99 %s  p99.9 %s  max %s%n"
+                        + "service time   p50 %s  p99 %s  p99.9 %s  max %s%n",
+                offeredPerSecond, getAchievedPerSecond(), acceptedPurchases, rejectedPurchases, failedPurchases,
+                millis(responseTimes.getValueAtPercentile(50.0)), millis(responseTimes.getValueAtPercentile(99.0)),
+                millis(responseTimes.getValueAtPercentile(99.9)), millis(responseTimes.getMaximumValue()),
+                millis(serviceTimes.getValueAtPercentile(50.0)), millis(serviceTimes.getValueAtPercentile(99.0)),
+                millis(serviceTimes.getValueAtPercentile(99.9)), millis(serviceTimes.getMaximumValue()));
+    }
+
+    private static void checkLatency(List<String> violations, String name, long actualNanos, long limitNanos) {
+        if (actualNanos > limitNanos) {
+            violations.add(name + " response time " + millis(actualNanos) + " exceeds " + millis(limitNanos));
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1e6);
+    }
+}
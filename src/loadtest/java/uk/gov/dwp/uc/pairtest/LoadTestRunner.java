@@ -0,0 +1,34 @@
+package uk.gov.dwp.uc.pairtest;
+
+import java.util.List;
+
+/**
+ * Runs the purchase pipeline under open-model load with the settings from {@code loadtest.*} system properties, prints
+ * the report and exits with status 1 if the SLO was missed.
+ * <p>
+ * Usage: {@code java -Dloadtest.arrivalsPerSecond=5000 -cp target/classes:target/test-classes uk.gov.dwp.uc.pairtest.LoadTestRunner}
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        LoadTestReport report = run(settings);
+        System.out.print(report.toText());
+
+        List<String> violations = report.findSloViolations(settings);
+        violations.forEach(violation -> System.out.println("SLO missed: " + violation));
+        if (!violations.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    static LoadTestReport run(LoadTestSettings settings) {
+        TicketServiceImpl ticketService = new TicketServiceImpl(
+                new TicketRequestValidator(),
+                new SimulatedTicketPaymentService(settings.paymentLatency()),
+                new SimulatedSeatReservationService(settings.reservationLatency()));
+
+        return new OpenModelLoadGenerator(ticketService, new RequestMix(settings.invalidPercent()))
+                .run(settings.arrivalsPerSecond(), settings.warmup(), settings.measurement());
+    }
+}
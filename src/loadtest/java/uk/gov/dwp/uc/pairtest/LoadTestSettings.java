@@ -0,0 +1,41 @@
+package uk.gov.dwp.uc.pairtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * What to run and what counts as passing, read from {@code loadtest.*} system properties so the same run can be
+ * started from Maven or the command line.
+ */
+record LoadTestSettings(
+        int arrivalsPerSecond,
+        Duration warmup,
+        Duration measurement,
+        int invalidPercent,
+        LatencyDistribution paymentLatency,
+        LatencyDistribution reservationLatency,
+        Duration sloPercentile99,
+        Duration sloPercentile999,
+        Duration sloMaximum,
+        double sloMinimumThroughputRatio,
+        Path reportFile) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.arrivalsPerSecond", 2_000),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 5)),
+                Duration.ofSeconds(Long.getLong("loadtest.measurementSeconds", 30)),
+                Integer.getInteger("loadtest.invalidPercent", 10),
+                LatencyDistribution.logNormal(millis("loadtest.payment.medianMillis", 2), millis("loadtest.payment.p99Millis", 20)),
+                LatencyDistribution.logNormal(millis("loadtest.reservation.medianMillis", 1), millis("loadtest.reservation.p99Millis", 10)),
+                millis("loadtest.slo.p99Millis", 50),
+                millis("loadtest.slo.p999Millis", 100),
+                millis("loadtest.slo.maxMillis", 1000),
+                Double.parseDouble(System.getProperty("loadtest.slo.minimumThroughputRatio", "0.99")),
+                Path.of(System.getProperty("loadtest.reportFile", "target/loadtest-report.txt")));
+    }
+
+    private static Duration millis(String property, long defaultMillis) {
+        return Duration.ofMillis(Long.getLong(property, defaultMillis));
+    }
+}
@@ -0,0 +1,84 @@
+package uk.gov.dwp.uc.pairtest;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link TicketService} with an open model: purchases arrive at a fixed rate whether or not earlier ones have
+ * finished, each on its own virtual thread, as they would from independent customers.
+ * <p>
+ * Latency is measured from when each purchase was due to start, not from when it actually started, so a stall in the
+ * service or in the generator itself is charged to every purchase that should have arrived during it. Without this
+ * coordinated-omission correction a stall shows up as one slow sample instead of many. The latency from the actual
+ * start is reported alongside as service time.
+ */
+final class OpenModelLoadGenerator {
+
+    private static final int NUMBER_OF_DISTINCT_PURCHASES = 65_536;
+
+    private final TicketService ticketService;
+    private final RequestMix.Purchase[] purchases;
+
+    OpenModelLoadGenerator(TicketService ticketService, RequestMix requestMix) {
+        this.ticketService = ticketService;
+        this.purchases = requestMix.generate(NUMBER_OF_DISTINCT_PURCHASES, 42);
+    }
+
+    /**
+     * Runs the warm-up and then the measured period, and waits for every purchase to finish. Only purchases due to
+     * start in the measured period are reported.
+     */
+    LoadTestReport run(int arrivalsPerSecond, Duration warmup, Duration measurement) {
+        long intervalNanos = 1_000_000_000L / arrivalsPerSecond;
+        long warmupArrivals = warmup.toNanos() / intervalNanos;
+        long totalArrivals = warmupArrivals + measurement.toNanos() / intervalNanos;
+
+        LatencyHistogram responseTimes = new LatencyHistogram();
+        LatencyHistogram serviceTimes = new LatencyHistogram();
+        LongAdder acceptedPurchases = new LongAdder();
+        LongAdder rejectedPurchases = new LongAdder();
+        LongAdder failedPurchases = new LongAdder();
+
+        long startNanos = System.nanoTime();
+        long measurementStartNanos = startNanos + warmupArrivals * intervalNanos;
+        try (ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long arrival = 0; arrival < totalArrivals; arrival++) {
+                long intendedStartNanos = startNanos + arrival * intervalNanos;
+                for (long waitNanos = intendedStartNanos - System.nanoTime(); waitNanos > 0; waitNanos = intendedStartNanos - System.nanoTime()) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+
+                boolean measured = arrival >= warmupArrivals;
+                RequestMix.Purchase purchase = purchases[(int) (arrival % NUMBER_OF_DISTINCT_PURCHASES)];
+                executorService.execute(() -> {
+                    long actualStartNanos = System.nanoTime();
+                    boolean failed = false;
+                    boolean valid = false;
+                    try {
+                        TicketPurchaseSummary purchaseSummary = ticketService.tryPurchaseTickets(purchase.accountId(), purchase.ticketTypeRequests());
+                        valid = purchaseSummary.isValid();
+                    } catch (RuntimeException e) {
+                        failed = true;
+                    }
+
+                    if (measured) {
+                        long endNanos = System.nanoTime();
+                        responseTimes.record(endNanos - intendedStartNanos);
+                        serviceTimes.record(endNanos - actualStartNanos);
+                        (failed ? failedPurchases : valid ? acceptedPurchases : rejectedPurchases).increment();
+                    }
+                });
+            }
+        }
+        long elapsedNanos = System.nanoTime() - measurementStartNanos;
+
+        return new LoadTestReport(arrivalsPerSecond, acceptedPurchases.sum(), rejectedPurchases.sum(), failedPurchases.sum(),
+                elapsedNanos, responseTimes, serviceTimes);
+    }
+}
@@ -0,0 +1,31 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fails the {@code loadtest} build when the purchase pipeline misses its latency SLO under the configured load.
+ */
+public class PurchasePipelineLoadTest {
+
+    @Test
+    void shouldMeetLatencySloUnderSustainedLoad() throws IOException {
+        //GIVEN
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        //WHEN
+        LoadTestReport report = LoadTestRunner.run(settings);
+        Files.createDirectories(settings.reportFile().toAbsolutePath().getParent());
+        Files.writeString(settings.reportFile(), report.toText());
+
+        //THEN
+        List<String> violations = report.findSloViolations(settings);
+        assertTrue(violations.isEmpty(), () -> "SLO missed: " + violations + "\n" + report.toText());
+    }
+
+}
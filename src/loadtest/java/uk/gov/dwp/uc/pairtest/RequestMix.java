@@ -0,0 +1,78 @@
+package uk.gov.dwp.uc.pairtest;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import java.util.SplittableRandom;
+
+/**
+ * A mix of purchases resembling real traffic: mostly one or two adults and families, a few large groups, and
+ * {@code invalidPercent} percent of requests that validation rejects for one reason or another.
+ */
+final class RequestMix {
+
+    private static final int NUMBER_OF_ACCOUNTS = 1_000_000;
+
+    private final int invalidPercent;
+
+    RequestMix(int invalidPercent) {
+        this.invalidPercent = invalidPercent;
+    }
+
+    record Purchase(Long accountId, TicketTypeRequest[] ticketTypeRequests) {
+    }
+
+    Purchase[] generate(int numberOfPurchases, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Purchase[] purchases = new Purchase[numberOfPurchases];
+        for (int i = 0; i < numberOfPurchases; i++) {
+            purchases[i] = random.nextInt(100) < invalidPercent ? invalidPurchase(random) : validPurchase(random);
+        }
+        return purchases;
+    }
+
+    private static Purchase validPurchase(SplittableRandom random) {
+        long accountId = random.nextLong(1, NUMBER_OF_ACCOUNTS);
+        int shape = random.nextInt(100);
+        if (shape < 40) {
+            return new Purchase(accountId, requests(1, 0, 0));
+        }
+        if (shape < 60) {
+            return new Purchase(accountId, requests(2, 0, 0));
+        }
+        if (shape < 80) {
+            return new Purchase(accountId, requests(2, random.nextInt(1, 4), 0));
+        }
+        if (shape < 95) {
+            return new Purchase(accountId, requests(2, random.nextInt(1, 3), 1));
+        }
+        return new Purchase(accountId, requests(random.nextInt(8, 16), random.nextInt(0, 9), random.nextInt(0, 2)));
+    }
+
+    private static Purchase invalidPurchase(SplittableRandom random) {
+        long accountId = random.nextLong(1, NUMBER_OF_ACCOUNTS);
+        return switch (random.nextInt(5)) {
+            case 0 -> new Purchase(accountId, requests(0, 2, 0));
+            case 1 -> new Purchase(accountId, requests(1, 0, 2));
+            case 2 -> new Purchase(accountId, requests(20, 10, 0));
+            case 3 -> new Purchase(accountId, new TicketTypeRequest[]{new TicketTypeRequest(Type.ADULT, -1)});
+            default -> new Purchase(-1L, requests(1, 0, 0));
+        };
+    }
+
+    private static TicketTypeRequest[] requests(int adults, int children, int infants) {
+        int numberOfRequests = (adults > 0 ? 1 : 0) + (children > 0 ? 1 : 0) + (infants > 0 ? 1 : 0);
+        TicketTypeRequest[] ticketTypeRequests = new TicketTypeRequest[numberOfRequests];
+        int next = 0;
+        if (adults > 0) {
+            ticketTypeRequests[next++] = new TicketTypeRequest(Type.ADULT, adults);
+        }
+        if (children > 0) {
+            ticketTypeRequests[next++] = new TicketTypeRequest(Type.CHILD, children);
+        }
+        if (infants > 0) {
+            ticketTypeRequests[next] = new TicketTypeRequest(Type.INFANT, infants);
+        }
+        return ticketTypeRequests;
+    }
+}
@@ -0,0 +1,20 @@
+package uk.gov.dwp.uc.pairtest;
+
+import thirdparty.seatbooking.SeatReservationService;
+
+/**
+ * Seat reservation stub that takes as long as a sample from its latency distribution.
+ */
+final class SimulatedSeatReservationService implements SeatReservationService {
+
+    private final LatencyDistribution latencyDistribution;
+
+    SimulatedSeatReservationService(LatencyDistribution latencyDistribution) {
+        this.latencyDistribution = latencyDistribution;
+    }
+
+    @Override
+    public void reserveSeat(long accountId, int totalSeatsToAllocate) {
+        SimulatedTicketPaymentService.pause(latencyDistribution.sampleNanos());
+    }
+}
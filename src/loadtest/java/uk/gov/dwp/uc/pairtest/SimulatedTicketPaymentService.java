@@ -0,0 +1,29 @@
+package uk.gov.dwp.uc.pairtest;
+
+import thirdparty.paymentgateway.TicketPaymentService;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Payment stub that takes as long as a sample from its latency distribution.
+ */
+final class SimulatedTicketPaymentService implements TicketPaymentService {
+
+    private final LatencyDistribution latencyDistribution;
+
+    SimulatedTicketPaymentService(LatencyDistribution latencyDistribution) {
+        this.latencyDistribution = latencyDistribution;
+    }
+
+    @Override
+    public void makePayment(long accountId, int totalAmountToPay) {
+        pause(latencyDistribution.sampleNanos());
+    }
+
+    static void pause(long delayNanos) {
+        long deadlineNanos = System.nanoTime() + delayNanos;
+        for (long remainingNanos = delayNanos; remainingNanos > 0; remainingNanos = deadlineNanos - System.nanoTime()) {
+            LockSupport.parkNanos(remainingNanos);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package thirdparty.seatbooking;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reserves seats for a single screening from a {@link SeatInventory}, failing with {@link SeatsUnavailableException}
+ * instead of overselling when the screening is full. Remembers the reservations made for each account, so that
+ * {@link #releaseAll(long)} can hand them back and take them off the inventory's ledger.
+ */
+public class InventorySeatReservationService implements SeatReservationService {
+
+    private static final long[] NO_RESERVATIONS = new long[0];
+
+    private final SeatInventory seatInventory;
+    private final long screeningId;
+    private final ConcurrentHashMap<Long, long[]> reservationIdsByAccount = new ConcurrentHashMap<>();
+
+    public InventorySeatReservationService(SeatInventory seatInventory, long screeningId) {
+        this.seatInventory = seatInventory;
+        this.screeningId = screeningId;
+    }
+
+    @Override
+    public void reserveSeat(long accountId, int totalSeatsToAllocate) {
+        long reservationId = seatInventory.tryReserve(screeningId, accountId, totalSeatsToAllocate);
+        if (reservationId == SeatInventory.NO_RESERVATION) {
+            throw new SeatsUnavailableException("Not enough seats left for " + totalSeatsToAllocate + " in screening " + screeningId);
+        }
+        reservationIdsByAccount.merge(accountId, new long[]{reservationId}, (existing, added) -> {
+            long[] reservationIds = Arrays.copyOf(existing, existing.length + 1);
+            reservationIds[existing.length] = added[0];
+            return reservationIds;
+        });
+    }
+
+    public long[] getReservationIds(long accountId) {
+        return reservationIdsByAccount.getOrDefault(accountId, NO_RESERVATIONS).clone();
+    }
+
+    /**
+     * Releases every reservation made for the account, returning the seats to the screening.
+     *
+     * @return the number of reservations released
+     */
+    public int releaseAll(long accountId) {
+        long[] reservationIds = reservationIdsByAccount.remove(accountId);
+        if (reservationIds == null) {
+            return 0;
+        }
+
+        int released = 0;
+        for (long reservationId : reservationIds) {
+            if (seatInventory.release(reservationId)) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+}
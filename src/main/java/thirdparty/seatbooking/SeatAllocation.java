@@ -0,0 +1,69 @@
+package thirdparty.seatbooking;
+
+/**
+ * Immutable Object
+ * <p>
+ * The seats a {@link SeatMap} allocated to one party, as one or more blocks of adjacent seats. Rows and seats are
+ * numbered from zero.
+ */
+public final class SeatAllocation {
+
+    private final int[] rows;
+    private final int[] firstSeats;
+    private final int[] numberOfSeats;
+
+    SeatAllocation(int[] rows, int[] firstSeats, int[] numberOfSeats) {
+        this.rows = rows;
+        this.firstSeats = firstSeats;
+        this.numberOfSeats = numberOfSeats;
+    }
+
+    static SeatAllocation contiguous(int row, int firstSeat, int numberOfSeats) {
+        return new SeatAllocation(new int[]{row}, new int[]{firstSeat}, new int[]{numberOfSeats});
+    }
+
+    /**
+     * @return true if the whole party sits together in one block
+     */
+    public boolean isContiguous() {
+        return rows.length == 1;
+    }
+
+    public int getNumberOfBlocks() {
+        return rows.length;
+    }
+
+    public int getRow(int block) {
+        return rows[block];
+    }
+
+    public int getFirstSeat(int block) {
+        return firstSeats[block];
+    }
+
+    public int getNumberOfSeats(int block) {
+        return numberOfSeats[block];
+    }
+
+    public int getNumberOfSeats() {
+        int totalSeats = 0;
+        for (int seats : numberOfSeats) {
+            totalSeats += seats;
+        }
+        return totalSeats;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder blocks = new StringBuilder("SeatAllocation[");
+        for (int block = 0; block < rows.length; block++) {
+            if (block > 0) {
+                blocks.append(", ");
+            }
+            blocks.append("row ").append(rows[block])
+                    .append(" seats ").append(firstSeats[block]).append('-').append(firstSeats[block] + numberOfSeats[block] - 1);
+        }
+        return blocks.append(']').toString();
+    }
+
+}
@@ -0,0 +1,118 @@
+package thirdparty.seatbooking;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the remaining capacity of each screening with a compare-and-set counter, so a reservation either takes all of
+ * its seats or none and capacity can never go below zero. Every successful reservation is recorded in a ledger under a
+ * unique id, which is what {@link #release(long)} gives back; releasing the same id twice has no effect.
+ * <p>
+ * Neither {@link #tryReserve(long, long, int)} nor {@link #release(long)} ever blocks.
+ */
+public class SeatInventory {
+
+    public static final long NO_RESERVATION = -1L;
+
+    private final ConcurrentHashMap<Long, Screening> screenings = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Reservation> ledger = new ConcurrentHashMap<>();
+    private final AtomicLong nextReservationId = new AtomicLong();
+
+    public void addScreening(long screeningId, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        if (screenings.putIfAbsent(screeningId, new Screening(capacity)) != null) {
+            throw new IllegalArgumentException("Screening " + screeningId + " already exists");
+        }
+    }
+
+    /**
+     * @return the id of the new reservation, or {@link #NO_RESERVATION} if the screening does not have enough seats left
+     */
+    public long tryReserve(long screeningId, long accountId, int numberOfSeats) {
+        if (numberOfSeats < 1) {
+            throw new IllegalArgumentException("Number of seats must be positive: " + numberOfSeats);
+        }
+
+        Screening screening = getScreening(screeningId);
+        if (!screening.tryTake(numberOfSeats)) {
+            return NO_RESERVATION;
+        }
+
+        long reservationId = nextReservationId.incrementAndGet();
+        ledger.put(reservationId, new Reservation(screening, accountId, numberOfSeats));
+        return reservationId;
+    }
+
+    /**
+     * @return true if the reservation was active and its seats have been returned to the screening
+     */
+    public boolean release(long reservationId) {
+        Reservation reservation = ledger.remove(reservationId);
+        if (reservation == null) {
+            return false;
+        }
+
+        reservation.screening.giveBack(reservation.numberOfSeats);
+        return true;
+    }
+
+    public int getCapacity(long screeningId) {
+        return getScreening(screeningId).capacity;
+    }
+
+    public int getRemainingSeats(long screeningId) {
+        return getScreening(screeningId).remainingSeats.get();
+    }
+
+    public long getAccountId(long reservationId) {
+        Reservation reservation = ledger.get(reservationId);
+        return reservation == null ? NO_RESERVATION : reservation.accountId;
+    }
+
+    public int getActiveReservationCount() {
+        return ledger.size();
+    }
+
+    private Screening getScreening(long screeningId) {
+        Screening screening = screenings.get(screeningId);
+        if (screening == null) {
+            throw new IllegalArgumentException("Unknown screening " + screeningId);
+        }
+        return screening;
+    }
+
+    private static final class Screening {
+
+        private final int capacity;
+        private final AtomicInteger remainingSeats;
+
+        private Screening(int capacity) {
+            this.capacity = capacity;
+            this.remainingSeats = new AtomicInteger(capacity);
+        }
+
+        private boolean tryTake(int numberOfSeats) {
+            while (true) {
+                int remaining = remainingSeats.get();
+                if (remaining < numberOfSeats) {
+                    return false;
+                }
+                if (remainingSeats.weakCompareAndSetVolatile(remaining, remaining - numberOfSeats)) {
+                    return true;
+                }
+                Thread.onSpinWait();
+            }
+        }
+
+        private void giveBack(int numberOfSeats) {
+            remainingSeats.addAndGet(numberOfSeats);
+        }
+    }
+
+    private record Reservation(Screening screening, long accountId, int numberOfSeats) {
+    }
+
+}
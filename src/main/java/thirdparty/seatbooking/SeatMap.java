@@ -0,0 +1,273 @@
+package thirdparty.seatbooking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The seats of one screening's auditorium, allocated so that a party sits together wherever possible.
+ * <p>
+ * Each row keeps a bitset of its free seats, one bit per seat, with the bits past the end of the row always clear. A
+ * run of free seats is found a word at a time: {@link Long#numberOfTrailingZeros} finds the next free seat, and the
+ * same on the inverted word finds where the run ends. A party is placed in the first row, taking rows from the middle
+ * outwards, that has a run long enough for it, choosing the shortest such run so that longer runs stay whole for
+ * larger parties. Only when no row can seat the party together is it split, into as few blocks as possible in rows as
+ * close together as possible.
+ * <p>
+ * Allocation and release lock the whole map. Finding a block reads a few words per row, so the lock is held briefly.
+ */
+public class SeatMap {
+
+    private final int capacity;
+    private final int[] seatsPerRow;
+    private final long[][] freeSeats;
+    private final int[] rowsByPreference;
+    private int freeSeatCount;
+
+    public SeatMap(int numberOfRows, int seatsPerRow) {
+        this(filled(numberOfRows, seatsPerRow));
+    }
+
+    public SeatMap(int[] seatsPerRow) {
+        if (seatsPerRow.length == 0) {
+            throw new IllegalArgumentException("Seat map must have at least one row");
+        }
+
+        this.seatsPerRow = seatsPerRow.clone();
+        this.freeSeats = new long[seatsPerRow.length][];
+        int totalSeats = 0;
+        for (int row = 0; row < seatsPerRow.length; row++) {
+            if (seatsPerRow[row] < 1) {
+                throw new IllegalArgumentException("Row " + row + " must have at least one seat: " + seatsPerRow[row]);
+            }
+            freeSeats[row] = new long[(seatsPerRow[row] + Long.SIZE - 1) / Long.SIZE];
+            setRange(freeSeats[row], 0, seatsPerRow[row], true);
+            totalSeats += seatsPerRow[row];
+        }
+        this.capacity = totalSeats;
+        this.freeSeatCount = totalSeats;
+        this.rowsByPreference = rowsOutwardsFrom(seatsPerRow.length / 2, seatsPerRow.length);
+    }
+
+    /**
+     * @return the seats allocated, or null if fewer than {@code numberOfSeats} seats are free
+     */
+    public synchronized SeatAllocation allocate(int numberOfSeats) {
+        if (numberOfSeats < 1) {
+            throw new IllegalArgumentException("Number of seats must be positive: " + numberOfSeats);
+        }
+        if (numberOfSeats > freeSeatCount) {
+            return null;
+        }
+
+        for (int row : rowsByPreference) {
+            int firstSeat = findShortestRun(freeSeats[row], numberOfSeats);
+            if (firstSeat >= 0) {
+                take(row, firstSeat, numberOfSeats);
+                return SeatAllocation.contiguous(row, firstSeat, numberOfSeats);
+            }
+        }
+        return allocateSplit(numberOfSeats);
+    }
+
+    /**
+     * Returns the allocation's seats to the map. Releasing seats that are already free is an error.
+     */
+    public synchronized void release(SeatAllocation seatAllocation) {
+        for (int block = 0; block < seatAllocation.getNumberOfBlocks(); block++) {
+            int row = seatAllocation.getRow(block);
+            int firstSeat = seatAllocation.getFirstSeat(block);
+            int endSeat = firstSeat + seatAllocation.getNumberOfSeats(block);
+            int firstFreeSeat = nextFree(freeSeats[row], firstSeat);
+            if (firstFreeSeat >= 0 && firstFreeSeat < endSeat) {
+                throw new IllegalStateException("Seats in " + seatAllocation + " are already free");
+            }
+        }
+
+        for (int block = 0; block < seatAllocation.getNumberOfBlocks(); block++) {
+            int firstSeat = seatAllocation.getFirstSeat(block);
+            setRange(freeSeats[seatAllocation.getRow(block)], firstSeat, firstSeat + seatAllocation.getNumberOfSeats(block), true);
+            freeSeatCount += seatAllocation.getNumberOfSeats(block);
+        }
+    }
+
+    public synchronized boolean isFree(int row, int seat) {
+        return (freeSeats[row][seat >>> 6] & 1L << seat) != 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int getFreeSeatCount() {
+        return freeSeatCount;
+    }
+
+    public synchronized SeatMapFragmentation getFragmentation() {
+        int longestRow = Arrays.stream(seatsPerRow).max().orElse(0);
+        int[] freeRunsByLength = new int[longestRow + 1];
+        for (long[] row : freeSeats) {
+            for (int runStart = nextFree(row, 0); runStart >= 0; ) {
+                int runEnd = nextTaken(row, runStart);
+                freeRunsByLength[runEnd - runStart]++;
+                runStart = nextFree(row, runEnd);
+            }
+        }
+        return new SeatMapFragmentation(capacity, freeSeatCount, freeRunsByLength);
+    }
+
+    /**
+     * Tries each row in turn as the centre of the party, spreading outwards and taking the longest runs first in each
+     * row, and keeps whichever seats the party in the fewest blocks, then across the fewest rows.
+     */
+    private SeatAllocation allocateSplit(int numberOfSeats) {
+        List<List<int[]>> runsByRow = new ArrayList<>();
+        for (long[] row : freeSeats) {
+            List<int[]> runs = new ArrayList<>();
+            for (int runStart = nextFree(row, 0); runStart >= 0; ) {
+                int runEnd = nextTaken(row, runStart);
+                runs.add(new int[]{runStart, runEnd - runStart});
+                runStart = nextFree(row, runEnd);
+            }
+            runs.sort((first, second) -> Integer.compare(second[1], first[1]));
+            runsByRow.add(runs);
+        }
+
+        List<int[]> bestBlocks = null;
+        int bestRowSpread = Integer.MAX_VALUE;
+        for (int centreRow : rowsByPreference) {
+            List<int[]> blocks = new ArrayList<>();
+            int remainingSeats = numberOfSeats;
+            int frontRow = centreRow;
+            int backRow = centreRow;
+            for (int row : rowsOutwardsFrom(centreRow, freeSeats.length)) {
+                for (int[] run : runsByRow.get(row)) {
+                    if (remainingSeats == 0) {
+                        break;
+                    }
+                    int seats = Math.min(remainingSeats, run[1]);
+                    blocks.add(new int[]{row, run[0], seats});
+                    remainingSeats -= seats;
+                    frontRow = Math.min(frontRow, row);
+                    backRow = Math.max(backRow, row);
+                }
+                if (remainingSeats == 0) {
+                    break;
+                }
+            }
+
+            int rowSpread = backRow - frontRow;
+            if (bestBlocks == null || blocks.size() < bestBlocks.size()
+                    || blocks.size() == bestBlocks.size() && rowSpread < bestRowSpread) {
+                bestBlocks = blocks;
+                bestRowSpread = rowSpread;
+            }
+        }
+
+        int[] rows = new int[bestBlocks.size()];
+        int[] firstSeats = new int[bestBlocks.size()];
+        int[] seats = new int[bestBlocks.size()];
+        for (int block = 0; block < bestBlocks.size(); block++) {
+            rows[block] = bestBlocks.get(block)[0];
+            firstSeats[block] = bestBlocks.get(block)[1];
+            seats[block] = bestBlocks.get(block)[2];
+            take(rows[block], firstSeats[block], seats[block]);
+        }
+        return new SeatAllocation(rows, firstSeats, seats);
+    }
+
+    private void take(int row, int firstSeat, int numberOfSeats) {
+        setRange(freeSeats[row], firstSeat, firstSeat + numberOfSeats, false);
+        freeSeatCount -= numberOfSeats;
+    }
+
+    /**
+     * @return the first seat of the shortest run of at least {@code numberOfSeats} free seats, or -1 if there is none
+     */
+    static int findShortestRun(long[] row, int numberOfSeats) {
+        int bestStart = -1;
+        int bestLength = Integer.MAX_VALUE;
+        for (int runStart = nextFree(row, 0); runStart >= 0; ) {
+            int runEnd = nextTaken(row, runStart);
+            int runLength = runEnd - runStart;
+            if (runLength >= numberOfSeats && runLength < bestLength) {
+                if (runLength == numberOfSeats) {
+                    return runStart;
+                }
+                bestStart = runStart;
+                bestLength = runLength;
+            }
+            runStart = nextFree(row, runEnd);
+        }
+        return bestStart;
+    }
+
+    /**
+     * @return the first free seat at or after {@code from}, or -1 if there is none
+     */
+    static int nextFree(long[] row, int from) {
+        int word = from >>> 6;
+        if (word >= row.length) {
+            return -1;
+        }
+        long bits = row[word] & -1L << from;
+        while (bits == 0) {
+            if (++word == row.length) {
+                return -1;
+            }
+            bits = row[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * @return the first taken seat at or after {@code from}, or the row's length in words times 64 if there is none,
+     * which is past the end of the row
+     */
+    static int nextTaken(long[] row, int from) {
+        int word = from >>> 6;
+        if (word >= row.length) {
+            return from;
+        }
+        long bits = ~row[word] & -1L << from;
+        while (bits == 0) {
+            if (++word == row.length) {
+                return word << 6;
+            }
+            bits = ~row[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    private static void setRange(long[] row, int from, int to, boolean free) {
+        for (int seat = from; seat < to; ) {
+            int word = seat >>> 6;
+            int wordEnd = Math.min(to, (word + 1) << 6);
+            long mask = (-1L << seat) & (-1L >>> (Long.SIZE - (wordEnd - (word << 6))));
+            row[word] = free ? row[word] | mask : row[word] & ~mask;
+            seat = wordEnd;
+        }
+    }
+
+    private static int[] rowsOutwardsFrom(int centreRow, int numberOfRows) {
+        int[] rows = new int[numberOfRows];
+        int next = 0;
+        rows[next++] = centreRow;
+        for (int distance = 1; next < numberOfRows; distance++) {
+            if (centreRow + distance < numberOfRows) {
+                rows[next++] = centreRow + distance;
+            }
+            if (centreRow - distance >= 0) {
+                rows[next++] = centreRow - distance;
+            }
+        }
+        return rows;
+    }
+
+    private static int[] filled(int numberOfRows, int seatsPerRow) {
+        int[] seats = new int[numberOfRows];
+        Arrays.fill(seats, seatsPerRow);
+        return seats;
+    }
+
+}
@@ -0,0 +1,89 @@
+package thirdparty.seatbooking;
+
+/**
+ * Immutable Object
+ * <p>
+ * A snapshot of how the free seats in a {@link SeatMap} are broken up into runs of adjacent free seats within a row.
+ */
+public final class SeatMapFragmentation {
+
+    private final int capacity;
+    private final int freeSeats;
+    private final int[] freeRunsByLength;
+
+    SeatMapFragmentation(int capacity, int freeSeats, int[] freeRunsByLength) {
+        this.capacity = capacity;
+        this.freeSeats = freeSeats;
+        this.freeRunsByLength = freeRunsByLength;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getFreeSeats() {
+        return freeSeats;
+    }
+
+    public int getNumberOfFreeRuns() {
+        int numberOfFreeRuns = 0;
+        for (int freeRuns : freeRunsByLength) {
+            numberOfFreeRuns += freeRuns;
+        }
+        return numberOfFreeRuns;
+    }
+
+    public int getNumberOfFreeRuns(int length) {
+        return length < freeRunsByLength.length ? freeRunsByLength[length] : 0;
+    }
+
+    public int getLargestFreeRun() {
+        for (int length = freeRunsByLength.length - 1; length > 0; length--) {
+            if (freeRunsByLength[length] > 0) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return how many more parties of this size could still sit together if each took its own block
+     */
+    public int getNumberOfPartiesSeatableTogether(int partySize) {
+        int numberOfParties = 0;
+        for (int length = partySize; length < freeRunsByLength.length; length++) {
+            numberOfParties += freeRunsByLength[length] * (length / partySize);
+        }
+        return numberOfParties;
+    }
+
+    /**
+     * @return the share of free seats in runs too short for a party of this size to sit together, which are the seats
+     * such a party could only be given by splitting it up
+     */
+    public int getStrandedPercent(int partySize) {
+        if (freeSeats == 0) {
+            return 0;
+        }
+        int strandedSeats = 0;
+        for (int length = 1; length < Math.min(partySize, freeRunsByLength.length); length++) {
+            strandedSeats += freeRunsByLength[length] * length;
+        }
+        return strandedSeats * 100 / freeSeats;
+    }
+
+    public String toText() {
+        StringBuilder report = new StringBuilder()
+                .append(String.format("Free seats %d of %d in %d runs, largest run %d%n",
+                        freeSeats, capacity, getNumberOfFreeRuns(), getLargestFreeRun()))
+                .append("    Length  Free runs of that length  Parties of that size seatable together  Free seats stranded for them\n");
+        for (int length = 1; length < freeRunsByLength.length; length++) {
+            if (freeRunsByLength[length] > 0 || length <= 6) {
+                report.append(String.format("%10d  %24d  %38d  %27d%%%n", length, freeRunsByLength[length],
+                        getNumberOfPartiesSeatableTogether(length), getStrandedPercent(length)));
+            }
+        }
+        return report.toString();
+    }
+
+}
@@ -0,0 +1,81 @@
+package thirdparty.seatbooking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reserves seats for a single screening from its {@link SeatMap}, so that the party in each purchase is seated
+ * together where possible, and remembers which seats each account was given so that they can be released again.
+ */
+public class SeatMapSeatReservationService implements SeatReservationService {
+
+    private final SeatMap seatMap;
+    private final long screeningId;
+    private final ConcurrentHashMap<Long, List<SeatAllocation>> allocationsByAccount = new ConcurrentHashMap<>();
+
+    public SeatMapSeatReservationService(SeatMap seatMap, long screeningId) {
+        this.seatMap = seatMap;
+        this.screeningId = screeningId;
+    }
+
+    @Override
+    public void reserveSeat(long accountId, int totalSeatsToAllocate) {
+        SeatAllocation seatAllocation = seatMap.allocate(totalSeatsToAllocate);
+        if (seatAllocation == null) {
+            throw new SeatsUnavailableException("Not enough seats left for " + totalSeatsToAllocate + " in screening " + screeningId);
+        }
+        allocationsByAccount.merge(accountId, List.of(seatAllocation), (existing, added) -> {
+            SeatAllocation[] allocations = existing.toArray(new SeatAllocation[existing.size() + 1]);
+            allocations[existing.size()] = added.get(0);
+            return List.of(allocations);
+        });
+    }
+
+    public List<SeatAllocation> getAllocations(long accountId) {
+        return allocationsByAccount.getOrDefault(accountId, List.of());
+    }
+
+    /**
+     * Releases one of the allocations returned by {@link #getAllocations(long)} for the account.
+     *
+     * @return true if the account held the allocation and its seats are free again
+     */
+    public boolean release(long accountId, SeatAllocation seatAllocation) {
+        boolean[] held = new boolean[1];
+        allocationsByAccount.computeIfPresent(accountId, (key, allocations) -> {
+            for (int i = 0; i < allocations.size(); i++) {
+                if (allocations.get(i) == seatAllocation) {
+                    held[0] = true;
+                    List<SeatAllocation> remaining = new ArrayList<>(allocations);
+                    remaining.remove(i);
+                    return remaining.isEmpty() ? null : List.copyOf(remaining);
+                }
+            }
+            return allocations;
+        });
+
+        if (held[0]) {
+            seatMap.release(seatAllocation);
+        }
+        return held[0];
+    }
+
+    /**
+     * Releases every allocation made for the account.
+     *
+     * @return the number of allocations released
+     */
+    public int releaseAll(long accountId) {
+        List<SeatAllocation> allocations = allocationsByAccount.remove(accountId);
+        if (allocations == null) {
+            return 0;
+        }
+
+        for (SeatAllocation seatAllocation : allocations) {
+            seatMap.release(seatAllocation);
+        }
+        return allocations.size();
+    }
+
+}
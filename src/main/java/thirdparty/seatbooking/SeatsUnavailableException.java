@@ -0,0 +1,9 @@
+package thirdparty.seatbooking;
+
+public class SeatsUnavailableException extends RuntimeException {
+
+    public SeatsUnavailableException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,17 @@
+package uk.gov.dwp.uc.pairtest;
+
+import uk.gov.dwp.uc.pairtest.domain.PurchaseResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncTicketService {
+
+    /**
+     * Invalid requests are rejected by throwing before this method returns. Failures in the payment or seat reservation
+     * services complete the returned future exceptionally.
+     */
+    CompletableFuture<PurchaseResult> purchaseTickets(Long accountId, TicketTypeRequest... ticketTypeRequests) throws InvalidPurchaseException;
+
+}
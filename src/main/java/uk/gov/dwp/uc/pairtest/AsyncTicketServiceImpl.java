@@ -0,0 +1,150 @@
+package uk.gov.dwp.uc.pairtest;
+
+import thirdparty.paymentgateway.TicketPaymentService;
+import thirdparty.seatbooking.SeatReservationService;
+import uk.gov.dwp.uc.pairtest.domain.PurchaseResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+import uk.gov.dwp.uc.pairtest.journal.PurchaseJournal;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static uk.gov.dwp.uc.pairtest.config.Config.DOWNSTREAM_TIMEOUT_MILLIS;
+import static uk.gov.dwp.uc.pairtest.config.Config.MAXIMUM_CONCURRENT_PURCHASES;
+import static uk.gov.dwp.uc.pairtest.config.Config.MAXIMUM_QUEUED_PURCHASES;
+
+/**
+ * Runs the payment and seat reservation calls for each purchase on its own task, by default one virtual thread per
+ * task. At most {@code maximumConcurrentPurchases} purchases talk to the downstream services at once and at most
+ * {@code maximumQueuedPurchases} more wait for a slot; beyond that the returned future fails with a
+ * {@link RejectedExecutionException}.
+ * <p>
+ * Each downstream call is itself submitted to the executor so that it can be abandoned after the timeout, so the
+ * executor must not be a small fixed-size pool.
+ * <p>
+ * A call that times out is cancelled, but it may already have reached the downstream service. A purchase that fails
+ * with a {@link TimeoutException} therefore has an unknown outcome: the customer may have been charged, and seats may
+ * have been reserved. Each stage is written to the {@link PurchaseJournal} as it completes, so such a purchase is left
+ * without its paid or reserved record and recovery reports it for checking with the downstream services.
+ */
+public class AsyncTicketServiceImpl implements AsyncTicketService, AutoCloseable {
+
+    private final TicketRequestValidator ticketRequestValidator;
+    private final TicketPaymentService ticketPaymentService;
+    private final SeatReservationService seatReservationService;
+    private final PurchaseJournal purchaseJournal;
+    private final ExecutorService executorService;
+    private final Semaphore concurrentPurchases;
+    private final int maximumAdmittedPurchases;
+    private final AtomicInteger admittedPurchases = new AtomicInteger();
+    private final long downstreamTimeoutNanos;
+
+    AsyncTicketServiceImpl(TicketRequestValidator ticketRequestValidator, TicketPaymentService ticketPaymentService, SeatReservationService seatReservationService) {
+        this(ticketRequestValidator, ticketPaymentService, seatReservationService, Executors.newVirtualThreadPerTaskExecutor(),
+                MAXIMUM_CONCURRENT_PURCHASES, MAXIMUM_QUEUED_PURCHASES, Duration.ofMillis(DOWNSTREAM_TIMEOUT_MILLIS));
+    }
+
+    AsyncTicketServiceImpl(TicketRequestValidator ticketRequestValidator, TicketPaymentService ticketPaymentService, SeatReservationService seatReservationService,
+                           ExecutorService executorService, int maximumConcurrentPurchases, int maximumQueuedPurchases, Duration downstreamTimeout) {
+        this(ticketRequestValidator, ticketPaymentService, seatReservationService, PurchaseJournal.NO_OP, executorService,
+                maximumConcurrentPurchases, maximumQueuedPurchases, downstreamTimeout);
+    }
+
+    AsyncTicketServiceImpl(TicketRequestValidator ticketRequestValidator, TicketPaymentService ticketPaymentService, SeatReservationService seatReservationService,
+                           PurchaseJournal purchaseJournal, ExecutorService executorService, int maximumConcurrentPurchases,
+                           int maximumQueuedPurchases, Duration downstreamTimeout) {
+        this.ticketRequestValidator = ticketRequestValidator;
+        this.ticketPaymentService = ticketPaymentService;
+        this.seatReservationService = seatReservationService;
+        this.purchaseJournal = purchaseJournal;
+        this.executorService = executorService;
+        this.concurrentPurchases = new Semaphore(maximumConcurrentPurchases);
+        this.maximumAdmittedPurchases = maximumConcurrentPurchases + maximumQueuedPurchases;
+        this.downstreamTimeoutNanos = downstreamTimeout.toNanos();
+    }
+
+    @Override
+    public CompletableFuture<PurchaseResult> purchaseTickets(Long accountId, TicketTypeRequest... ticketTypeRequests) throws InvalidPurchaseException {
+        TicketPurchaseSummary purchaseSummary = ticketRequestValidator.summarise(accountId, ticketTypeRequests);
+        if (!purchaseSummary.isValid()) {
+            throw InvalidPurchaseException.of(purchaseSummary.getRejectionReason());
+        }
+
+        if (admittedPurchases.incrementAndGet() > maximumAdmittedPurchases) {
+            admittedPurchases.decrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Purchase queue is full"));
+        }
+
+        CompletableFuture<PurchaseResult> purchaseResult = new CompletableFuture<>();
+        try {
+            executorService.execute(() -> completePurchase(accountId, purchaseSummary, purchaseResult));
+        } catch (RejectedExecutionException e) {
+            admittedPurchases.decrementAndGet();
+            purchaseResult.completeExceptionally(e);
+        }
+        return purchaseResult;
+    }
+
+    @Override
+    public void close() {
+        executorService.close();
+    }
+
+    private void completePurchase(long accountId, TicketPurchaseSummary purchaseSummary, CompletableFuture<PurchaseResult> purchaseResult) {
+        try {
+            concurrentPurchases.acquire();
+            try {
+                long purchaseId = purchaseJournal.recordIntent(accountId, purchaseSummary);
+                callWithTimeout(() -> ticketPaymentService.makePayment(accountId, purchaseSummary.getTotalTicketPricePence()));
+                recordStage(() -> purchaseJournal.recordPaid(purchaseId, accountId, purchaseSummary));
+                callWithTimeout(() -> seatReservationService.reserveSeat(accountId, purchaseSummary.getNumberOfSeatsToReserve()));
+                recordStage(() -> purchaseJournal.recordReserved(purchaseId, accountId, purchaseSummary));
+            } finally {
+                concurrentPurchases.release();
+            }
+            purchaseResult.complete(new PurchaseResult(accountId, purchaseSummary.getTotalTicketPricePence(), purchaseSummary.getNumberOfSeatsToReserve()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            purchaseResult.completeExceptionally(e);
+        } catch (ExecutionException e) {
+            purchaseResult.completeExceptionally(e.getCause());
+        } catch (Throwable t) {
+            purchaseResult.completeExceptionally(t);
+        } finally {
+            admittedPurchases.decrementAndGet();
+        }
+    }
+
+    /**
+     * Once the customer has been charged, a journal that can no longer be written must not stop their seats being
+     * reserved, so a failed write is ignored.
+     */
+    private static void recordStage(Runnable journalWrite) {
+        try {
+            journalWrite.run();
+        } catch (RuntimeException e) {
+            // Recovery still finds the purchase from its intent record.
+        }
+    }
+
+    private void callWithTimeout(Runnable downstreamCall) throws InterruptedException, ExecutionException, TimeoutException {
+        Future<?> downstreamResult = executorService.submit(downstreamCall);
+        try {
+            downstreamResult.get(downstreamTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            downstreamResult.cancel(true);
+            throw e;
+        }
+    }
+}
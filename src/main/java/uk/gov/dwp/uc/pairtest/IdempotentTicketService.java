@@ -0,0 +1,17 @@
+package uk.gov.dwp.uc.pairtest;
+
+import uk.gov.dwp.uc.pairtest.domain.PurchaseResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+import uk.gov.dwp.uc.pairtest.exception.PurchaseFailedException;
+
+public interface IdempotentTicketService {
+
+    /**
+     * Calling this again with the same {@code idempotencyKey} returns the result of the first successful call without
+     * charging the customer again.
+     */
+    PurchaseResult purchaseTickets(String idempotencyKey, Long accountId, TicketTypeRequest... ticketTypeRequests)
+            throws InvalidPurchaseException, PurchaseFailedException;
+
+}
@@ -0,0 +1,124 @@
+package uk.gov.dwp.uc.pairtest;
+
+import thirdparty.paymentgateway.RefundableTicketPaymentService;
+import thirdparty.seatbooking.SeatReservationService;
+import uk.gov.dwp.uc.pairtest.domain.PurchaseResult;
+import uk.gov.dwp.uc.pairtest.domain.RejectionReason;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+import uk.gov.dwp.uc.pairtest.exception.PurchaseFailedException;
+import uk.gov.dwp.uc.pairtest.idempotency.IdempotencyCache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static uk.gov.dwp.uc.pairtest.config.Config.IDEMPOTENCY_CACHE_MAXIMUM_SIZE;
+import static uk.gov.dwp.uc.pairtest.config.Config.IDEMPOTENCY_KEY_TIME_TO_LIVE_MINUTES;
+
+/**
+ * Runs a purchase as a saga: take payment, then reserve seats, and refund the payment if the reservation fails.
+ * <p>
+ * The first call for an idempotency key stores a pending result in an {@link IdempotencyCache}; duplicates that arrive
+ * while it runs wait for it, and duplicates that arrive afterwards get the stored result. The key is forgotten if the
+ * purchase fails without leaving the customer charged, so the client can safely retry. If the refund itself fails the
+ * failure stays cached, so retries cannot charge the customer a second time. A purchase still in flight is never
+ * evicted from the cache, however full it is or however long the purchase takes.
+ */
+public class IdempotentTicketServiceImpl implements IdempotentTicketService {
+
+    private final TicketRequestValidator ticketRequestValidator;
+    private final RefundableTicketPaymentService ticketPaymentService;
+    private final SeatReservationService seatReservationService;
+    private final IdempotencyCache<CompletableFuture<PurchaseResult>> completedPurchases;
+
+    IdempotentTicketServiceImpl(TicketRequestValidator ticketRequestValidator, RefundableTicketPaymentService ticketPaymentService, SeatReservationService seatReservationService) {
+        this(ticketRequestValidator, ticketPaymentService, seatReservationService,
+                new IdempotencyCache<>(IDEMPOTENCY_CACHE_MAXIMUM_SIZE, Duration.ofMinutes(IDEMPOTENCY_KEY_TIME_TO_LIVE_MINUTES),
+                        CompletableFuture::isDone));
+    }
+
+    IdempotentTicketServiceImpl(TicketRequestValidator ticketRequestValidator, RefundableTicketPaymentService ticketPaymentService, SeatReservationService seatReservationService,
+                                IdempotencyCache<CompletableFuture<PurchaseResult>> completedPurchases) {
+        this.ticketRequestValidator = ticketRequestValidator;
+        this.ticketPaymentService = ticketPaymentService;
+        this.seatReservationService = seatReservationService;
+        this.completedPurchases = completedPurchases;
+    }
+
+    @Override
+    public PurchaseResult purchaseTickets(String idempotencyKey, Long accountId, TicketTypeRequest... ticketTypeRequests)
+            throws InvalidPurchaseException, PurchaseFailedException {
+        if (idempotencyKey == null) {
+            throw InvalidPurchaseException.of(RejectionReason.MISSING_IDEMPOTENCY_KEY);
+        }
+
+        CompletableFuture<PurchaseResult> existingPurchase = completedPurchases.get(idempotencyKey);
+        if (existingPurchase != null) {
+            return awaitResult(existingPurchase);
+        }
+
+        TicketPurchaseSummary purchaseSummary = ticketRequestValidator.summarise(accountId, ticketTypeRequests);
+        if (!purchaseSummary.isValid()) {
+            throw InvalidPurchaseException.of(purchaseSummary.getRejectionReason());
+        }
+
+        CompletableFuture<PurchaseResult> purchase = new CompletableFuture<>();
+        existingPurchase = completedPurchases.putIfAbsent(idempotencyKey, purchase);
+        if (existingPurchase != null) {
+            return awaitResult(existingPurchase);
+        }
+
+        try {
+            PurchaseResult purchaseResult = runSaga(accountId, purchaseSummary);
+            purchase.complete(purchaseResult);
+            return purchaseResult;
+        } catch (PurchaseFailedException e) {
+            if (e.isRefunded()) {
+                completedPurchases.remove(idempotencyKey, purchase);
+            }
+            purchase.completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException e) {
+            completedPurchases.remove(idempotencyKey, purchase);
+            purchase.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private PurchaseResult runSaga(long accountId, TicketPurchaseSummary purchaseSummary) {
+        int totalTicketPricePence = purchaseSummary.getTotalTicketPricePence();
+        ticketPaymentService.makePayment(accountId, totalTicketPricePence);
+
+        try {
+            seatReservationService.reserveSeat(accountId, purchaseSummary.getNumberOfSeatsToReserve());
+        } catch (RuntimeException reservationFailure) {
+            throw compensate(accountId, totalTicketPricePence, reservationFailure);
+        }
+
+        return new PurchaseResult(accountId, totalTicketPricePence, purchaseSummary.getNumberOfSeatsToReserve());
+    }
+
+    private PurchaseFailedException compensate(long accountId, int totalTicketPricePence, RuntimeException reservationFailure) {
+        try {
+            ticketPaymentService.refundPayment(accountId, totalTicketPricePence);
+        } catch (RuntimeException refundFailure) {
+            reservationFailure.addSuppressed(refundFailure);
+            return new PurchaseFailedException("Seat reservation failed and the payment could not be refunded", reservationFailure, false);
+        }
+        return new PurchaseFailedException("Seat reservation failed and the payment has been refunded", reservationFailure, true);
+    }
+
+    private static PurchaseResult awaitResult(CompletableFuture<PurchaseResult> purchase) {
+        try {
+            return purchase.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+}
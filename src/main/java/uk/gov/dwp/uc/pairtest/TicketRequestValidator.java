@@ -1,39 +1,196 @@
 package uk.gov.dwp.uc.pairtest;
 
+import uk.gov.dwp.uc.pairtest.domain.RejectionReason;
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatch;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatchResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
 import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
 import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+import uk.gov.dwp.uc.pairtest.pricing.PricingTable;
+import uk.gov.dwp.uc.pairtest.pricing.PricingTableReference;
 
-import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
-import static uk.gov.dwp.uc.pairtest.config.Config.MAXIMUM_NUMBER_OF_TICKETS;
+import static uk.gov.dwp.uc.pairtest.config.Config.BULK_PURCHASE_FORK_THRESHOLD;
 
 public class TicketRequestValidator {
 
+    private static final byte INVALID_ACCOUNT_ID_CODE = TicketOrderBatchResult.rejectionCode(RejectionReason.INVALID_ACCOUNT_ID);
+    private static final byte NO_TICKETS_REQUESTED_CODE = TicketOrderBatchResult.rejectionCode(RejectionReason.NO_TICKETS_REQUESTED);
+    private static final byte MALFORMED_TICKET_REQUEST_CODE = TicketOrderBatchResult.rejectionCode(RejectionReason.MALFORMED_TICKET_REQUEST);
+    private static final byte NO_ADULT_TICKET_CODE = TicketOrderBatchResult.rejectionCode(RejectionReason.NO_ADULT_TICKET);
+    private static final byte MORE_INFANTS_THAN_ADULTS_CODE = TicketOrderBatchResult.rejectionCode(RejectionReason.MORE_INFANTS_THAN_ADULTS);
+    private static final byte TOO_MANY_TICKETS_CODE = TicketOrderBatchResult.rejectionCode(RejectionReason.TOO_MANY_TICKETS);
+
+    private final PricingTableReference pricingTableReference;
+
+    public TicketRequestValidator() {
+        this(new PricingTableReference(PricingTable.DEFAULT));
+    }
+
+    public TicketRequestValidator(PricingTableReference pricingTableReference) {
+        this.pricingTableReference = pricingTableReference;
+    }
+
     public boolean isTicketRequestValid(Long accountId, TicketTypeRequest... ticketTypeRequests) {
+        return summarise(accountId, ticketTypeRequests).isValid();
+    }
+
+    /**
+     * Validates and prices the requests in one walk of the array, tallying the number of tickets of each type as it
+     * goes. The ticket cap and prices are read from a single {@link PricingTable} for the whole purchase. Invalid
+     * requests return the shared {@link TicketPurchaseSummary#rejected} summary for the first rule they break, checked
+     * in the order account, empty, malformed, no adult, infants exceeding adults and then the ticket cap.
+     */
+    public TicketPurchaseSummary summarise(Long accountId, TicketTypeRequest... ticketTypeRequests) {
         if (accountId == null || accountId < 0) {
-            return false;
+            return TicketPurchaseSummary.rejected(RejectionReason.INVALID_ACCOUNT_ID);
         }
 
-        if (ticketTypeRequests.length == 0
-                || anyRequestsAreBadlyFormed(ticketTypeRequests)) {
-            return false;
+        if (ticketTypeRequests.length == 0) {
+            return TicketPurchaseSummary.rejected(RejectionReason.NO_TICKETS_REQUESTED);
         }
 
-        int numberOfRequestedInfantTickets = getNumberOfRequestedTicketsForType(Type.INFANT, ticketTypeRequests);
-        int numberOfRequestedAdultTickets = getNumberOfRequestedTicketsForType(Type.ADULT, ticketTypeRequests);
+        // Tallied as longs so a purchase over the cap can still be walked to the end without overflowing, in case a
+        // later request is malformed.
+        long numberOfRequestedAdultTickets = 0;
+        long numberOfRequestedChildTickets = 0;
+        long numberOfRequestedInfantTickets = 0;
+
+        for (TicketTypeRequest ticketTypeRequest : ticketTypeRequests) {
+            if (isSingleRequestBadlyFormed(ticketTypeRequest)) {
+                return TicketPurchaseSummary.rejected(RejectionReason.MALFORMED_TICKET_REQUEST);
+            }
 
-        if (numberOfRequestedAdultTickets == 0
-                || numberOfRequestedInfantTickets > numberOfRequestedAdultTickets) {
-            return false;
+            int noOfTickets = ticketTypeRequest.getNoOfTickets();
+            switch (ticketTypeRequest.getTicketType()) {
+                case ADULT -> numberOfRequestedAdultTickets += noOfTickets;
+                case CHILD -> numberOfRequestedChildTickets += noOfTickets;
+                case INFANT -> numberOfRequestedInfantTickets += noOfTickets;
+            }
         }
 
-        int numberOfRequestedTickets = getTotalNumberOfRequestedTickets(ticketTypeRequests);
-        return numberOfRequestedTickets <= MAXIMUM_NUMBER_OF_TICKETS;
+        return summariseCounts(numberOfRequestedAdultTickets, numberOfRequestedChildTickets, numberOfRequestedInfantTickets);
     }
 
-    private boolean anyRequestsAreBadlyFormed(TicketTypeRequest... ticketTypeRequests) {
-        return Arrays.stream(ticketTypeRequests)
-                .anyMatch(TicketRequestValidator::isSingleRequestBadlyFormed);
+    /**
+     * Validates and prices a basket with the same rules as {@link #summarise(Long, TicketTypeRequest...)}. A basket
+     * cannot be malformed, so there is nothing to walk.
+     */
+    public TicketPurchaseSummary summarise(long accountId, TicketBasket ticketBasket) {
+        if (accountId < 0) {
+            return TicketPurchaseSummary.rejected(RejectionReason.INVALID_ACCOUNT_ID);
+        }
+
+        if (ticketBasket.isEmpty()) {
+            return TicketPurchaseSummary.rejected(RejectionReason.NO_TICKETS_REQUESTED);
+        }
+
+        return summariseCounts(ticketBasket.getNumberOfTickets(Type.ADULT), ticketBasket.getNumberOfTickets(Type.CHILD),
+                ticketBasket.getNumberOfTickets(Type.INFANT));
+    }
+
+    /**
+     * Validates and prices every order in the batch against one {@link PricingTable}, applying the same rules in the
+     * same order as {@link #summarise}. A zero count means none of that type; a negative count is malformed. Batches
+     * larger than {@code BULK_PURCHASE_FORK_THRESHOLD} are split into ranges and summarised on the common fork/join pool.
+     */
+    public TicketOrderBatchResult summarise(TicketOrderBatch ticketOrders) {
+        PricingTable pricingTable = pricingTableReference.get();
+        int numberOfOrders = ticketOrders.size();
+        byte[] rejectionCodes = new byte[numberOfOrders];
+        int[] totalTicketPricePence = new int[numberOfOrders];
+        int[] numberOfSeatsToReserve = new int[numberOfOrders];
+
+        if (numberOfOrders > BULK_PURCHASE_FORK_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new SummariseRangeTask(ticketOrders, pricingTable,
+                    rejectionCodes, totalTicketPricePence, numberOfSeatsToReserve, 0, numberOfOrders));
+        } else {
+            summariseRange(ticketOrders, pricingTable, rejectionCodes, totalTicketPricePence, numberOfSeatsToReserve, 0, numberOfOrders);
+        }
+
+        return new TicketOrderBatchResult(rejectionCodes, totalTicketPricePence, numberOfSeatsToReserve);
+    }
+
+    /**
+     * Prices every order in the range in a straight-line loop the JIT can vectorise, then classifies each order and
+     * clears the price and seats of those rejected. Prices of rejected orders may overflow in the first loop, which is
+     * harmless because they are cleared in the second.
+     */
+    private static void summariseRange(TicketOrderBatch ticketOrders, PricingTable pricingTable, byte[] rejectionCodes,
+                                       int[] totalTicketPricePence, int[] numberOfSeatsToReserve, int from, int to) {
+        long[] accountIds = ticketOrders.getAccountIds();
+        int[] numberOfAdultTickets = ticketOrders.getNumberOfAdultTickets();
+        int[] numberOfChildTickets = ticketOrders.getNumberOfChildTickets();
+        int[] numberOfInfantTickets = ticketOrders.getNumberOfInfantTickets();
+        int adultTicketPricePence = pricingTable.getPricePence(Type.ADULT);
+        int childTicketPricePence = pricingTable.getPricePence(Type.CHILD);
+        int infantTicketPricePence = pricingTable.getPricePence(Type.INFANT);
+        int maximumNumberOfTickets = pricingTable.getMaximumNumberOfTickets();
+
+        for (int order = from; order < to; order++) {
+            totalTicketPricePence[order] = numberOfAdultTickets[order] * adultTicketPricePence
+                    + numberOfChildTickets[order] * childTicketPricePence
+                    + numberOfInfantTickets[order] * infantTicketPricePence;
+            numberOfSeatsToReserve[order] = numberOfAdultTickets[order] + numberOfChildTickets[order];
+        }
+
+        for (int order = from; order < to; order++) {
+            int adults = numberOfAdultTickets[order];
+            int children = numberOfChildTickets[order];
+            int infants = numberOfInfantTickets[order];
+
+            byte rejectionCode;
+            if (accountIds[order] < 0) {
+                rejectionCode = INVALID_ACCOUNT_ID_CODE;
+            } else if ((adults | children | infants) == 0) {
+                rejectionCode = NO_TICKETS_REQUESTED_CODE;
+            } else if ((adults | children | infants) < 0) {
+                rejectionCode = MALFORMED_TICKET_REQUEST_CODE;
+            } else if (adults == 0) {
+                rejectionCode = NO_ADULT_TICKET_CODE;
+            } else if (infants > adults) {
+                rejectionCode = MORE_INFANTS_THAN_ADULTS_CODE;
+            } else if ((long) adults + children + infants > maximumNumberOfTickets) {
+                rejectionCode = TOO_MANY_TICKETS_CODE;
+            } else {
+                continue;
+            }
+
+            rejectionCodes[order] = rejectionCode;
+            totalTicketPricePence[order] = 0;
+            numberOfSeatsToReserve[order] = 0;
+        }
+    }
+
+    private TicketPurchaseSummary summariseCounts(long numberOfRequestedAdultTickets, long numberOfRequestedChildTickets,
+                                                  long numberOfRequestedInfantTickets) {
+        if (numberOfRequestedAdultTickets == 0) {
+            return TicketPurchaseSummary.rejected(RejectionReason.NO_ADULT_TICKET);
+        }
+
+        if (numberOfRequestedInfantTickets > numberOfRequestedAdultTickets) {
+            return TicketPurchaseSummary.rejected(RejectionReason.MORE_INFANTS_THAN_ADULTS);
+        }
+
+        PricingTable pricingTable = pricingTableReference.get();
+        long numberOfRequestedTickets = numberOfRequestedAdultTickets + numberOfRequestedChildTickets + numberOfRequestedInfantTickets;
+        if (numberOfRequestedTickets > pricingTable.getMaximumNumberOfTickets()) {
+            return TicketPurchaseSummary.rejected(RejectionReason.TOO_MANY_TICKETS);
+        }
+
+        int numberOfAdultTickets = (int) numberOfRequestedAdultTickets;
+        int numberOfChildTickets = (int) numberOfRequestedChildTickets;
+        int numberOfInfantTickets = (int) numberOfRequestedInfantTickets;
+        int totalTicketPricePence = numberOfAdultTickets * pricingTable.getPricePence(Type.ADULT)
+                + numberOfChildTickets * pricingTable.getPricePence(Type.CHILD)
+                + numberOfInfantTickets * pricingTable.getPricePence(Type.INFANT);
+        int numberOfSeatsToReserve = numberOfAdultTickets + numberOfChildTickets;
+
+        return TicketPurchaseSummary.valid(numberOfAdultTickets, numberOfChildTickets, numberOfInfantTickets,
+                totalTicketPricePence, numberOfSeatsToReserve);
     }
 
     private static boolean isSingleRequestBadlyFormed(TicketTypeRequest ticketTypeRequest) {
@@ -42,16 +199,38 @@ public class TicketRequestValidator {
                 || ticketTypeRequest.getNoOfTickets() < 1;
     }
 
-    private int getNumberOfRequestedTicketsForType(Type ticketType, TicketTypeRequest... ticketTypeRequests) {
-        return Arrays.stream(ticketTypeRequests)
-                .filter(req -> req.getTicketType().equals(ticketType))
-                .mapToInt(TicketTypeRequest::getNoOfTickets)
-                .sum();
-    }
+    private static final class SummariseRangeTask extends RecursiveAction {
 
-    private int getTotalNumberOfRequestedTickets(TicketTypeRequest... ticketTypeRequests) {
-        return Arrays.stream(ticketTypeRequests)
-                .mapToInt(TicketTypeRequest::getNoOfTickets)
-                .sum();
+        private final TicketOrderBatch ticketOrders;
+        private final PricingTable pricingTable;
+        private final byte[] rejectionCodes;
+        private final int[] totalTicketPricePence;
+        private final int[] numberOfSeatsToReserve;
+        private final int from;
+        private final int to;
+
+        private SummariseRangeTask(TicketOrderBatch ticketOrders, PricingTable pricingTable, byte[] rejectionCodes,
+                                   int[] totalTicketPricePence, int[] numberOfSeatsToReserve, int from, int to) {
+            this.ticketOrders = ticketOrders;
+            this.pricingTable = pricingTable;
+            this.rejectionCodes = rejectionCodes;
+            this.totalTicketPricePence = totalTicketPricePence;
+            this.numberOfSeatsToReserve = numberOfSeatsToReserve;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BULK_PURCHASE_FORK_THRESHOLD) {
+                summariseRange(ticketOrders, pricingTable, rejectionCodes, totalTicketPricePence, numberOfSeatsToReserve, from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new SummariseRangeTask(ticketOrders, pricingTable, rejectionCodes, totalTicketPricePence, numberOfSeatsToReserve, from, middle),
+                    new SummariseRangeTask(ticketOrders, pricingTable, rejectionCodes, totalTicketPricePence, numberOfSeatsToReserve, middle, to));
+        }
     }
 }
@@ -1,5 +1,9 @@
 package uk.gov.dwp.uc.pairtest;
 
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatch;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatchResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
 import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
 import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
 
@@ -7,4 +11,24 @@ public interface TicketService {
 
     void purchaseTickets(Long accountId, TicketTypeRequest... ticketTypeRequests) throws InvalidPurchaseException;
 
+    /**
+     * Purchases the tickets like {@link #purchaseTickets}, but reports an invalid purchase through
+     * {@link TicketPurchaseSummary#getRejectionReason()} rather than by throwing.
+     */
+    TicketPurchaseSummary tryPurchaseTickets(Long accountId, TicketTypeRequest... ticketTypeRequests);
+
+    /**
+     * Purchases the tickets in the basket, without the boxed account id and request objects of the varargs overload.
+     * {@link TicketBasket#fromRequests} converts existing requests.
+     */
+    void purchaseTickets(long accountId, TicketBasket ticketBasket) throws InvalidPurchaseException;
+
+    TicketPurchaseSummary tryPurchaseTickets(long accountId, TicketBasket ticketBasket);
+
+    /**
+     * Purchases every order in the batch that is valid on its own. An invalid order is rejected without affecting the
+     * rest of the batch, and its reason is reported in the result, as is an order whose purchase failed part way.
+     */
+    TicketOrderBatchResult purchaseTickets(TicketOrderBatch ticketOrders);
+
 }
@@ -0,0 +1,197 @@
+package uk.gov.dwp.uc.pairtest;
+
+import thirdparty.paymentgateway.TicketPaymentService;
+import thirdparty.seatbooking.SeatReservationService;
+import uk.gov.dwp.uc.pairtest.admission.AdmissionControl;
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatch;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+import uk.gov.dwp.uc.pairtest.event.PurchaseEventPublisher;
+import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+import uk.gov.dwp.uc.pairtest.journal.PurchaseJournal;
+import uk.gov.dwp.uc.pairtest.metrics.PurchaseMetrics;
+
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.dwp.uc.pairtest.config.Config.WARM_UP_PURCHASES;
+
+/**
+ * Builds the {@link TicketServiceImpl} graph outside of tests, and warms it up before it takes real traffic.
+ * <p>
+ * Warming up runs a representative mix of purchases through a separate graph whose payment and seat reservation
+ * services do nothing. That mix covers valid and invalid varargs requests, baskets and bulk batches. The JIT compiles
+ * the purchase path before the first real customer arrives, and no real gateway is ever called.
+ * <p>
+ * Run as a program, it builds and warms up a graph against simulated dependencies. It then reports the time from JVM
+ * start to the first purchase, and to peak purchase throughput. The {@code appcds} profile uses it both to train an
+ * AppCDS archive and to compare startup with and without that archive.
+ */
+public final class TicketServiceBootstrap {
+
+    static final String WARM_UP_PURCHASES_OPTION = "--warm-up-purchases=";
+    static final String MEASURE_MILLIS_OPTION = "--measure-millis=";
+
+    private static final int NUMBER_OF_SHAPES = 1024;
+    private static final long SEED = 20240501L;
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int PEAK_PERCENT = 90;
+
+    private static volatile long checksum;
+
+    private TicketServiceBootstrap() {
+    }
+
+    public static TicketService createTicketService(TicketPaymentService ticketPaymentService, SeatReservationService seatReservationService) {
+        return new TicketServiceImpl(new TicketRequestValidator(), ticketPaymentService, seatReservationService);
+    }
+
+    public static TicketService createTicketService(TicketRequestValidator ticketRequestValidator, TicketPaymentService ticketPaymentService,
+                                                    SeatReservationService seatReservationService, PurchaseMetrics purchaseMetrics,
+                                                    PurchaseJournal purchaseJournal, AdmissionControl admissionControl,
+                                                    PurchaseEventPublisher purchaseEventPublisher) {
+        return new TicketServiceImpl(ticketRequestValidator, ticketPaymentService, seatReservationService, purchaseMetrics,
+                purchaseJournal, admissionControl, purchaseEventPublisher);
+    }
+
+    /**
+     * Runs {@code numberOfPurchases} representative purchases through a throwaway graph with simulated dependencies.
+     *
+     * @return the total charged, so the work cannot be optimised away
+     */
+    public static long warmUp(int numberOfPurchases) {
+        TicketService ticketService = createTicketService((accountId, totalAmountToPay) -> {
+        }, (accountId, totalSeatsToAllocate) -> {
+        });
+        return runPurchases(ticketService, createPurchaseMix(), 0, numberOfPurchases);
+    }
+
+    public static void main(String[] args) {
+        int warmUpPurchases = WARM_UP_PURCHASES;
+        long measureMillis = 0;
+        for (String arg : args) {
+            if (arg.startsWith(WARM_UP_PURCHASES_OPTION)) {
+                warmUpPurchases = Integer.parseInt(arg.substring(WARM_UP_PURCHASES_OPTION.length()));
+            } else if (arg.startsWith(MEASURE_MILLIS_OPTION)) {
+                measureMillis = Long.parseLong(arg.substring(MEASURE_MILLIS_OPTION.length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + arg
+                        + ", expected " + WARM_UP_PURCHASES_OPTION + "<n> or " + MEASURE_MILLIS_OPTION + "<n>");
+            }
+        }
+        if (measureMillis != 0 && TimeUnit.MILLISECONDS.toNanos(measureMillis) < WINDOW_NANOS) {
+            throw new IllegalArgumentException("Option " + MEASURE_MILLIS_OPTION + measureMillis + " is shorter than one "
+                    + TimeUnit.NANOSECONDS.toMillis(WINDOW_NANOS) + " ms window, expected 0 to skip measuring");
+        }
+
+        long jvmStartMillis = ProcessHandle.current().info().startInstant().map(Instant::toEpochMilli).orElseThrow();
+        TicketService ticketService = createTicketService((accountId, totalAmountToPay) -> {
+        }, (accountId, totalSeatsToAllocate) -> {
+        });
+        checksum = warmUp(warmUpPurchases);
+
+        Purchase[] purchaseMix = createPurchaseMix();
+        checksum += runPurchases(ticketService, purchaseMix, 0, 1);
+        long timeToFirstPurchaseMillis = System.currentTimeMillis() - jvmStartMillis;
+        System.out.printf("Warmed up with %d purchases, time to first purchase %d ms%n", warmUpPurchases, timeToFirstPurchaseMillis);
+
+        if (measureMillis > 0) {
+            checksum += measureThroughput(ticketService, purchaseMix, jvmStartMillis, measureMillis);
+        }
+    }
+
+    /**
+     * Counts purchases in consecutive windows, then reports when throughput first came within
+     * {@value #PEAK_PERCENT}% of the busiest window.
+     */
+    private static long measureThroughput(TicketService ticketService, Purchase[] purchaseMix, long jvmStartMillis, long measureMillis) {
+        long startNanos = System.nanoTime();
+        long startMillis = System.currentTimeMillis();
+        int numberOfWindows = (int) (TimeUnit.MILLISECONDS.toNanos(measureMillis) / WINDOW_NANOS);
+        long[] purchasesByWindow = new long[numberOfWindows];
+        long checksum = 0;
+
+        int next = 0;
+        for (int window = 0; window < numberOfWindows; window++) {
+            long windowEndNanos = startNanos + (window + 1) * WINDOW_NANOS;
+            while (System.nanoTime() - windowEndNanos < 0) {
+                checksum += runPurchases(ticketService, purchaseMix, next, 64);
+                next += 64;
+                purchasesByWindow[window] += 64;
+            }
+        }
+
+        long peakPurchases = 0;
+        for (long purchases : purchasesByWindow) {
+            peakPurchases = Math.max(peakPurchases, purchases);
+        }
+        int firstWindowNearPeak = 0;
+        while (purchasesByWindow[firstWindowNearPeak] * 100 < peakPurchases * PEAK_PERCENT) {
+            firstWindowNearPeak++;
+        }
+
+        long timeFromReadyToPeakMillis = TimeUnit.NANOSECONDS.toMillis((firstWindowNearPeak + 1) * WINDOW_NANOS);
+        System.out.printf("Peak throughput %d purchases/s, %d%% of peak reached %d ms after JVM start and %d ms after the first purchase%n",
+                peakPurchases * TimeUnit.SECONDS.toNanos(1) / WINDOW_NANOS, PEAK_PERCENT,
+                startMillis - jvmStartMillis + timeFromReadyToPeakMillis, timeFromReadyToPeakMillis);
+        return checksum;
+    }
+
+    private static long runPurchases(TicketService ticketService, Purchase[] purchaseMix, int first, int numberOfPurchases) {
+        long totalTicketPricePence = 0;
+        for (int i = first; i < first + numberOfPurchases; i++) {
+            totalTicketPricePence += purchaseMix[i & (NUMBER_OF_SHAPES - 1)].run(ticketService);
+        }
+        return totalTicketPricePence;
+    }
+
+    /**
+     * Mostly valid purchases of 1-25 tickets, about one in five rejected, with every purchase path represented.
+     */
+    private static Purchase[] createPurchaseMix() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Purchase[] purchaseMix = new Purchase[NUMBER_OF_SHAPES];
+        for (int i = 0; i < NUMBER_OF_SHAPES; i++) {
+            long accountId = random.nextLong(1, 1_000_000);
+            int totalTickets = random.nextInt(1, 26);
+            int adults = random.nextInt(1, totalTickets + 1);
+            int infants = random.nextInt(0, Math.min(adults, totalTickets - adults) + 1);
+            int children = totalTickets - adults - infants;
+            TicketTypeRequest[] validRequests = {new TicketTypeRequest(Type.ADULT, adults),
+                    new TicketTypeRequest(Type.CHILD, children), new TicketTypeRequest(Type.INFANT, infants)};
+            TicketTypeRequest[] invalidRequests = {new TicketTypeRequest(Type.CHILD, totalTickets)};
+            TicketBasket ticketBasket = TicketBasket.of(adults, children, infants);
+            TicketOrderBatch ticketOrders = new TicketOrderBatch(new long[]{accountId, -1}, new int[]{adults, 1},
+                    new int[]{children, 0}, new int[]{infants, 0});
+
+            purchaseMix[i] = switch (random.nextInt(10)) {
+                case 0, 1, 2, 3 -> ticketService -> ticketService.tryPurchaseTickets(accountId, validRequests).getTotalTicketPricePence();
+                case 4, 5 -> ticketService -> {
+                    ticketService.purchaseTickets(accountId, ticketBasket);
+                    return 1;
+                };
+                case 6 -> ticketService -> ticketService.purchaseTickets(ticketOrders).size();
+                case 7 -> ticketService -> ticketService.tryPurchaseTickets(accountId, ticketBasket).getTotalTicketPricePence();
+                case 8 -> ticketService -> ticketService.tryPurchaseTickets(accountId, invalidRequests).getTotalTicketPricePence();
+                default -> ticketService -> {
+                    try {
+                        ticketService.purchaseTickets(accountId, invalidRequests);
+                        return 0;
+                    } catch (InvalidPurchaseException e) {
+                        return e.getRejectionReason().ordinal();
+                    }
+                };
+            };
+        }
+        return purchaseMix;
+    }
+
+    @FunctionalInterface
+    private interface Purchase {
+
+        long run(TicketService ticketService);
+    }
+
+}
@@ -2,61 +2,197 @@ package uk.gov.dwp.uc.pairtest;
 
 import thirdparty.paymentgateway.TicketPaymentService;
 import thirdparty.seatbooking.SeatReservationService;
+import uk.gov.dwp.uc.pairtest.admission.AdmissionControl;
+import uk.gov.dwp.uc.pairtest.domain.RejectionReason;
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatch;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatchResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
 import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
-import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+import uk.gov.dwp.uc.pairtest.event.PurchaseEventPublisher;
 import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+import uk.gov.dwp.uc.pairtest.journal.PurchaseJournal;
+import uk.gov.dwp.uc.pairtest.metrics.PurchaseMetrics;
+import uk.gov.dwp.uc.pairtest.metrics.PurchaseStage;
 
-import java.util.Arrays;
-
-import static uk.gov.dwp.uc.pairtest.config.Config.ADULT_TICKET_PRICE_PENCE;
-import static uk.gov.dwp.uc.pairtest.config.Config.CHILD_TICKET_PRICE_PENCE;
+import java.util.BitSet;
 
 public class TicketServiceImpl implements TicketService {
 
     private final TicketRequestValidator ticketRequestValidator;
     private final TicketPaymentService ticketPaymentService;
     private final SeatReservationService seatReservationService;
+    private final PurchaseMetrics purchaseMetrics;
+    private final PurchaseJournal purchaseJournal;
+    private final AdmissionControl admissionControl;
+    private final PurchaseEventPublisher purchaseEventPublisher;
 
     TicketServiceImpl(TicketRequestValidator ticketRequestValidator, TicketPaymentService ticketPaymentService, SeatReservationService seatReservationService) {
+        this(ticketRequestValidator, ticketPaymentService, seatReservationService, PurchaseMetrics.NO_OP);
+    }
+
+    TicketServiceImpl(TicketRequestValidator ticketRequestValidator, TicketPaymentService ticketPaymentService, SeatReservationService seatReservationService,
+                      PurchaseMetrics purchaseMetrics) {
+        this(ticketRequestValidator, ticketPaymentService, seatReservationService, purchaseMetrics, PurchaseJournal.NO_OP);
+    }
+
+    TicketServiceImpl(TicketRequestValidator ticketRequestValidator, TicketPaymentService ticketPaymentService, SeatReservationService seatReservationService,
+                      PurchaseMetrics purchaseMetrics, PurchaseJournal purchaseJournal) {
+        this(ticketRequestValidator, ticketPaymentService, seatReservationService, purchaseMetrics, purchaseJournal, AdmissionControl.ALLOW_ALL);
+    }
+
+    TicketServiceImpl(TicketRequestValidator ticketRequestValidator, TicketPaymentService ticketPaymentService, SeatReservationService seatReservationService,
+                      PurchaseMetrics purchaseMetrics, PurchaseJournal purchaseJournal, AdmissionControl admissionControl) {
+        this(ticketRequestValidator, ticketPaymentService, seatReservationService, purchaseMetrics, purchaseJournal, admissionControl,
+                PurchaseEventPublisher.NO_OP);
+    }
+
+    TicketServiceImpl(TicketRequestValidator ticketRequestValidator, TicketPaymentService ticketPaymentService, SeatReservationService seatReservationService,
+                      PurchaseMetrics purchaseMetrics, PurchaseJournal purchaseJournal, AdmissionControl admissionControl,
+                      PurchaseEventPublisher purchaseEventPublisher) {
         this.ticketRequestValidator = ticketRequestValidator;
         this.ticketPaymentService = ticketPaymentService;
         this.seatReservationService = seatReservationService;
+        this.purchaseMetrics = purchaseMetrics;
+        this.purchaseJournal = purchaseJournal;
+        this.admissionControl = admissionControl;
+        this.purchaseEventPublisher = purchaseEventPublisher;
     }
 
     @Override
     public void purchaseTickets(Long accountId, TicketTypeRequest... ticketTypeRequests) throws InvalidPurchaseException {
-        if (!ticketRequestValidator.isTicketRequestValid(accountId, ticketTypeRequests)) {
-            throw new InvalidPurchaseException();
+        TicketPurchaseSummary purchaseSummary = tryPurchaseTickets(accountId, ticketTypeRequests);
+        if (!purchaseSummary.isValid()) {
+            throw InvalidPurchaseException.of(purchaseSummary.getRejectionReason());
+        }
+    }
+
+    @Override
+    public TicketPurchaseSummary tryPurchaseTickets(Long accountId, TicketTypeRequest... ticketTypeRequests) {
+        long lapStartNanos = purchaseMetrics.startTimer();
+
+        TicketPurchaseSummary purchaseSummary = accountId == null || admissionControl.tryAdmit(accountId, countRequestedTickets(ticketTypeRequests))
+                ? ticketRequestValidator.summarise(accountId, ticketTypeRequests)
+                : TicketPurchaseSummary.rejected(RejectionReason.RATE_LIMITED);
+        // A null account id is always rejected by validation, so the id passed on for it is never used.
+        return completePurchase(accountId == null ? -1 : accountId, purchaseSummary, lapStartNanos);
+    }
+
+    @Override
+    public void purchaseTickets(long accountId, TicketBasket ticketBasket) throws InvalidPurchaseException {
+        TicketPurchaseSummary purchaseSummary = tryPurchaseTickets(accountId, ticketBasket);
+        if (!purchaseSummary.isValid()) {
+            throw InvalidPurchaseException.of(purchaseSummary.getRejectionReason());
         }
+    }
 
-        int totalTicketPricePence = calculateTicketPrices(ticketTypeRequests);
-        ticketPaymentService.makePayment(accountId, totalTicketPricePence);
+    @Override
+    public TicketPurchaseSummary tryPurchaseTickets(long accountId, TicketBasket ticketBasket) {
+        long lapStartNanos = purchaseMetrics.startTimer();
 
-        int numberOfSeatsToReserve = calculateNumberOfSeatsToReserve(ticketTypeRequests);
-        seatReservationService.reserveSeat(accountId, numberOfSeatsToReserve);
+        TicketPurchaseSummary purchaseSummary = admissionControl.tryAdmit(accountId, ticketBasket.getNumberOfTickets())
+                ? ticketRequestValidator.summarise(accountId, ticketBasket)
+                : TicketPurchaseSummary.rejected(RejectionReason.RATE_LIMITED);
+        return completePurchase(accountId, purchaseSummary, lapStartNanos);
     }
 
-    private int calculateTicketPrices(TicketTypeRequest... ticketTypeRequests) {
-        return Arrays.stream(ticketTypeRequests)
-                .mapToInt(this::calculateTicketPricePerRequest)
-                .sum();
+    /**
+     * Validates and prices the whole batch up front, then charges and reserves seats for each accepted order in turn.
+     * An order whose payment or reservation throws is reported as {@link RejectionReason#PURCHASE_FAILED} and the rest
+     * of the batch carries on. Orders are counted in the metrics but not timed, as a per-stage lap would span the whole
+     * batch. Bulk orders come from trusted integrations and do not go through admission control.
+     */
+    @Override
+    public TicketOrderBatchResult purchaseTickets(TicketOrderBatch ticketOrders) {
+        TicketOrderBatchResult batchResult = ticketRequestValidator.summarise(ticketOrders);
+
+        long[] accountIds = ticketOrders.getAccountIds();
+        BitSet failedOrders = new BitSet();
+        for (int order = 0; order < batchResult.size(); order++) {
+            if (!batchResult.isAccepted(order)) {
+                purchaseMetrics.recordRejected();
+                continue;
+            }
+
+            TicketPurchaseSummary purchaseSummary = TicketPurchaseSummary.valid(
+                    ticketOrders.getNumberOfAdultTickets()[order],
+                    ticketOrders.getNumberOfChildTickets()[order],
+                    ticketOrders.getNumberOfInfantTickets()[order],
+                    batchResult.getTotalTicketPricePence(order),
+                    batchResult.getNumberOfSeatsToReserve(order));
+
+            long purchaseId;
+            try {
+                purchaseId = purchaseJournal.recordIntent(accountIds[order], purchaseSummary);
+                ticketPaymentService.makePayment(accountIds[order], purchaseSummary.getTotalTicketPricePence());
+                recordPaid(purchaseId, accountIds[order], purchaseSummary);
+                seatReservationService.reserveSeat(accountIds[order], purchaseSummary.getNumberOfSeatsToReserve());
+            } catch (RuntimeException e) {
+                failedOrders.set(order);
+                purchaseMetrics.recordRejected();
+                continue;
+            }
+            recordReserved(purchaseId, accountIds[order], purchaseSummary);
+            purchaseMetrics.recordPurchased(purchaseSummary);
+            purchaseEventPublisher.publish(purchaseId, accountIds[order], purchaseSummary);
+        }
+
+        return batchResult.reject(failedOrders, RejectionReason.PURCHASE_FAILED);
     }
 
-    private int calculateTicketPricePerRequest(TicketTypeRequest ticketTypeRequest) {
-        Type ticketType = ticketTypeRequest.getTicketType();
+    private TicketPurchaseSummary completePurchase(long accountId, TicketPurchaseSummary purchaseSummary, long lapStartNanos) {
+        lapStartNanos = purchaseMetrics.lap(PurchaseStage.VALIDATION, lapStartNanos);
+        if (!purchaseSummary.isValid()) {
+            purchaseMetrics.recordRejected();
+            return purchaseSummary;
+        }
 
-        return switch (ticketType) {
-            case Type.ADULT -> ticketTypeRequest.getNoOfTickets() * ADULT_TICKET_PRICE_PENCE;
-            case Type.CHILD -> ticketTypeRequest.getNoOfTickets() * CHILD_TICKET_PRICE_PENCE;
-            case Type.INFANT -> 0;
-        };
+        long purchaseId = purchaseJournal.recordIntent(accountId, purchaseSummary);
+        ticketPaymentService.makePayment(accountId, purchaseSummary.getTotalTicketPricePence());
+        recordPaid(purchaseId, accountId, purchaseSummary);
+        lapStartNanos = purchaseMetrics.lap(PurchaseStage.PAYMENT, lapStartNanos);
+
+        seatReservationService.reserveSeat(accountId, purchaseSummary.getNumberOfSeatsToReserve());
+        recordReserved(purchaseId, accountId, purchaseSummary);
+        purchaseMetrics.lap(PurchaseStage.RESERVATION, lapStartNanos);
+        purchaseMetrics.recordPurchased(purchaseSummary);
+        purchaseEventPublisher.publish(purchaseId, accountId, purchaseSummary);
+        return purchaseSummary;
+    }
+
+    /**
+     * The intent record is written before the customer is charged, so once they have been charged a journal that can
+     * no longer be written must not stop their seats being reserved. The failure is counted instead, and recovery
+     * finds the purchase from its intent record.
+     */
+    private void recordPaid(long purchaseId, long accountId, TicketPurchaseSummary purchaseSummary) {
+        try {
+            purchaseJournal.recordPaid(purchaseId, accountId, purchaseSummary);
+        } catch (RuntimeException e) {
+            purchaseMetrics.recordJournalFailure();
+        }
     }
 
-    private int calculateNumberOfSeatsToReserve(TicketTypeRequest... ticketTypeRequests) {
-        return Arrays.stream(ticketTypeRequests)
-                .filter(req -> !Type.INFANT.equals(req.getTicketType()))
-                .mapToInt(TicketTypeRequest::getNoOfTickets)
-                .sum();
+    private void recordReserved(long purchaseId, long accountId, TicketPurchaseSummary purchaseSummary) {
+        try {
+            purchaseJournal.recordReserved(purchaseId, accountId, purchaseSummary);
+        } catch (RuntimeException e) {
+            purchaseMetrics.recordJournalFailure();
+        }
+    }
+
+    /**
+     * Counts the tickets asked for ahead of validation, ignoring malformed requests, so admission control can charge
+     * the ticket bucket without trusting the request. Saturates rather than overflowing.
+     */
+    private static int countRequestedTickets(TicketTypeRequest... ticketTypeRequests) {
+        long numberOfRequestedTickets = 0;
+        for (TicketTypeRequest ticketTypeRequest : ticketTypeRequests) {
+            if (ticketTypeRequest != null && ticketTypeRequest.getNoOfTickets() > 0) {
+                numberOfRequestedTickets += ticketTypeRequest.getNoOfTickets();
+            }
+        }
+        return (int) Math.min(numberOfRequestedTickets, Integer.MAX_VALUE);
     }
 
 }
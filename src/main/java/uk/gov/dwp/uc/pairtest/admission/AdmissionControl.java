@@ -0,0 +1,13 @@
+package uk.gov.dwp.uc.pairtest.admission;
+
+/**
+ * Decides whether an account may make another purchase attempt right now, before any work is done on the request.
+ * Every attempt counts, whether or not it goes on to be valid.
+ */
+public interface AdmissionControl {
+
+    AdmissionControl ALLOW_ALL = new AllowAllAdmissionControl();
+
+    boolean tryAdmit(long accountId, int numberOfTickets);
+
+}
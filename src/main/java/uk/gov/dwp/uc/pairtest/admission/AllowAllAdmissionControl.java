@@ -0,0 +1,10 @@
+package uk.gov.dwp.uc.pairtest.admission;
+
+final class AllowAllAdmissionControl implements AdmissionControl {
+
+    @Override
+    public boolean tryAdmit(long accountId, int numberOfTickets) {
+        return true;
+    }
+
+}
@@ -0,0 +1,212 @@
+package uk.gov.dwp.uc.pairtest.admission;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import static uk.gov.dwp.uc.pairtest.config.Config.ADMISSION_MAXIMUM_TRACKED_ACCOUNTS;
+import static uk.gov.dwp.uc.pairtest.config.Config.ADMISSION_REQUESTS_PER_WINDOW;
+import static uk.gov.dwp.uc.pairtest.config.Config.ADMISSION_TICKETS_PER_WINDOW;
+import static uk.gov.dwp.uc.pairtest.config.Config.ADMISSION_WINDOW_SECONDS;
+
+/**
+ * Limits each account to a number of purchase attempts and a number of tickets per window, with two token buckets per
+ * account that refill continuously. A full bucket allows a burst of the whole window's allowance.
+ * <p>
+ * Each bucket is kept as a single theoretical arrival time (the generic cell rate algorithm): the bucket is full
+ * whenever that time is in the past, so refilling needs no arithmetic. Accounts live in open-addressing tables keyed on
+ * the primitive account id and spread over independently locked stripes. An account whose buckets have both refilled
+ * behaves exactly like one never seen, so it is dropped the next time its stripe is rebuilt. That keeps memory in
+ * proportion to the accounts active within one window rather than every account ever seen. If a stripe still reaches
+ * its share of {@code maximumTrackedAccounts}, the stripe is cleared, which briefly favours the accounts in it.
+ */
+public class TokenBucketAdmissionControl implements AdmissionControl {
+
+    private static final int DEFAULT_NUMBER_OF_STRIPES = 256;
+    private static final int MINIMUM_STRIPE_CAPACITY = 16;
+    private static final int SLOT_WIDTH = 4;
+    private static final int ACCOUNT_ID_PLUS_ONE = 0;
+    private static final int REQUEST_ARRIVAL = 1;
+    private static final int TICKET_ARRIVAL = 2;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final long requestIntervalNanos;
+    private final long ticketIntervalNanos;
+    private final long windowNanos;
+    private final int ticketsPerWindow;
+    private final int maximumAccountsPerStripe;
+    private final LongSupplier nanoClock;
+
+    public TokenBucketAdmissionControl() {
+        this(ADMISSION_REQUESTS_PER_WINDOW, ADMISSION_TICKETS_PER_WINDOW, Duration.ofSeconds(ADMISSION_WINDOW_SECONDS),
+                ADMISSION_MAXIMUM_TRACKED_ACCOUNTS);
+    }
+
+    public TokenBucketAdmissionControl(int requestsPerWindow, int ticketsPerWindow, Duration window, int maximumTrackedAccounts) {
+        this(requestsPerWindow, ticketsPerWindow, window, maximumTrackedAccounts, DEFAULT_NUMBER_OF_STRIPES, System::nanoTime);
+    }
+
+    TokenBucketAdmissionControl(int requestsPerWindow, int ticketsPerWindow, Duration window, int maximumTrackedAccounts,
+                                int numberOfStripes, LongSupplier nanoClock) {
+        if (requestsPerWindow < 1 || ticketsPerWindow < 1) {
+            throw new IllegalArgumentException("Limits must be at least one per window");
+        }
+        if (Integer.bitCount(numberOfStripes) != 1) {
+            throw new IllegalArgumentException("Number of stripes must be a power of two: " + numberOfStripes);
+        }
+
+        this.windowNanos = window.toNanos();
+        this.ticketsPerWindow = ticketsPerWindow;
+        this.requestIntervalNanos = windowNanos / requestsPerWindow;
+        this.ticketIntervalNanos = windowNanos / ticketsPerWindow;
+        this.maximumAccountsPerStripe = Math.max(1, maximumTrackedAccounts / numberOfStripes);
+        this.nanoClock = nanoClock;
+        this.stripes = new Stripe[numberOfStripes];
+        for (int i = 0; i < numberOfStripes; i++) {
+            stripes[i] = new Stripe(MINIMUM_STRIPE_CAPACITY);
+        }
+        this.stripeMask = numberOfStripes - 1;
+    }
+
+    /**
+     * Takes one request token and {@code numberOfTickets} ticket tokens if both buckets have enough, and nothing
+     * otherwise. Negative account ids are not tracked and always admitted, as validation rejects them anyway.
+     */
+    @Override
+    public boolean tryAdmit(long accountId, int numberOfTickets) {
+        if (accountId < 0) {
+            return true;
+        }
+        if (numberOfTickets > ticketsPerWindow) {
+            return false;
+        }
+
+        long now = nanoClock.getAsLong();
+        long hash = hash(accountId);
+        Stripe stripe = stripes[(int) hash & stripeMask];
+
+        synchronized (stripe) {
+            int slot = stripe.findOrInsert(accountId, hash, now, maximumAccountsPerStripe);
+            long[] table = stripe.table;
+            long requestArrivalNanos = Math.max(table[slot + REQUEST_ARRIVAL], now) + requestIntervalNanos;
+            long ticketArrivalNanos = Math.max(table[slot + TICKET_ARRIVAL], now) + numberOfTickets * ticketIntervalNanos;
+
+            if (requestArrivalNanos - now > windowNanos || ticketArrivalNanos - now > windowNanos) {
+                return false;
+            }
+
+            table[slot + REQUEST_ARRIVAL] = requestArrivalNanos;
+            table[slot + TICKET_ARRIVAL] = ticketArrivalNanos;
+            return true;
+        }
+    }
+
+    public int getTrackedAccounts() {
+        int trackedAccounts = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                trackedAccounts += stripe.size;
+            }
+        }
+        return trackedAccounts;
+    }
+
+    private static long hash(long accountId) {
+        long hash = accountId * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * An open-addressing table with linear probing. Each slot is {@code SLOT_WIDTH} longs in one array - the account id
+     * plus one, then the two arrival times - so a lookup touches a single cache line. A zero id means the slot is free.
+     * Only non-negative account ids are stored, so the stored value is never zero.
+     */
+    private static final class Stripe {
+
+        private long[] table;
+        private int size;
+
+        private Stripe(int capacity) {
+            allocate(capacity);
+        }
+
+        /**
+         * @return the index in {@code table} of the account's slot
+         */
+        private int findOrInsert(long accountId, long hash, long now, int maximumAccounts) {
+            int mask = table.length / SLOT_WIDTH - 1;
+            int slot = (int) (hash >>> 32) & mask;
+            while (table[slot * SLOT_WIDTH + ACCOUNT_ID_PLUS_ONE] != 0) {
+                if (table[slot * SLOT_WIDTH + ACCOUNT_ID_PLUS_ONE] == accountId + 1) {
+                    return slot * SLOT_WIDTH;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            if ((size + 1) * 4 > (mask + 1) * 3) {
+                rebuild(now, maximumAccounts);
+                return findOrInsert(accountId, hash, now, maximumAccounts);
+            }
+
+            table[slot * SLOT_WIDTH + ACCOUNT_ID_PLUS_ONE] = accountId + 1;
+            table[slot * SLOT_WIDTH + REQUEST_ARRIVAL] = now;
+            table[slot * SLOT_WIDTH + TICKET_ARRIVAL] = now;
+            size++;
+            return slot * SLOT_WIDTH;
+        }
+
+        /**
+         * Drops accounts whose buckets have both refilled and rehashes the rest into a table sized for them, or clears
+         * the stripe if they alone would take it past its limit.
+         */
+        private void rebuild(long now, int maximumAccounts) {
+            long[] oldTable = table;
+
+            int activeAccounts = 0;
+            for (int oldSlot = 0; oldSlot < oldTable.length; oldSlot += SLOT_WIDTH) {
+                if (isActive(oldTable, oldSlot, now)) {
+                    activeAccounts++;
+                }
+            }
+
+            if (activeAccounts >= maximumAccounts) {
+                allocate(capacityFor(1));
+                return;
+            }
+
+            allocate(capacityFor(activeAccounts + 1));
+            int mask = table.length / SLOT_WIDTH - 1;
+            for (int oldSlot = 0; oldSlot < oldTable.length; oldSlot += SLOT_WIDTH) {
+                if (!isActive(oldTable, oldSlot, now)) {
+                    continue;
+                }
+
+                int slot = (int) (hash(oldTable[oldSlot + ACCOUNT_ID_PLUS_ONE] - 1) >>> 32) & mask;
+                while (table[slot * SLOT_WIDTH + ACCOUNT_ID_PLUS_ONE] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                System.arraycopy(oldTable, oldSlot, table, slot * SLOT_WIDTH, SLOT_WIDTH);
+                size++;
+            }
+        }
+
+        private void allocate(int capacity) {
+            table = new long[capacity * SLOT_WIDTH];
+            size = 0;
+        }
+
+        private static boolean isActive(long[] table, int slot, long now) {
+            return table[slot + ACCOUNT_ID_PLUS_ONE] != 0
+                    && (table[slot + REQUEST_ARRIVAL] - now > 0 || table[slot + TICKET_ARRIVAL] - now > 0);
+        }
+
+        /**
+         * Keeps the table at most half full after a rebuild, so it can take as many new accounts again before the
+         * next one.
+         */
+        private static int capacityFor(int accounts) {
+            return Math.max(MINIMUM_STRIPE_CAPACITY, Integer.highestOneBit(accounts * 2 - 1) << 1);
+        }
+    }
+
+}
@@ -0,0 +1,8 @@
+package uk.gov.dwp.uc.pairtest.batch;
+
+@FunctionalInterface
+interface BatchDispatcher {
+
+    void dispatch(long[] accountIds, int[] values);
+
+}
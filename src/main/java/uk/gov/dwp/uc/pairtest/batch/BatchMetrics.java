@@ -0,0 +1,56 @@
+package uk.gov.dwp.uc.pairtest.batch;
+
+/**
+ * Batch size and queue wait statistics for a batcher. Only the batcher's dispatch thread records values, so the fields
+ * are single-writer volatiles that can be read from any thread.
+ */
+public class BatchMetrics {
+
+    private volatile long batchCount;
+    private volatile long entryCount;
+    private volatile int maximumBatchSize;
+    private volatile long totalQueueWaitNanos;
+    private volatile long maximumQueueWaitNanos;
+
+    void recordBatch(int batchSize) {
+        batchCount++;
+        entryCount += batchSize;
+        if (batchSize > maximumBatchSize) {
+            maximumBatchSize = batchSize;
+        }
+    }
+
+    void recordQueueWait(long queueWaitNanos) {
+        totalQueueWaitNanos += queueWaitNanos;
+        if (queueWaitNanos > maximumQueueWaitNanos) {
+            maximumQueueWaitNanos = queueWaitNanos;
+        }
+    }
+
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public int getMaximumBatchSize() {
+        return maximumBatchSize;
+    }
+
+    public double getMeanBatchSize() {
+        long batches = batchCount;
+        return batches == 0 ? 0 : (double) entryCount / batches;
+    }
+
+    public double getMeanQueueWaitMicros() {
+        long entries = entryCount;
+        return entries == 0 ? 0 : totalQueueWaitNanos / 1_000.0 / entries;
+    }
+
+    public double getMaximumQueueWaitMicros() {
+        return maximumQueueWaitNanos / 1_000.0;
+    }
+
+}
@@ -0,0 +1,7 @@
+package uk.gov.dwp.uc.pairtest.batch;
+
+public interface BatchSeatReservationService {
+
+    void reserveSeats(long[] accountIds, int[] seatCounts);
+
+}
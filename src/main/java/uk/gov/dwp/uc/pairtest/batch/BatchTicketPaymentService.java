@@ -0,0 +1,7 @@
+package uk.gov.dwp.uc.pairtest.batch;
+
+public interface BatchTicketPaymentService {
+
+    void makePayments(long[] accountIds, int[] totalAmountsToPay);
+
+}
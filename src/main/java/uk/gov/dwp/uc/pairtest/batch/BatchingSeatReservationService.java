@@ -0,0 +1,40 @@
+package uk.gov.dwp.uc.pairtest.batch;
+
+import thirdparty.seatbooking.SeatReservationService;
+
+import static uk.gov.dwp.uc.pairtest.config.Config.BATCH_QUEUE_CAPACITY;
+import static uk.gov.dwp.uc.pairtest.config.Config.MAXIMUM_BATCH_DELAY_MICROS;
+import static uk.gov.dwp.uc.pairtest.config.Config.MAXIMUM_BATCH_SIZE;
+
+/**
+ * Collects concurrent seat reservations into micro-batches for a {@link BatchSeatReservationService}. Each caller
+ * blocks until its own entry in the batch has been processed and sees only its own failure.
+ */
+public class BatchingSeatReservationService implements SeatReservationService, AutoCloseable {
+
+    private final MicroBatcher microBatcher;
+
+    public BatchingSeatReservationService(BatchSeatReservationService batchSeatReservationService) {
+        this(batchSeatReservationService, MAXIMUM_BATCH_SIZE, MAXIMUM_BATCH_DELAY_MICROS, BATCH_QUEUE_CAPACITY);
+    }
+
+    public BatchingSeatReservationService(BatchSeatReservationService batchSeatReservationService, int maximumBatchSize, long maximumBatchDelayMicros, int queueCapacity) {
+        this.microBatcher = new MicroBatcher("seat-reservation-batcher", batchSeatReservationService::reserveSeats,
+                maximumBatchSize, maximumBatchDelayMicros, queueCapacity);
+    }
+
+    @Override
+    public void reserveSeat(long accountId, int totalSeatsToAllocate) {
+        microBatcher.submitAndWait(accountId, totalSeatsToAllocate);
+    }
+
+    public BatchMetrics getBatchMetrics() {
+        return microBatcher.getBatchMetrics();
+    }
+
+    @Override
+    public void close() {
+        microBatcher.close();
+    }
+
+}
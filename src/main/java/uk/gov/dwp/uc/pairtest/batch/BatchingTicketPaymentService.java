@@ -0,0 +1,40 @@
+package uk.gov.dwp.uc.pairtest.batch;
+
+import thirdparty.paymentgateway.TicketPaymentService;
+
+import static uk.gov.dwp.uc.pairtest.config.Config.BATCH_QUEUE_CAPACITY;
+import static uk.gov.dwp.uc.pairtest.config.Config.MAXIMUM_BATCH_DELAY_MICROS;
+import static uk.gov.dwp.uc.pairtest.config.Config.MAXIMUM_BATCH_SIZE;
+
+/**
+ * Collects concurrent payments into micro-batches for a {@link BatchTicketPaymentService}. Each caller blocks until its
+ * own entry in the batch has been processed and sees only its own failure.
+ */
+public class BatchingTicketPaymentService implements TicketPaymentService, AutoCloseable {
+
+    private final MicroBatcher microBatcher;
+
+    public BatchingTicketPaymentService(BatchTicketPaymentService batchTicketPaymentService) {
+        this(batchTicketPaymentService, MAXIMUM_BATCH_SIZE, MAXIMUM_BATCH_DELAY_MICROS, BATCH_QUEUE_CAPACITY);
+    }
+
+    public BatchingTicketPaymentService(BatchTicketPaymentService batchTicketPaymentService, int maximumBatchSize, long maximumBatchDelayMicros, int queueCapacity) {
+        this.microBatcher = new MicroBatcher("payment-batcher", batchTicketPaymentService::makePayments,
+                maximumBatchSize, maximumBatchDelayMicros, queueCapacity);
+    }
+
+    @Override
+    public void makePayment(long accountId, int totalAmountToPay) {
+        microBatcher.submitAndWait(accountId, totalAmountToPay);
+    }
+
+    public BatchMetrics getBatchMetrics() {
+        return microBatcher.getBatchMetrics();
+    }
+
+    @Override
+    public void close() {
+        microBatcher.close();
+    }
+
+}
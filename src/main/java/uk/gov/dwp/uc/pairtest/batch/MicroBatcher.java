@@ -0,0 +1,213 @@
+package uk.gov.dwp.uc.pairtest.batch;
+
+import uk.gov.dwp.uc.pairtest.exception.BatchDispatchException;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Groups {@code (accountId, value)} entries submitted from many threads into batches on a single dispatch thread. A
+ * batch is sent once it holds {@code maximumBatchSize} entries or once its oldest entry has waited
+ * {@code maximumBatchDelayMicros}, whichever comes first.
+ * <p>
+ * A submitter that finds the batcher running counts itself in, checks again and counts itself out once its entry is
+ * queued. The dispatch thread does not stop until that count is zero and the queue is empty, so no entry is left
+ * uncompleted by {@link #close()}, and submitters arriving after close fail without holding it up. Closing wakes the
+ * dispatch thread with a marker entry rather than an interrupt, so a batch that is being dispatched is never
+ * interrupted. Anything a dispatch throws, errors included, fails that batch's entries and leaves the dispatch thread
+ * running.
+ */
+class MicroBatcher implements AutoCloseable {
+
+    private static final PendingEntry CLOSED_MARKER = new PendingEntry(0, 0, 0);
+
+    private final BatchDispatcher batchDispatcher;
+    private final int maximumBatchSize;
+    private final long maximumBatchDelayNanos;
+    private final BlockingQueue<PendingEntry> pendingEntries;
+    private final BatchMetrics batchMetrics = new BatchMetrics();
+    private final Thread dispatchThread;
+    private final AtomicInteger submitting = new AtomicInteger();
+    private volatile boolean running = true;
+
+    MicroBatcher(String name, BatchDispatcher batchDispatcher, int maximumBatchSize, long maximumBatchDelayMicros, int queueCapacity) {
+        this.batchDispatcher = batchDispatcher;
+        this.maximumBatchSize = maximumBatchSize;
+        this.maximumBatchDelayNanos = TimeUnit.MICROSECONDS.toNanos(maximumBatchDelayMicros);
+        this.pendingEntries = new LinkedBlockingQueue<>(queueCapacity);
+        this.dispatchThread = Thread.ofPlatform().name(name).daemon().start(this::dispatchLoop);
+    }
+
+    CompletableFuture<Void> submit(long accountId, int value) {
+        PendingEntry pendingEntry = new PendingEntry(accountId, value, System.nanoTime());
+        if (running) {
+            submitting.incrementAndGet();
+            try {
+                // Checked again now that close() waits for this submitter, as it may have stopped the batcher since.
+                if (running) {
+                    pendingEntries.put(pendingEntry);
+                    return pendingEntry.completion;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pendingEntry.completion.completeExceptionally(e);
+                return pendingEntry.completion;
+            } finally {
+                submitting.decrementAndGet();
+            }
+        }
+
+        pendingEntry.completion.completeExceptionally(new IllegalStateException("Batcher has been closed"));
+        return pendingEntry.completion;
+    }
+
+    /**
+     * Submits an entry and waits for its batch to be dispatched, rethrowing the entry's failure if it had one.
+     */
+    void submitAndWait(long accountId, int value) {
+        try {
+            submit(accountId, value).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    BatchMetrics getBatchMetrics() {
+        return batchMetrics;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        // If the queue is full the dispatch thread is not waiting for an entry, so there is nothing to wake.
+        pendingEntries.offer(CLOSED_MARKER);
+        try {
+            dispatchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatchLoop() {
+        PendingEntry[] batch = new PendingEntry[maximumBatchSize];
+
+        while (running || submitting.get() != 0 || !pendingEntries.isEmpty()) {
+            int batchSize = fillBatch(batch);
+            if (batchSize > 0) {
+                dispatch(batch, batchSize);
+            }
+        }
+
+        PendingEntry abandoned;
+        while ((abandoned = pendingEntries.poll()) != null) {
+            if (abandoned != CLOSED_MARKER) {
+                abandoned.completion.completeExceptionally(new IllegalStateException("Batcher has been closed"));
+            }
+        }
+    }
+
+    /**
+     * Blocks for the first entry, then keeps taking entries until the batch is full or the first entry's deadline has
+     * passed. Once closed it only drains what is already queued. The closed marker is skipped.
+     */
+    private int fillBatch(PendingEntry[] batch) {
+        PendingEntry first;
+        try {
+            first = running ? pendingEntries.take() : pendingEntries.poll();
+        } catch (InterruptedException e) {
+            first = pendingEntries.poll();
+        }
+        if (first == null || first == CLOSED_MARKER) {
+            return 0;
+        }
+
+        batch[0] = first;
+        int batchSize = 1;
+        long deadline = first.enqueuedNanos + maximumBatchDelayNanos;
+
+        while (batchSize < maximumBatchSize) {
+            PendingEntry next = pendingEntries.poll();
+            if (next == null) {
+                long remainingNanos = deadline - System.nanoTime();
+                if (!running || remainingNanos <= 0) {
+                    break;
+                }
+                try {
+                    next = pendingEntries.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (next == null) {
+                    break;
+                }
+            }
+            if (next == CLOSED_MARKER) {
+                continue;
+            }
+            batch[batchSize++] = next;
+        }
+        return batchSize;
+    }
+
+    private void dispatch(PendingEntry[] batch, int batchSize) {
+        long[] accountIds = new long[batchSize];
+        int[] values = new int[batchSize];
+        long dispatchNanos = System.nanoTime();
+
+        for (int i = 0; i < batchSize; i++) {
+            accountIds[i] = batch[i].accountId;
+            values[i] = batch[i].value;
+            batchMetrics.recordQueueWait(dispatchNanos - batch[i].enqueuedNanos);
+        }
+        batchMetrics.recordBatch(batchSize);
+
+        try {
+            batchDispatcher.dispatch(accountIds, values);
+            for (int i = 0; i < batchSize; i++) {
+                batch[i].completion.complete(null);
+            }
+        } catch (BatchDispatchException e) {
+            for (int i = 0; i < batchSize; i++) {
+                Throwable failure = e.getFailure(i);
+                if (failure == null) {
+                    batch[i].completion.complete(null);
+                } else {
+                    batch[i].completion.completeExceptionally(failure);
+                }
+            }
+        } catch (Throwable e) {
+            // An error here would otherwise end the dispatch thread and leave every submitter waiting forever.
+            for (int i = 0; i < batchSize; i++) {
+                batch[i].completion.completeExceptionally(e);
+            }
+        } finally {
+            for (int i = 0; i < batchSize; i++) {
+                batch[i] = null;
+            }
+        }
+    }
+
+    private static final class PendingEntry {
+
+        private final long accountId;
+        private final int value;
+        private final long enqueuedNanos;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        private PendingEntry(long accountId, int value, long enqueuedNanos) {
+            this.accountId = accountId;
+            this.value = value;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
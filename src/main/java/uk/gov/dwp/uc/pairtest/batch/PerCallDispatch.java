@@ -0,0 +1,33 @@
+package uk.gov.dwp.uc.pairtest.batch;
+
+import uk.gov.dwp.uc.pairtest.exception.BatchDispatchException;
+
+final class PerCallDispatch {
+
+    private PerCallDispatch() {
+    }
+
+    @FunctionalInterface
+    interface SingleCall {
+        void call(long accountId, int value);
+    }
+
+    static void dispatch(long[] accountIds, int[] values, SingleCall singleCall) {
+        Throwable[] failures = null;
+
+        for (int i = 0; i < accountIds.length; i++) {
+            try {
+                singleCall.call(accountIds[i], values[i]);
+            } catch (RuntimeException e) {
+                if (failures == null) {
+                    failures = new Throwable[accountIds.length];
+                }
+                failures[i] = e;
+            }
+        }
+
+        if (failures != null) {
+            throw new BatchDispatchException(failures);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package uk.gov.dwp.uc.pairtest.batch;
+
+import thirdparty.seatbooking.SeatReservationService;
+
+/**
+ * Adapts a single-call {@link SeatReservationService} to the batch interface by making one call per entry.
+ */
+public class PerCallSeatReservationService implements BatchSeatReservationService {
+
+    private final SeatReservationService seatReservationService;
+
+    public PerCallSeatReservationService(SeatReservationService seatReservationService) {
+        this.seatReservationService = seatReservationService;
+    }
+
+    @Override
+    public void reserveSeats(long[] accountIds, int[] seatCounts) {
+        PerCallDispatch.dispatch(accountIds, seatCounts, seatReservationService::reserveSeat);
+    }
+
+}
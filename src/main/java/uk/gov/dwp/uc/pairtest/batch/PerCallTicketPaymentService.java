@@ -0,0 +1,21 @@
+package uk.gov.dwp.uc.pairtest.batch;
+
+import thirdparty.paymentgateway.TicketPaymentService;
+
+/**
+ * Adapts a single-call {@link TicketPaymentService} to the batch interface by making one call per entry.
+ */
+public class PerCallTicketPaymentService implements BatchTicketPaymentService {
+
+    private final TicketPaymentService ticketPaymentService;
+
+    public PerCallTicketPaymentService(TicketPaymentService ticketPaymentService) {
+        this.ticketPaymentService = ticketPaymentService;
+    }
+
+    @Override
+    public void makePayments(long[] accountIds, int[] totalAmountsToPay) {
+        PerCallDispatch.dispatch(accountIds, totalAmountsToPay, ticketPaymentService::makePayment);
+    }
+
+}
@@ -7,4 +7,46 @@ public class Config {
     public final static int ADULT_TICKET_PRICE_PENCE = 2500;
     public final static int CHILD_TICKET_PRICE_PENCE = 1500;
 
+    public final static int MAXIMUM_CONCURRENT_PURCHASES = 256;
+    public final static int MAXIMUM_QUEUED_PURCHASES = 4096;
+    public final static long DOWNSTREAM_TIMEOUT_MILLIS = 5000;
+
+    public final static int MAXIMUM_BATCH_SIZE = 64;
+    public final static long MAXIMUM_BATCH_DELAY_MICROS = 250;
+    public final static int BATCH_QUEUE_CAPACITY = 8192;
+
+    public final static int IDEMPOTENCY_CACHE_MAXIMUM_SIZE = 1_000_000;
+    public final static long IDEMPOTENCY_KEY_TIME_TO_LIVE_MINUTES = 60;
+
+    public final static int METRICS_TIMING_SAMPLE_INTERVAL = 16;
+
+    public final static int BULK_PURCHASE_FORK_THRESHOLD = 65_536;
+
+    public final static int JOURNAL_SEGMENT_SIZE_BYTES = 64 * 1024 * 1024;
+    public final static long JOURNAL_GROUP_COMMIT_INTERVAL_MILLIS = 10;
+
+    public final static int ADMISSION_REQUESTS_PER_WINDOW = 20;
+    public final static int ADMISSION_TICKETS_PER_WINDOW = 50;
+    public final static long ADMISSION_WINDOW_SECONDS = 60;
+    public final static int ADMISSION_MAXIMUM_TRACKED_ACCOUNTS = 4_194_304;
+
+    public final static long SEAT_HOLD_TICK_MILLIS = 10;
+
+    public final static int PAYMENT_BULKHEAD_SIZE = 64;
+    public final static int SEAT_RESERVATION_BULKHEAD_SIZE = 64;
+    public final static long CIRCUIT_BREAKER_WINDOW_SECONDS = 10;
+    public final static int CIRCUIT_BREAKER_MINIMUM_CALLS = 20;
+    public final static int CIRCUIT_BREAKER_FAILURE_RATE_PERCENT = 50;
+    public final static int CIRCUIT_BREAKER_SLOW_CALL_RATE_PERCENT = 50;
+    public final static long CIRCUIT_BREAKER_SLOW_CALL_MILLIS = 1000;
+    public final static long CIRCUIT_BREAKER_OPEN_MILLIS = 5000;
+
+    public final static int SHARD_VIRTUAL_NODES = 128;
+
+    public final static int PURCHASE_EVENT_BUFFER_SIZE = 8192;
+    public final static int PURCHASE_EVENT_SAMPLE_RATE = 10;
+    public final static long PURCHASE_EVENT_IDLE_MICROS = 100;
+
+    public final static int WARM_UP_PURCHASES = 50_000;
+
 }
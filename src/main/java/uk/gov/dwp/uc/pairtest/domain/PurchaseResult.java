@@ -0,0 +1,31 @@
+package uk.gov.dwp.uc.pairtest.domain;
+
+/**
+ * Immutable Object
+ */
+
+public final class PurchaseResult {
+
+    private final long accountId;
+    private final int totalTicketPricePence;
+    private final int numberOfSeatsReserved;
+
+    public PurchaseResult(long accountId, int totalTicketPricePence, int numberOfSeatsReserved) {
+        this.accountId = accountId;
+        this.totalTicketPricePence = totalTicketPricePence;
+        this.numberOfSeatsReserved = numberOfSeatsReserved;
+    }
+
+    public long getAccountId() {
+        return accountId;
+    }
+
+    public int getTotalTicketPricePence() {
+        return totalTicketPricePence;
+    }
+
+    public int getNumberOfSeatsReserved() {
+        return numberOfSeatsReserved;
+    }
+
+}
@@ -0,0 +1,17 @@
+package uk.gov.dwp.uc.pairtest.domain;
+
+public enum RejectionReason {
+    INVALID_ACCOUNT_ID,
+    NO_TICKETS_REQUESTED,
+    MALFORMED_TICKET_REQUEST,
+    NO_ADULT_TICKET,
+    MORE_INFANTS_THAN_ADULTS,
+    TOO_MANY_TICKETS,
+    RATE_LIMITED,
+    MISSING_IDEMPOTENCY_KEY,
+    /**
+     * A valid order in a batch whose payment or seat reservation threw. The customer may have been charged; the
+     * purchase journal tells whether they were.
+     */
+    PURCHASE_FAILED
+}
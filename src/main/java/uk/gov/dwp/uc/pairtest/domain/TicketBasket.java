@@ -0,0 +1,102 @@
+package uk.gov.dwp.uc.pairtest.domain;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+
+/**
+ * Immutable Object
+ * <p>
+ * How many tickets of each type a purchase asks for, packed into a single {@code long} with 21 bits per type. Counts
+ * can never be negative, so the only invalid baskets are ones that break the purchase rules.
+ */
+
+public final class TicketBasket {
+
+    public static final int MAXIMUM_COUNT = (1 << 21) - 1;
+
+    private static final int BITS_PER_TYPE = 21;
+    private static final int CHILD_SHIFT = BITS_PER_TYPE;
+    private static final int INFANT_SHIFT = 2 * BITS_PER_TYPE;
+
+    private final long packedCounts;
+
+    private TicketBasket(long packedCounts) {
+        this.packedCounts = packedCounts;
+    }
+
+    public static TicketBasket of(int numberOfAdultTickets, int numberOfChildTickets, int numberOfInfantTickets) {
+        checkCount(numberOfAdultTickets);
+        checkCount(numberOfChildTickets);
+        checkCount(numberOfInfantTickets);
+        return new TicketBasket(numberOfAdultTickets
+                | (long) numberOfChildTickets << CHILD_SHIFT
+                | (long) numberOfInfantTickets << INFANT_SHIFT);
+    }
+
+    /**
+     * Merges requests into a basket, adding up requests for the same type. Throws the same exception
+     * {@code purchaseTickets} would for a malformed request, or for a type asking for more than {@link #MAXIMUM_COUNT}.
+     */
+    public static TicketBasket fromRequests(TicketTypeRequest... ticketTypeRequests) throws InvalidPurchaseException {
+        long numberOfAdultTickets = 0;
+        long numberOfChildTickets = 0;
+        long numberOfInfantTickets = 0;
+
+        for (TicketTypeRequest ticketTypeRequest : ticketTypeRequests) {
+            if (ticketTypeRequest == null || ticketTypeRequest.getTicketType() == null || ticketTypeRequest.getNoOfTickets() < 1) {
+                throw InvalidPurchaseException.of(RejectionReason.MALFORMED_TICKET_REQUEST);
+            }
+
+            switch (ticketTypeRequest.getTicketType()) {
+                case ADULT -> numberOfAdultTickets += ticketTypeRequest.getNoOfTickets();
+                case CHILD -> numberOfChildTickets += ticketTypeRequest.getNoOfTickets();
+                case INFANT -> numberOfInfantTickets += ticketTypeRequest.getNoOfTickets();
+            }
+        }
+
+        if (Math.max(numberOfAdultTickets, Math.max(numberOfChildTickets, numberOfInfantTickets)) > MAXIMUM_COUNT) {
+            throw InvalidPurchaseException.of(RejectionReason.TOO_MANY_TICKETS);
+        }
+        return of((int) numberOfAdultTickets, (int) numberOfChildTickets, (int) numberOfInfantTickets);
+    }
+
+    public int getNumberOfTickets(Type ticketType) {
+        return switch (ticketType) {
+            case ADULT -> (int) (packedCounts & MAXIMUM_COUNT);
+            case CHILD -> (int) (packedCounts >>> CHILD_SHIFT & MAXIMUM_COUNT);
+            case INFANT -> (int) (packedCounts >>> INFANT_SHIFT & MAXIMUM_COUNT);
+        };
+    }
+
+    public int getNumberOfTickets() {
+        return getNumberOfTickets(Type.ADULT) + getNumberOfTickets(Type.CHILD) + getNumberOfTickets(Type.INFANT);
+    }
+
+    public boolean isEmpty() {
+        return packedCounts == 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TicketBasket ticketBasket && ticketBasket.packedCounts == packedCounts;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(packedCounts);
+    }
+
+    @Override
+    public String toString() {
+        return "TicketBasket[adult=" + getNumberOfTickets(Type.ADULT)
+                + ", child=" + getNumberOfTickets(Type.CHILD)
+                + ", infant=" + getNumberOfTickets(Type.INFANT) + "]";
+    }
+
+    private static void checkCount(int count) {
+        if (count < 0 || count > MAXIMUM_COUNT) {
+            throw new IllegalArgumentException("Ticket count must be between 0 and " + MAXIMUM_COUNT + ": " + count);
+        }
+    }
+
+}
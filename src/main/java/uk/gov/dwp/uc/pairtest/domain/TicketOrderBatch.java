@@ -0,0 +1,49 @@
+package uk.gov.dwp.uc.pairtest.domain;
+
+/**
+ * Many accounts' orders held column by column: order {@code i} is for account {@code accountIds[i]} and asks for
+ * {@code numberOfAdultTickets[i]} adult, {@code numberOfChildTickets[i]} child and {@code numberOfInfantTickets[i]} infant
+ * tickets. The arrays are held without copying, so they must not be changed while the batch is being purchased.
+ */
+
+public final class TicketOrderBatch {
+
+    private final long[] accountIds;
+    private final int[] numberOfAdultTickets;
+    private final int[] numberOfChildTickets;
+    private final int[] numberOfInfantTickets;
+
+    public TicketOrderBatch(long[] accountIds, int[] numberOfAdultTickets, int[] numberOfChildTickets, int[] numberOfInfantTickets) {
+        if (numberOfAdultTickets.length != accountIds.length
+                || numberOfChildTickets.length != accountIds.length
+                || numberOfInfantTickets.length != accountIds.length) {
+            throw new IllegalArgumentException("Every column must have one entry per order");
+        }
+
+        this.accountIds = accountIds;
+        this.numberOfAdultTickets = numberOfAdultTickets;
+        this.numberOfChildTickets = numberOfChildTickets;
+        this.numberOfInfantTickets = numberOfInfantTickets;
+    }
+
+    public int size() {
+        return accountIds.length;
+    }
+
+    public long[] getAccountIds() {
+        return accountIds;
+    }
+
+    public int[] getNumberOfAdultTickets() {
+        return numberOfAdultTickets;
+    }
+
+    public int[] getNumberOfChildTickets() {
+        return numberOfChildTickets;
+    }
+
+    public int[] getNumberOfInfantTickets() {
+        return numberOfInfantTickets;
+    }
+
+}
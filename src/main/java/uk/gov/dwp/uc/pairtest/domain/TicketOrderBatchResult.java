@@ -0,0 +1,92 @@
+package uk.gov.dwp.uc.pairtest.domain;
+
+import java.util.BitSet;
+
+/**
+ * Immutable Object
+ * <p>
+ * The outcome of each order in a {@link TicketOrderBatch}, held column by column in the same order as the batch.
+ * Rejected orders are charged nothing and reserve no seats.
+ */
+
+public final class TicketOrderBatchResult {
+
+    /**
+     * The rejection code of an accepted order. A rejected order's code is its reason's ordinal plus one.
+     */
+    public static final byte ACCEPTED = 0;
+
+    private static final RejectionReason[] REJECTION_REASONS = RejectionReason.values();
+
+    private final byte[] rejectionCodes;
+    private final int[] totalTicketPricePence;
+    private final int[] numberOfSeatsToReserve;
+    private final int numberOfAcceptedOrders;
+
+    /**
+     * Takes ownership of the arrays, which must not be changed afterwards.
+     */
+    public TicketOrderBatchResult(byte[] rejectionCodes, int[] totalTicketPricePence, int[] numberOfSeatsToReserve) {
+        this.rejectionCodes = rejectionCodes;
+        this.totalTicketPricePence = totalTicketPricePence;
+        this.numberOfSeatsToReserve = numberOfSeatsToReserve;
+
+        int accepted = 0;
+        for (byte rejectionCode : rejectionCodes) {
+            if (rejectionCode == ACCEPTED) {
+                accepted++;
+            }
+        }
+        this.numberOfAcceptedOrders = accepted;
+    }
+
+    public static byte rejectionCode(RejectionReason rejectionReason) {
+        return (byte) (rejectionReason.ordinal() + 1);
+    }
+
+    /**
+     * @return a copy of this result with the given orders rejected for the given reason, or this result if there are
+     * no such orders
+     */
+    public TicketOrderBatchResult reject(BitSet orders, RejectionReason rejectionReason) {
+        if (orders.isEmpty()) {
+            return this;
+        }
+
+        byte[] rejectedCodes = rejectionCodes.clone();
+        byte rejectionCode = rejectionCode(rejectionReason);
+        for (int order = orders.nextSetBit(0); order >= 0; order = orders.nextSetBit(order + 1)) {
+            rejectedCodes[order] = rejectionCode;
+        }
+        return new TicketOrderBatchResult(rejectedCodes, totalTicketPricePence, numberOfSeatsToReserve);
+    }
+
+    public int size() {
+        return rejectionCodes.length;
+    }
+
+    public int getNumberOfAcceptedOrders() {
+        return numberOfAcceptedOrders;
+    }
+
+    public boolean isAccepted(int order) {
+        return rejectionCodes[order] == ACCEPTED;
+    }
+
+    /**
+     * @return why the order was rejected, or null if it was accepted
+     */
+    public RejectionReason getRejectionReason(int order) {
+        int rejectionCode = rejectionCodes[order];
+        return rejectionCode == ACCEPTED ? null : REJECTION_REASONS[rejectionCode - 1];
+    }
+
+    public int getTotalTicketPricePence(int order) {
+        return totalTicketPricePence[order];
+    }
+
+    public int getNumberOfSeatsToReserve(int order) {
+        return numberOfSeatsToReserve[order];
+    }
+
+}
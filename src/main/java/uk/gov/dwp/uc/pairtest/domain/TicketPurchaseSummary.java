@@ -0,0 +1,86 @@
+package uk.gov.dwp.uc.pairtest.domain;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+/**
+ * Immutable Object
+ * <p>
+ * The outcome of a single pass over the requests in a purchase: either why it was rejected, or how many tickets of
+ * each type were requested, what to charge and how many seats to reserve.
+ */
+
+public final class TicketPurchaseSummary {
+
+    private static final TicketPurchaseSummary[] REJECTED_BY_REASON = createRejectedSummaries();
+
+    private final RejectionReason rejectionReason;
+    private final int numberOfAdultTickets;
+    private final int numberOfChildTickets;
+    private final int numberOfInfantTickets;
+    private final int totalTicketPricePence;
+    private final int numberOfSeatsToReserve;
+
+    private TicketPurchaseSummary(RejectionReason rejectionReason, int numberOfAdultTickets, int numberOfChildTickets, int numberOfInfantTickets,
+                                  int totalTicketPricePence, int numberOfSeatsToReserve) {
+        this.rejectionReason = rejectionReason;
+        this.numberOfAdultTickets = numberOfAdultTickets;
+        this.numberOfChildTickets = numberOfChildTickets;
+        this.numberOfInfantTickets = numberOfInfantTickets;
+        this.totalTicketPricePence = totalTicketPricePence;
+        this.numberOfSeatsToReserve = numberOfSeatsToReserve;
+    }
+
+    public static TicketPurchaseSummary valid(int numberOfAdultTickets, int numberOfChildTickets, int numberOfInfantTickets,
+                                              int totalTicketPricePence, int numberOfSeatsToReserve) {
+        return new TicketPurchaseSummary(null, numberOfAdultTickets, numberOfChildTickets, numberOfInfantTickets,
+                totalTicketPricePence, numberOfSeatsToReserve);
+    }
+
+    /**
+     * Returns a shared summary for the reason, so rejecting a purchase never allocates.
+     */
+    public static TicketPurchaseSummary rejected(RejectionReason rejectionReason) {
+        return REJECTED_BY_REASON[rejectionReason.ordinal()];
+    }
+
+    public boolean isValid() {
+        return rejectionReason == null;
+    }
+
+    /**
+     * @return why the purchase was rejected, or null if it is valid
+     */
+    public RejectionReason getRejectionReason() {
+        return rejectionReason;
+    }
+
+    public int getNumberOfTickets() {
+        return numberOfAdultTickets + numberOfChildTickets + numberOfInfantTickets;
+    }
+
+    public int getNumberOfTickets(Type ticketType) {
+        return switch (ticketType) {
+            case ADULT -> numberOfAdultTickets;
+            case CHILD -> numberOfChildTickets;
+            case INFANT -> numberOfInfantTickets;
+        };
+    }
+
+    public int getTotalTicketPricePence() {
+        return totalTicketPricePence;
+    }
+
+    public int getNumberOfSeatsToReserve() {
+        return numberOfSeatsToReserve;
+    }
+
+    private static TicketPurchaseSummary[] createRejectedSummaries() {
+        RejectionReason[] rejectionReasons = RejectionReason.values();
+        TicketPurchaseSummary[] summaries = new TicketPurchaseSummary[rejectionReasons.length];
+        for (RejectionReason rejectionReason : rejectionReasons) {
+            summaries[rejectionReason.ordinal()] = new TicketPurchaseSummary(rejectionReason, 0, 0, 0, 0, 0);
+        }
+        return summaries;
+    }
+
+}
@@ -0,0 +1,116 @@
+package uk.gov.dwp.uc.pairtest.event;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends events to a file as comma-separated lines, with a header when the file is new:
+ * <pre>
+ * sequence,purchaseId,accountId,timestampMillis,adult,child,infant,totalTicketPricePence,seats
+ * </pre>
+ * Lines are formatted straight into a reused buffer, which is written out at the end of each batch or when it fills,
+ * so draining a batch costs one write rather than one per event.
+ * <p>
+ * A write that fails loses every line buffered since the last one, which can be a whole batch, although the
+ * {@link PurchaseEventRingBuffer} counts it as a single sink failure. Whatever part of the failed write reached the
+ * file is truncated away, so the file only ever holds whole lines as long as this sink is its only writer.
+ */
+public class FilePurchaseEventSink implements PurchaseEventSink {
+
+    static final String HEADER = "sequence,purchaseId,accountId,timestampMillis,adult,child,infant,totalTicketPricePence,seats\n";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAXIMUM_LINE_LENGTH = 4 * 20 + 5 * 11 + 9;
+
+    private final FileChannel fileChannel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final byte[] digits = new byte[20];
+    private long fileSize;
+
+    public FilePurchaseEventSink(Path eventFile) throws IOException {
+        this(FileChannel.open(eventFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+    }
+
+    FilePurchaseEventSink(FileChannel fileChannel) throws IOException {
+        this.fileChannel = fileChannel;
+        this.fileSize = fileChannel.size();
+        if (fileSize == 0) {
+            for (int i = 0; i < HEADER.length(); i++) {
+                buffer.put((byte) HEADER.charAt(i));
+            }
+            flush();
+        }
+    }
+
+    @Override
+    public void onEvent(PurchaseEvent event, boolean endOfBatch) throws IOException {
+        if (buffer.remaining() < MAXIMUM_LINE_LENGTH) {
+            flush();
+        }
+
+        putLong(event.getSequence(), ',');
+        putLong(event.getPurchaseId(), ',');
+        putLong(event.getAccountId(), ',');
+        putLong(event.getTimestampMillis(), ',');
+        putLong(event.getNumberOfAdultTickets(), ',');
+        putLong(event.getNumberOfChildTickets(), ',');
+        putLong(event.getNumberOfInfantTickets(), ',');
+        putLong(event.getTotalTicketPricePence(), ',');
+        putLong(event.getNumberOfSeatsReserved(), '\n');
+
+        if (endOfBatch) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            fileChannel.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer);
+            }
+            fileSize += buffer.limit();
+        } catch (IOException e) {
+            if (buffer.position() > 0) {
+                try {
+                    fileChannel.truncate(fileSize);
+                } catch (IOException truncateFailure) {
+                    e.addSuppressed(truncateFailure);
+                }
+            }
+            throw e;
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void putLong(long value, char separator) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+        }
+
+        int length = 0;
+        do {
+            digits[length++] = (byte) ('0' + Math.abs(value % 10));
+            value /= 10;
+        } while (value != 0);
+
+        while (length > 0) {
+            buffer.put(digits[--length]);
+        }
+        buffer.put((byte) separator);
+    }
+
+}
@@ -0,0 +1,30 @@
+package uk.gov.dwp.uc.pairtest.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps a copy of every event it receives, for tests and for in-process consumers.
+ */
+public class InMemoryPurchaseEventSink implements PurchaseEventSink {
+
+    private final List<PurchaseEvent> events = new ArrayList<>();
+    private long numberOfBatches;
+
+    @Override
+    public synchronized void onEvent(PurchaseEvent event, boolean endOfBatch) {
+        events.add(event.copy());
+        if (endOfBatch) {
+            numberOfBatches++;
+        }
+    }
+
+    public synchronized List<PurchaseEvent> getEvents() {
+        return List.copyOf(events);
+    }
+
+    public synchronized long getNumberOfBatches() {
+        return numberOfBatches;
+    }
+
+}
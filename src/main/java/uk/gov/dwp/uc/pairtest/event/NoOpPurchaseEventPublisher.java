@@ -0,0 +1,11 @@
+package uk.gov.dwp.uc.pairtest.event;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+
+final class NoOpPurchaseEventPublisher implements PurchaseEventPublisher {
+
+    @Override
+    public void publish(long purchaseId, long accountId, TicketPurchaseSummary purchaseSummary) {
+    }
+
+}
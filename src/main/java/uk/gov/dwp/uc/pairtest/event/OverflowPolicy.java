@@ -0,0 +1,24 @@
+package uk.gov.dwp.uc.pairtest.event;
+
+/**
+ * What a publisher does when the consumers have fallen behind.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Drops the event once the ring buffer is full.
+     */
+    DROP,
+
+    /**
+     * Waits for the consumer to free a slot, so no event is lost but purchases slow down to the consumer's pace.
+     */
+    BLOCK,
+
+    /**
+     * Keeps only one event in every {@code sampleRate} once the ring buffer is half full, so consumers still see a
+     * representative sample while they catch up, and drops the event once the buffer is full.
+     */
+    SAMPLE
+
+}
@@ -0,0 +1,108 @@
+package uk.gov.dwp.uc.pairtest.event;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+/**
+ * Mutable Object
+ * <p>
+ * One slot of the {@link PurchaseEventRingBuffer}. Slots are allocated once and overwritten on every lap of the ring,
+ * so a sink must copy anything it wants to keep before {@link PurchaseEventSink#onEvent} returns.
+ */
+public final class PurchaseEvent {
+
+    private long sequence;
+    private long purchaseId;
+    private long accountId;
+    private long timestampMillis;
+    private int numberOfAdultTickets;
+    private int numberOfChildTickets;
+    private int numberOfInfantTickets;
+    private int totalTicketPricePence;
+    private int numberOfSeatsReserved;
+
+    PurchaseEvent() {
+    }
+
+    void set(long sequence, long purchaseId, long accountId, long timestampMillis, TicketPurchaseSummary purchaseSummary) {
+        this.sequence = sequence;
+        this.purchaseId = purchaseId;
+        this.accountId = accountId;
+        this.timestampMillis = timestampMillis;
+        this.numberOfAdultTickets = purchaseSummary.getNumberOfTickets(Type.ADULT);
+        this.numberOfChildTickets = purchaseSummary.getNumberOfTickets(Type.CHILD);
+        this.numberOfInfantTickets = purchaseSummary.getNumberOfTickets(Type.INFANT);
+        this.totalTicketPricePence = purchaseSummary.getTotalTicketPricePence();
+        this.numberOfSeatsReserved = purchaseSummary.getNumberOfSeatsToReserve();
+    }
+
+    /**
+     * @return a copy that is safe to keep after the slot has been reused
+     */
+    public PurchaseEvent copy() {
+        PurchaseEvent copy = new PurchaseEvent();
+        copy.sequence = sequence;
+        copy.purchaseId = purchaseId;
+        copy.accountId = accountId;
+        copy.timestampMillis = timestampMillis;
+        copy.numberOfAdultTickets = numberOfAdultTickets;
+        copy.numberOfChildTickets = numberOfChildTickets;
+        copy.numberOfInfantTickets = numberOfInfantTickets;
+        copy.totalTicketPricePence = totalTicketPricePence;
+        copy.numberOfSeatsReserved = numberOfSeatsReserved;
+        return copy;
+    }
+
+    /**
+     * @return the event's position in the stream; gaps show where events were dropped or sampled out
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getPurchaseId() {
+        return purchaseId;
+    }
+
+    public long getAccountId() {
+        return accountId;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public int getNumberOfAdultTickets() {
+        return numberOfAdultTickets;
+    }
+
+    public int getNumberOfChildTickets() {
+        return numberOfChildTickets;
+    }
+
+    public int getNumberOfInfantTickets() {
+        return numberOfInfantTickets;
+    }
+
+    public int getTotalTicketPricePence() {
+        return totalTicketPricePence;
+    }
+
+    public int getNumberOfSeatsReserved() {
+        return numberOfSeatsReserved;
+    }
+
+    @Override
+    public String toString() {
+        return "PurchaseEvent[sequence=" + sequence
+                + ", purchaseId=" + purchaseId
+                + ", accountId=" + accountId
+                + ", timestampMillis=" + timestampMillis
+                + ", adult=" + numberOfAdultTickets
+                + ", child=" + numberOfChildTickets
+                + ", infant=" + numberOfInfantTickets
+                + ", totalTicketPricePence=" + totalTicketPricePence
+                + ", seats=" + numberOfSeatsReserved + "]";
+    }
+
+}
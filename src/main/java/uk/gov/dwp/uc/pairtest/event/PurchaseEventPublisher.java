@@ -0,0 +1,15 @@
+package uk.gov.dwp.uc.pairtest.event;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+
+/**
+ * Hands each completed purchase on to downstream consumers such as finance and analytics. Publishing must never wait
+ * on those consumers unless the {@link OverflowPolicy} explicitly asks for it.
+ */
+public interface PurchaseEventPublisher {
+
+    PurchaseEventPublisher NO_OP = new NoOpPurchaseEventPublisher();
+
+    void publish(long purchaseId, long accountId, TicketPurchaseSummary purchaseSummary);
+
+}
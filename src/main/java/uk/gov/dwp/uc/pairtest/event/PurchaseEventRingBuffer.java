@@ -0,0 +1,224 @@
+package uk.gov.dwp.uc.pairtest.event;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static uk.gov.dwp.uc.pairtest.config.Config.PURCHASE_EVENT_BUFFER_SIZE;
+import static uk.gov.dwp.uc.pairtest.config.Config.PURCHASE_EVENT_IDLE_MICROS;
+import static uk.gov.dwp.uc.pairtest.config.Config.PURCHASE_EVENT_SAMPLE_RATE;
+
+/**
+ * Publishes purchase events through a preallocated ring of {@link PurchaseEvent} slots to a single consumer thread,
+ * which drains them in batches into a {@link PurchaseEventSink}.
+ * <p>
+ * A publisher claims a sequence number from the cursor, fills in the slot it maps to and then marks the slot with the
+ * lap of the ring it was written on. The consumer reads every slot marked with the expected lap, hands the run to the
+ * sink and only then moves its own sequence on, which is what frees the slots for the next lap. Publishing therefore
+ * never allocates and never waits for the sink; what happens when the ring is full is up to the
+ * {@link OverflowPolicy}. A sink that throws is counted once and does not stop the stream. It loses the event that
+ * failed, and a sink that buffers may lose everything it was holding as well.
+ */
+public class PurchaseEventRingBuffer implements PurchaseEventPublisher, AutoCloseable {
+
+    private final PurchaseEvent[] slots;
+    private final AtomicIntegerArray publishedLaps;
+    private final int mask;
+    private final int lapShift;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final PurchaseEventSink sink;
+
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final AtomicLong consumedSequence = new AtomicLong(-1);
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong sinkFailureCount = new AtomicLong();
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    public PurchaseEventRingBuffer(OverflowPolicy overflowPolicy, PurchaseEventSink sink) {
+        this(PURCHASE_EVENT_BUFFER_SIZE, overflowPolicy, PURCHASE_EVENT_SAMPLE_RATE, sink);
+    }
+
+    /**
+     * @param bufferSize the number of slots, a power of two
+     * @param sampleRate under {@link OverflowPolicy#SAMPLE}, keep one event in this many while the ring is half full
+     */
+    public PurchaseEventRingBuffer(int bufferSize, OverflowPolicy overflowPolicy, int sampleRate, PurchaseEventSink sink) {
+        if (bufferSize < 2 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a power of two: " + bufferSize);
+        }
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+        }
+
+        this.slots = new PurchaseEvent[bufferSize];
+        this.publishedLaps = new AtomicIntegerArray(bufferSize);
+        for (int slot = 0; slot < bufferSize; slot++) {
+            slots[slot] = new PurchaseEvent();
+            publishedLaps.set(slot, -1);
+        }
+        this.mask = bufferSize - 1;
+        this.lapShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = sampleRate;
+        this.sink = sink;
+        this.consumer = Thread.ofPlatform().name("purchase-events").daemon().start(this::drainLoop);
+    }
+
+    @Override
+    public void publish(long purchaseId, long accountId, TicketPurchaseSummary purchaseSummary) {
+        long sequence = claim();
+        if (sequence < 0) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+
+        int slot = (int) sequence & mask;
+        slots[slot].set(sequence, purchaseId, accountId, System.currentTimeMillis(), purchaseSummary);
+        publishedLaps.setRelease(slot, (int) (sequence >>> lapShift));
+        if (!running && !awaitConsumed(sequence)) {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Stops accepting events, drains everything already published into the sink and closes it.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sink.close();
+    }
+
+    /**
+     * @return the number of events that have been claimed, whether or not the sink has received them yet, including any
+     * claimed too late to be drained as the buffer closed, which are also counted as dropped
+     */
+    public long getPublishedCount() {
+        return cursor.get() + 1;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getSinkFailureCount() {
+        return sinkFailureCount.get();
+    }
+
+    /**
+     * @return the number of events claimed but not yet passed to the sink
+     */
+    public long getBacklog() {
+        return cursor.get() - consumedSequence.get();
+    }
+
+    /**
+     * @return the claimed sequence, or -1 if the event should be dropped
+     */
+    private long claim() {
+        if (!running) {
+            return -1;
+        }
+        return switch (overflowPolicy) {
+            case DROP -> tryClaim();
+            case BLOCK -> claimWhenFree();
+            case SAMPLE -> getBacklog() >= slots.length / 2 && sampleCounter.incrementAndGet() % sampleRate != 0 ? -1 : tryClaim();
+        };
+    }
+
+    private long tryClaim() {
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            if (next - consumedSequence.get() > slots.length) {
+                return -1;
+            }
+            if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private long claimWhenFree() {
+        long sequence = cursor.incrementAndGet();
+        while (sequence - consumedSequence.get() > slots.length) {
+            if (!consumer.isAlive()) {
+                // The consumer only stops once it has drained every claimed sequence, so it must have died. Nothing
+                // will free the slot, and waiting would hang the purchase.
+                return sequence;
+            }
+            LockSupport.parkNanos(1_000);
+        }
+        return sequence;
+    }
+
+    /**
+     * A publisher that claimed its sequence as the buffer was closing cannot tell whether the consumer saw the claim
+     * before it stopped, so it waits for the consumer to finish and then looks.
+     *
+     * @return true if the consumer drained the sequence
+     */
+    private boolean awaitConsumed(long sequence) {
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return consumedSequence.get() >= sequence;
+    }
+
+    private void drainLoop() {
+        long idleNanos = TimeUnit.MICROSECONDS.toNanos(PURCHASE_EVENT_IDLE_MICROS);
+        while (true) {
+            boolean stopping = !running;
+            if (drainAvailable() == 0) {
+                if (stopping && cursor.get() == consumedSequence.get()) {
+                    return;
+                }
+                LockSupport.parkNanos(idleNanos);
+            }
+        }
+    }
+
+    /**
+     * Passes every consecutively published event to the sink as one batch.
+     *
+     * @return the number of events drained
+     */
+    private int drainAvailable() {
+        long first = consumedSequence.get() + 1;
+        long highestClaimed = cursor.get();
+        long last = first - 1;
+        while (last < highestClaimed && isPublished(last + 1)) {
+            last++;
+        }
+
+        for (long sequence = first; sequence <= last; sequence++) {
+            try {
+                sink.onEvent(slots[(int) sequence & mask], sequence == last);
+            } catch (IOException | RuntimeException e) {
+                sinkFailureCount.incrementAndGet();
+            }
+        }
+        consumedSequence.set(last);
+        return (int) (last - first + 1);
+    }
+
+    private boolean isPublished(long sequence) {
+        return publishedLaps.getAcquire((int) sequence & mask) == (int) (sequence >>> lapShift);
+    }
+
+}
@@ -0,0 +1,19 @@
+package uk.gov.dwp.uc.pairtest.event;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Receives purchase events from the {@link PurchaseEventRingBuffer}'s consumer thread, one batch at a time. Only that
+ * thread ever calls a sink, so sinks need not be thread-safe. {@code endOfBatch} marks the last event currently
+ * available, which is the moment to flush any buffered output.
+ */
+public interface PurchaseEventSink extends Closeable {
+
+    void onEvent(PurchaseEvent event, boolean endOfBatch) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+
+}
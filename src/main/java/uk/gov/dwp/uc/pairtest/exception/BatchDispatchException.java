@@ -0,0 +1,20 @@
+package uk.gov.dwp.uc.pairtest.exception;
+
+/**
+ * Thrown by a batch dispatch when only some entries failed. {@link #getFailure(int)} returns {@code null} for each entry
+ * that succeeded, so the callers behind those entries can still be completed normally.
+ */
+public class BatchDispatchException extends RuntimeException {
+
+    private final Throwable[] failures;
+
+    public BatchDispatchException(Throwable[] failures) {
+        super("Batch dispatch failed for one or more entries");
+        this.failures = failures;
+    }
+
+    public Throwable getFailure(int index) {
+        return failures[index];
+    }
+
+}
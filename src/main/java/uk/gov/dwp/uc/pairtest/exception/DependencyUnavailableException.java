@@ -0,0 +1,34 @@
+package uk.gov.dwp.uc.pairtest.exception;
+
+/**
+ * Thrown instead of calling a downstream dependency whose circuit breaker is open or whose bulkhead is full. The call
+ * was never made, so nothing needs to be undone on the dependency's side.
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+    public enum Reason {
+        CIRCUIT_OPEN,
+        BULKHEAD_FULL
+    }
+
+    private final String dependencyName;
+    private final Reason reason;
+
+    /**
+     * Creates an exception without a stack trace, so that it can be created once and thrown on every rejection.
+     */
+    public DependencyUnavailableException(String dependencyName, Reason reason) {
+        super(dependencyName + " unavailable: " + reason, null, false, false);
+        this.dependencyName = dependencyName;
+        this.reason = reason;
+    }
+
+    public String getDependencyName() {
+        return dependencyName;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+}
@@ -1,5 +1,44 @@
 package uk.gov.dwp.uc.pairtest.exception;
 
+import uk.gov.dwp.uc.pairtest.domain.RejectionReason;
+
 public class InvalidPurchaseException extends RuntimeException {
 
+    private static final InvalidPurchaseException[] CACHED_BY_REASON = createCachedExceptions();
+
+    private final RejectionReason rejectionReason;
+
+    public InvalidPurchaseException() {
+        this.rejectionReason = null;
+    }
+
+    private InvalidPurchaseException(RejectionReason rejectionReason) {
+        super("Invalid purchase: " + rejectionReason, null, false, false);
+        this.rejectionReason = rejectionReason;
+    }
+
+    /**
+     * Returns a shared exception for the reason. It has no stack trace and cannot have suppressed exceptions added, so
+     * it costs nothing to throw and is safe to throw from many threads at once.
+     */
+    public static InvalidPurchaseException of(RejectionReason rejectionReason) {
+        return CACHED_BY_REASON[rejectionReason.ordinal()];
+    }
+
+    /**
+     * @return why the purchase was rejected, or null if this exception was created without a reason
+     */
+    public RejectionReason getRejectionReason() {
+        return rejectionReason;
+    }
+
+    private static InvalidPurchaseException[] createCachedExceptions() {
+        RejectionReason[] rejectionReasons = RejectionReason.values();
+        InvalidPurchaseException[] exceptions = new InvalidPurchaseException[rejectionReasons.length];
+        for (RejectionReason rejectionReason : rejectionReasons) {
+            exceptions[rejectionReason.ordinal()] = new InvalidPurchaseException(rejectionReason);
+        }
+        return exceptions;
+    }
+
 }
@@ -0,0 +1,20 @@
+package uk.gov.dwp.uc.pairtest.exception;
+
+/**
+ * Thrown when a purchase fails after the customer has been charged. {@link #isRefunded()} says whether the payment was
+ * given back; if it was not the purchase needs to be reconciled by hand.
+ */
+public class PurchaseFailedException extends RuntimeException {
+
+    private final boolean refunded;
+
+    public PurchaseFailedException(String message, Throwable cause, boolean refunded) {
+        super(message, cause);
+        this.refunded = refunded;
+    }
+
+    public boolean isRefunded() {
+        return refunded;
+    }
+
+}
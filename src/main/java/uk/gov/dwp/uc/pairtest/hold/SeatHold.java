@@ -0,0 +1,51 @@
+package uk.gov.dwp.uc.pairtest.hold;
+
+/**
+ * Seats taken from a screening on behalf of an account until the hold is confirmed, cancelled or expires. The hold id
+ * is the id of the underlying reservation in the {@link thirdparty.seatbooking.SeatInventory}, so once confirmed it
+ * can be released there like any other reservation.
+ */
+public final class SeatHold extends TimingWheel.Timer {
+
+    public enum Status {
+        HELD,
+        CONFIRMED,
+        RELEASED
+    }
+
+    private final long holdId;
+    private final long accountId;
+    private final int numberOfSeats;
+    private volatile Status status = Status.HELD;
+
+    SeatHold(long holdId, long accountId, int numberOfSeats) {
+        this.holdId = holdId;
+        this.accountId = accountId;
+        this.numberOfSeats = numberOfSeats;
+    }
+
+    public long getHoldId() {
+        return holdId;
+    }
+
+    public long getAccountId() {
+        return accountId;
+    }
+
+    public int getNumberOfSeats() {
+        return numberOfSeats;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    void setStatus(Status status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return "SeatHold{holdId=" + holdId + ", accountId=" + accountId + ", numberOfSeats=" + numberOfSeats + ", status=" + status + '}';
+    }
+}
@@ -0,0 +1,189 @@
+package uk.gov.dwp.uc.pairtest.hold;
+
+import thirdparty.seatbooking.SeatInventory;
+import uk.gov.dwp.uc.pairtest.config.Config;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds seats in one screening for a limited time. A hold takes its seats from the {@link SeatInventory} straight
+ * away, so they cannot be sold to anyone else, and gives them back unless it is confirmed before its time to live runs
+ * out.
+ * <p>
+ * Expiry is driven by hierarchical timing wheels rather than a scheduled task per hold: creating, confirming and
+ * expiring a hold are all O(1) however many are outstanding. Holds are spread over independently locked stripes, each
+ * with its own wheel, and {@link #expireHolds()} moves every wheel on to the current tick. Holds therefore expire up to
+ * one tick after their time to live, and never before unless that reaches past the range of the wheels.
+ */
+public class SeatHoldService implements AutoCloseable {
+
+    private static final int DEFAULT_NUMBER_OF_STRIPES = 16;
+
+    private final SeatInventory seatInventory;
+    private final long screeningId;
+    private final TimingWheel[] stripes;
+    private final int stripeMask;
+    private final long tickNanos;
+    private final long originNanos;
+    private final LongSupplier nanoClock;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> Thread.ofPlatform().name("seat-hold-expiry").daemon().unstarted(runnable));
+
+    public SeatHoldService(SeatInventory seatInventory, long screeningId) {
+        this(seatInventory, screeningId, Duration.ofMillis(Config.SEAT_HOLD_TICK_MILLIS), System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock the source of {@link System#nanoTime()}-style readings that times to live are measured against
+     */
+    public SeatHoldService(SeatInventory seatInventory, long screeningId, Duration tick, LongSupplier nanoClock) {
+        this(seatInventory, screeningId, tick, DEFAULT_NUMBER_OF_STRIPES, nanoClock);
+    }
+
+    SeatHoldService(SeatInventory seatInventory, long screeningId, Duration tick, int numberOfStripes, LongSupplier nanoClock) {
+        if (Integer.bitCount(numberOfStripes) != 1) {
+            throw new IllegalArgumentException("Number of stripes must be a power of two: " + numberOfStripes);
+        }
+        if (tick.toNanos() < 1) {
+            throw new IllegalArgumentException("Tick must be positive: " + tick);
+        }
+
+        this.seatInventory = seatInventory;
+        this.screeningId = screeningId;
+        this.stripes = new TimingWheel[numberOfStripes];
+        for (int i = 0; i < numberOfStripes; i++) {
+            stripes[i] = new TimingWheel(0);
+        }
+        this.stripeMask = numberOfStripes - 1;
+        this.tickNanos = tick.toNanos();
+        this.nanoClock = nanoClock;
+        this.originNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Expires holds every {@code tick} from a background thread. Without this, holds only expire when
+     * {@link #expireHolds()} is called.
+     */
+    public void startExpiring() {
+        scheduler.scheduleAtFixedRate(this::expireHolds, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A time to live reaching more than 2^36 ticks ahead may be cut short, see {@link TimingWheel#schedule}.
+     *
+     * @return the new hold, or null if the screening does not have enough seats left
+     * @throws IllegalArgumentException if the deadline is too far off to be measured in nanoseconds
+     */
+    public SeatHold hold(long accountId, int numberOfSeats, Duration timeToLive) {
+        long deadlineTick = deadlineTick(timeToLive);
+        long holdId = seatInventory.tryReserve(screeningId, accountId, numberOfSeats);
+        if (holdId == SeatInventory.NO_RESERVATION) {
+            return null;
+        }
+
+        SeatHold seatHold = new SeatHold(holdId, accountId, numberOfSeats);
+        TimingWheel stripe = stripeFor(seatHold);
+        try {
+            synchronized (stripe) {
+                stripe.schedule(seatHold, deadlineTick);
+            }
+        } catch (RuntimeException e) {
+            seatInventory.release(holdId);
+            throw e;
+        }
+        return seatHold;
+    }
+
+    /**
+     * Keeps the hold's seats for good.
+     *
+     * @return true if the hold was still held and is now confirmed, false if it had already expired or been cancelled
+     */
+    public boolean confirm(SeatHold seatHold) {
+        TimingWheel stripe = stripeFor(seatHold);
+        synchronized (stripe) {
+            if (!stripe.cancel(seatHold)) {
+                return false;
+            }
+            seatHold.setStatus(SeatHold.Status.CONFIRMED);
+        }
+        return true;
+    }
+
+    /**
+     * Gives the hold's seats back before it expires.
+     *
+     * @return true if the hold was still held and its seats have been released
+     */
+    public boolean cancel(SeatHold seatHold) {
+        TimingWheel stripe = stripeFor(seatHold);
+        synchronized (stripe) {
+            if (!stripe.cancel(seatHold)) {
+                return false;
+            }
+            seatHold.setStatus(SeatHold.Status.RELEASED);
+        }
+        seatInventory.release(seatHold.getHoldId());
+        return true;
+    }
+
+    /**
+     * Moves every wheel on to the current tick and releases the seats of each hold that has expired. Seats are
+     * released outside the stripe locks.
+     *
+     * @return the number of holds that expired
+     */
+    public int expireHolds() {
+        long currentTick = (nanoClock.getAsLong() - originNanos) / tickNanos;
+        int numberOfExpiredHolds = 0;
+
+        for (TimingWheel stripe : stripes) {
+            TimingWheel.Timer expired;
+            synchronized (stripe) {
+                expired = stripe.advanceTo(currentTick);
+            }
+
+            while (expired != null) {
+                SeatHold seatHold = (SeatHold) expired;
+                expired = expired.nextExpired();
+                seatHold.setStatus(SeatHold.Status.RELEASED);
+                seatInventory.release(seatHold.getHoldId());
+                numberOfExpiredHolds++;
+            }
+        }
+        return numberOfExpiredHolds;
+    }
+
+    public int getActiveHoldCount() {
+        int activeHoldCount = 0;
+        for (TimingWheel stripe : stripes) {
+            synchronized (stripe) {
+                activeHoldCount += stripe.size();
+            }
+        }
+        return activeHoldCount;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private long deadlineTick(Duration timeToLive) {
+        try {
+            long deadlineNanos = Math.addExact(nanoClock.getAsLong() - originNanos, timeToLive.toNanos());
+            return Math.ceilDiv(deadlineNanos, tickNanos);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Time to live out of range: " + timeToLive, e);
+        }
+    }
+
+    private TimingWheel stripeFor(SeatHold seatHold) {
+        return stripes[(int) seatHold.getHoldId() & stripeMask];
+    }
+
+}
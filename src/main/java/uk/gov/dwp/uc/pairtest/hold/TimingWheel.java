@@ -0,0 +1,168 @@
+package uk.gov.dwp.uc.pairtest.hold;
+
+/**
+ * A hierarchical timing wheel: {@value #LEVELS} wheels of {@value #SLOTS_PER_WHEEL} slots, each level's slot spanning
+ * a whole turn of the level below. A timer goes in the level holding the highest digit in which its deadline differs
+ * from the current tick, so scheduling and cancelling are O(1) whatever the deadline. As the current tick enters a
+ * slot's range at a higher level, that slot's timers are cascaded down, and a level-0 slot holds exactly the timers
+ * due on its tick.
+ * <p>
+ * Slots are circular doubly linked lists threaded through the timers themselves, so the wheel never allocates after
+ * construction. Not thread-safe; callers must hold a lock.
+ */
+final class TimingWheel {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int SLOTS_PER_WHEEL = 1 << WHEEL_BITS;
+    private static final int SLOT_MASK = SLOTS_PER_WHEEL - 1;
+    private static final int LEVELS = 6;
+    private static final long TURN_MASK = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final Timer[][] slots = new Timer[LEVELS][SLOTS_PER_WHEEL];
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long currentTick) {
+        this.currentTick = currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS_PER_WHEEL; slot++) {
+                Timer sentinel = new Timer();
+                sentinel.previous = sentinel;
+                sentinel.next = sentinel;
+                slots[level][slot] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Schedules the timer to fire on {@code deadlineTick}, or on the next tick if that has already passed. Deadlines
+     * beyond the last tick of the top wheel's current turn are clamped to that tick, or to the next tick when the
+     * current tick is the last of its turn, so a deadline more than 2^36 ticks away may fire early.
+     */
+    void schedule(Timer timer, long deadlineTick) {
+        timer.deadlineTick = Math.max(Math.min(deadlineTick, currentTick | TURN_MASK), currentTick + 1);
+        insert(timer);
+        size++;
+    }
+
+    /**
+     * @return true if the timer was scheduled and now is not
+     */
+    boolean cancel(Timer timer) {
+        if (timer.previous == null) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel on to {@code targetTick}, unlinking every timer that falls due on the way.
+     *
+     * @return the expired timers chained through {@link Timer#next}, earliest first, or null if none expired
+     */
+    Timer advanceTo(long targetTick) {
+        Timer expiredHead = null;
+        Timer expiredTail = null;
+
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;
+                break;
+            }
+
+            currentTick++;
+            cascade();
+
+            Timer sentinel = slots[0][(int) (currentTick & SLOT_MASK)];
+            while (sentinel.next != sentinel) {
+                Timer timer = sentinel.next;
+                unlink(timer);
+                size--;
+                if (expiredTail == null) {
+                    expiredHead = timer;
+                } else {
+                    expiredTail.next = timer;
+                }
+                expiredTail = timer;
+            }
+        }
+
+        if (expiredTail != null) {
+            expiredTail.next = null;
+        }
+        return expiredHead;
+    }
+
+    long getCurrentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Re-files the timers of every higher-level slot whose range starts at the current tick, from the top level down
+     * so that timers cascading into a lower slot that is also starting are re-filed again.
+     */
+    private void cascade() {
+        int topLevel = 0;
+        while (topLevel + 1 < LEVELS && (currentTick & ((1L << (WHEEL_BITS * (topLevel + 1))) - 1)) == 0) {
+            topLevel++;
+        }
+
+        for (int level = topLevel; level > 0; level--) {
+            Timer sentinel = slots[level][(int) ((currentTick >>> (WHEEL_BITS * level)) & SLOT_MASK)];
+            while (sentinel.next != sentinel) {
+                Timer timer = sentinel.next;
+                unlink(timer);
+                insert(timer);
+            }
+        }
+    }
+
+    /**
+     * Files the timer under the highest digit in which its deadline differs from the current tick. A deadline in the
+     * next turn of the top wheel can only be the next tick, which goes in the top wheel's first slot and is cascaded
+     * down as that turn starts.
+     */
+    private void insert(Timer timer) {
+        long differingBits = timer.deadlineTick ^ currentTick;
+        int level = differingBits == 0 ? 0 : (63 - Long.numberOfLeadingZeros(differingBits)) / WHEEL_BITS;
+        level = Math.min(level, LEVELS - 1);
+        Timer sentinel = slots[level][(int) ((timer.deadlineTick >>> (WHEEL_BITS * level)) & SLOT_MASK)];
+
+        timer.previous = sentinel.previous;
+        timer.next = sentinel;
+        sentinel.previous.next = timer;
+        sentinel.previous = timer;
+    }
+
+    private static void unlink(Timer timer) {
+        timer.previous.next = timer.next;
+        timer.next.previous = timer.previous;
+        timer.previous = null;
+        timer.next = null;
+    }
+
+    /**
+     * A node in the wheel. Only the wheel touches the links; {@code previous} is null exactly when the timer is not
+     * scheduled, while {@code next} is reused to chain expired timers together.
+     */
+    static class Timer {
+
+        private long deadlineTick;
+        private Timer previous;
+        private Timer next;
+
+        Timer nextExpired() {
+            return next;
+        }
+
+        long getDeadlineTick() {
+            return deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package uk.gov.dwp.uc.pairtest.idempotency;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A bounded map from idempotency key to value whose entries expire a fixed time after they were added. Keys are spread
+ * over independently locked stripes, each an insertion-ordered hash map, so a lookup locks one stripe and costs O(1),
+ * and the oldest entries - which are also the first to expire - are always at the head of their stripe.
+ * <p>
+ * An entry whose value is not yet evictable, such as a purchase still in flight, is never evicted to make room or on
+ * expiry, because forgetting it would let a retry start the same work a second time. A stripe may therefore briefly
+ * hold more than its share of entries, and an expired entry stays until its value becomes evictable.
+ */
+public class IdempotencyCache<V> {
+
+    private static final int DEFAULT_NUMBER_OF_STRIPES = 64;
+
+    private final Stripe<V>[] stripes;
+    private final int stripeMask;
+    private final int maximumSizePerStripe;
+    private final long timeToLiveNanos;
+    private final Predicate<? super V> evictable;
+    private final LongSupplier nanoClock;
+
+    public IdempotencyCache(int maximumSize, Duration timeToLive) {
+        this(maximumSize, timeToLive, value -> true);
+    }
+
+    /**
+     * @param evictable whether a value may be evicted yet
+     */
+    public IdempotencyCache(int maximumSize, Duration timeToLive, Predicate<? super V> evictable) {
+        this(maximumSize, timeToLive, evictable, DEFAULT_NUMBER_OF_STRIPES, System::nanoTime);
+    }
+
+    IdempotencyCache(int maximumSize, Duration timeToLive, Predicate<? super V> evictable, int numberOfStripes, LongSupplier nanoClock) {
+        if (Integer.bitCount(numberOfStripes) != 1) {
+            throw new IllegalArgumentException("Number of stripes must be a power of two: " + numberOfStripes);
+        }
+
+        @SuppressWarnings("unchecked")
+        Stripe<V>[] stripes = (Stripe<V>[]) new Stripe<?>[numberOfStripes];
+        for (int i = 0; i < numberOfStripes; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        this.stripes = stripes;
+        this.stripeMask = numberOfStripes - 1;
+        this.maximumSizePerStripe = Math.max(1, maximumSize / numberOfStripes);
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.evictable = evictable;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return the live value already held for the key, or null if there was none and {@code value} has been stored
+     */
+    public V putIfAbsent(String key, V value) {
+        Stripe<V> stripe = stripeFor(key);
+        long now = nanoClock.getAsLong();
+
+        synchronized (stripe) {
+            evictExpired(stripe, now);
+            TimedValue<V> existing = stripe.entries.get(key);
+            if (existing != null) {
+                return existing.value;
+            }
+
+            stripe.entries.put(key, new TimedValue<>(value, now + timeToLiveNanos));
+            if (stripe.entries.size() > maximumSizePerStripe) {
+                evictOldest(stripe);
+            }
+            return null;
+        }
+    }
+
+    public V get(String key) {
+        Stripe<V> stripe = stripeFor(key);
+        long now = nanoClock.getAsLong();
+
+        synchronized (stripe) {
+            TimedValue<V> existing = stripe.entries.get(key);
+            if (existing == null) {
+                return null;
+            }
+            if (existing.expiresAtNanos - now <= 0 && evictable.test(existing.value)) {
+                stripe.entries.remove(key);
+                return null;
+            }
+            return existing.value;
+        }
+    }
+
+    /**
+     * Removes the key only if it still maps to {@code value}.
+     */
+    public void remove(String key, V value) {
+        Stripe<V> stripe = stripeFor(key);
+
+        synchronized (stripe) {
+            TimedValue<V> existing = stripe.entries.get(key);
+            if (existing != null && existing.value == value) {
+                stripe.entries.remove(key);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes the expired entries at the head of the stripe, stepping over any that cannot be evicted yet.
+     */
+    private void evictExpired(Stripe<V> stripe, long now) {
+        Iterator<TimedValue<V>> oldest = stripe.entries.values().iterator();
+        while (oldest.hasNext()) {
+            TimedValue<V> timedValue = oldest.next();
+            if (timedValue.expiresAtNanos - now > 0) {
+                return;
+            }
+            if (evictable.test(timedValue.value)) {
+                oldest.remove();
+            }
+        }
+    }
+
+    private void evictOldest(Stripe<V> stripe) {
+        Iterator<TimedValue<V>> oldest = stripe.entries.values().iterator();
+        while (oldest.hasNext()) {
+            if (evictable.test(oldest.next().value)) {
+                oldest.remove();
+                return;
+            }
+        }
+    }
+
+    private Stripe<V> stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    }
+
+    private static final class Stripe<V> {
+
+        private final LinkedHashMap<String, TimedValue<V>> entries = new LinkedHashMap<>();
+    }
+
+    private record TimedValue<V>(V value, long expiresAtNanos) {
+    }
+
+}
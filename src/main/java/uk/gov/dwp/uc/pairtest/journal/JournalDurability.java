@@ -0,0 +1,24 @@
+package uk.gov.dwp.uc.pairtest.journal;
+
+/**
+ * How far a record must have got towards the disk before an append returns.
+ */
+public enum JournalDurability {
+
+    /**
+     * Returns once the record is in the page cache. Survives the process crashing but not the machine.
+     */
+    OS_CACHE,
+
+    /**
+     * Returns once the record is in the page cache, and a background thread forces the segments to disk every group
+     * commit interval. A machine crash loses at most that interval of records.
+     */
+    PERIODIC,
+
+    /**
+     * Waits until the record has been forced to disk. Appends that arrive while a force is in progress share the next
+     * one, so one fsync covers many purchases under load.
+     */
+    GROUP_COMMIT
+}
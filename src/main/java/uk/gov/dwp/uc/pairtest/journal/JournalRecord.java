@@ -0,0 +1,9 @@
+package uk.gov.dwp.uc.pairtest.journal;
+
+/**
+ * One record read back from the journal. {@code purchaseId} is the same for every stage of a purchase.
+ */
+public record JournalRecord(long sequence, long purchaseId, JournalStage stage, long accountId, long timestampMillis,
+                            int numberOfAdultTickets, int numberOfChildTickets, int numberOfInfantTickets,
+                            int totalTicketPricePence, int numberOfSeatsReserved) {
+}
@@ -0,0 +1,89 @@
+package uk.gov.dwp.uc.pairtest.journal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The fixed-width binary layout of a journal record. Records are 64 bytes, so they never straddle a cache line or a
+ * page. Segment files start zero-filled and the checksum is written last, so a slot that was never written, or was
+ * only partly written when the machine went down, fails the checksum and is skipped on replay.
+ */
+final class JournalRecordLayout {
+
+    static final int RECORD_SIZE = 64;
+
+    private static final int PURCHASE_ID_OFFSET = 0;
+    private static final int ACCOUNT_ID_OFFSET = 8;
+    private static final int TIMESTAMP_OFFSET = 16;
+    private static final int ADULT_TICKETS_OFFSET = 24;
+    private static final int CHILD_TICKETS_OFFSET = 28;
+    private static final int INFANT_TICKETS_OFFSET = 32;
+    private static final int PRICE_OFFSET = 36;
+    private static final int SEATS_OFFSET = 40;
+    private static final int STAGE_OFFSET = 44;
+    private static final int CHECKSUM_OFFSET = 56;
+
+    private static final JournalStage[] STAGES = JournalStage.values();
+
+    private JournalRecordLayout() {
+    }
+
+    static void write(ByteBuffer segment, int offset, long purchaseId, JournalStage stage, long accountId, long timestampMillis,
+                      int numberOfAdultTickets, int numberOfChildTickets, int numberOfInfantTickets,
+                      int totalTicketPricePence, int numberOfSeatsReserved) {
+        int stageCode = stage.ordinal() + 1;
+        segment.putLong(offset + PURCHASE_ID_OFFSET, purchaseId);
+        segment.putLong(offset + ACCOUNT_ID_OFFSET, accountId);
+        segment.putLong(offset + TIMESTAMP_OFFSET, timestampMillis);
+        segment.putInt(offset + ADULT_TICKETS_OFFSET, numberOfAdultTickets);
+        segment.putInt(offset + CHILD_TICKETS_OFFSET, numberOfChildTickets);
+        segment.putInt(offset + INFANT_TICKETS_OFFSET, numberOfInfantTickets);
+        segment.putInt(offset + PRICE_OFFSET, totalTicketPricePence);
+        segment.putInt(offset + SEATS_OFFSET, numberOfSeatsReserved);
+        segment.putInt(offset + STAGE_OFFSET, stageCode);
+        segment.putLong(offset + CHECKSUM_OFFSET, checksum(purchaseId, accountId, timestampMillis, numberOfAdultTickets,
+                numberOfChildTickets, numberOfInfantTickets, totalTicketPricePence, numberOfSeatsReserved, stageCode));
+    }
+
+    /**
+     * @return the record in the slot, or null if the slot is empty or torn
+     */
+    static JournalRecord read(ByteBuffer segment, int offset, long sequence) {
+        long purchaseId = segment.getLong(offset + PURCHASE_ID_OFFSET);
+        long accountId = segment.getLong(offset + ACCOUNT_ID_OFFSET);
+        long timestampMillis = segment.getLong(offset + TIMESTAMP_OFFSET);
+        int numberOfAdultTickets = segment.getInt(offset + ADULT_TICKETS_OFFSET);
+        int numberOfChildTickets = segment.getInt(offset + CHILD_TICKETS_OFFSET);
+        int numberOfInfantTickets = segment.getInt(offset + INFANT_TICKETS_OFFSET);
+        int totalTicketPricePence = segment.getInt(offset + PRICE_OFFSET);
+        int numberOfSeatsReserved = segment.getInt(offset + SEATS_OFFSET);
+        int stageCode = segment.getInt(offset + STAGE_OFFSET);
+
+        if (stageCode < 1 || stageCode > STAGES.length
+                || segment.getLong(offset + CHECKSUM_OFFSET) != checksum(purchaseId, accountId, timestampMillis, numberOfAdultTickets,
+                numberOfChildTickets, numberOfInfantTickets, totalTicketPricePence, numberOfSeatsReserved, stageCode)) {
+            return null;
+        }
+
+        return new JournalRecord(sequence, purchaseId, STAGES[stageCode - 1], accountId, timestampMillis,
+                numberOfAdultTickets, numberOfChildTickets, numberOfInfantTickets, totalTicketPricePence, numberOfSeatsReserved);
+    }
+
+    private static long checksum(long purchaseId, long accountId, long timestampMillis, int numberOfAdultTickets,
+                                 int numberOfChildTickets, int numberOfInfantTickets, int totalTicketPricePence,
+                                 int numberOfSeatsReserved, int stageCode) {
+        long hash = 0x9E3779B97F4A7C15L;
+        hash = mix(hash, purchaseId);
+        hash = mix(hash, accountId);
+        hash = mix(hash, timestampMillis);
+        hash = mix(hash, ((long) numberOfAdultTickets << 32) | (numberOfChildTickets & 0xFFFFFFFFL));
+        hash = mix(hash, ((long) numberOfInfantTickets << 32) | (totalTicketPricePence & 0xFFFFFFFFL));
+        hash = mix(hash, ((long) numberOfSeatsReserved << 32) | (stageCode & 0xFFFFFFFFL));
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        hash ^= value;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,114 @@
+package uk.gov.dwp.uc.pairtest.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static uk.gov.dwp.uc.pairtest.journal.JournalRecordLayout.RECORD_SIZE;
+
+/**
+ * Reads a purchase journal back after a crash. Segments are scanned in order, one mapped file at a time, and empty or
+ * torn slots are skipped.
+ * <p>
+ * Run {@code main} with the journal directory to list every purchase that needs reconciling, one comma-separated line
+ * per purchase: those paid for with no reserved record, and those whose payment was attempted but never confirmed.
+ */
+public final class JournalRecovery {
+
+    private JournalRecovery() {
+    }
+
+    public static void replay(Path directory, Consumer<JournalRecord> consumer) {
+        for (Path segmentPath : JournalSegments.list(directory)) {
+            long firstSequence = JournalSegments.firstSequence(segmentPath);
+            MappedByteBuffer segment = map(segmentPath);
+
+            int numberOfSlots = segment.capacity() / RECORD_SIZE;
+            for (int slot = 0; slot < numberOfSlots; slot++) {
+                JournalRecord journalRecord = JournalRecordLayout.read(segment, slot * RECORD_SIZE, firstSequence + slot);
+                if (journalRecord != null) {
+                    consumer.accept(journalRecord);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the paid record of each purchase with no reserved record, in the order they were paid
+     */
+    public static List<JournalRecord> findPaidButNotReserved(Path directory) {
+        Map<Long, JournalRecord> unreservedPurchases = new HashMap<>();
+        replay(directory, journalRecord -> {
+            switch (journalRecord.stage()) {
+                case PAID -> unreservedPurchases.put(journalRecord.purchaseId(), journalRecord);
+                case RESERVED -> unreservedPurchases.remove(journalRecord.purchaseId());
+            }
+        });
+        return inSequenceOrder(unreservedPurchases);
+    }
+
+    /**
+     * A purchase whose payment was attempted but that has neither a paid nor a reserved record may or may not have been
+     * charged: the process went down during the payment, or the paid record could not be written and the reservation
+     * then failed too. Its payment has to be checked with the payment gateway.
+     *
+     * @return the intent record of each such purchase, in the order they were started
+     */
+    public static List<JournalRecord> findPaymentUnconfirmed(Path directory) {
+        Map<Long, JournalRecord> unconfirmedPurchases = new HashMap<>();
+        replay(directory, journalRecord -> {
+            switch (journalRecord.stage()) {
+                case INTENT -> unconfirmedPurchases.put(journalRecord.purchaseId(), journalRecord);
+                case PAID, RESERVED -> unconfirmedPurchases.remove(journalRecord.purchaseId());
+            }
+        });
+        return inSequenceOrder(unconfirmedPurchases);
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: JournalRecovery <journal directory>");
+            System.exit(2);
+        }
+
+        Path directory = Path.of(args[0]);
+        List<JournalRecord> paidButNotReserved = findPaidButNotReserved(directory);
+        List<JournalRecord> paymentUnconfirmed = findPaymentUnconfirmed(directory);
+        System.out.println("status,purchaseId,accountId,timestampMillis,adultTickets,childTickets,infantTickets,totalTicketPricePence,seatsToReserve");
+        print("PAID_NOT_RESERVED", paidButNotReserved);
+        print("PAYMENT_UNCONFIRMED", paymentUnconfirmed);
+        System.err.println(paidButNotReserved.size() + " purchase(s) paid but not reserved, "
+                + paymentUnconfirmed.size() + " purchase(s) with an unconfirmed payment");
+    }
+
+    private static void print(String status, List<JournalRecord> journalRecords) {
+        for (JournalRecord journalRecord : journalRecords) {
+            System.out.println(status + "," + journalRecord.purchaseId() + "," + journalRecord.accountId() + "," + journalRecord.timestampMillis()
+                    + "," + journalRecord.numberOfAdultTickets() + "," + journalRecord.numberOfChildTickets()
+                    + "," + journalRecord.numberOfInfantTickets() + "," + journalRecord.totalTicketPricePence()
+                    + "," + journalRecord.numberOfSeatsReserved());
+        }
+    }
+
+    private static List<JournalRecord> inSequenceOrder(Map<Long, JournalRecord> journalRecordsByPurchaseId) {
+        List<JournalRecord> journalRecords = new ArrayList<>(journalRecordsByPurchaseId.values());
+        journalRecords.sort((first, second) -> Long.compare(first.sequence(), second.sequence()));
+        return journalRecords;
+    }
+
+    private static MappedByteBuffer map(Path segmentPath) {
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read journal segment " + segmentPath, e);
+        }
+    }
+}
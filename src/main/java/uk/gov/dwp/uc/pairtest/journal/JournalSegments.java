@@ -0,0 +1,41 @@
+package uk.gov.dwp.uc.pairtest.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Segment files are named after the sequence number of their first record, zero-padded so that sorting the names sorts
+ * the segments.
+ */
+final class JournalSegments {
+
+    private static final String PREFIX = "purchases-";
+    private static final String SUFFIX = ".journal";
+
+    private JournalSegments() {
+    }
+
+    static Path path(Path directory, long firstSequence) {
+        return directory.resolve(String.format("%s%019d%s", PREFIX, firstSequence, SUFFIX));
+    }
+
+    static long firstSequence(Path segment) {
+        String fileName = segment.getFileName().toString();
+        return Long.parseLong(fileName.substring(PREFIX.length(), fileName.length() - SUFFIX.length()));
+    }
+
+    static List<Path> list(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().startsWith(PREFIX) && file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to list journal segments in " + directory, e);
+        }
+    }
+}
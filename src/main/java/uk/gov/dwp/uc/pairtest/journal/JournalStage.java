@@ -0,0 +1,10 @@
+package uk.gov.dwp.uc.pairtest.journal;
+
+/**
+ * The stages a purchase is journalled at. A record stores its stage's ordinal, so new stages go at the end.
+ */
+public enum JournalStage {
+    PAID,
+    RESERVED,
+    INTENT
+}
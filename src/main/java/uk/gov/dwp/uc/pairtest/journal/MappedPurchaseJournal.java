@@ -0,0 +1,292 @@
+package uk.gov.dwp.uc.pairtest.journal;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static uk.gov.dwp.uc.pairtest.config.Config.JOURNAL_GROUP_COMMIT_INTERVAL_MILLIS;
+import static uk.gov.dwp.uc.pairtest.config.Config.JOURNAL_SEGMENT_SIZE_BYTES;
+import static uk.gov.dwp.uc.pairtest.journal.JournalRecordLayout.RECORD_SIZE;
+
+/**
+ * An append-only journal of fixed-width records in memory-mapped segment files. Each append claims the next sequence
+ * number with a single atomic increment and writes its record straight into the mapped segment, so appenders never
+ * lock or copy. A new journal over an existing directory carries on from the sequence after the last segment.
+ * <p>
+ * Unless the durability is {@link JournalDurability#OS_CACHE}, a flusher thread forces segments that have new records
+ * to disk. A failed force is sticky: every later {@link JournalDurability#GROUP_COMMIT} append throws it.
+ */
+public class MappedPurchaseJournal implements PurchaseJournal, AutoCloseable {
+
+    private final Path directory;
+    private final JournalDurability durability;
+    private final int segmentSizeBytes;
+    private final int recordsPerSegment;
+    private final long groupCommitIntervalMillis;
+    private final long firstSequence;
+    private final AtomicLong nextSequence;
+    private final ConcurrentSkipListMap<Long, Segment> openSegments = new ConcurrentSkipListMap<>();
+    private final AtomicLong flushRequests = new AtomicLong();
+    private final Object flushMonitor = new Object();
+    private final Object forceLock = new Object();
+    private final Thread flusher;
+
+    private volatile Segment currentSegment;
+    private volatile boolean closed;
+    private volatile RuntimeException flushFailure;
+    private long completedFlushRequest;
+
+    public MappedPurchaseJournal(Path directory, JournalDurability durability) {
+        this(directory, durability, JOURNAL_SEGMENT_SIZE_BYTES, Duration.ofMillis(JOURNAL_GROUP_COMMIT_INTERVAL_MILLIS));
+    }
+
+    public MappedPurchaseJournal(Path directory, JournalDurability durability, int segmentSizeBytes, Duration groupCommitInterval) {
+        if (segmentSizeBytes < RECORD_SIZE || segmentSizeBytes % RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("Segment size must be a positive multiple of " + RECORD_SIZE + " bytes: " + segmentSizeBytes);
+        }
+
+        this.directory = directory;
+        this.durability = durability;
+        this.segmentSizeBytes = segmentSizeBytes;
+        this.recordsPerSegment = segmentSizeBytes / RECORD_SIZE;
+        this.groupCommitIntervalMillis = Math.max(1, groupCommitInterval.toMillis());
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create journal directory " + directory, e);
+        }
+        this.firstSequence = nextSequenceAfterExistingSegments(directory);
+        this.nextSequence = new AtomicLong(firstSequence);
+        this.currentSegment = openSegment(firstSequence);
+
+        this.flusher = durability == JournalDurability.OS_CACHE
+                ? null
+                : Thread.ofPlatform().name("purchase-journal-flusher").daemon().start(this::runFlusher);
+    }
+
+    /**
+     * @return the sequence number of the intent record, which is also the purchase id
+     */
+    @Override
+    public long recordIntent(long accountId, TicketPurchaseSummary purchaseSummary) {
+        return append(-1, JournalStage.INTENT, accountId, purchaseSummary);
+    }
+
+    @Override
+    public void recordPaid(long purchaseId, long accountId, TicketPurchaseSummary purchaseSummary) {
+        append(purchaseId, JournalStage.PAID, accountId, purchaseSummary);
+    }
+
+    @Override
+    public void recordReserved(long purchaseId, long accountId, TicketPurchaseSummary purchaseSummary) {
+        append(purchaseId, JournalStage.RESERVED, accountId, purchaseSummary);
+    }
+
+    public long getNextSequence() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Forces every segment with records not yet on disk, whatever the durability.
+     */
+    public void force() {
+        forceWrittenSegments();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (flusher != null) {
+            synchronized (flushMonitor) {
+                flushMonitor.notifyAll();
+            }
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        long flushRequest = flushRequests.get();
+        forceWrittenSegments();
+        completeFlush(flushRequest);
+    }
+
+    private long append(long purchaseId, JournalStage stage, long accountId, TicketPurchaseSummary purchaseSummary) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+
+        long sequence = nextSequence.getAndIncrement();
+        Segment segment = segmentFor(sequence);
+        JournalRecordLayout.write(segment.buffer, (int) (sequence - segment.firstSequence) * RECORD_SIZE,
+                purchaseId < 0 ? sequence : purchaseId, stage, accountId, System.currentTimeMillis(),
+                purchaseSummary.getNumberOfTickets(Type.ADULT),
+                purchaseSummary.getNumberOfTickets(Type.CHILD),
+                purchaseSummary.getNumberOfTickets(Type.INFANT),
+                purchaseSummary.getTotalTicketPricePence(),
+                purchaseSummary.getNumberOfSeatsToReserve());
+        segment.writtenRecords.incrementAndGet();
+
+        if (durability == JournalDurability.GROUP_COMMIT) {
+            awaitForced(flushRequests.incrementAndGet());
+        }
+        return sequence;
+    }
+
+    private Segment segmentFor(long sequence) {
+        long segmentFirstSequence = firstSequence + (sequence - firstSequence) / recordsPerSegment * recordsPerSegment;
+        Segment segment = currentSegment;
+        if (segment.firstSequence == segmentFirstSequence) {
+            return segment;
+        }
+
+        segment = openSegments.get(segmentFirstSequence);
+        return segment != null ? segment : openSegment(segmentFirstSequence);
+    }
+
+    private synchronized Segment openSegment(long segmentFirstSequence) {
+        Segment segment = openSegments.get(segmentFirstSequence);
+        if (segment != null) {
+            return segment;
+        }
+
+        if (durability == JournalDurability.OS_CACHE) {
+            openSegments.values().removeIf(openSegment -> openSegment.writtenRecords.get() == recordsPerSegment);
+        }
+
+        Path segmentPath = JournalSegments.path(directory, segmentFirstSequence);
+        try (FileChannel channel = FileChannel.open(segmentPath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = new Segment(segmentFirstSequence, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSizeBytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create journal segment " + segmentPath, e);
+        }
+
+        openSegments.put(segmentFirstSequence, segment);
+        if (currentSegment == null || segmentFirstSequence > currentSegment.firstSequence) {
+            currentSegment = segment;
+        }
+        return segment;
+    }
+
+    private void awaitForced(long flushRequest) {
+        synchronized (flushMonitor) {
+            flushMonitor.notifyAll();
+            while (completedFlushRequest < flushRequest) {
+                if (flushFailure != null) {
+                    throw flushFailure;
+                }
+                if (closed) {
+                    forceWrittenSegments();
+                    return;
+                }
+                try {
+                    flushMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new InterruptedIOException("Interrupted waiting for the journal to be forced"));
+                }
+            }
+        }
+    }
+
+    private void runFlusher() {
+        while (!closed) {
+            synchronized (flushMonitor) {
+                try {
+                    if (durability == JournalDurability.GROUP_COMMIT) {
+                        while (!closed && flushRequests.get() == completedFlushRequest) {
+                            flushMonitor.wait();
+                        }
+                    } else {
+                        flushMonitor.wait(groupCommitIntervalMillis);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+
+            long flushRequest = flushRequests.get();
+            try {
+                forceWrittenSegments();
+            } catch (RuntimeException e) {
+                flushFailure = e;
+                synchronized (flushMonitor) {
+                    flushMonitor.notifyAll();
+                }
+                return;
+            }
+            completeFlush(flushRequest);
+        }
+    }
+
+    private void completeFlush(long flushRequest) {
+        synchronized (flushMonitor) {
+            completedFlushRequest = Math.max(completedFlushRequest, flushRequest);
+            flushMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Forces each open segment that has had records written since it was last forced, then drops segments that are
+     * full and on disk. A record counts as written once its appender has incremented {@code writtenRecords}, which it
+     * does before asking for a flush.
+     */
+    private void forceWrittenSegments() {
+        synchronized (forceLock) {
+            for (Segment segment : openSegments.values()) {
+                int writtenRecords = segment.writtenRecords.get();
+                if (writtenRecords != segment.forcedRecords) {
+                    segment.buffer.force();
+                    segment.forcedRecords = writtenRecords;
+                }
+                if (writtenRecords == recordsPerSegment) {
+                    openSegments.remove(segment.firstSequence, segment);
+                }
+            }
+        }
+    }
+
+    private static long nextSequenceAfterExistingSegments(Path directory) {
+        List<Path> segments = JournalSegments.list(directory);
+        if (segments.isEmpty()) {
+            return 0;
+        }
+
+        Path lastSegment = segments.get(segments.size() - 1);
+        try {
+            return JournalSegments.firstSequence(lastSegment) + Files.size(lastSegment) / RECORD_SIZE;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read journal segment " + lastSegment, e);
+        }
+    }
+
+    private static final class Segment {
+
+        private final long firstSequence;
+        private final MappedByteBuffer buffer;
+        private final AtomicInteger writtenRecords = new AtomicInteger();
+        private int forcedRecords;
+
+        private Segment(long firstSequence, MappedByteBuffer buffer) {
+            this.firstSequence = firstSequence;
+            this.buffer = buffer;
+        }
+    }
+
+}
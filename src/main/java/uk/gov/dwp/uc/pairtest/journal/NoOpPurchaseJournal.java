@@ -0,0 +1,28 @@
+package uk.gov.dwp.uc.pairtest.journal;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes nothing, but still hands out a distinct purchase id for each purchase, so that events and other records keyed
+ * by purchase id can tell purchases apart without a journal.
+ */
+final class NoOpPurchaseJournal implements PurchaseJournal {
+
+    private final AtomicLong nextPurchaseId = new AtomicLong();
+
+    @Override
+    public long recordIntent(long accountId, TicketPurchaseSummary purchaseSummary) {
+        return nextPurchaseId.getAndIncrement();
+    }
+
+    @Override
+    public void recordPaid(long purchaseId, long accountId, TicketPurchaseSummary purchaseSummary) {
+    }
+
+    @Override
+    public void recordReserved(long purchaseId, long accountId, TicketPurchaseSummary purchaseSummary) {
+    }
+
+}
@@ -0,0 +1,20 @@
+package uk.gov.dwp.uc.pairtest.journal;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+
+/**
+ * Keeps a record of each stage a purchase completes, so that what was charged can be reconciled against what was
+ * reserved after a crash. {@link #recordIntent} is called before the customer is charged and returns the id that ties
+ * the purchase's later records to it.
+ */
+public interface PurchaseJournal {
+
+    PurchaseJournal NO_OP = new NoOpPurchaseJournal();
+
+    long recordIntent(long accountId, TicketPurchaseSummary purchaseSummary);
+
+    void recordPaid(long purchaseId, long accountId, TicketPurchaseSummary purchaseSummary);
+
+    void recordReserved(long purchaseId, long accountId, TicketPurchaseSummary purchaseSummary);
+
+}
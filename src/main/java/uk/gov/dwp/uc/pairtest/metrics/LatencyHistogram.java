@@ -0,0 +1,100 @@
+package uk.gov.dwp.uc.pairtest.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size log-linear histogram in the style of HdrHistogram. Values below {@value #SUB_BUCKET_COUNT} get a bucket
+ * each; above that every power of two is split into {@value #HALF_SUB_BUCKET_COUNT} buckets, so a recorded value is
+ * never more than about 6% below its true value. Values above about 18 minutes in nanoseconds land in the last bucket.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int HIGHEST_TRACKABLE_BIT = 40;
+
+    static final int BUCKET_COUNT = bucketIndex((1L << HIGHEST_TRACKABLE_BIT) - 1) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong maximumValue = new AtomicLong();
+
+    public void record(long value) {
+        counts.getAndIncrement(bucketIndex(value));
+
+        long currentMaximum = maximumValue.get();
+        while (value > currentMaximum && !maximumValue.weakCompareAndSetVolatile(currentMaximum, value)) {
+            currentMaximum = maximumValue.get();
+        }
+    }
+
+    void addCountsTo(long[] totals) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            totals[i] += counts.get(i);
+        }
+    }
+
+    public long getMaximumValue() {
+        return maximumValue.get();
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return the lowest value of the bucket holding the given percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        addCountsTo(bucketCounts);
+        return valueAtPercentile(bucketCounts, getMaximumValue(), percentile);
+    }
+
+    static long valueAtPercentile(long[] bucketCounts, long maximumValue, double percentile) {
+        long count = 0;
+        for (long bucketCount : bucketCounts) {
+            count += bucketCount;
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long targetCount = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seenCount = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seenCount += bucketCounts[i];
+            if (seenCount >= targetCount) {
+                return Math.min(lowestValueInBucket(i), maximumValue);
+            }
+        }
+        return maximumValue;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return value < 0 ? 0 : (int) value;
+        }
+
+        int mostSignificantBit = Math.min(63 - Long.numberOfLeadingZeros(value), HIGHEST_TRACKABLE_BIT - 1);
+        int shift = mostSignificantBit - (SUB_BUCKET_BITS - 1);
+        long subBucket = Math.min(value >>> shift, SUB_BUCKET_COUNT - 1);
+        return shift * HALF_SUB_BUCKET_COUNT + (int) subBucket;
+    }
+
+    static long lowestValueInBucket(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+
+        int shift = bucketIndex / HALF_SUB_BUCKET_COUNT - 1;
+        long subBucket = bucketIndex % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+        return subBucket << shift;
+    }
+
+}
@@ -0,0 +1,28 @@
+package uk.gov.dwp.uc.pairtest.metrics;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+
+/**
+ * Records where the time goes in a purchase. Stages are timed as laps: {@link #startTimer()} is called once and each
+ * {@link #lap(PurchaseStage, long)} records the time since the previous lap and returns the start of the next one.
+ * <p>
+ * Implementations must not allocate while recording.
+ */
+public interface PurchaseMetrics {
+
+    PurchaseMetrics NO_OP = new NoOpPurchaseMetrics();
+
+    long startTimer();
+
+    long lap(PurchaseStage purchaseStage, long lapStartNanos);
+
+    void recordRejected();
+
+    /**
+     * Counts a journal record that could not be written after the customer was charged. The purchase carries on.
+     */
+    void recordJournalFailure();
+
+    void recordPurchased(TicketPurchaseSummary purchaseSummary);
+
+}
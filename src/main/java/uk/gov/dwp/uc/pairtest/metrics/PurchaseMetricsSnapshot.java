@@ -0,0 +1,95 @@
+package uk.gov.dwp.uc.pairtest.metrics;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import static uk.gov.dwp.uc.pairtest.metrics.StripedPurchaseMetrics.FIRST_TICKET_TYPE;
+import static uk.gov.dwp.uc.pairtest.metrics.StripedPurchaseMetrics.JOURNAL_FAILURES;
+import static uk.gov.dwp.uc.pairtest.metrics.StripedPurchaseMetrics.REJECTED_PURCHASES;
+import static uk.gov.dwp.uc.pairtest.metrics.StripedPurchaseMetrics.VALID_PURCHASES;
+
+/**
+ * Immutable Object
+ * <p>
+ * Purchase counts and per-stage latency distributions at the moment {@link StripedPurchaseMetrics#snapshot()} was
+ * called. Latencies are in nanoseconds.
+ */
+
+public final class PurchaseMetricsSnapshot {
+
+    private static final double[] EXPORTED_PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private final long[][] latencyCounts;
+    private final long[] maximumLatencies;
+    private final long[] counters;
+
+    PurchaseMetricsSnapshot(long[][] latencyCounts, long[] maximumLatencies, long[] counters) {
+        this.latencyCounts = latencyCounts;
+        this.maximumLatencies = maximumLatencies;
+        this.counters = counters;
+    }
+
+    public long getValidPurchases() {
+        return counters[VALID_PURCHASES];
+    }
+
+    public long getRejectedPurchases() {
+        return counters[REJECTED_PURCHASES];
+    }
+
+    public long getJournalFailures() {
+        return counters[JOURNAL_FAILURES];
+    }
+
+    public long getTicketsSold(Type ticketType) {
+        return counters[FIRST_TICKET_TYPE + ticketType.ordinal()];
+    }
+
+    public long getCount(PurchaseStage purchaseStage) {
+        long count = 0;
+        for (long bucketCount : latencyCounts[purchaseStage.ordinal()]) {
+            count += bucketCount;
+        }
+        return count;
+    }
+
+    public long getMaximumNanos(PurchaseStage purchaseStage) {
+        return maximumLatencies[purchaseStage.ordinal()];
+    }
+
+    /**
+     * @return the lowest value of the bucket holding the given percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentileNanos(PurchaseStage purchaseStage, double percentile) {
+        return LatencyHistogram.valueAtPercentile(latencyCounts[purchaseStage.ordinal()], getMaximumNanos(purchaseStage), percentile);
+    }
+
+    /**
+     * Writes the snapshot as one {@code name{labels} value} line per metric.
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append("purchases_total{result=\"valid\"} ").append(getValidPurchases()).append('\n');
+        text.append("purchases_total{result=\"rejected\"} ").append(getRejectedPurchases()).append('\n');
+        text.append("journal_failures_total ").append(getJournalFailures()).append('\n');
+
+        for (Type ticketType : Type.values()) {
+            text.append("tickets_sold_total{type=\"").append(ticketType).append("\"} ")
+                    .append(getTicketsSold(ticketType)).append('\n');
+        }
+
+        for (PurchaseStage purchaseStage : PurchaseStage.values()) {
+            for (double percentile : EXPORTED_PERCENTILES) {
+                text.append("purchase_stage_latency_nanos{stage=\"").append(purchaseStage)
+                        .append("\",quantile=\"").append(percentile / 100.0).append("\"} ")
+                        .append(getValueAtPercentileNanos(purchaseStage, percentile)).append('\n');
+            }
+            text.append("purchase_stage_latency_nanos_max{stage=\"").append(purchaseStage).append("\"} ")
+                    .append(getMaximumNanos(purchaseStage)).append('\n');
+            text.append("purchase_stage_latency_nanos_count{stage=\"").append(purchaseStage).append("\"} ")
+                    .append(getCount(purchaseStage)).append('\n');
+        }
+
+        return text.toString();
+    }
+
+}
@@ -0,0 +1,5 @@
+package uk.gov.dwp.uc.pairtest.metrics;
+
+public enum PurchaseStage {
+    VALIDATION, PAYMENT, RESERVATION
+}
@@ -0,0 +1,133 @@
+package uk.gov.dwp.uc.pairtest.metrics;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static uk.gov.dwp.uc.pairtest.config.Config.METRICS_TIMING_SAMPLE_INTERVAL;
+
+/**
+ * Records purchase metrics into a set of stripes chosen by thread id, so threads recording at the same time rarely
+ * touch the same counters. {@link #snapshot()} adds the stripes together.
+ * <p>
+ * Each count is exact once recording stops. A snapshot taken while purchases are being recorded reads the counters one
+ * at a time, so it may include a purchase but not yet all of its tickets. Stage latencies are recorded for one purchase
+ * in every {@code timingSampleInterval}, picked at random, because reading the clock four times costs more than the rest
+ * of a purchase put together.
+ */
+public class StripedPurchaseMetrics implements PurchaseMetrics {
+
+    static final int VALID_PURCHASES = 0;
+    static final int FIRST_TICKET_TYPE = 1;
+    static final int REJECTED_PURCHASES = 4;
+    static final int JOURNAL_FAILURES = 5;
+
+    private static final PurchaseStage[] PURCHASE_STAGES = PurchaseStage.values();
+    private static final Type[] TICKET_TYPES = Type.values();
+    private static final int NUMBER_OF_COUNTERS = 6;
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int timingSampleMask;
+
+    public StripedPurchaseMetrics() {
+        this(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1, METRICS_TIMING_SAMPLE_INTERVAL);
+    }
+
+    StripedPurchaseMetrics(int numberOfStripes, int timingSampleInterval) {
+        if (Integer.bitCount(numberOfStripes) != 1) {
+            throw new IllegalArgumentException("Number of stripes must be a power of two: " + numberOfStripes);
+        }
+        if (Integer.bitCount(timingSampleInterval) != 1) {
+            throw new IllegalArgumentException("Timing sample interval must be a power of two: " + timingSampleInterval);
+        }
+
+        this.stripes = new Stripe[numberOfStripes];
+        for (int i = 0; i < numberOfStripes; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = numberOfStripes - 1;
+        this.timingSampleMask = timingSampleInterval - 1;
+    }
+
+    @Override
+    public long startTimer() {
+        if ((ThreadLocalRandom.current().nextInt() & timingSampleMask) != 0) {
+            return NOT_TIMED;
+        }
+        return System.nanoTime();
+    }
+
+    @Override
+    public long lap(PurchaseStage purchaseStage, long lapStartNanos) {
+        if (lapStartNanos == NOT_TIMED) {
+            return NOT_TIMED;
+        }
+
+        long now = System.nanoTime();
+        currentStripe().latencies[purchaseStage.ordinal()].record(now - lapStartNanos);
+        return now;
+    }
+
+    @Override
+    public void recordRejected() {
+        currentStripe().counters.getAndIncrement(REJECTED_PURCHASES);
+    }
+
+    @Override
+    public void recordJournalFailure() {
+        currentStripe().counters.getAndIncrement(JOURNAL_FAILURES);
+    }
+
+    @Override
+    public void recordPurchased(TicketPurchaseSummary purchaseSummary) {
+        AtomicLongArray counters = currentStripe().counters;
+        counters.getAndIncrement(VALID_PURCHASES);
+        for (Type ticketType : TICKET_TYPES) {
+            int numberOfTickets = purchaseSummary.getNumberOfTickets(ticketType);
+            if (numberOfTickets != 0) {
+                counters.getAndAdd(FIRST_TICKET_TYPE + ticketType.ordinal(), numberOfTickets);
+            }
+        }
+    }
+
+    public PurchaseMetricsSnapshot snapshot() {
+        long[][] latencyCounts = new long[PURCHASE_STAGES.length][LatencyHistogram.BUCKET_COUNT];
+        long[] maximumLatencies = new long[PURCHASE_STAGES.length];
+        long[] counters = new long[NUMBER_OF_COUNTERS];
+
+        for (Stripe stripe : stripes) {
+            for (PurchaseStage purchaseStage : PURCHASE_STAGES) {
+                LatencyHistogram latencyHistogram = stripe.latencies[purchaseStage.ordinal()];
+                latencyHistogram.addCountsTo(latencyCounts[purchaseStage.ordinal()]);
+                maximumLatencies[purchaseStage.ordinal()] = Math.max(maximumLatencies[purchaseStage.ordinal()], latencyHistogram.getMaximumValue());
+            }
+
+            for (int i = 0; i < NUMBER_OF_COUNTERS; i++) {
+                counters[i] += stripe.counters.get(i);
+            }
+        }
+
+        return new PurchaseMetricsSnapshot(latencyCounts, maximumLatencies, counters);
+    }
+
+    private Stripe currentStripe() {
+        return stripes[(int) Thread.currentThread().threadId() & stripeMask];
+    }
+
+    private static final class Stripe {
+
+        private final LatencyHistogram[] latencies = new LatencyHistogram[PURCHASE_STAGES.length];
+        private final AtomicLongArray counters = new AtomicLongArray(NUMBER_OF_COUNTERS);
+
+        private Stripe() {
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LatencyHistogram();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,282 @@
+package uk.gov.dwp.uc.pairtest.pricing;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import static uk.gov.dwp.uc.pairtest.config.Config.MAXIMUM_NUMBER_OF_TICKETS;
+
+/**
+ * Compiles pricing rules declared as properties into {@link PricingRules}. The rules are:
+ * <pre>
+ * screening.&lt;screeningId&gt;=&lt;CLASS&gt;
+ * band.&lt;BAND&gt;=HH:mm-HH:mm
+ * price.&lt;CLASS or *&gt;.&lt;BAND or *&gt;.&lt;TYPE&gt;=&lt;pence&gt;
+ * discount.&lt;minimumNumberOfTickets&gt;=&lt;percent&gt;
+ * maximumNumberOfTickets=25
+ * </pre>
+ * A band runs up to but not including its end time, may wrap past midnight and must not overlap another band. When
+ * several prices match, a named class and band beats a named class, which beats a named band, which beats {@code *.*}.
+ * Every class, band and ticket type must end up with a price, including the implicit
+ * {@value PricingRules#DEFAULT_NAME} class; the implicit {@value PricingRules#DEFAULT_NAME} band only needs one if some
+ * minute of the day falls outside the named bands. A discount applies from its ticket count
+ * upwards until the next one takes over, and {@code maximumNumberOfTickets} defaults to
+ * {@link uk.gov.dwp.uc.pairtest.config.Config#MAXIMUM_NUMBER_OF_TICKETS}.
+ */
+public final class PricingRuleCompiler {
+
+    static final String SCREENING_PROPERTY_PREFIX = "screening.";
+    static final String BAND_PROPERTY_PREFIX = "band.";
+    static final String PRICE_PROPERTY_PREFIX = "price.";
+    static final String DISCOUNT_PROPERTY_PREFIX = "discount.";
+    static final String MAXIMUM_NUMBER_OF_TICKETS_PROPERTY = "maximumNumberOfTickets";
+    static final String WILDCARD = "*";
+
+    private static final int NUMBER_OF_TICKET_TYPES = Type.values().length;
+    private static final int MAXIMUM_NUMBER_OF_NAMES = Byte.MAX_VALUE + 1;
+    private static final int UNPRICED = -1;
+
+    private PricingRuleCompiler() {
+    }
+
+    public static PricingRules compile(Path rulesFile) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(rulesFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return compile(properties);
+    }
+
+    public static PricingRules compile(Properties properties) {
+        Map<String, Integer> screeningClassIndexes = new LinkedHashMap<>();
+        Map<String, Integer> timeBandIndexes = new LinkedHashMap<>();
+        screeningClassIndexes.put(PricingRules.DEFAULT_NAME, 0);
+        timeBandIndexes.put(PricingRules.DEFAULT_NAME, 0);
+
+        Map<Long, String> screeningClassById = new HashMap<>();
+        Map<String, int[]> minutesByTimeBand = new TreeMap<>();
+        List<String[]> priceRules = new ArrayList<>();
+        TreeMap<Integer, Integer> discountPercentByMinimumTickets = new TreeMap<>();
+        int maximumNumberOfTickets = MAXIMUM_NUMBER_OF_TICKETS;
+
+        for (String name : properties.stringPropertyNames()) {
+            String value = properties.getProperty(name).trim();
+            if (name.startsWith(SCREENING_PROPERTY_PREFIX)) {
+                long screeningId = parseLong(name, name.substring(SCREENING_PROPERTY_PREFIX.length()));
+                screeningClassById.put(screeningId, value);
+                addName(screeningClassIndexes, value, name);
+            } else if (name.startsWith(BAND_PROPERTY_PREFIX)) {
+                String timeBand = name.substring(BAND_PROPERTY_PREFIX.length());
+                minutesByTimeBand.put(timeBand, parseTimeRange(name, value));
+                addName(timeBandIndexes, timeBand, name);
+            } else if (name.startsWith(PRICE_PROPERTY_PREFIX)) {
+                String[] classBandAndType = name.substring(PRICE_PROPERTY_PREFIX.length()).split("\\.", -1);
+                if (classBandAndType.length != 3) {
+                    throw new IllegalArgumentException("Price rule " + name + " must be price.<CLASS>.<BAND>.<TYPE>");
+                }
+                priceRules.add(new String[]{classBandAndType[0], classBandAndType[1], classBandAndType[2], name, value});
+            } else if (name.startsWith(DISCOUNT_PROPERTY_PREFIX)) {
+                int minimumTickets = parseNonNegativeInt(name, name.substring(DISCOUNT_PROPERTY_PREFIX.length()));
+                int discountPercent = parseNonNegativeInt(name, value);
+                if (discountPercent > 100) {
+                    throw new IllegalArgumentException("Discount " + name + " must not exceed 100%: " + value);
+                }
+                discountPercentByMinimumTickets.put(minimumTickets, discountPercent);
+            } else if (name.equals(MAXIMUM_NUMBER_OF_TICKETS_PROPERTY)) {
+                maximumNumberOfTickets = parseNonNegativeInt(name, value);
+            } else {
+                throw new IllegalArgumentException("Unknown pricing rule " + name);
+            }
+        }
+
+        byte[] timeBandByMinute = compileTimeBands(minutesByTimeBand, timeBandIndexes);
+        int[] pricesPence = compilePrices(priceRules, screeningClassIndexes, timeBandIndexes, timeBandByMinute, maximumNumberOfTickets);
+
+        long[] screeningIds = PricingRules.emptyScreeningTable(screeningClassById.size());
+        byte[] screeningClasses = new byte[screeningIds.length];
+        for (Map.Entry<Long, String> screening : screeningClassById.entrySet()) {
+            PricingRules.putScreening(screeningIds, screeningClasses, screening.getKey(),
+                    (byte) (int) screeningClassIndexes.get(screening.getValue()));
+        }
+
+        byte[] discountPercentByTickets = new byte[maximumNumberOfTickets + 1];
+        for (int numberOfTickets = 0; numberOfTickets <= maximumNumberOfTickets; numberOfTickets++) {
+            Map.Entry<Integer, Integer> discount = discountPercentByMinimumTickets.floorEntry(numberOfTickets);
+            discountPercentByTickets[numberOfTickets] = discount == null ? 0 : (byte) (int) discount.getValue();
+        }
+
+        return new PricingRules(screeningClassIndexes.keySet().toArray(String[]::new), timeBandIndexes.keySet().toArray(String[]::new),
+                screeningIds, screeningClasses, timeBandByMinute, pricesPence, discountPercentByTickets);
+    }
+
+    private static byte[] compileTimeBands(Map<String, int[]> minutesByTimeBand, Map<String, Integer> timeBandIndexes) {
+        byte[] timeBandByMinute = new byte[PricingRules.MINUTES_PER_DAY];
+        String[] timeBandNames = timeBandIndexes.keySet().toArray(String[]::new);
+        for (Map.Entry<String, int[]> timeBand : minutesByTimeBand.entrySet()) {
+            byte timeBandIndex = (byte) (int) timeBandIndexes.get(timeBand.getKey());
+            int startMinute = timeBand.getValue()[0];
+            int endMinute = timeBand.getValue()[1];
+            for (int minute = startMinute; minute != endMinute; minute = (minute + 1) % PricingRules.MINUTES_PER_DAY) {
+                if (timeBandByMinute[minute] != 0) {
+                    throw new IllegalArgumentException("Time bands " + timeBandNames[timeBandByMinute[minute]]
+                            + " and " + timeBand.getKey() + " overlap at " + formatMinute(minute));
+                }
+                timeBandByMinute[minute] = timeBandIndex;
+            }
+        }
+        return timeBandByMinute;
+    }
+
+    /**
+     * Resolves every cell of the price matrix to its most specific matching rule. Only the default band may be left
+     * unpriced, and only when the named bands cover the whole day so no purchase can fall into it.
+     */
+    private static int[] compilePrices(List<String[]> priceRules, Map<String, Integer> screeningClassIndexes,
+                                       Map<String, Integer> timeBandIndexes, byte[] timeBandByMinute, int maximumNumberOfTickets) {
+        int numberOfScreeningClasses = screeningClassIndexes.size();
+        int numberOfTimeBands = timeBandIndexes.size();
+        int[] pricesPence = new int[numberOfScreeningClasses * numberOfTimeBands * NUMBER_OF_TICKET_TYPES];
+        int[] specificity = new int[pricesPence.length];
+        Arrays.fill(specificity, UNPRICED);
+
+        for (String[] priceRule : priceRules) {
+            String screeningClass = priceRule[0];
+            String timeBand = priceRule[1];
+            String name = priceRule[3];
+            Type ticketType = parseTicketType(name, priceRule[2]);
+            int pricePence = parseNonNegativeInt(name, priceRule[4]);
+            if ((long) pricePence * maximumNumberOfTickets > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Price of " + pricePence + "p for " + maximumNumberOfTickets + " tickets overflows");
+            }
+
+            boolean anyScreeningClass = screeningClass.equals(WILDCARD);
+            boolean anyTimeBand = timeBand.equals(WILDCARD);
+            if (!anyScreeningClass && !screeningClassIndexes.containsKey(screeningClass)) {
+                throw new IllegalArgumentException("Price rule " + name + " names unknown screening class " + screeningClass);
+            }
+            if (!anyTimeBand && !timeBandIndexes.containsKey(timeBand)) {
+                throw new IllegalArgumentException("Price rule " + name + " names unknown time band " + timeBand);
+            }
+            int ruleSpecificity = (anyScreeningClass ? 0 : 2) + (anyTimeBand ? 0 : 1);
+            int firstClassIndex = anyScreeningClass ? 0 : screeningClassIndexes.get(screeningClass);
+            int lastClassIndex = anyScreeningClass ? numberOfScreeningClasses - 1 : firstClassIndex;
+            int firstBandIndex = anyTimeBand ? 0 : timeBandIndexes.get(timeBand);
+            int lastBandIndex = anyTimeBand ? numberOfTimeBands - 1 : firstBandIndex;
+
+            for (int classIndex = firstClassIndex; classIndex <= lastClassIndex; classIndex++) {
+                for (int bandIndex = firstBandIndex; bandIndex <= lastBandIndex; bandIndex++) {
+                    int cell = (classIndex * numberOfTimeBands + bandIndex) * NUMBER_OF_TICKET_TYPES + ticketType.ordinal();
+                    if (ruleSpecificity > specificity[cell]) {
+                        specificity[cell] = ruleSpecificity;
+                        pricesPence[cell] = pricePence;
+                    }
+                }
+            }
+        }
+
+        boolean defaultTimeBandReachable = false;
+        for (byte timeBandIndex : timeBandByMinute) {
+            defaultTimeBandReachable |= timeBandIndex == 0;
+        }
+
+        String[] screeningClassNames = screeningClassIndexes.keySet().toArray(String[]::new);
+        String[] timeBandNames = timeBandIndexes.keySet().toArray(String[]::new);
+        for (int cell = 0; cell < pricesPence.length; cell++) {
+            int classIndex = cell / NUMBER_OF_TICKET_TYPES / numberOfTimeBands;
+            int bandIndex = cell / NUMBER_OF_TICKET_TYPES % numberOfTimeBands;
+            if (specificity[cell] == UNPRICED && (bandIndex != 0 || defaultTimeBandReachable)) {
+                throw new IllegalArgumentException("No price for " + Type.values()[cell % NUMBER_OF_TICKET_TYPES]
+                        + " tickets in screening class " + screeningClassNames[classIndex] + " and time band " + timeBandNames[bandIndex]);
+            }
+        }
+        return pricesPence;
+    }
+
+    private static void addName(Map<String, Integer> indexes, String name, String propertyName) {
+        if (name.isEmpty() || name.equals(WILDCARD) || name.contains(".")) {
+            throw new IllegalArgumentException("Pricing rule " + propertyName + " has an invalid name: " + name);
+        }
+        if (!indexes.containsKey(name)) {
+            if (indexes.size() == MAXIMUM_NUMBER_OF_NAMES) {
+                throw new IllegalArgumentException("Too many names at " + propertyName + ", the limit is " + MAXIMUM_NUMBER_OF_NAMES);
+            }
+            indexes.put(name, indexes.size());
+        }
+    }
+
+    /**
+     * @return the first minute of the range and the minute it ends before
+     */
+    private static int[] parseTimeRange(String name, String value) {
+        String[] startAndEnd = value.split("-", -1);
+        if (startAndEnd.length != 2) {
+            throw new IllegalArgumentException("Time band " + name + " must be HH:mm-HH:mm: " + value);
+        }
+        int startMinute = parseMinute(name, startAndEnd[0].trim()) % PricingRules.MINUTES_PER_DAY;
+        int endMinute = parseMinute(name, startAndEnd[1].trim()) % PricingRules.MINUTES_PER_DAY;
+        if (startMinute == endMinute) {
+            throw new IllegalArgumentException("Time band " + name + " is empty: " + value);
+        }
+        return new int[]{startMinute, endMinute};
+    }
+
+    private static int parseMinute(String name, String time) {
+        String[] hoursAndMinutes = time.split(":", -1);
+        if (hoursAndMinutes.length != 2 || hoursAndMinutes[1].length() != 2) {
+            throw new IllegalArgumentException("Time band " + name + " has an invalid time: " + time);
+        }
+        int hours = parseNonNegativeInt(name, hoursAndMinutes[0]);
+        int minutes = parseNonNegativeInt(name, hoursAndMinutes[1]);
+        if (minutes > 59 || hours > 24 || hours == 24 && minutes != 0) {
+            throw new IllegalArgumentException("Time band " + name + " has an invalid time: " + time);
+        }
+        return hours * 60 + minutes;
+    }
+
+    private static Type parseTicketType(String name, String ticketType) {
+        try {
+            return Type.valueOf(ticketType);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Price rule " + name + " names unknown ticket type " + ticketType, e);
+        }
+    }
+
+    private static long parseLong(String name, String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Pricing rule " + name + " does not name a whole number: " + value, e);
+        }
+    }
+
+    private static int parseNonNegativeInt(String name, String value) {
+        int parsedValue;
+        try {
+            parsedValue = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Pricing rule " + name + " is not a whole number: " + value, e);
+        }
+
+        if (parsedValue < 0) {
+            throw new IllegalArgumentException("Pricing rule " + name + " must not be negative: " + value);
+        }
+        return parsedValue;
+    }
+
+    private static String formatMinute(int minute) {
+        return String.format("%02d:%02d", minute / 60, minute % 60);
+    }
+
+}
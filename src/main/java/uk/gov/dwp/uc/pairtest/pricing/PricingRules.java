@@ -0,0 +1,137 @@
+package uk.gov.dwp.uc.pairtest.pricing;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import java.util.Arrays;
+
+/**
+ * Immutable Object
+ * <p>
+ * Pricing rules compiled by {@link PricingRuleCompiler} into flat lookup tables, so that pricing a purchase is a
+ * handful of array reads however many rules there were:
+ * <ul>
+ *     <li>the screening's class, from an open-addressing table of screening ids;</li>
+ *     <li>the time band, from a table with one entry per minute of the day;</li>
+ *     <li>one price per ticket type, from a matrix indexed by class, band and {@link Type};</li>
+ *     <li>the group discount, from a step function indexed by the total number of tickets.</li>
+ * </ul>
+ * Screenings without a class fall into class {@value #DEFAULT_NAME}, and minutes outside every band into band
+ * {@value #DEFAULT_NAME}.
+ */
+
+public final class PricingRules {
+
+    public static final String DEFAULT_NAME = "DEFAULT";
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int NUMBER_OF_TICKET_TYPES = Type.values().length;
+    private static final long EMPTY_SLOT = Long.MIN_VALUE;
+
+    private final String[] screeningClassNames;
+    private final String[] timeBandNames;
+    private final long[] screeningIds;
+    private final byte[] screeningClasses;
+    private final int screeningMask;
+    private final byte[] timeBandByMinute;
+    private final int[] pricesPence;
+    private final byte[] discountPercentByTickets;
+
+    PricingRules(String[] screeningClassNames, String[] timeBandNames, long[] screeningIds, byte[] screeningClasses,
+                 byte[] timeBandByMinute, int[] pricesPence, byte[] discountPercentByTickets) {
+        this.screeningClassNames = screeningClassNames;
+        this.timeBandNames = timeBandNames;
+        this.screeningIds = screeningIds;
+        this.screeningClasses = screeningClasses;
+        this.screeningMask = screeningIds.length - 1;
+        this.timeBandByMinute = timeBandByMinute;
+        this.pricesPence = pricesPence;
+        this.discountPercentByTickets = discountPercentByTickets;
+    }
+
+    /**
+     * @param minuteOfDay minutes since midnight, from 0 to 1439
+     * @return the total price in pence after any group discount, rounded down
+     */
+    public int getTotalPricePence(long screeningId, int minuteOfDay, int numberOfAdultTickets, int numberOfChildTickets,
+                                  int numberOfInfantTickets) {
+        int row = priceRow(screeningId, minuteOfDay);
+        long totalPricePence = (long) numberOfAdultTickets * pricesPence[row + Type.ADULT.ordinal()]
+                + (long) numberOfChildTickets * pricesPence[row + Type.CHILD.ordinal()]
+                + (long) numberOfInfantTickets * pricesPence[row + Type.INFANT.ordinal()];
+
+        int numberOfTickets = numberOfAdultTickets + numberOfChildTickets + numberOfInfantTickets;
+        int discountPercent = discountPercentByTickets[Math.min(numberOfTickets, discountPercentByTickets.length - 1)];
+        return (int) (totalPricePence * (100 - discountPercent) / 100);
+    }
+
+    public int getTotalPricePence(long screeningId, int minuteOfDay, TicketBasket ticketBasket) {
+        return getTotalPricePence(screeningId, minuteOfDay, ticketBasket.getNumberOfTickets(Type.ADULT),
+                ticketBasket.getNumberOfTickets(Type.CHILD), ticketBasket.getNumberOfTickets(Type.INFANT));
+    }
+
+    /**
+     * @return the undiscounted price of one ticket
+     */
+    public int getPricePence(long screeningId, int minuteOfDay, Type ticketType) {
+        return pricesPence[priceRow(screeningId, minuteOfDay) + ticketType.ordinal()];
+    }
+
+    public int getDiscountPercent(int numberOfTickets) {
+        return discountPercentByTickets[Math.min(Math.max(numberOfTickets, 0), discountPercentByTickets.length - 1)];
+    }
+
+    public int getMaximumNumberOfTickets() {
+        return discountPercentByTickets.length - 1;
+    }
+
+    public String getScreeningClass(long screeningId) {
+        return screeningClassNames[screeningClassOf(screeningId)];
+    }
+
+    public String getTimeBand(int minuteOfDay) {
+        return timeBandNames[timeBandByMinute[minuteOfDay]];
+    }
+
+    private int priceRow(long screeningId, int minuteOfDay) {
+        return (screeningClassOf(screeningId) * timeBandNames.length + timeBandByMinute[minuteOfDay]) * NUMBER_OF_TICKET_TYPES;
+    }
+
+    private int screeningClassOf(long screeningId) {
+        int slot = (int) mix(screeningId) & screeningMask;
+        while (true) {
+            long slotId = screeningIds[slot];
+            if (slotId == screeningId) {
+                return screeningClasses[slot];
+            }
+            if (slotId == EMPTY_SLOT) {
+                return 0;
+            }
+            slot = (slot + 1) & screeningMask;
+        }
+    }
+
+    static long[] emptyScreeningTable(int numberOfScreenings) {
+        // At most half full, so probe sequences stay short.
+        long[] screeningIds = new long[Integer.highestOneBit(Math.max(1, numberOfScreenings)) << 2];
+        Arrays.fill(screeningIds, EMPTY_SLOT);
+        return screeningIds;
+    }
+
+    static void putScreening(long[] screeningIds, byte[] screeningClasses, long screeningId, byte screeningClass) {
+        int mask = screeningIds.length - 1;
+        int slot = (int) mix(screeningId) & mask;
+        while (screeningIds[slot] != EMPTY_SLOT && screeningIds[slot] != screeningId) {
+            slot = (slot + 1) & mask;
+        }
+        screeningIds[slot] = screeningId;
+        screeningClasses[slot] = screeningClass;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return value ^ (value >>> 33);
+    }
+
+}
@@ -0,0 +1,83 @@
+package uk.gov.dwp.uc.pairtest.pricing;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import java.util.Properties;
+
+import static uk.gov.dwp.uc.pairtest.config.Config.ADULT_TICKET_PRICE_PENCE;
+import static uk.gov.dwp.uc.pairtest.config.Config.CHILD_TICKET_PRICE_PENCE;
+import static uk.gov.dwp.uc.pairtest.config.Config.MAXIMUM_NUMBER_OF_TICKETS;
+
+/**
+ * Immutable Object
+ * <p>
+ * Ticket prices in pence indexed by {@link Type#ordinal()}, together with the maximum number of tickets per purchase.
+ * A purchase reads one table so that its prices and ticket cap always come from the same version of the config.
+ */
+
+public final class PricingTable {
+
+    public static final PricingTable DEFAULT = new PricingTable(
+            new int[]{ADULT_TICKET_PRICE_PENCE, CHILD_TICKET_PRICE_PENCE, 0}, MAXIMUM_NUMBER_OF_TICKETS);
+
+    static final String PRICE_PROPERTY_PREFIX = "price.";
+    static final String MAXIMUM_NUMBER_OF_TICKETS_PROPERTY = "maximumNumberOfTickets";
+
+    private static final int NUMBER_OF_TICKET_TYPES = Type.values().length;
+
+    private final int[] pricesPence;
+    private final int maximumNumberOfTickets;
+
+    private PricingTable(int[] pricesPence, int maximumNumberOfTickets) {
+        this.pricesPence = pricesPence;
+        this.maximumNumberOfTickets = maximumNumberOfTickets;
+    }
+
+    /**
+     * Reads a table from properties of the form {@code price.ADULT=2500} for every {@link Type}, plus
+     * {@code maximumNumberOfTickets=25}.
+     */
+    public static PricingTable fromProperties(Properties properties) {
+        int[] pricesPence = new int[NUMBER_OF_TICKET_TYPES];
+        for (Type ticketType : Type.values()) {
+            pricesPence[ticketType.ordinal()] = readNonNegativeInt(properties, PRICE_PROPERTY_PREFIX + ticketType.name());
+        }
+
+        int maximumNumberOfTickets = readNonNegativeInt(properties, MAXIMUM_NUMBER_OF_TICKETS_PROPERTY);
+        for (int pricePence : pricesPence) {
+            if ((long) pricePence * maximumNumberOfTickets > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Price of " + pricePence + "p for " + maximumNumberOfTickets + " tickets overflows");
+            }
+        }
+
+        return new PricingTable(pricesPence, maximumNumberOfTickets);
+    }
+
+    public int getPricePence(Type ticketType) {
+        return pricesPence[ticketType.ordinal()];
+    }
+
+    public int getMaximumNumberOfTickets() {
+        return maximumNumberOfTickets;
+    }
+
+    private static int readNonNegativeInt(Properties properties, String name) {
+        String value = properties.getProperty(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing pricing property " + name);
+        }
+
+        int parsedValue;
+        try {
+            parsedValue = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Pricing property " + name + " is not a whole number: " + value, e);
+        }
+
+        if (parsedValue < 0) {
+            throw new IllegalArgumentException("Pricing property " + name + " must not be negative: " + value);
+        }
+        return parsedValue;
+    }
+
+}
@@ -0,0 +1,98 @@
+package uk.gov.dwp.uc.pairtest.pricing;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads a {@link PricingTable} from a properties file into a {@link PricingTableReference}, and reloads it whenever the
+ * file's modified time or size changes. A file that fails to parse leaves the previous table in place and is tried again
+ * on every poll until it loads.
+ * <p>
+ * The file is read while it may still be being written, and a partly written file can parse, for example with a price
+ * of "25" read as "2". Whoever edits the file must therefore write a new file alongside it and rename it over the old
+ * one, so the watcher only ever sees a whole file.
+ */
+public class PricingTableFileWatcher implements AutoCloseable {
+
+    private final Path pricingFile;
+    private final PricingTableReference pricingTableReference;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> Thread.ofPlatform().name("pricing-table-watcher").daemon().unstarted(runnable));
+
+    private FileTime lastModifiedTime;
+    private long lastSize;
+    private volatile RuntimeException lastReloadFailure;
+
+    public PricingTableFileWatcher(Path pricingFile, PricingTableReference pricingTableReference) {
+        this.pricingFile = pricingFile;
+        this.pricingTableReference = pricingTableReference;
+
+        BasicFileAttributes attributes = readAttributes();
+        pricingTableReference.set(load());
+        lastModifiedTime = attributes.lastModifiedTime();
+        lastSize = attributes.size();
+    }
+
+    public void startPolling(Duration pollInterval) {
+        scheduler.scheduleWithFixedDelay(this::reloadIfChanged, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return true if the file had changed and the new table was published
+     */
+    public synchronized boolean reloadIfChanged() {
+        try {
+            BasicFileAttributes attributes = readAttributes();
+            if (attributes.lastModifiedTime().equals(lastModifiedTime) && attributes.size() == lastSize) {
+                return false;
+            }
+
+            pricingTableReference.set(load());
+            lastModifiedTime = attributes.lastModifiedTime();
+            lastSize = attributes.size();
+            lastReloadFailure = null;
+            return true;
+        } catch (RuntimeException e) {
+            lastReloadFailure = e;
+            return false;
+        }
+    }
+
+    public RuntimeException getLastReloadFailure() {
+        return lastReloadFailure;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private BasicFileAttributes readAttributes() {
+        try {
+            return Files.readAttributes(pricingFile, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + pricingFile, e);
+        }
+    }
+
+    private PricingTable load() {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(pricingFile)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + pricingFile, e);
+        }
+        return PricingTable.fromProperties(properties);
+    }
+
+}
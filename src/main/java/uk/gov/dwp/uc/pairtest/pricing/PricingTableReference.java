@@ -0,0 +1,23 @@
+package uk.gov.dwp.uc.pairtest.pricing;
+
+/**
+ * Holds the current {@link PricingTable}. Readers take no locks; a new table is published with a single volatile write
+ * and purchases already holding the old table finish with it.
+ */
+public final class PricingTableReference {
+
+    private volatile PricingTable pricingTable;
+
+    public PricingTableReference(PricingTable pricingTable) {
+        this.pricingTable = pricingTable;
+    }
+
+    public PricingTable get() {
+        return pricingTable;
+    }
+
+    public void set(PricingTable pricingTable) {
+        this.pricingTable = pricingTable;
+    }
+
+}
@@ -0,0 +1,40 @@
+package uk.gov.dwp.uc.pairtest.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits how many calls may be in progress to one dependency at once. Callers over the limit are turned away rather
+ * than queued, so a slow dependency can tie up at most {@code maximumConcurrentCalls} threads.
+ */
+public class Bulkhead {
+
+    private final int maximumConcurrentCalls;
+    private final AtomicInteger concurrentCalls = new AtomicInteger();
+
+    public Bulkhead(int maximumConcurrentCalls) {
+        if (maximumConcurrentCalls < 1) {
+            throw new IllegalArgumentException("Maximum concurrent calls must be positive: " + maximumConcurrentCalls);
+        }
+        this.maximumConcurrentCalls = maximumConcurrentCalls;
+    }
+
+    /**
+     * @return true if the caller may go ahead, and must call {@link #release()} when done
+     */
+    public boolean tryAcquire() {
+        if (concurrentCalls.incrementAndGet() > maximumConcurrentCalls) {
+            concurrentCalls.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release() {
+        concurrentCalls.decrementAndGet();
+    }
+
+    public int getConcurrentCalls() {
+        return concurrentCalls.get();
+    }
+
+}
@@ -0,0 +1,176 @@
+package uk.gov.dwp.uc.pairtest.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock-free circuit breaker. Outcomes are counted in a sliding window of {@value #NUMBER_OF_BUCKETS} time buckets;
+ * once the window has seen at least {@code minimumCalls} calls and the share that failed, or that took longer than
+ * {@code slowCallThreshold}, reaches its limit, the circuit opens and every call is refused for {@code openDuration}.
+ * After that a single trial call is let through: if it succeeds quickly the circuit closes with an empty window,
+ * otherwise it opens again.
+ * <p>
+ * The state and the time it was entered are packed into one {@link AtomicLong}, so every transition is a single
+ * compare-and-set. Successful calls while closed only increment counters; the window is only summed when a call fails
+ * or is slow.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final int NUMBER_OF_BUCKETS = 10;
+    private static final int CALLS = 0;
+    private static final int FAILURES = 1;
+    private static final int SLOW_CALLS = 2;
+    private static final State[] STATES = State.values();
+
+    private final long bucketNanos;
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final int slowCallRatePercent;
+    private final long slowCallThresholdNanos;
+    private final long openNanos;
+    private final long originNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(NUMBER_OF_BUCKETS);
+    private final AtomicLong state = new AtomicLong(pack(State.CLOSED, 0));
+    private volatile long windowStartEpoch;
+
+    public CircuitBreaker(Duration window, int minimumCalls, int failureRatePercent, int slowCallRatePercent,
+                          Duration slowCallThreshold, Duration openDuration, LongSupplier nanoClock) {
+        if (window.toNanos() < NUMBER_OF_BUCKETS) {
+            throw new IllegalArgumentException("Window is too short: " + window);
+        }
+
+        this.bucketNanos = window.toNanos() / NUMBER_OF_BUCKETS;
+        this.minimumCalls = Math.max(1, minimumCalls);
+        this.failureRatePercent = failureRatePercent;
+        this.slowCallRatePercent = slowCallRatePercent;
+        this.slowCallThresholdNanos = slowCallThreshold.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+        this.originNanos = nanoClock.getAsLong();
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            buckets.set(i, new Bucket(-1));
+        }
+    }
+
+    /**
+     * @return true if a call may be made now; a call let through must be followed by {@link #record}
+     */
+    public boolean tryAcquirePermission() {
+        long current = state.get();
+        State currentState = stateOf(current);
+        if (currentState == State.CLOSED) {
+            return true;
+        }
+
+        // While half open, a trial call that never reports back is replaced once another open period has passed.
+        long elapsedNanos = nanoClock.getAsLong() - originNanos;
+        return elapsedNanos - sinceOf(current) >= openNanos
+                && state.compareAndSet(current, pack(State.HALF_OPEN, elapsedNanos));
+    }
+
+    /**
+     * Counts the outcome of a call that started at {@code startNanos}, read from the same clock as the breaker's.
+     */
+    public void record(long startNanos, boolean failed) {
+        long nowNanos = nanoClock.getAsLong();
+        boolean slow = nowNanos - startNanos >= slowCallThresholdNanos;
+        long elapsedNanos = nowNanos - originNanos;
+        long epoch = elapsedNanos / bucketNanos;
+
+        AtomicLongArray counts = bucketFor(epoch).counts;
+        counts.incrementAndGet(CALLS);
+        if (failed) {
+            counts.incrementAndGet(FAILURES);
+        }
+        if (slow) {
+            counts.incrementAndGet(SLOW_CALLS);
+        }
+
+        long current = state.get();
+        State currentState = stateOf(current);
+        if (currentState == State.HALF_OPEN) {
+            if (failed || slow) {
+                state.compareAndSet(current, pack(State.OPEN, elapsedNanos));
+            } else if (state.compareAndSet(current, pack(State.CLOSED, elapsedNanos))) {
+                windowStartEpoch = epoch;
+                buckets.set((int) (epoch % NUMBER_OF_BUCKETS), new Bucket(epoch));
+            }
+        } else if (currentState == State.CLOSED && (failed || slow) && isOverThreshold(epoch)) {
+            state.compareAndSet(current, pack(State.OPEN, elapsedNanos));
+        }
+    }
+
+    public State getState() {
+        return stateOf(state.get());
+    }
+
+    private boolean isOverThreshold(long epoch) {
+        long oldestEpoch = Math.max(epoch - NUMBER_OF_BUCKETS + 1, windowStartEpoch);
+        long calls = 0;
+        long failures = 0;
+        long slowCalls = 0;
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket.epoch >= oldestEpoch && bucket.epoch <= epoch) {
+                calls += bucket.counts.get(CALLS);
+                failures += bucket.counts.get(FAILURES);
+                slowCalls += bucket.counts.get(SLOW_CALLS);
+            }
+        }
+
+        return calls >= minimumCalls
+                && (failures * 100 >= calls * failureRatePercent || slowCalls * 100 >= calls * slowCallRatePercent);
+    }
+
+    /**
+     * Returns the bucket for the epoch, replacing whatever older bucket occupies its slot. A call recorded against the
+     * old bucket while it is being replaced is lost, which only makes the window very slightly optimistic.
+     */
+    private Bucket bucketFor(long epoch) {
+        int index = (int) (epoch % NUMBER_OF_BUCKETS);
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket.epoch >= epoch) {
+                return bucket;
+            }
+            Bucket replacement = new Bucket(epoch);
+            if (buckets.compareAndSet(index, bucket, replacement)) {
+                return replacement;
+            }
+        }
+    }
+
+    private static long pack(State state, long sinceNanos) {
+        return sinceNanos << 2 | state.ordinal();
+    }
+
+    private static State stateOf(long packed) {
+        return STATES[(int) (packed & 3)];
+    }
+
+    private static long sinceOf(long packed) {
+        return packed >> 2;
+    }
+
+    private static final class Bucket {
+
+        private final long epoch;
+        private final AtomicLongArray counts = new AtomicLongArray(3);
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package uk.gov.dwp.uc.pairtest.resilience;
+
+import uk.gov.dwp.uc.pairtest.config.Config;
+import uk.gov.dwp.uc.pairtest.exception.DependencyUnavailableException;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Puts a {@link Bulkhead} and a {@link CircuitBreaker} in front of calls to one dependency. A call is refused with a
+ * {@link DependencyUnavailableException} if the bulkhead is full or the circuit is open; otherwise it is made, timed
+ * and its outcome recorded. Any exception thrown by the call counts as a failure and is rethrown unchanged.
+ */
+public class DependencyGuard {
+
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final LongSupplier nanoClock;
+    private final DependencyUnavailableException circuitOpen;
+    private final DependencyUnavailableException bulkheadFull;
+
+    public DependencyGuard(String dependencyName, int maximumConcurrentCalls) {
+        this(dependencyName, new Bulkhead(maximumConcurrentCalls), createCircuitBreaker(System::nanoTime), System::nanoTime);
+    }
+
+    public DependencyGuard(String dependencyName, Bulkhead bulkhead, CircuitBreaker circuitBreaker, LongSupplier nanoClock) {
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+        this.nanoClock = nanoClock;
+        this.circuitOpen = new DependencyUnavailableException(dependencyName, DependencyUnavailableException.Reason.CIRCUIT_OPEN);
+        this.bulkheadFull = new DependencyUnavailableException(dependencyName, DependencyUnavailableException.Reason.BULKHEAD_FULL);
+    }
+
+    /**
+     * Creates a circuit breaker with the {@code CIRCUIT_BREAKER_*} settings from {@link Config}.
+     */
+    public static CircuitBreaker createCircuitBreaker(LongSupplier nanoClock) {
+        return new CircuitBreaker(
+                Duration.ofSeconds(Config.CIRCUIT_BREAKER_WINDOW_SECONDS),
+                Config.CIRCUIT_BREAKER_MINIMUM_CALLS,
+                Config.CIRCUIT_BREAKER_FAILURE_RATE_PERCENT,
+                Config.CIRCUIT_BREAKER_SLOW_CALL_RATE_PERCENT,
+                Duration.ofMillis(Config.CIRCUIT_BREAKER_SLOW_CALL_MILLIS),
+                Duration.ofMillis(Config.CIRCUIT_BREAKER_OPEN_MILLIS),
+                nanoClock);
+    }
+
+    public void call(Runnable dependencyCall) throws DependencyUnavailableException {
+        if (!bulkhead.tryAcquire()) {
+            throw bulkheadFull;
+        }
+
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                throw circuitOpen;
+            }
+
+            long startNanos = nanoClock.getAsLong();
+            boolean failed = true;
+            try {
+                dependencyCall.run();
+                failed = false;
+            } finally {
+                circuitBreaker.record(startNanos, failed);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+}
@@ -0,0 +1,30 @@
+package uk.gov.dwp.uc.pairtest.resilience;
+
+import thirdparty.seatbooking.SeatReservationService;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A local stand-in for the seat booking system whose latency and failures are controlled by a {@link FaultInjector}.
+ * Reservations that get through are only counted.
+ */
+public class FaultInjectingSeatReservationService implements SeatReservationService {
+
+    private final FaultInjector faultInjector;
+    private final LongAdder reservations = new LongAdder();
+
+    public FaultInjectingSeatReservationService(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
+    @Override
+    public void reserveSeat(long accountId, int totalSeatsToAllocate) {
+        faultInjector.apply();
+        reservations.increment();
+    }
+
+    public long getNumberOfReservations() {
+        return reservations.sum();
+    }
+
+}
@@ -0,0 +1,30 @@
+package uk.gov.dwp.uc.pairtest.resilience;
+
+import thirdparty.paymentgateway.TicketPaymentService;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A local stand-in for the payment gateway whose latency and failures are controlled by a {@link FaultInjector}.
+ * Payments that get through are only counted.
+ */
+public class FaultInjectingTicketPaymentService implements TicketPaymentService {
+
+    private final FaultInjector faultInjector;
+    private final LongAdder payments = new LongAdder();
+
+    public FaultInjectingTicketPaymentService(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
+    @Override
+    public void makePayment(long accountId, int totalAmountToPay) {
+        faultInjector.apply();
+        payments.increment();
+    }
+
+    public long getNumberOfPayments() {
+        return payments.sum();
+    }
+
+}
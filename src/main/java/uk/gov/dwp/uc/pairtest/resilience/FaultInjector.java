@@ -0,0 +1,55 @@
+package uk.gov.dwp.uc.pairtest.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Makes a stand-in dependency misbehave on demand: a share of calls are delayed by a latency spike, and a share fail
+ * with an {@link InjectedFaultException}. The settings can be changed while calls are in flight, so a test can degrade
+ * a dependency and then let it recover.
+ */
+public class FaultInjector {
+
+    private volatile long latencySpikeNanos;
+    private volatile double latencySpikeProbability;
+    private volatile double failureProbability;
+
+    public void injectLatency(Duration latencySpike, double probability) {
+        this.latencySpikeNanos = latencySpike.toNanos();
+        this.latencySpikeProbability = probability;
+    }
+
+    public void injectFailures(double probability) {
+        this.failureProbability = probability;
+    }
+
+    public void heal() {
+        injectLatency(Duration.ZERO, 0);
+        injectFailures(0);
+    }
+
+    /**
+     * Called at the start of each stand-in call.
+     */
+    void apply() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (latencySpikeProbability > 0 && random.nextDouble() < latencySpikeProbability) {
+            long deadlineNanos = System.nanoTime() + latencySpikeNanos;
+            for (long remainingNanos = latencySpikeNanos; remainingNanos > 0; remainingNanos = deadlineNanos - System.nanoTime()) {
+                LockSupport.parkNanos(remainingNanos);
+            }
+        }
+        if (failureProbability > 0 && random.nextDouble() < failureProbability) {
+            throw new InjectedFaultException();
+        }
+    }
+
+    public static class InjectedFaultException extends RuntimeException {
+
+        private InjectedFaultException() {
+            super("Injected fault", null, false, false);
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package uk.gov.dwp.uc.pairtest.resilience;
+
+import thirdparty.seatbooking.SeatReservationService;
+import uk.gov.dwp.uc.pairtest.config.Config;
+
+/**
+ * Reserves seats through a {@link DependencyGuard}, so a slow or failing booking system turns into a fast
+ * {@link uk.gov.dwp.uc.pairtest.exception.DependencyUnavailableException} instead of tying up the caller.
+ */
+public class ResilientSeatReservationService implements SeatReservationService {
+
+    private final SeatReservationService seatReservationService;
+    private final DependencyGuard dependencyGuard;
+
+    public ResilientSeatReservationService(SeatReservationService seatReservationService) {
+        this(seatReservationService, new DependencyGuard("seat reservation", Config.SEAT_RESERVATION_BULKHEAD_SIZE));
+    }
+
+    public ResilientSeatReservationService(SeatReservationService seatReservationService, DependencyGuard dependencyGuard) {
+        this.seatReservationService = seatReservationService;
+        this.dependencyGuard = dependencyGuard;
+    }
+
+    @Override
+    public void reserveSeat(long accountId, int totalSeatsToAllocate) {
+        dependencyGuard.call(() -> seatReservationService.reserveSeat(accountId, totalSeatsToAllocate));
+    }
+
+    public DependencyGuard getDependencyGuard() {
+        return dependencyGuard;
+    }
+
+}
@@ -0,0 +1,33 @@
+package uk.gov.dwp.uc.pairtest.resilience;
+
+import thirdparty.paymentgateway.TicketPaymentService;
+import uk.gov.dwp.uc.pairtest.config.Config;
+
+/**
+ * Makes payments through a {@link DependencyGuard}, so a slow or failing gateway turns into a fast
+ * {@link uk.gov.dwp.uc.pairtest.exception.DependencyUnavailableException} instead of tying up the caller.
+ */
+public class ResilientTicketPaymentService implements TicketPaymentService {
+
+    private final TicketPaymentService ticketPaymentService;
+    private final DependencyGuard dependencyGuard;
+
+    public ResilientTicketPaymentService(TicketPaymentService ticketPaymentService) {
+        this(ticketPaymentService, new DependencyGuard("payment", Config.PAYMENT_BULKHEAD_SIZE));
+    }
+
+    public ResilientTicketPaymentService(TicketPaymentService ticketPaymentService, DependencyGuard dependencyGuard) {
+        this.ticketPaymentService = ticketPaymentService;
+        this.dependencyGuard = dependencyGuard;
+    }
+
+    @Override
+    public void makePayment(long accountId, int totalAmountToPay) {
+        dependencyGuard.call(() -> ticketPaymentService.makePayment(accountId, totalAmountToPay));
+    }
+
+    public DependencyGuard getDependencyGuard() {
+        return dependencyGuard;
+    }
+
+}
@@ -0,0 +1,72 @@
+package uk.gov.dwp.uc.pairtest.shard;
+
+import uk.gov.dwp.uc.pairtest.config.Config;
+
+import java.util.Arrays;
+
+/**
+ * Maps account ids onto a fixed number of shards. Each shard is placed on the ring at {@code virtualNodesPerShard}
+ * pseudo-random points and an account belongs to the first point at or after its own hash, so accounts spread evenly
+ * and every node that builds a ring with the same settings routes an account to the same shard.
+ */
+public final class ConsistentHashRing {
+
+    private final int numberOfShards;
+    private final long[] points;
+    private final int[] shardAtPoint;
+
+    public ConsistentHashRing(int numberOfShards) {
+        this(numberOfShards, Config.SHARD_VIRTUAL_NODES);
+    }
+
+    public ConsistentHashRing(int numberOfShards, int virtualNodesPerShard) {
+        if (numberOfShards < 1 || virtualNodesPerShard < 1) {
+            throw new IllegalArgumentException("Shards and virtual nodes must be positive: " + numberOfShards + ", " + virtualNodesPerShard);
+        }
+
+        this.numberOfShards = numberOfShards;
+        int numberOfPoints = numberOfShards * virtualNodesPerShard;
+        long[] packedPoints = new long[numberOfPoints];
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            for (int virtualNode = 0; virtualNode < virtualNodesPerShard; virtualNode++) {
+                // The low 32 bits of each point are replaced by its shard, so sorting keeps them together.
+                long hash = mix((long) shard << 32 | virtualNode);
+                packedPoints[shard * virtualNodesPerShard + virtualNode] = hash & 0xFFFFFFFF00000000L | shard;
+            }
+        }
+        Arrays.sort(packedPoints);
+
+        this.points = new long[numberOfPoints];
+        this.shardAtPoint = new int[numberOfPoints];
+        for (int i = 0; i < numberOfPoints; i++) {
+            points[i] = packedPoints[i] & 0xFFFFFFFF00000000L;
+            shardAtPoint[i] = (int) packedPoints[i];
+        }
+    }
+
+    public int shardFor(long accountId) {
+        long hash = mix(accountId) & 0xFFFFFFFF00000000L;
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+            if (index == points.length) {
+                index = 0;
+            }
+        }
+        return shardAtPoint[index];
+    }
+
+    public int getNumberOfShards() {
+        return numberOfShards;
+    }
+
+    /**
+     * The SplitMix64 finaliser, which spreads consecutive ids across the whole ring.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+}
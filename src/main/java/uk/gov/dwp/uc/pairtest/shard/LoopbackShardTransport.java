@@ -0,0 +1,57 @@
+package uk.gov.dwp.uc.pairtest.shard;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatch;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatchResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Connects nodes running in the same process, for tests. Every purchase and result is encoded with
+ * {@link ShardMessageCodec} and decoded on the other side, so nothing is shared by reference between nodes, exactly as
+ * if the bytes had crossed the network.
+ */
+public class LoopbackShardTransport implements ShardTransport {
+
+    private final ConcurrentHashMap<Integer, ShardedTicketService> nodesByShard = new ConcurrentHashMap<>();
+
+    /**
+     * Routes every shard the node owns to it.
+     */
+    public void register(ShardedTicketService node) {
+        for (int shard = 0; shard < node.getRing().getNumberOfShards(); shard++) {
+            if (node.ownsShard(shard)) {
+                nodesByShard.put(shard, node);
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<TicketPurchaseSummary> purchase(int shard, long accountId, TicketBasket ticketBasket) {
+        byte[] request = ShardMessageCodec.encodePurchase(shard, accountId, ticketBasket);
+        ShardedTicketService node = nodesByShard.get(ShardMessageCodec.decodeShard(request));
+        if (node == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("No node owns shard " + shard));
+        }
+
+        return node.purchaseOnLocalShard(shard, ShardMessageCodec.decodeAccountId(request), ShardMessageCodec.decodeBasket(request))
+                .thenApply(ShardMessageCodec::encodeSummary)
+                .thenApply(ShardMessageCodec::decodeSummary);
+    }
+
+    @Override
+    public CompletableFuture<TicketOrderBatchResult> purchase(int shard, TicketOrderBatch ticketOrders) {
+        byte[] request = ShardMessageCodec.encodeBatch(shard, ticketOrders);
+        ShardedTicketService node = nodesByShard.get(ShardMessageCodec.decodeShard(request));
+        if (node == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("No node owns shard " + shard));
+        }
+
+        return node.purchaseOnLocalShard(shard, ShardMessageCodec.decodeBatch(request))
+                .thenApply(ShardMessageCodec::encodeBatchResult)
+                .thenApply(ShardMessageCodec::decodeBatchResult);
+    }
+
+}
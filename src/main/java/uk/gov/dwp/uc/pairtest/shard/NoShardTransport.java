@@ -0,0 +1,22 @@
+package uk.gov.dwp.uc.pairtest.shard;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatch;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatchResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+
+import java.util.concurrent.CompletableFuture;
+
+final class NoShardTransport implements ShardTransport {
+
+    @Override
+    public CompletableFuture<TicketPurchaseSummary> purchase(int shard, long accountId, TicketBasket ticketBasket) {
+        return CompletableFuture.failedFuture(new IllegalStateException("No transport to shard " + shard));
+    }
+
+    @Override
+    public CompletableFuture<TicketOrderBatchResult> purchase(int shard, TicketOrderBatch ticketOrders) {
+        return CompletableFuture.failedFuture(new IllegalStateException("No transport to shard " + shard));
+    }
+
+}
@@ -0,0 +1,194 @@
+package uk.gov.dwp.uc.pairtest.shard;
+
+import uk.gov.dwp.uc.pairtest.TicketService;
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatch;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatchResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs every purchase for one shard on a single thread, which is the only thread ever to touch the shard's
+ * {@link TicketService}, so none of that service's state needs to be thread-safe.
+ * <p>
+ * Purchases arrive through an intrusive multi-producer single-consumer queue: a producer swaps itself in as the tail
+ * with one atomic exchange and then links the previous tail to it, and the loop follows the links from the head without
+ * any atomic operation at all. The loop parks when the queue is empty and a producer unparks it only if it is parked.
+ * <p>
+ * A producer that finds the loop running counts itself in, checks again and counts itself out once its command is
+ * linked, so the loop does not stop until every command that got past the second check has been run or failed.
+ * Producers arriving after close fail without counting themselves in, so they cannot hold the loop up.
+ */
+final class ShardEventLoop implements AutoCloseable {
+
+    private final TicketService ticketService;
+    private final AtomicReference<Command> tail;
+    private final AtomicInteger enqueuing = new AtomicInteger();
+    private final Thread thread;
+    private Command head;
+    private volatile boolean sleeping;
+    private volatile boolean running = true;
+
+    ShardEventLoop(String name, TicketService ticketService) {
+        this.ticketService = ticketService;
+        this.head = new Command();
+        this.tail = new AtomicReference<>(head);
+        this.thread = Thread.ofPlatform().name(name).daemon().start(this::runLoop);
+    }
+
+    CompletableFuture<TicketPurchaseSummary> submit(long accountId, TicketBasket ticketBasket) {
+        BasketCommand command = new BasketCommand(accountId, ticketBasket);
+        enqueue(command);
+        return command.result;
+    }
+
+    CompletableFuture<TicketOrderBatchResult> submit(TicketOrderBatch ticketOrders) {
+        BatchCommand command = new BatchCommand(ticketOrders);
+        enqueue(command);
+        return command.result;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(Command command) {
+        if (running) {
+            enqueuing.incrementAndGet();
+            try {
+                // Checked again now that the loop waits for this producer, as it may have been closed since.
+                if (running) {
+                    Command previous = tail.getAndSet(command);
+                    previous.next = command;
+                    if (sleeping) {
+                        LockSupport.unpark(thread);
+                    }
+                    return;
+                }
+            } finally {
+                enqueuing.decrementAndGet();
+            }
+        }
+
+        command.fail(new IllegalStateException("Shard has been closed"));
+    }
+
+    /**
+     * @return the next command, or null if none has been fully linked in yet
+     */
+    private Command poll() {
+        Command next = head.next;
+        if (next == null) {
+            return null;
+        }
+        head.next = null;
+        head = next;
+        return next;
+    }
+
+    private void runLoop() {
+        while (true) {
+            Command command = poll();
+            if (command != null) {
+                command.run(ticketService);
+                continue;
+            }
+            if (!running) {
+                break;
+            }
+
+            sleeping = true;
+            if (head.next == null && running) {
+                LockSupport.park(this);
+            }
+            sleeping = false;
+        }
+
+        // A producer that saw the loop running just before it stopped may still be linking its command in.
+        failRemaining();
+    }
+
+    private void failRemaining() {
+        while (enqueuing.get() != 0 || tail.get() != head) {
+            Command command = poll();
+            if (command == null) {
+                Thread.onSpinWait();
+            } else {
+                command.fail(new IllegalStateException("Shard has been closed"));
+            }
+        }
+    }
+
+    private static class Command {
+
+        private volatile Command next;
+
+        void run(TicketService ticketService) {
+        }
+
+        void fail(Throwable failure) {
+        }
+    }
+
+    private static final class BasketCommand extends Command {
+
+        private final long accountId;
+        private final TicketBasket ticketBasket;
+        private final CompletableFuture<TicketPurchaseSummary> result = new CompletableFuture<>();
+
+        private BasketCommand(long accountId, TicketBasket ticketBasket) {
+            this.accountId = accountId;
+            this.ticketBasket = ticketBasket;
+        }
+
+        @Override
+        void run(TicketService ticketService) {
+            try {
+                result.complete(ticketService.tryPurchaseTickets(accountId, ticketBasket));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }
+
+        @Override
+        void fail(Throwable failure) {
+            result.completeExceptionally(failure);
+        }
+    }
+
+    private static final class BatchCommand extends Command {
+
+        private final TicketOrderBatch ticketOrders;
+        private final CompletableFuture<TicketOrderBatchResult> result = new CompletableFuture<>();
+
+        private BatchCommand(TicketOrderBatch ticketOrders) {
+            this.ticketOrders = ticketOrders;
+        }
+
+        @Override
+        void run(TicketService ticketService) {
+            try {
+                result.complete(ticketService.purchaseTickets(ticketOrders));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }
+
+        @Override
+        void fail(Throwable failure) {
+            result.completeExceptionally(failure);
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+package uk.gov.dwp.uc.pairtest.shard;
+
+import uk.gov.dwp.uc.pairtest.domain.RejectionReason;
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatch;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatchResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The wire format of purchases sent between nodes. Every message is a flat run of big-endian primitives: a purchase is
+ * its shard, account id and three ticket counts; a summary is its rejection code followed by its counts, price and
+ * seats; batches are a size followed by one column at a time.
+ */
+public final class ShardMessageCodec {
+
+    private static final RejectionReason[] REJECTION_REASONS = RejectionReason.values();
+
+    private ShardMessageCodec() {
+    }
+
+    public static byte[] encodePurchase(int shard, long accountId, TicketBasket ticketBasket) {
+        return ByteBuffer.allocate(Integer.BYTES + Long.BYTES + 3 * Integer.BYTES)
+                .putInt(shard)
+                .putLong(accountId)
+                .putInt(ticketBasket.getNumberOfTickets(Type.ADULT))
+                .putInt(ticketBasket.getNumberOfTickets(Type.CHILD))
+                .putInt(ticketBasket.getNumberOfTickets(Type.INFANT))
+                .array();
+    }
+
+    public static int decodeShard(byte[] message) {
+        return ByteBuffer.wrap(message).getInt();
+    }
+
+    public static long decodeAccountId(byte[] purchase) {
+        return ByteBuffer.wrap(purchase).getLong(Integer.BYTES);
+    }
+
+    public static TicketBasket decodeBasket(byte[] purchase) {
+        ByteBuffer buffer = ByteBuffer.wrap(purchase).position(Integer.BYTES + Long.BYTES);
+        return TicketBasket.of(buffer.getInt(), buffer.getInt(), buffer.getInt());
+    }
+
+    public static byte[] encodeSummary(TicketPurchaseSummary purchaseSummary) {
+        byte rejectionCode = purchaseSummary.isValid()
+                ? TicketOrderBatchResult.ACCEPTED
+                : TicketOrderBatchResult.rejectionCode(purchaseSummary.getRejectionReason());
+        return ByteBuffer.allocate(1 + 5 * Integer.BYTES)
+                .put(rejectionCode)
+                .putInt(purchaseSummary.getNumberOfTickets(Type.ADULT))
+                .putInt(purchaseSummary.getNumberOfTickets(Type.CHILD))
+                .putInt(purchaseSummary.getNumberOfTickets(Type.INFANT))
+                .putInt(purchaseSummary.getTotalTicketPricePence())
+                .putInt(purchaseSummary.getNumberOfSeatsToReserve())
+                .array();
+    }
+
+    public static TicketPurchaseSummary decodeSummary(byte[] summary) {
+        ByteBuffer buffer = ByteBuffer.wrap(summary);
+        byte rejectionCode = buffer.get();
+        if (rejectionCode != TicketOrderBatchResult.ACCEPTED) {
+            return TicketPurchaseSummary.rejected(REJECTION_REASONS[rejectionCode - 1]);
+        }
+        return TicketPurchaseSummary.valid(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+    }
+
+    public static byte[] encodeBatch(int shard, TicketOrderBatch ticketOrders) {
+        int size = ticketOrders.size();
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Integer.BYTES + size * (Long.BYTES + 3 * Integer.BYTES))
+                .putInt(shard)
+                .putInt(size);
+        buffer.asLongBuffer().put(ticketOrders.getAccountIds());
+        buffer.position(buffer.position() + size * Long.BYTES);
+        putInts(buffer, ticketOrders.getNumberOfAdultTickets());
+        putInts(buffer, ticketOrders.getNumberOfChildTickets());
+        putInts(buffer, ticketOrders.getNumberOfInfantTickets());
+        return buffer.array();
+    }
+
+    public static TicketOrderBatch decodeBatch(byte[] batch) {
+        ByteBuffer buffer = ByteBuffer.wrap(batch).position(Integer.BYTES);
+        int size = buffer.getInt();
+        long[] accountIds = new long[size];
+        buffer.asLongBuffer().get(accountIds);
+        buffer.position(buffer.position() + size * Long.BYTES);
+        return new TicketOrderBatch(accountIds, getInts(buffer, size), getInts(buffer, size), getInts(buffer, size));
+    }
+
+    public static byte[] encodeBatchResult(TicketOrderBatchResult batchResult) {
+        int size = batchResult.size();
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + size * (1 + 2 * Integer.BYTES)).putInt(size);
+        for (int order = 0; order < size; order++) {
+            buffer.put(batchResult.isAccepted(order)
+                    ? TicketOrderBatchResult.ACCEPTED
+                    : TicketOrderBatchResult.rejectionCode(batchResult.getRejectionReason(order)));
+        }
+        for (int order = 0; order < size; order++) {
+            buffer.putInt(batchResult.getTotalTicketPricePence(order));
+        }
+        for (int order = 0; order < size; order++) {
+            buffer.putInt(batchResult.getNumberOfSeatsToReserve(order));
+        }
+        return buffer.array();
+    }
+
+    public static TicketOrderBatchResult decodeBatchResult(byte[] batchResult) {
+        ByteBuffer buffer = ByteBuffer.wrap(batchResult);
+        int size = buffer.getInt();
+        byte[] rejectionCodes = new byte[size];
+        buffer.get(rejectionCodes);
+        return new TicketOrderBatchResult(rejectionCodes, getInts(buffer, size), getInts(buffer, size));
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values) {
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+    }
+
+    private static int[] getInts(ByteBuffer buffer, int size) {
+        int[] values = new int[size];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + size * Integer.BYTES);
+        return values;
+    }
+
+}
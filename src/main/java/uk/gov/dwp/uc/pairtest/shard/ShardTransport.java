@@ -0,0 +1,22 @@
+package uk.gov.dwp.uc.pairtest.shard;
+
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatch;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatchResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Carries purchases to shards owned by another node. {@link ShardMessageCodec} defines the messages, so a transport
+ * only has to move bytes and hand them to the owning node's {@link ShardedTicketService}.
+ */
+public interface ShardTransport {
+
+    ShardTransport NONE = new NoShardTransport();
+
+    CompletableFuture<TicketPurchaseSummary> purchase(int shard, long accountId, TicketBasket ticketBasket);
+
+    CompletableFuture<TicketOrderBatchResult> purchase(int shard, TicketOrderBatch ticketOrders);
+
+}
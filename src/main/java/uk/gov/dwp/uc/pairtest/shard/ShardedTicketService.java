@@ -0,0 +1,235 @@
+package uk.gov.dwp.uc.pairtest.shard;
+
+import uk.gov.dwp.uc.pairtest.TicketService;
+import uk.gov.dwp.uc.pairtest.domain.RejectionReason;
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatch;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatchResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntFunction;
+
+/**
+ * Partitions purchases by account over the shards of a {@link ConsistentHashRing}, so each account is always handled
+ * by the same shard. This node runs its own shards as {@link ShardEventLoop}s, each with a {@link TicketService} of its
+ * own created by {@code ticketServiceFactory}; purchases for shards owned by other nodes go through the
+ * {@link ShardTransport}. Per-account state such as idempotency keys, rate limits and journals therefore lives in
+ * exactly one place and is only ever touched by one thread.
+ * <p>
+ * The varargs overloads turn their requests into a {@link TicketBasket} before routing. A request that cannot become a
+ * basket is rejected on the calling thread without going through the shard's admission control.
+ */
+public class ShardedTicketService implements TicketService, AutoCloseable {
+
+    private final ConsistentHashRing ring;
+    private final ShardEventLoop[] localShards;
+    private final ShardTransport shardTransport;
+
+    /**
+     * Runs every shard of the ring on this node.
+     */
+    public ShardedTicketService(ConsistentHashRing ring, IntFunction<TicketService> ticketServiceFactory) {
+        this(ring, allShards(ring), ticketServiceFactory, ShardTransport.NONE);
+    }
+
+    public ShardedTicketService(ConsistentHashRing ring, int[] ownedShards, IntFunction<TicketService> ticketServiceFactory,
+                                ShardTransport shardTransport) {
+        this.ring = ring;
+        this.localShards = new ShardEventLoop[ring.getNumberOfShards()];
+        this.shardTransport = shardTransport;
+        for (int shard : ownedShards) {
+            if (localShards[shard] != null) {
+                throw new IllegalArgumentException("Shard " + shard + " is listed twice");
+            }
+            localShards[shard] = new ShardEventLoop("ticket-shard-" + shard, ticketServiceFactory.apply(shard));
+        }
+    }
+
+    @Override
+    public void purchaseTickets(Long accountId, TicketTypeRequest... ticketTypeRequests) throws InvalidPurchaseException {
+        throwIfRejected(tryPurchaseTickets(accountId, ticketTypeRequests));
+    }
+
+    @Override
+    public TicketPurchaseSummary tryPurchaseTickets(Long accountId, TicketTypeRequest... ticketTypeRequests) {
+        if (accountId == null || accountId < 0) {
+            return TicketPurchaseSummary.rejected(RejectionReason.INVALID_ACCOUNT_ID);
+        }
+
+        TicketBasket ticketBasket;
+        try {
+            ticketBasket = TicketBasket.fromRequests(ticketTypeRequests);
+        } catch (InvalidPurchaseException e) {
+            return TicketPurchaseSummary.rejected(e.getRejectionReason());
+        }
+        return tryPurchaseTickets(accountId.longValue(), ticketBasket);
+    }
+
+    @Override
+    public void purchaseTickets(long accountId, TicketBasket ticketBasket) throws InvalidPurchaseException {
+        throwIfRejected(tryPurchaseTickets(accountId, ticketBasket));
+    }
+
+    @Override
+    public TicketPurchaseSummary tryPurchaseTickets(long accountId, TicketBasket ticketBasket) {
+        int shard = ring.shardFor(accountId);
+        ShardEventLoop localShard = localShards[shard];
+        return await(localShard != null
+                ? localShard.submit(accountId, ticketBasket)
+                : shardTransport.purchase(shard, accountId, ticketBasket));
+    }
+
+    /**
+     * Splits the batch by shard, sends every part off at once, and stitches the results back into the batch's order.
+     * If a shard's part fails as a whole, for example because its node cannot be reached, every order in that part is
+     * reported as {@link RejectionReason#PURCHASE_FAILED} and the other shards' results are kept.
+     */
+    @Override
+    public TicketOrderBatchResult purchaseTickets(TicketOrderBatch ticketOrders) {
+        int size = ticketOrders.size();
+        long[] accountIds = ticketOrders.getAccountIds();
+        int numberOfShards = ring.getNumberOfShards();
+
+        int[] shardOfOrder = new int[size];
+        int[] ordersPerShard = new int[numberOfShards];
+        for (int order = 0; order < size; order++) {
+            shardOfOrder[order] = ring.shardFor(accountIds[order]);
+            ordersPerShard[shardOfOrder[order]]++;
+        }
+
+        int[][] ordersByShard = new int[numberOfShards][];
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            ordersByShard[shard] = new int[ordersPerShard[shard]];
+        }
+        int[] filled = new int[numberOfShards];
+        for (int order = 0; order < size; order++) {
+            int shard = shardOfOrder[order];
+            ordersByShard[shard][filled[shard]++] = order;
+        }
+
+        @SuppressWarnings("unchecked")
+        CompletableFuture<TicketOrderBatchResult>[] shardResults = (CompletableFuture<TicketOrderBatchResult>[]) new CompletableFuture<?>[numberOfShards];
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            if (ordersByShard[shard].length > 0) {
+                TicketOrderBatch shardOrders = select(ticketOrders, ordersByShard[shard]);
+                try {
+                    shardResults[shard] = localShards[shard] != null
+                            ? localShards[shard].submit(shardOrders)
+                            : shardTransport.purchase(shard, shardOrders);
+                } catch (RuntimeException e) {
+                    shardResults[shard] = CompletableFuture.failedFuture(e);
+                }
+            }
+        }
+
+        byte[] rejectionCodes = new byte[size];
+        int[] totalTicketPricePence = new int[size];
+        int[] numberOfSeatsToReserve = new int[size];
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            if (shardResults[shard] == null) {
+                continue;
+            }
+            int[] orders = ordersByShard[shard];
+            TicketOrderBatchResult shardResult;
+            try {
+                shardResult = await(shardResults[shard]);
+            } catch (RuntimeException e) {
+                for (int order : orders) {
+                    rejectionCodes[order] = TicketOrderBatchResult.rejectionCode(RejectionReason.PURCHASE_FAILED);
+                }
+                continue;
+            }
+            for (int i = 0; i < orders.length; i++) {
+                rejectionCodes[orders[i]] = shardResult.isAccepted(i)
+                        ? TicketOrderBatchResult.ACCEPTED
+                        : TicketOrderBatchResult.rejectionCode(shardResult.getRejectionReason(i));
+                totalTicketPricePence[orders[i]] = shardResult.getTotalTicketPricePence(i);
+                numberOfSeatsToReserve[orders[i]] = shardResult.getNumberOfSeatsToReserve(i);
+            }
+        }
+        return new TicketOrderBatchResult(rejectionCodes, totalTicketPricePence, numberOfSeatsToReserve);
+    }
+
+    /**
+     * Handles a purchase sent by another node for one of this node's shards.
+     */
+    public CompletableFuture<TicketPurchaseSummary> purchaseOnLocalShard(int shard, long accountId, TicketBasket ticketBasket) {
+        return getLocalShard(shard).submit(accountId, ticketBasket);
+    }
+
+    /**
+     * Handles a batch sent by another node for one of this node's shards.
+     */
+    public CompletableFuture<TicketOrderBatchResult> purchaseOnLocalShard(int shard, TicketOrderBatch ticketOrders) {
+        return getLocalShard(shard).submit(ticketOrders);
+    }
+
+    public boolean ownsShard(int shard) {
+        return localShards[shard] != null;
+    }
+
+    public ConsistentHashRing getRing() {
+        return ring;
+    }
+
+    @Override
+    public void close() {
+        for (ShardEventLoop localShard : localShards) {
+            if (localShard != null) {
+                localShard.close();
+            }
+        }
+    }
+
+    private ShardEventLoop getLocalShard(int shard) {
+        ShardEventLoop localShard = shard >= 0 && shard < localShards.length ? localShards[shard] : null;
+        if (localShard == null) {
+            throw new IllegalArgumentException("Shard " + shard + " is not owned by this node");
+        }
+        return localShard;
+    }
+
+    private static TicketOrderBatch select(TicketOrderBatch ticketOrders, int[] orders) {
+        long[] accountIds = new long[orders.length];
+        int[] numberOfAdultTickets = new int[orders.length];
+        int[] numberOfChildTickets = new int[orders.length];
+        int[] numberOfInfantTickets = new int[orders.length];
+        for (int i = 0; i < orders.length; i++) {
+            accountIds[i] = ticketOrders.getAccountIds()[orders[i]];
+            numberOfAdultTickets[i] = ticketOrders.getNumberOfAdultTickets()[orders[i]];
+            numberOfChildTickets[i] = ticketOrders.getNumberOfChildTickets()[orders[i]];
+            numberOfInfantTickets[i] = ticketOrders.getNumberOfInfantTickets()[orders[i]];
+        }
+        return new TicketOrderBatch(accountIds, numberOfAdultTickets, numberOfChildTickets, numberOfInfantTickets);
+    }
+
+    private static int[] allShards(ConsistentHashRing ring) {
+        int[] shards = new int[ring.getNumberOfShards()];
+        for (int shard = 0; shard < shards.length; shard++) {
+            shards[shard] = shard;
+        }
+        return shards;
+    }
+
+    private static void throwIfRejected(TicketPurchaseSummary purchaseSummary) {
+        if (!purchaseSummary.isValid()) {
+            throw InvalidPurchaseException.of(purchaseSummary.getRejectionReason());
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+package thirdparty.seatbooking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SeatInventoryTest {
+
+    private static final long SCREENING_ID = 42L;
+    private static final long ACCOUNT_ID = 123456789L;
+
+    private SeatInventory seatInventory;
+
+    @BeforeEach
+    void setup() {
+        seatInventory = new SeatInventory();
+    }
+
+    @Test
+    void shouldReserveSeatsWhileCapacityRemains() {
+        //GIVEN
+        seatInventory.addScreening(SCREENING_ID, 10);
+
+        //WHEN
+        long reservationId = seatInventory.tryReserve(SCREENING_ID, ACCOUNT_ID, 4);
+
+        //THEN
+        assertNotEquals(SeatInventory.NO_RESERVATION, reservationId);
+        assertEquals(6, seatInventory.getRemainingSeats(SCREENING_ID));
+        assertEquals(ACCOUNT_ID, seatInventory.getAccountId(reservationId));
+    }
+
+    @Test
+    void shouldRejectReservationLargerThanRemainingCapacity() {
+        //GIVEN
+        seatInventory.addScreening(SCREENING_ID, 10);
+        seatInventory.tryReserve(SCREENING_ID, ACCOUNT_ID, 8);
+
+        //WHEN
+        long reservationId = seatInventory.tryReserve(SCREENING_ID, ACCOUNT_ID, 3);
+
+        //THEN
+        assertEquals(SeatInventory.NO_RESERVATION, reservationId);
+        assertEquals(2, seatInventory.getRemainingSeats(SCREENING_ID));
+    }
+
+    @Test
+    void shouldReturnSeatsOnlyOnceWhenReleased() {
+        //GIVEN
+        seatInventory.addScreening(SCREENING_ID, 10);
+        long reservationId = seatInventory.tryReserve(SCREENING_ID, ACCOUNT_ID, 4);
+
+        //WHEN/THEN
+        assertTrue(seatInventory.release(reservationId));
+        assertFalse(seatInventory.release(reservationId));
+        assertEquals(10, seatInventory.getRemainingSeats(SCREENING_ID));
+        assertEquals(0, seatInventory.getActiveReservationCount());
+    }
+
+    @Test
+    void shouldRejectUnknownScreening() {
+        //GIVEN/WHEN/THEN
+        assertThrows(IllegalArgumentException.class, () -> seatInventory.tryReserve(SCREENING_ID, ACCOUNT_ID, 1));
+    }
+
+    @Test
+    void shouldRejectDuplicateScreening() {
+        //GIVEN
+        seatInventory.addScreening(SCREENING_ID, 10);
+
+        //WHEN/THEN
+        assertThrows(IllegalArgumentException.class, () -> seatInventory.addScreening(SCREENING_ID, 20));
+    }
+
+    @Test
+    void shouldThrowFromReservationServiceWhenScreeningIsFull() {
+        //GIVEN
+        seatInventory.addScreening(SCREENING_ID, 2);
+        SeatReservationService seatReservationService = new InventorySeatReservationService(seatInventory, SCREENING_ID);
+        seatReservationService.reserveSeat(ACCOUNT_ID, 2);
+
+        //WHEN/THEN
+        assertThrows(SeatsUnavailableException.class, () -> seatReservationService.reserveSeat(ACCOUNT_ID, 1));
+    }
+
+    @Test
+    void shouldReleaseEveryReservationMadeForAnAccount() {
+        //GIVEN
+        seatInventory.addScreening(SCREENING_ID, 10);
+        InventorySeatReservationService seatReservationService = new InventorySeatReservationService(seatInventory, SCREENING_ID);
+        seatReservationService.reserveSeat(ACCOUNT_ID, 3);
+        seatReservationService.reserveSeat(ACCOUNT_ID, 2);
+        seatReservationService.reserveSeat(ACCOUNT_ID + 1, 4);
+
+        //WHEN
+        int released = seatReservationService.releaseAll(ACCOUNT_ID);
+
+        //THEN
+        assertEquals(2, released);
+        assertEquals(6, seatInventory.getRemainingSeats(SCREENING_ID));
+        assertEquals(1, seatInventory.getActiveReservationCount());
+        assertEquals(0, seatReservationService.getReservationIds(ACCOUNT_ID).length);
+        assertEquals(1, seatReservationService.getReservationIds(ACCOUNT_ID + 1).length);
+        assertEquals(0, seatReservationService.releaseAll(ACCOUNT_ID));
+    }
+
+    @Test
+    void shouldNeverOversellUnderConcurrentReservationsAndReleases() throws Exception {
+        //GIVEN
+        int capacity = 5_000;
+        int numberOfThreads = 32;
+        int attemptsPerThread = 20_000;
+        seatInventory.addScreening(SCREENING_ID, capacity);
+        CyclicBarrier startLine = new CyclicBarrier(numberOfThreads);
+
+        List<Callable<Long>> workers = new ArrayList<>();
+        for (int thread = 0; thread < numberOfThreads; thread++) {
+            long seed = thread;
+            workers.add(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                List<long[]> heldReservations = new ArrayList<>();
+                long seatsHeld = 0;
+                startLine.await();
+
+                for (int attempt = 0; attempt < attemptsPerThread; attempt++) {
+                    if (!heldReservations.isEmpty() && random.nextInt(3) == 0) {
+                        long[] reservationIdAndSeats = heldReservations.remove(heldReservations.size() - 1);
+                        assertTrue(seatInventory.release(reservationIdAndSeats[0]));
+                        seatsHeld -= reservationIdAndSeats[1];
+                    } else {
+                        int seats = random.nextInt(1, 5);
+                        long reservationId = seatInventory.tryReserve(SCREENING_ID, seed, seats);
+                        if (reservationId != SeatInventory.NO_RESERVATION) {
+                            heldReservations.add(new long[]{reservationId, seats});
+                            seatsHeld += seats;
+                        }
+                    }
+
+                    int remainingSeats = seatInventory.getRemainingSeats(SCREENING_ID);
+                    assertTrue(remainingSeats >= 0 && remainingSeats <= capacity, "Remaining seats out of range: " + remainingSeats);
+                }
+                return seatsHeld;
+            });
+        }
+
+        //WHEN
+        long totalSeatsHeld = 0;
+        try (ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads)) {
+            for (Future<Long> result : executorService.invokeAll(workers)) {
+                totalSeatsHeld += result.get();
+            }
+        }
+
+        //THEN
+        assertTrue(totalSeatsHeld <= capacity);
+        assertEquals(capacity - totalSeatsHeld, seatInventory.getRemainingSeats(SCREENING_ID));
+    }
+
+}
@@ -0,0 +1,236 @@
+package thirdparty.seatbooking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SeatMapTest {
+
+    @Test
+    void shouldSeatPartyTogetherInTheMiddleRowFirst() {
+        //GIVEN
+        SeatMap seatMap = new SeatMap(5, 10);
+
+        //WHEN
+        SeatAllocation seatAllocation = seatMap.allocate(4);
+
+        //THEN
+        assertTrue(seatAllocation.isContiguous());
+        assertEquals(2, seatAllocation.getRow(0));
+        assertEquals(4, seatAllocation.getNumberOfSeats());
+        assertEquals(46, seatMap.getFreeSeatCount());
+        for (int seat = 0; seat < 4; seat++) {
+            assertFalse(seatMap.isFree(2, seatAllocation.getFirstSeat(0) + seat));
+        }
+    }
+
+    @Test
+    void shouldPreferTheShortestRunThatFits() {
+        //GIVEN
+        SeatMap seatMap = new SeatMap(1, 10);
+        SeatAllocation longRun = seatMap.allocate(5);
+        seatMap.allocate(1);
+        SeatAllocation shortRun = seatMap.allocate(2);
+        seatMap.allocate(2);
+        seatMap.release(longRun);
+        seatMap.release(shortRun);
+
+        //WHEN
+        SeatAllocation seatAllocation = seatMap.allocate(2);
+
+        //THEN
+        assertEquals(6, seatAllocation.getFirstSeat(0));
+        assertEquals(5, seatMap.getFragmentation().getLargestFreeRun());
+    }
+
+    @Test
+    void shouldFindRunsThatCrossWordBoundaries() {
+        //GIVEN
+        SeatMap seatMap = new SeatMap(new int[]{150});
+        seatMap.allocate(60);
+
+        //WHEN
+        SeatAllocation seatAllocation = seatMap.allocate(80);
+
+        //THEN
+        assertTrue(seatAllocation.isContiguous());
+        assertEquals(60, seatAllocation.getFirstSeat(0));
+        assertEquals(10, seatMap.getFreeSeatCount());
+        assertTrue(seatMap.isFree(0, 140));
+        assertTrue(seatMap.isFree(0, 149));
+        assertFalse(seatMap.isFree(0, 139));
+    }
+
+    @Test
+    void shouldSplitIntoAdjacentRowsWhenNoRowHasRoom() {
+        //GIVEN
+        SeatMap seatMap = new SeatMap(4, 4);
+        seatMap.allocate(4);
+        seatMap.allocate(4);
+        seatMap.allocate(2);
+
+        //WHEN
+        SeatAllocation seatAllocation = seatMap.allocate(5);
+
+        //THEN
+        assertEquals(5, seatAllocation.getNumberOfSeats());
+        assertEquals(2, seatAllocation.getNumberOfBlocks());
+        assertEquals(1, Math.abs(seatAllocation.getRow(0) - seatAllocation.getRow(1)));
+        assertEquals(1, seatMap.getFreeSeatCount());
+    }
+
+    @Test
+    void shouldRefuseMoreSeatsThanAreFree() {
+        //GIVEN
+        SeatMap seatMap = new SeatMap(2, 3);
+        seatMap.allocate(5);
+
+        //WHEN/THEN
+        assertNull(seatMap.allocate(2));
+        assertEquals(1, seatMap.getFreeSeatCount());
+    }
+
+    @Test
+    void shouldRejectReleasingFreeSeats() {
+        //GIVEN
+        SeatMap seatMap = new SeatMap(2, 3);
+        SeatAllocation seatAllocation = seatMap.allocate(2);
+        seatMap.release(seatAllocation);
+
+        //WHEN/THEN
+        assertThrows(IllegalStateException.class, () -> seatMap.release(seatAllocation));
+        assertEquals(6, seatMap.getFreeSeatCount());
+    }
+
+    @Test
+    void shouldReportFreeRunsByLength() {
+        //GIVEN
+        SeatMap seatMap = new SeatMap(2, 10);
+        seatMap.allocate(10);
+        SeatAllocation middle = seatMap.allocate(3);
+        seatMap.allocate(4);
+        seatMap.release(middle);
+
+        //WHEN
+        SeatMapFragmentation fragmentation = seatMap.getFragmentation();
+
+        //THEN
+        assertEquals(6, fragmentation.getFreeSeats());
+        assertEquals(2, fragmentation.getNumberOfFreeRuns());
+        assertEquals(3, fragmentation.getLargestFreeRun());
+        assertEquals(2, fragmentation.getNumberOfFreeRuns(3));
+        assertEquals(0, fragmentation.getNumberOfPartiesSeatableTogether(4));
+        assertEquals(2, fragmentation.getNumberOfPartiesSeatableTogether(2));
+        assertEquals(0, fragmentation.getStrandedPercent(3));
+        assertEquals(100, fragmentation.getStrandedPercent(4));
+    }
+
+    @Test
+    void shouldRecordSeatsGivenToEachAccount() {
+        //GIVEN
+        SeatMapSeatReservationService seatReservationService = new SeatMapSeatReservationService(new SeatMap(2, 4), 42L);
+
+        //WHEN
+        seatReservationService.reserveSeat(1L, 3);
+        seatReservationService.reserveSeat(1L, 2);
+
+        //THEN
+        assertEquals(2, seatReservationService.getAllocations(1L).size());
+        assertEquals(0, seatReservationService.getAllocations(2L).size());
+        assertThrows(SeatsUnavailableException.class, () -> seatReservationService.reserveSeat(2L, 4));
+    }
+
+    @Test
+    void shouldFreeSeatsReleasedByAccount() {
+        //GIVEN
+        SeatMap seatMap = new SeatMap(2, 4);
+        SeatMapSeatReservationService seatReservationService = new SeatMapSeatReservationService(seatMap, 42L);
+        seatReservationService.reserveSeat(1L, 3);
+        seatReservationService.reserveSeat(1L, 2);
+        seatReservationService.reserveSeat(2L, 2);
+        SeatAllocation firstAllocation = seatReservationService.getAllocations(1L).get(0);
+
+        //WHEN
+        boolean released = seatReservationService.release(1L, firstAllocation);
+
+        //THEN
+        assertTrue(released);
+        assertTrue(seatMap.isFree(firstAllocation.getRow(0), firstAllocation.getFirstSeat(0)));
+        assertEquals(1, seatReservationService.getAllocations(1L).size());
+        assertFalse(seatReservationService.release(1L, firstAllocation));
+        assertFalse(seatReservationService.release(2L, seatReservationService.getAllocations(1L).get(0)));
+        assertEquals(1, seatReservationService.releaseAll(1L));
+        assertEquals(0, seatReservationService.getAllocations(1L).size());
+        assertEquals(1, seatReservationService.getAllocations(2L).size());
+        assertNotNull(seatMap.allocate(6));
+    }
+
+    @Test
+    void shouldNeverGiveTheSameSeatTwiceUnderConcurrentAllocation() throws Exception {
+        //GIVEN
+        SeatMap seatMap = new SeatMap(20, 25);
+        int numberOfThreads = 8;
+        CyclicBarrier startLine = new CyclicBarrier(numberOfThreads);
+
+        List<Callable<List<SeatAllocation>>> workers = new ArrayList<>();
+        for (int thread = 0; thread < numberOfThreads; thread++) {
+            long seed = thread;
+            workers.add(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                List<SeatAllocation> held = new ArrayList<>();
+                startLine.await();
+                for (int attempt = 0; attempt < 20_000; attempt++) {
+                    if (!held.isEmpty() && random.nextInt(3) == 0) {
+                        seatMap.release(held.remove(random.nextInt(held.size())));
+                    } else {
+                        SeatAllocation seatAllocation = seatMap.allocate(random.nextInt(1, 7));
+                        if (seatAllocation != null) {
+                            held.add(seatAllocation);
+                        }
+                    }
+                }
+                return held;
+            });
+        }
+
+        //WHEN
+        List<SeatAllocation> held = new ArrayList<>();
+        try (ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads)) {
+            for (Future<List<SeatAllocation>> result : executorService.invokeAll(workers)) {
+                held.addAll(result.get());
+            }
+        }
+
+        //THEN
+        boolean[][] taken = new boolean[20][25];
+        int seatsHeld = 0;
+        for (SeatAllocation seatAllocation : held) {
+            for (int block = 0; block < seatAllocation.getNumberOfBlocks(); block++) {
+                for (int seat = 0; seat < seatAllocation.getNumberOfSeats(block); seat++) {
+                    int row = seatAllocation.getRow(block);
+                    int seatNumber = seatAllocation.getFirstSeat(block) + seat;
+                    assertFalse(taken[row][seatNumber], "Seat given twice: row " + row + " seat " + seatNumber);
+                    assertFalse(seatMap.isFree(row, seatNumber));
+                    taken[row][seatNumber] = true;
+                    seatsHeld++;
+                }
+            }
+        }
+        assertEquals(500 - seatsHeld, seatMap.getFreeSeatCount());
+    }
+
+}
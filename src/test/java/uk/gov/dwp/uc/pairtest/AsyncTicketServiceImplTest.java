@@ -0,0 +1,175 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import thirdparty.paymentgateway.TicketPaymentService;
+import thirdparty.seatbooking.SeatReservationService;
+import uk.gov.dwp.uc.pairtest.domain.PurchaseResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+import uk.gov.dwp.uc.pairtest.journal.PurchaseJournal;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AsyncTicketServiceImplTest {
+
+    @Mock
+    private TicketPaymentService mockTicketPaymentService;
+
+    @Mock
+    private SeatReservationService mockSeatReservationService;
+
+    private AsyncTicketServiceImpl ticketService;
+
+    private final Long accountId = 123456789L;
+    private final TicketTypeRequest adultTicketRequest = new TicketTypeRequest(Type.ADULT, 2);
+    private final TicketTypeRequest childTicketRequest = new TicketTypeRequest(Type.CHILD, 1);
+
+    @AfterEach
+    void tearDown() {
+        ticketService.close();
+    }
+
+    @Test
+    void shouldRejectInvalidRequestBeforeReturningAFuture() {
+        //GIVEN
+        ticketService = createTicketService(1, 0, Duration.ofSeconds(5));
+        TicketTypeRequest childOnlyRequest = new TicketTypeRequest(Type.CHILD, 1);
+
+        //WHEN/THEN
+        assertThrows(InvalidPurchaseException.class, () -> ticketService.purchaseTickets(accountId, childOnlyRequest));
+        verifyNoInteractions(mockTicketPaymentService, mockSeatReservationService);
+    }
+
+    @Test
+    void shouldChargeAndReserveSeatsForValidRequest() throws Exception {
+        //GIVEN
+        ticketService = createTicketService(1, 0, Duration.ofSeconds(5));
+
+        //WHEN
+        PurchaseResult purchaseResult = ticketService.purchaseTickets(accountId, adultTicketRequest, childTicketRequest).get();
+
+        //THEN
+        assertEquals(accountId, purchaseResult.getAccountId());
+        assertEquals(6500, purchaseResult.getTotalTicketPricePence());
+        assertEquals(3, purchaseResult.getNumberOfSeatsReserved());
+        verify(mockTicketPaymentService).makePayment(accountId, 6500);
+        verify(mockSeatReservationService).reserveSeat(accountId, 3);
+    }
+
+    @Test
+    void shouldFailWithTimeoutWhenPaymentIsTooSlow() {
+        //GIVEN
+        ticketService = createTicketService(1, 0, Duration.ofMillis(50));
+        doAnswer(invocation -> {
+            Thread.sleep(5000);
+            return null;
+        }).when(mockTicketPaymentService).makePayment(anyLong(), anyInt());
+
+        //WHEN
+        CompletableFuture<PurchaseResult> purchaseResult = ticketService.purchaseTickets(accountId, adultTicketRequest);
+
+        //THEN
+        ExecutionException exception = assertThrows(ExecutionException.class, purchaseResult::get);
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        verify(mockSeatReservationService, never()).reserveSeat(anyLong(), anyInt());
+    }
+
+    @Test
+    void shouldLeaveTimedOutReservationUnconfirmedInJournal() {
+        //GIVEN
+        PurchaseJournal purchaseJournal = mock(PurchaseJournal.class);
+        when(purchaseJournal.recordIntent(eq(accountId), any())).thenReturn(7L);
+        ticketService = new AsyncTicketServiceImpl(new TicketRequestValidator(), mockTicketPaymentService, mockSeatReservationService,
+                purchaseJournal, Executors.newVirtualThreadPerTaskExecutor(), 1, 0, Duration.ofMillis(50));
+        doAnswer(invocation -> {
+            Thread.sleep(5000);
+            return null;
+        }).when(mockSeatReservationService).reserveSeat(anyLong(), anyInt());
+
+        //WHEN
+        CompletableFuture<PurchaseResult> purchaseResult = ticketService.purchaseTickets(accountId, adultTicketRequest);
+
+        //THEN
+        ExecutionException exception = assertThrows(ExecutionException.class, purchaseResult::get);
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        verify(purchaseJournal).recordPaid(eq(7L), eq(accountId.longValue()), any());
+        verify(purchaseJournal, never()).recordReserved(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void shouldPropagatePaymentFailure() {
+        //GIVEN
+        ticketService = createTicketService(1, 0, Duration.ofSeconds(5));
+        IllegalStateException paymentFailure = new IllegalStateException("Card declined");
+        doThrow(paymentFailure).when(mockTicketPaymentService).makePayment(accountId, 5000);
+
+        //WHEN
+        CompletableFuture<PurchaseResult> purchaseResult = ticketService.purchaseTickets(accountId, adultTicketRequest);
+
+        //THEN
+        ExecutionException exception = assertThrows(ExecutionException.class, purchaseResult::get);
+        assertEquals(paymentFailure, exception.getCause());
+        verify(mockSeatReservationService, never()).reserveSeat(anyLong(), anyInt());
+    }
+
+    @Test
+    void shouldRejectPurchasesBeyondTheQueueLimit() throws Exception {
+        //GIVEN
+        ticketService = createTicketService(1, 1, Duration.ofSeconds(5));
+        CountDownLatch paymentStarted = new CountDownLatch(1);
+        CountDownLatch releasePayment = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            paymentStarted.countDown();
+            releasePayment.await();
+            return null;
+        }).when(mockTicketPaymentService).makePayment(anyLong(), anyInt());
+
+        CompletableFuture<PurchaseResult> runningPurchase = ticketService.purchaseTickets(accountId, adultTicketRequest);
+        paymentStarted.await();
+        CompletableFuture<PurchaseResult> queuedPurchase = ticketService.purchaseTickets(accountId, adultTicketRequest);
+
+        //WHEN
+        CompletableFuture<PurchaseResult> rejectedPurchase = ticketService.purchaseTickets(accountId, adultTicketRequest);
+
+        //THEN
+        ExecutionException exception = assertThrows(ExecutionException.class, rejectedPurchase::get);
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+
+        releasePayment.countDown();
+        runningPurchase.get();
+        queuedPurchase.get();
+    }
+
+    private AsyncTicketServiceImpl createTicketService(int maximumConcurrentPurchases, int maximumQueuedPurchases, Duration downstreamTimeout) {
+        return new AsyncTicketServiceImpl(new TicketRequestValidator(), mockTicketPaymentService, mockSeatReservationService,
+                Executors.newVirtualThreadPerTaskExecutor(), maximumConcurrentPurchases, maximumQueuedPurchases, downstreamTimeout);
+    }
+
+}
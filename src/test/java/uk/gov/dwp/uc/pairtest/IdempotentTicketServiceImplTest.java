@@ -0,0 +1,165 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import thirdparty.paymentgateway.RefundableTicketPaymentService;
+import thirdparty.seatbooking.SeatReservationService;
+import thirdparty.seatbooking.SeatsUnavailableException;
+import uk.gov.dwp.uc.pairtest.domain.PurchaseResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+import uk.gov.dwp.uc.pairtest.exception.PurchaseFailedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotentTicketServiceImplTest {
+
+    @Mock
+    private RefundableTicketPaymentService mockTicketPaymentService;
+
+    @Mock
+    private SeatReservationService mockSeatReservationService;
+
+    private IdempotentTicketServiceImpl ticketService;
+
+    private final Long accountId = 123456789L;
+    private final String idempotencyKey = "6f1c1f6e-purchase-1";
+    private final TicketTypeRequest adultTicketRequest = new TicketTypeRequest(Type.ADULT, 2);
+
+    @BeforeEach
+    void setup() {
+        ticketService = new IdempotentTicketServiceImpl(new TicketRequestValidator(), mockTicketPaymentService, mockSeatReservationService);
+    }
+
+    @Test
+    void shouldChargeOnceForDuplicateSubmissions() {
+        //GIVEN
+        PurchaseResult firstResult = ticketService.purchaseTickets(idempotencyKey, accountId, adultTicketRequest);
+
+        //WHEN
+        PurchaseResult secondResult = ticketService.purchaseTickets(idempotencyKey, accountId, adultTicketRequest);
+
+        //THEN
+        assertSame(firstResult, secondResult);
+        verify(mockTicketPaymentService, times(1)).makePayment(accountId, 5000);
+        verify(mockSeatReservationService, times(1)).reserveSeat(accountId, 2);
+    }
+
+    @Test
+    void shouldRejectInvalidRequestWithoutCachingIt() {
+        //GIVEN
+        TicketTypeRequest childOnlyRequest = new TicketTypeRequest(Type.CHILD, 1);
+        assertThrows(InvalidPurchaseException.class, () -> ticketService.purchaseTickets(idempotencyKey, accountId, childOnlyRequest));
+
+        //WHEN
+        ticketService.purchaseTickets(idempotencyKey, accountId, adultTicketRequest);
+
+        //THEN
+        verify(mockTicketPaymentService).makePayment(accountId, 5000);
+    }
+
+    @Test
+    void shouldRejectMissingIdempotencyKey() {
+        //GIVEN/WHEN/THEN
+        assertThrows(InvalidPurchaseException.class, () -> ticketService.purchaseTickets(null, accountId, adultTicketRequest));
+        verifyNoInteractions(mockTicketPaymentService, mockSeatReservationService);
+    }
+
+    @Test
+    void shouldRefundAndAllowRetryWhenReservationFails() {
+        //GIVEN
+        doThrow(new SeatsUnavailableException("Screening full"))
+                .doNothing()
+                .when(mockSeatReservationService).reserveSeat(accountId, 2);
+
+        //WHEN
+        PurchaseFailedException exception = assertThrows(PurchaseFailedException.class,
+                () -> ticketService.purchaseTickets(idempotencyKey, accountId, adultTicketRequest));
+        ticketService.purchaseTickets(idempotencyKey, accountId, adultTicketRequest);
+
+        //THEN
+        assertTrue(exception.isRefunded());
+        verify(mockTicketPaymentService).refundPayment(accountId, 5000);
+        verify(mockTicketPaymentService, times(2)).makePayment(accountId, 5000);
+    }
+
+    @Test
+    void shouldNotChargeAgainWhenRefundFails() {
+        //GIVEN
+        doThrow(new SeatsUnavailableException("Screening full")).when(mockSeatReservationService).reserveSeat(accountId, 2);
+        doThrow(new IllegalStateException("Gateway unavailable")).when(mockTicketPaymentService).refundPayment(accountId, 5000);
+
+        //WHEN
+        PurchaseFailedException firstException = assertThrows(PurchaseFailedException.class,
+                () -> ticketService.purchaseTickets(idempotencyKey, accountId, adultTicketRequest));
+        PurchaseFailedException retryException = assertThrows(PurchaseFailedException.class,
+                () -> ticketService.purchaseTickets(idempotencyKey, accountId, adultTicketRequest));
+
+        //THEN
+        assertFalse(firstException.isRefunded());
+        assertSame(firstException, retryException);
+        verify(mockTicketPaymentService, times(1)).makePayment(accountId, 5000);
+    }
+
+    @Test
+    void shouldChargeOnceForConcurrentDuplicateSubmissions() throws Exception {
+        //GIVEN
+        int numberOfDuplicates = 16;
+        CountDownLatch paymentStarted = new CountDownLatch(1);
+        CountDownLatch releasePayment = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            paymentStarted.countDown();
+            releasePayment.await();
+            return null;
+        }).when(mockTicketPaymentService).makePayment(accountId, 5000);
+        doNothing().when(mockSeatReservationService).reserveSeat(accountId, 2);
+
+        List<Callable<PurchaseResult>> duplicates = new ArrayList<>();
+        for (int i = 0; i < numberOfDuplicates; i++) {
+            duplicates.add(() -> ticketService.purchaseTickets(idempotencyKey, accountId, adultTicketRequest));
+        }
+
+        //WHEN
+        List<PurchaseResult> purchaseResults = new ArrayList<>();
+        try (ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<PurchaseResult>> futures = new ArrayList<>();
+            for (Callable<PurchaseResult> duplicate : duplicates) {
+                futures.add(executorService.submit(duplicate));
+            }
+            paymentStarted.await();
+            releasePayment.countDown();
+            for (Future<PurchaseResult> future : futures) {
+                purchaseResults.add(future.get());
+            }
+        }
+
+        //THEN
+        verify(mockTicketPaymentService, times(1)).makePayment(accountId, 5000);
+        purchaseResults.forEach(purchaseResult -> assertSame(purchaseResults.get(0), purchaseResult));
+        assertEquals(5000, purchaseResults.get(0).getTotalTicketPricePence());
+    }
+
+}
@@ -8,12 +8,25 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.dwp.uc.pairtest.domain.RejectionReason;
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatch;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatchResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
 import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
 import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+import uk.gov.dwp.uc.pairtest.pricing.PricingTable;
+import uk.gov.dwp.uc.pairtest.pricing.PricingTableReference;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(MockitoExtension.class)
@@ -189,4 +202,188 @@ public class TicketRequestValidatorTest {
         assertFalse(ticketRequestValidator.isTicketRequestValid(validAccountId, firstTicketRequest, secondTicketRequest));
     }
 
+    private static Stream<Arguments> requestsAndSummaries() {
+        //Adult tickets, child tickets, infant tickets, total ticket price in pence, number of seats to reserve
+        return Stream.of(
+                Arguments.of(2, 1, 1, 6500, 3),
+                Arguments.of(1, 1, 1, 4000, 2),
+                Arguments.of(10, 1, 10, 26500, 11),
+                Arguments.of(1, 23, 1, 37000, 24)
+        );
+    }
+
+    @ParameterizedTest(name = "#{index} - Should summarise {0} adult, {1} child, and {2} infant tickets as {3}p for {4} seats")
+    @MethodSource("requestsAndSummaries")
+    void shouldSummariseValidRequests(final int numberOfAdultTickets, final int numberOfChildTickets, final int numberOfInfantTickets,
+                                      final int totalTicketPricePence, final int numberOfSeatsToReserve) {
+        //GIVEN
+        TicketTypeRequest adultTicketRequest = new TicketTypeRequest(Type.ADULT, numberOfAdultTickets);
+        TicketTypeRequest childTicketRequest = new TicketTypeRequest(Type.CHILD, numberOfChildTickets);
+        TicketTypeRequest infantTicketRequest = new TicketTypeRequest(Type.INFANT, numberOfInfantTickets);
+
+        //WHEN
+        TicketPurchaseSummary purchaseSummary = ticketRequestValidator.summarise(validAccountId, adultTicketRequest, childTicketRequest, infantTicketRequest);
+
+        //THEN
+        assertTrue(purchaseSummary.isValid());
+        assertEquals(numberOfAdultTickets + numberOfChildTickets + numberOfInfantTickets, purchaseSummary.getNumberOfTickets());
+        assertEquals(totalTicketPricePence, purchaseSummary.getTotalTicketPricePence());
+        assertEquals(numberOfSeatsToReserve, purchaseSummary.getNumberOfSeatsToReserve());
+    }
+
+    @Test
+    void shouldSummariseInvalidRequestsAsSharedRejection() {
+        //GIVEN
+        TicketTypeRequest childTicketRequest = new TicketTypeRequest(Type.CHILD, 1);
+
+        //WHEN
+        TicketPurchaseSummary purchaseSummary = ticketRequestValidator.summarise(validAccountId, childTicketRequest);
+
+        //THEN
+        assertFalse(purchaseSummary.isValid());
+        assertSame(TicketPurchaseSummary.rejected(RejectionReason.NO_ADULT_TICKET), purchaseSummary);
+    }
+
+    private static Stream<Arguments> invalidRequestsAndReasons() {
+        return Stream.of(
+                Arguments.of(null, new TicketTypeRequest[]{new TicketTypeRequest(Type.ADULT, 1)}, RejectionReason.INVALID_ACCOUNT_ID),
+                Arguments.of(-1L, new TicketTypeRequest[]{new TicketTypeRequest(Type.ADULT, 1)}, RejectionReason.INVALID_ACCOUNT_ID),
+                Arguments.of(1L, new TicketTypeRequest[]{}, RejectionReason.NO_TICKETS_REQUESTED),
+                Arguments.of(1L, new TicketTypeRequest[]{new TicketTypeRequest(Type.ADULT, 1), null}, RejectionReason.MALFORMED_TICKET_REQUEST),
+                Arguments.of(1L, new TicketTypeRequest[]{new TicketTypeRequest(Type.ADULT, 0)}, RejectionReason.MALFORMED_TICKET_REQUEST),
+                Arguments.of(1L, new TicketTypeRequest[]{new TicketTypeRequest(Type.ADULT, 30), new TicketTypeRequest(null, 1)}, RejectionReason.MALFORMED_TICKET_REQUEST),
+                Arguments.of(1L, new TicketTypeRequest[]{new TicketTypeRequest(Type.CHILD, 1)}, RejectionReason.NO_ADULT_TICKET),
+                Arguments.of(1L, new TicketTypeRequest[]{new TicketTypeRequest(Type.ADULT, 1), new TicketTypeRequest(Type.INFANT, 2)}, RejectionReason.MORE_INFANTS_THAN_ADULTS),
+                Arguments.of(1L, new TicketTypeRequest[]{new TicketTypeRequest(Type.ADULT, 20), new TicketTypeRequest(Type.CHILD, 6)}, RejectionReason.TOO_MANY_TICKETS)
+        );
+    }
+
+    @ParameterizedTest(name = "#{index} - Should reject as {2}")
+    @MethodSource("invalidRequestsAndReasons")
+    void shouldReportFirstRuleBrokenAsRejectionReason(final Long accountId, final TicketTypeRequest[] ticketTypeRequests,
+                                                      final RejectionReason rejectionReason) {
+        //GIVEN/WHEN
+        TicketPurchaseSummary purchaseSummary = ticketRequestValidator.summarise(accountId, ticketTypeRequests);
+
+        //THEN
+        assertEquals(rejectionReason, purchaseSummary.getRejectionReason());
+    }
+
+    @Test
+    void shouldPriceAndCapUsingCurrentPricingTable() {
+        //GIVEN
+        Properties properties = new Properties();
+        properties.setProperty("price.ADULT", "3000");
+        properties.setProperty("price.CHILD", "2000");
+        properties.setProperty("price.INFANT", "500");
+        properties.setProperty("maximumNumberOfTickets", "4");
+        PricingTableReference pricingTableReference = new PricingTableReference(PricingTable.fromProperties(properties));
+        ticketRequestValidator = new TicketRequestValidator(pricingTableReference);
+        TicketTypeRequest adultTicketRequest = new TicketTypeRequest(Type.ADULT, 2);
+        TicketTypeRequest childTicketRequest = new TicketTypeRequest(Type.CHILD, 1);
+        TicketTypeRequest infantTicketRequest = new TicketTypeRequest(Type.INFANT, 1);
+
+        //WHEN
+        TicketPurchaseSummary purchaseSummary = ticketRequestValidator.summarise(validAccountId, adultTicketRequest, childTicketRequest, infantTicketRequest);
+
+        //THEN
+        assertEquals(8500, purchaseSummary.getTotalTicketPricePence());
+        assertFalse(ticketRequestValidator.isTicketRequestValid(validAccountId, adultTicketRequest, childTicketRequest, infantTicketRequest, singleAdultTicketRequest));
+    }
+
+    @Test
+    void shouldRejectTicketCountsThatWouldOverflow() {
+        //GIVEN
+        TicketTypeRequest hugeTicketRequest = new TicketTypeRequest(Type.ADULT, Integer.MAX_VALUE);
+
+        //WHEN/THEN
+        assertFalse(ticketRequestValidator.isTicketRequestValid(validAccountId, singleAdultTicketRequest, hugeTicketRequest));
+    }
+
+    @ParameterizedTest(name = "#{index} - Should summarise basket of {0} adult, {1} child, and {2} infant tickets as {3}p for {4} seats")
+    @MethodSource("requestsAndSummaries")
+    void shouldSummariseValidBaskets(final int numberOfAdultTickets, final int numberOfChildTickets, final int numberOfInfantTickets,
+                                     final int totalTicketPricePence, final int numberOfSeatsToReserve) {
+        //GIVEN
+        TicketBasket ticketBasket = TicketBasket.of(numberOfAdultTickets, numberOfChildTickets, numberOfInfantTickets);
+
+        //WHEN
+        TicketPurchaseSummary purchaseSummary = ticketRequestValidator.summarise(validAccountId, ticketBasket);
+
+        //THEN
+        assertTrue(purchaseSummary.isValid());
+        assertEquals(totalTicketPricePence, purchaseSummary.getTotalTicketPricePence());
+        assertEquals(numberOfSeatsToReserve, purchaseSummary.getNumberOfSeatsToReserve());
+    }
+
+    @Test
+    void shouldRejectInvalidBasketsForTheSameReasonsAsRequests() {
+        //GIVEN/WHEN/THEN
+        assertEquals(RejectionReason.INVALID_ACCOUNT_ID, ticketRequestValidator.summarise(-1L, TicketBasket.of(1, 0, 0)).getRejectionReason());
+        assertEquals(RejectionReason.NO_TICKETS_REQUESTED, ticketRequestValidator.summarise(validAccountId, TicketBasket.of(0, 0, 0)).getRejectionReason());
+        assertEquals(RejectionReason.NO_ADULT_TICKET, ticketRequestValidator.summarise(validAccountId, TicketBasket.of(0, 2, 0)).getRejectionReason());
+        assertEquals(RejectionReason.MORE_INFANTS_THAN_ADULTS, ticketRequestValidator.summarise(validAccountId, TicketBasket.of(1, 0, 2)).getRejectionReason());
+        assertEquals(RejectionReason.TOO_MANY_TICKETS, ticketRequestValidator.summarise(validAccountId, TicketBasket.of(20, 6, 0)).getRejectionReason());
+    }
+
+    @Test
+    void shouldSummariseBatchExactlyAsEachOrderOnItsOwn() {
+        //GIVEN
+        int numberOfOrders = 200_000;
+        SplittableRandom random = new SplittableRandom(7);
+        long[] accountIds = new long[numberOfOrders];
+        int[] numberOfAdultTickets = new int[numberOfOrders];
+        int[] numberOfChildTickets = new int[numberOfOrders];
+        int[] numberOfInfantTickets = new int[numberOfOrders];
+        for (int order = 0; order < numberOfOrders; order++) {
+            accountIds[order] = random.nextInt(100) == 0 ? -1 : order;
+            numberOfAdultTickets[order] = random.nextInt(-1, 20);
+            numberOfChildTickets[order] = random.nextInt(-1, 10);
+            numberOfInfantTickets[order] = random.nextInt(-1, 10);
+        }
+
+        //WHEN
+        TicketOrderBatchResult batchResult = ticketRequestValidator.summarise(
+                new TicketOrderBatch(accountIds, numberOfAdultTickets, numberOfChildTickets, numberOfInfantTickets));
+
+        //THEN
+        assertEquals(numberOfOrders, batchResult.size());
+        for (int order = 0; order < numberOfOrders; order++) {
+            TicketPurchaseSummary purchaseSummary = ticketRequestValidator.summarise(accountIds[order],
+                    asRequests(numberOfAdultTickets[order], numberOfChildTickets[order], numberOfInfantTickets[order]));
+            assertEquals(purchaseSummary.getRejectionReason(), batchResult.getRejectionReason(order));
+            assertEquals(purchaseSummary.getTotalTicketPricePence(), batchResult.getTotalTicketPricePence(order));
+            assertEquals(purchaseSummary.getNumberOfSeatsToReserve(), batchResult.getNumberOfSeatsToReserve(order));
+        }
+    }
+
+    @Test
+    void shouldRejectBatchOrderWhoseTicketCountsWouldOverflow() {
+        //GIVEN
+        TicketOrderBatch ticketOrders = new TicketOrderBatch(new long[]{validAccountId},
+                new int[]{Integer.MAX_VALUE}, new int[]{Integer.MAX_VALUE}, new int[]{Integer.MAX_VALUE});
+
+        //WHEN
+        TicketOrderBatchResult batchResult = ticketRequestValidator.summarise(ticketOrders);
+
+        //THEN
+        assertEquals(RejectionReason.TOO_MANY_TICKETS, batchResult.getRejectionReason(0));
+        assertEquals(0, batchResult.getTotalTicketPricePence(0));
+        assertEquals(0, batchResult.getNumberOfAcceptedOrders());
+    }
+
+    private static TicketTypeRequest[] asRequests(int numberOfAdultTickets, int numberOfChildTickets, int numberOfInfantTickets) {
+        List<TicketTypeRequest> ticketTypeRequests = new ArrayList<>();
+        if (numberOfAdultTickets != 0) {
+            ticketTypeRequests.add(new TicketTypeRequest(Type.ADULT, numberOfAdultTickets));
+        }
+        if (numberOfChildTickets != 0) {
+            ticketTypeRequests.add(new TicketTypeRequest(Type.CHILD, numberOfChildTickets));
+        }
+        if (numberOfInfantTickets != 0) {
+            ticketTypeRequests.add(new TicketTypeRequest(Type.INFANT, numberOfInfantTickets));
+        }
+        return ticketTypeRequests.toArray(new TicketTypeRequest[0]);
+    }
+
 }
@@ -0,0 +1,53 @@
+package uk.gov.dwp.uc.pairtest;
+
+import org.junit.jupiter.api.Test;
+import thirdparty.paymentgateway.TicketPaymentService;
+import thirdparty.seatbooking.SeatReservationService;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class TicketServiceBootstrapTest {
+
+    @Test
+    void shouldWireServiceToTheGivenDependencies() {
+        //GIVEN
+        TicketPaymentService ticketPaymentService = mock(TicketPaymentService.class);
+        SeatReservationService seatReservationService = mock(SeatReservationService.class);
+        TicketService ticketService = TicketServiceBootstrap.createTicketService(ticketPaymentService, seatReservationService);
+
+        //WHEN
+        ticketService.purchaseTickets(123456789L, new TicketTypeRequest(Type.ADULT, 2), new TicketTypeRequest(Type.CHILD, 1));
+
+        //THEN
+        verify(ticketPaymentService).makePayment(123456789L, 6500);
+        verify(seatReservationService).reserveSeat(123456789L, 3);
+    }
+
+    @Test
+    void shouldRunWarmUpPurchasesThroughSimulatedDependencies() {
+        //GIVEN/WHEN
+        long totalCharged = TicketServiceBootstrap.warmUp(10_000);
+
+        //THEN
+        assertTrue(totalCharged > 0);
+    }
+
+    @Test
+    void shouldRejectUnknownOption() {
+        //GIVEN/WHEN/THEN
+        assertThrows(IllegalArgumentException.class, () -> TicketServiceBootstrap.main(new String[]{"--warm-up=10"}));
+    }
+
+    @Test
+    void shouldRejectMeasurementShorterThanOneWindow() {
+        //GIVEN/WHEN/THEN
+        assertThrows(IllegalArgumentException.class, () -> TicketServiceBootstrap.main(new String[]{"--measure-millis=5"}));
+        assertThrows(IllegalArgumentException.class, () -> TicketServiceBootstrap.main(new String[]{"--measure-millis=-1"}));
+    }
+
+}
@@ -1,30 +1,58 @@
 package uk.gov.dwp.uc.pairtest;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import thirdparty.paymentgateway.TicketPaymentService;
 import thirdparty.seatbooking.SeatReservationService;
+import uk.gov.dwp.uc.pairtest.admission.AdmissionControl;
+import uk.gov.dwp.uc.pairtest.domain.RejectionReason;
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatch;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatchResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
 import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
 import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+import uk.gov.dwp.uc.pairtest.event.PurchaseEventPublisher;
 import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+import uk.gov.dwp.uc.pairtest.journal.PurchaseJournal;
+import uk.gov.dwp.uc.pairtest.metrics.PurchaseMetrics;
+import uk.gov.dwp.uc.pairtest.metrics.PurchaseStage;
 
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class TicketServiceImplTest {
 
-    @Mock
-    private TicketRequestValidator mockTicketRequestValidator;
+    @Spy
+    private TicketRequestValidator spyTicketRequestValidator;
 
     @Mock
     private TicketPaymentService mockTicketPaymentService;
@@ -32,29 +60,240 @@ public class TicketServiceImplTest {
     @Mock
     private SeatReservationService mockSeatReservationService;
 
+    @Mock
+    private PurchaseMetrics mockPurchaseMetrics;
+
+    @Mock
+    private PurchaseJournal mockPurchaseJournal;
+
+    @Mock
+    private AdmissionControl mockAdmissionControl;
+
+    @Mock
+    private PurchaseEventPublisher mockPurchaseEventPublisher;
+
     @InjectMocks
     private TicketServiceImpl ticketService;
 
     private final Long accountId = 123456789L;
     private final TicketTypeRequest singleAdultTicketRequest = new TicketTypeRequest(Type.ADULT, 1);
 
+    @BeforeEach
+    void setup() {
+        lenient().when(mockAdmissionControl.tryAdmit(anyLong(), anyInt())).thenReturn(true);
+    }
+
     @Test
     void shouldThrowInvalidPurchaseExceptionForInvalidRequest() {
         //GIVEN
-        when(mockTicketRequestValidator.isTicketRequestValid(accountId, singleAdultTicketRequest)).thenReturn(false);
+        doReturn(TicketPurchaseSummary.rejected(RejectionReason.TOO_MANY_TICKETS)).when(spyTicketRequestValidator).summarise(accountId, singleAdultTicketRequest);
+
+        //WHEN
+        InvalidPurchaseException exception = assertThrows(InvalidPurchaseException.class, () -> ticketService.purchaseTickets(accountId, singleAdultTicketRequest));
+
+        //THEN
+        assertEquals(RejectionReason.TOO_MANY_TICKETS, exception.getRejectionReason());
+        assertEquals(0, exception.getStackTrace().length);
+        verify(mockPurchaseMetrics).recordRejected();
+        verifyNoInteractions(mockTicketPaymentService, mockSeatReservationService, mockPurchaseEventPublisher);
+    }
+
+    @Test
+    void shouldRejectRateLimitedAccountBeforeValidation() {
+        //GIVEN
+        TicketTypeRequest childTicketRequest = new TicketTypeRequest(Type.CHILD, 4);
+        when(mockAdmissionControl.tryAdmit(accountId, 5)).thenReturn(false);
+
+        //WHEN
+        TicketPurchaseSummary purchaseSummary = ticketService.tryPurchaseTickets(accountId, singleAdultTicketRequest, childTicketRequest);
+
+        //THEN
+        assertEquals(RejectionReason.RATE_LIMITED, purchaseSummary.getRejectionReason());
+        verify(spyTicketRequestValidator, never()).summarise(any(), any(TicketTypeRequest[].class));
+        verify(mockPurchaseMetrics).recordRejected();
+        verifyNoInteractions(mockTicketPaymentService, mockSeatReservationService);
+    }
+
+    @Test
+    void shouldReturnRejectionWithoutThrowingFromTryPurchase() {
+        //GIVEN
+        TicketTypeRequest childTicketRequest = new TicketTypeRequest(Type.CHILD, 1);
+
+        //WHEN
+        TicketPurchaseSummary purchaseSummary = ticketService.tryPurchaseTickets(accountId, childTicketRequest);
+
+        //THEN
+        assertEquals(RejectionReason.NO_ADULT_TICKET, purchaseSummary.getRejectionReason());
+        verify(mockPurchaseMetrics).recordRejected();
+        verifyNoInteractions(mockTicketPaymentService, mockSeatReservationService);
+    }
+
+    @Test
+    void shouldReturnSummaryOfCompletedPurchaseFromTryPurchase() {
+        //GIVEN/WHEN
+        TicketPurchaseSummary purchaseSummary = ticketService.tryPurchaseTickets(accountId, singleAdultTicketRequest);
+
+        //THEN
+        assertTrue(purchaseSummary.isValid());
+        verify(mockTicketPaymentService).makePayment(accountId, 2500);
+        verify(mockSeatReservationService).reserveSeat(accountId, 1);
+    }
+
+    @Test
+    void shouldChargeAndReserveForBasket() {
+        //GIVEN
+        TicketBasket ticketBasket = TicketBasket.of(2, 1, 1);
+
+        //WHEN
+        ticketService.purchaseTickets(accountId, ticketBasket);
+
+        //THEN
+        verify(mockAdmissionControl).tryAdmit(accountId, 4);
+        verify(mockTicketPaymentService).makePayment(accountId, 6500);
+        verify(mockSeatReservationService).reserveSeat(accountId, 3);
+    }
+
+    @Test
+    void shouldThrowCachedExceptionForInvalidBasket() {
+        //GIVEN
+        TicketBasket ticketBasket = TicketBasket.of(0, 1, 0);
+
+        //WHEN
+        InvalidPurchaseException exception = assertThrows(InvalidPurchaseException.class, () -> ticketService.purchaseTickets(accountId, ticketBasket));
+
+        //THEN
+        assertEquals(RejectionReason.NO_ADULT_TICKET, exception.getRejectionReason());
+        verifyNoInteractions(mockTicketPaymentService, mockSeatReservationService);
+    }
+
+    @Test
+    void shouldPurchaseOnlyAcceptedOrdersInBatch() {
+        //GIVEN
+        TicketOrderBatch ticketOrders = new TicketOrderBatch(
+                new long[]{1L, 2L, 3L},
+                new int[]{2, 0, 1},
+                new int[]{1, 3, 0},
+                new int[]{0, 0, 1});
+
+        //WHEN
+        TicketOrderBatchResult batchResult = ticketService.purchaseTickets(ticketOrders);
+
+        //THEN
+        assertEquals(2, batchResult.getNumberOfAcceptedOrders());
+        assertEquals(RejectionReason.NO_ADULT_TICKET, batchResult.getRejectionReason(1));
+        verify(mockTicketPaymentService).makePayment(1L, 6500);
+        verify(mockSeatReservationService).reserveSeat(1L, 3);
+        verify(mockTicketPaymentService).makePayment(3L, 2500);
+        verify(mockSeatReservationService).reserveSeat(3L, 1);
+        verify(mockPurchaseMetrics).recordRejected();
+        verifyNoMoreInteractions(mockTicketPaymentService, mockSeatReservationService);
+    }
+
+    @Test
+    void shouldReportFailedOrderAndCarryOnWithBatch() {
+        //GIVEN
+        TicketOrderBatch ticketOrders = new TicketOrderBatch(
+                new long[]{1L, 2L, 3L},
+                new int[]{1, 1, 1},
+                new int[]{0, 0, 0},
+                new int[]{0, 0, 0});
+        lenient().doThrow(new IllegalStateException("Payment gateway unavailable")).when(mockTicketPaymentService).makePayment(2L, 2500);
+
+        //WHEN
+        TicketOrderBatchResult batchResult = ticketService.purchaseTickets(ticketOrders);
+
+        //THEN
+        assertEquals(3, batchResult.size());
+        assertEquals(2, batchResult.getNumberOfAcceptedOrders());
+        assertTrue(batchResult.isAccepted(0));
+        assertEquals(RejectionReason.PURCHASE_FAILED, batchResult.getRejectionReason(1));
+        assertTrue(batchResult.isAccepted(2));
+        verify(mockSeatReservationService).reserveSeat(1L, 1);
+        verify(mockSeatReservationService, never()).reserveSeat(eq(2L), anyInt());
+        verify(mockSeatReservationService).reserveSeat(3L, 1);
+        verify(mockPurchaseMetrics).recordRejected();
+        verify(mockPurchaseMetrics, times(2)).recordPurchased(any());
+    }
+
+    @Test
+    void shouldJournalIntentBeforeChargingAndEachLaterStageAgainstIt() {
+        //GIVEN
+        when(mockPurchaseJournal.recordIntent(eq(accountId), any())).thenReturn(42L);
+
+        //WHEN
+        ticketService.purchaseTickets(accountId, singleAdultTicketRequest);
+
+        //THEN
+        InOrder inOrder = inOrder(mockTicketPaymentService, mockPurchaseJournal, mockSeatReservationService);
+        inOrder.verify(mockPurchaseJournal).recordIntent(eq(accountId), any());
+        inOrder.verify(mockTicketPaymentService).makePayment(accountId, 2500);
+        inOrder.verify(mockPurchaseJournal).recordPaid(eq(42L), eq(accountId), any());
+        inOrder.verify(mockSeatReservationService).reserveSeat(accountId, 1);
+        inOrder.verify(mockPurchaseJournal).recordReserved(eq(42L), eq(accountId), any());
+    }
+
+    @Test
+    void shouldReserveSeatsWhenPaidRecordCannotBeWritten() {
+        //GIVEN
+        when(mockPurchaseJournal.recordIntent(eq(accountId), any())).thenReturn(42L);
+        doThrow(new IllegalStateException("Journal is closed")).when(mockPurchaseJournal).recordPaid(eq(42L), eq(accountId), any());
+
+        //WHEN
+        ticketService.purchaseTickets(accountId, singleAdultTicketRequest);
+
+        //THEN
+        verify(mockTicketPaymentService).makePayment(accountId, 2500);
+        verify(mockSeatReservationService).reserveSeat(accountId, 1);
+        verify(mockPurchaseJournal).recordReserved(eq(42L), eq(accountId), any());
+        verify(mockPurchaseMetrics).recordJournalFailure();
+        verify(mockPurchaseMetrics).recordPurchased(any());
+    }
+
+    @Test
+    void shouldNotChargeWhenIntentCannotBeWritten() {
+        //GIVEN
+        when(mockPurchaseJournal.recordIntent(eq(accountId), any())).thenThrow(new IllegalStateException("Journal is closed"));
 
         //WHEN/THEN
-        assertThrows(InvalidPurchaseException.class, () -> ticketService.purchaseTickets(accountId, singleAdultTicketRequest));
+        assertThrows(IllegalStateException.class, () -> ticketService.purchaseTickets(accountId, singleAdultTicketRequest));
+        verifyNoInteractions(mockTicketPaymentService, mockSeatReservationService);
     }
 
     @Test
-    void shouldCorrectlyChargeAndReserveSeatForOneAdultTicket() {
+    void shouldPublishEventOnlyAfterSeatsAreReserved() {
+        //GIVEN
+        when(mockPurchaseJournal.recordIntent(eq(accountId), any())).thenReturn(42L);
+
+        //WHEN
+        ticketService.purchaseTickets(accountId, singleAdultTicketRequest);
+
+        //THEN
+        InOrder inOrder = inOrder(mockSeatReservationService, mockPurchaseEventPublisher);
+        inOrder.verify(mockSeatReservationService).reserveSeat(accountId, 1);
+        inOrder.verify(mockPurchaseEventPublisher).publish(eq(42L), eq(accountId.longValue()),
+                argThat(purchaseSummary -> purchaseSummary.getTotalTicketPricePence() == 2500));
+    }
+
+    @Test
+    void shouldRecordEachStageOfAPurchase() {
         //GIVEN
-        when(mockTicketRequestValidator.isTicketRequestValid(accountId, singleAdultTicketRequest)).thenReturn(true);
+        when(mockPurchaseMetrics.startTimer()).thenReturn(100L);
+        when(mockPurchaseMetrics.lap(PurchaseStage.VALIDATION, 100L)).thenReturn(200L);
+        when(mockPurchaseMetrics.lap(PurchaseStage.PAYMENT, 200L)).thenReturn(300L);
 
         //WHEN
         ticketService.purchaseTickets(accountId, singleAdultTicketRequest);
 
+        //THEN
+        verify(mockPurchaseMetrics).lap(PurchaseStage.RESERVATION, 300L);
+        verify(mockPurchaseMetrics).recordPurchased(argThat(purchaseSummary -> purchaseSummary.getNumberOfTickets(Type.ADULT) == 1));
+    }
+
+    @Test
+    void shouldCorrectlyChargeAndReserveSeatForOneAdultTicket() {
+        //GIVEN/WHEN
+        ticketService.purchaseTickets(accountId, singleAdultTicketRequest);
+
         //THEN
         verify(mockTicketPaymentService).makePayment(accountId, 2500);
         verify(mockSeatReservationService).reserveSeat(accountId, 1);
@@ -77,7 +316,6 @@ public class TicketServiceImplTest {
         TicketTypeRequest adultTicketRequest = new TicketTypeRequest(Type.ADULT, numberOfAdultTickets);
         TicketTypeRequest childTicketRequest = new TicketTypeRequest(Type.CHILD, numberOfChildTickets);
         TicketTypeRequest infantTicketRequest = new TicketTypeRequest(Type.INFANT, numberOfInfantTickets);
-        when(mockTicketRequestValidator.isTicketRequestValid(accountId, adultTicketRequest, childTicketRequest, infantTicketRequest)).thenReturn(true);
 
         //WHEN
         ticketService.purchaseTickets(accountId, adultTicketRequest, childTicketRequest, infantTicketRequest);
@@ -88,10 +326,7 @@ public class TicketServiceImplTest {
 
     @Test
     void shouldCorrectlyChargeForMultipleTicketRequestsOfTheSameType() {
-        //GIVEN
-        when(mockTicketRequestValidator.isTicketRequestValid(accountId, singleAdultTicketRequest, singleAdultTicketRequest, singleAdultTicketRequest)).thenReturn(true);
-
-        //WHEN
+        //GIVEN/WHEN
         ticketService.purchaseTickets(accountId, singleAdultTicketRequest, singleAdultTicketRequest, singleAdultTicketRequest);
 
         //THEN
@@ -116,7 +351,6 @@ public class TicketServiceImplTest {
         TicketTypeRequest adultTicketRequest = new TicketTypeRequest(Type.ADULT, numberOfAdultTickets);
         TicketTypeRequest childTicketRequest = new TicketTypeRequest(Type.CHILD, numberOfChildTickets);
         TicketTypeRequest infantTicketRequest = new TicketTypeRequest(Type.INFANT, numberOfInfantTickets);
-        when(mockTicketRequestValidator.isTicketRequestValid(accountId, adultTicketRequest, childTicketRequest, infantTicketRequest)).thenReturn(true);
 
         //WHEN
         ticketService.purchaseTickets(accountId, adultTicketRequest, childTicketRequest, infantTicketRequest);
@@ -0,0 +1,119 @@
+package uk.gov.dwp.uc.pairtest.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketAdmissionControlTest {
+
+    private static final long ACCOUNT_ID = 123456789L;
+    private static final Duration WINDOW = Duration.ofSeconds(60);
+
+    private final AtomicLong nanoClock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void shouldAdmitBurstOfRequestsUpToLimitThenThrottle() {
+        //GIVEN
+        TokenBucketAdmissionControl admissionControl = admissionControl(3, 100, 1000);
+
+        //WHEN/THEN
+        assertTrue(admissionControl.tryAdmit(ACCOUNT_ID, 1));
+        assertTrue(admissionControl.tryAdmit(ACCOUNT_ID, 1));
+        assertTrue(admissionControl.tryAdmit(ACCOUNT_ID, 1));
+        assertFalse(admissionControl.tryAdmit(ACCOUNT_ID, 1));
+        assertTrue(admissionControl.tryAdmit(ACCOUNT_ID + 1, 1));
+    }
+
+    @Test
+    void shouldRefillOneRequestPerIntervalOfWindow() {
+        //GIVEN
+        TokenBucketAdmissionControl admissionControl = admissionControl(3, 100, 1000);
+        for (int request = 0; request < 3; request++) {
+            admissionControl.tryAdmit(ACCOUNT_ID, 1);
+        }
+
+        //WHEN
+        nanoClock.addAndGet(Duration.ofSeconds(20).toNanos());
+
+        //THEN
+        assertTrue(admissionControl.tryAdmit(ACCOUNT_ID, 1));
+        assertFalse(admissionControl.tryAdmit(ACCOUNT_ID, 1));
+    }
+
+    @Test
+    void shouldLimitTicketsAcrossManySmallRequests() {
+        //GIVEN
+        TokenBucketAdmissionControl admissionControl = admissionControl(100, 50, 1000);
+        assertTrue(admissionControl.tryAdmit(ACCOUNT_ID, 25));
+        assertTrue(admissionControl.tryAdmit(ACCOUNT_ID, 20));
+
+        //WHEN/THEN
+        assertFalse(admissionControl.tryAdmit(ACCOUNT_ID, 6));
+        assertTrue(admissionControl.tryAdmit(ACCOUNT_ID, 5));
+        assertFalse(admissionControl.tryAdmit(ACCOUNT_ID, 1));
+    }
+
+    @Test
+    void shouldNotTakeRequestTokenWhenTicketBucketRefuses() {
+        //GIVEN
+        TokenBucketAdmissionControl admissionControl = admissionControl(2, 10, 1000);
+        assertFalse(admissionControl.tryAdmit(ACCOUNT_ID, 11));
+
+        //WHEN/THEN
+        assertTrue(admissionControl.tryAdmit(ACCOUNT_ID, 1));
+        assertTrue(admissionControl.tryAdmit(ACCOUNT_ID, 1));
+    }
+
+    @Test
+    void shouldForgetAccountsOnceTheirBucketsHaveRefilled() {
+        //GIVEN
+        TokenBucketAdmissionControl admissionControl = admissionControl(10, 100, 1_000_000);
+        for (long accountId = 0; accountId < 10_000; accountId++) {
+            admissionControl.tryAdmit(accountId, 1);
+        }
+
+        //WHEN
+        nanoClock.addAndGet(WINDOW.toNanos());
+        for (long accountId = 10_000; accountId < 14_000; accountId++) {
+            admissionControl.tryAdmit(accountId, 1);
+        }
+
+        //THEN
+        assertTrue(admissionControl.getTrackedAccounts() < 10_000, "Tracked accounts: " + admissionControl.getTrackedAccounts());
+    }
+
+    @Test
+    void shouldStayWithinMaximumTrackedAccountsUnderAttack() {
+        //GIVEN
+        TokenBucketAdmissionControl admissionControl = admissionControl(10, 100, 64);
+
+        //WHEN
+        for (long accountId = 0; accountId < 100_000; accountId++) {
+            admissionControl.tryAdmit(accountId, 1);
+        }
+
+        //THEN
+        assertTrue(admissionControl.getTrackedAccounts() <= 64, "Tracked accounts: " + admissionControl.getTrackedAccounts());
+    }
+
+    @Test
+    void shouldAlwaysAdmitNegativeAccountIdsForValidationToReject() {
+        //GIVEN
+        TokenBucketAdmissionControl admissionControl = admissionControl(1, 1, 1000);
+
+        //WHEN/THEN
+        assertTrue(admissionControl.tryAdmit(-1, 1));
+        assertTrue(admissionControl.tryAdmit(-1, 1));
+        assertEquals(0, admissionControl.getTrackedAccounts());
+    }
+
+    private TokenBucketAdmissionControl admissionControl(int requestsPerWindow, int ticketsPerWindow, int maximumTrackedAccounts) {
+        return new TokenBucketAdmissionControl(requestsPerWindow, ticketsPerWindow, WINDOW, maximumTrackedAccounts, 4, nanoClock::get);
+    }
+
+}
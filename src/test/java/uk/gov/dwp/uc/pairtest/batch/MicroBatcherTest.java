@@ -0,0 +1,219 @@
+package uk.gov.dwp.uc.pairtest.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import thirdparty.seatbooking.SeatReservationService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MicroBatcherTest {
+
+    private static final long ONE_MINUTE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final List<long[]> dispatchedAccountIds = new CopyOnWriteArrayList<>();
+    private final List<int[]> dispatchedValues = new CopyOnWriteArrayList<>();
+
+    private MicroBatcher microBatcher;
+
+    @AfterEach
+    void tearDown() {
+        microBatcher.close();
+    }
+
+    @Test
+    void shouldDispatchOnceBatchIsFull() throws Exception {
+        //GIVEN
+        microBatcher = new MicroBatcher("test-batcher", this::recordDispatch, 3, ONE_MINUTE_MICROS, 16);
+
+        //WHEN
+        CompletableFuture.allOf(
+                microBatcher.submit(1L, 10),
+                microBatcher.submit(2L, 20),
+                microBatcher.submit(3L, 30)).get(5, TimeUnit.SECONDS);
+
+        //THEN
+        assertEquals(1, dispatchedAccountIds.size());
+        assertArrayEquals(new long[]{1L, 2L, 3L}, dispatchedAccountIds.get(0));
+        assertArrayEquals(new int[]{10, 20, 30}, dispatchedValues.get(0));
+    }
+
+    @Test
+    void shouldDispatchPartialBatchOnceDeadlinePasses() throws Exception {
+        //GIVEN
+        microBatcher = new MicroBatcher("test-batcher", this::recordDispatch, 64, 1_000, 16);
+
+        //WHEN
+        microBatcher.submit(1L, 10).get(5, TimeUnit.SECONDS);
+
+        //THEN
+        assertArrayEquals(new long[]{1L}, dispatchedAccountIds.get(0));
+        assertEquals(1, microBatcher.getBatchMetrics().getBatchCount());
+        assertEquals(1, microBatcher.getBatchMetrics().getMaximumBatchSize());
+        assertTrue(microBatcher.getBatchMetrics().getMaximumQueueWaitMicros() > 0);
+    }
+
+    @Test
+    void shouldOnlyFailTheEntryThatFailedWhenDispatchingPerCall() throws Exception {
+        //GIVEN
+        IllegalStateException reservationFailure = new IllegalStateException("No seats available");
+        List<Long> reservedAccountIds = new CopyOnWriteArrayList<>();
+        SeatReservationService seatReservationService = (accountId, totalSeatsToAllocate) -> {
+            if (accountId == 2L) {
+                throw reservationFailure;
+            }
+            reservedAccountIds.add(accountId);
+        };
+        BatchSeatReservationService perCallService = new PerCallSeatReservationService(seatReservationService);
+        microBatcher = new MicroBatcher("test-batcher", perCallService::reserveSeats, 2, ONE_MINUTE_MICROS, 16);
+
+        //WHEN
+        CompletableFuture<Void> firstReservation = microBatcher.submit(1L, 2);
+        CompletableFuture<Void> secondReservation = microBatcher.submit(2L, 4);
+
+        //THEN
+        firstReservation.get(5, TimeUnit.SECONDS);
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> secondReservation.get(5, TimeUnit.SECONDS));
+        assertEquals(reservationFailure, exception.getCause());
+        assertEquals(List.of(1L), reservedAccountIds);
+    }
+
+    @Test
+    void shouldFailEveryEntryWhenWholeBatchFails() {
+        //GIVEN
+        IllegalStateException batchFailure = new IllegalStateException("Gateway unavailable");
+        microBatcher = new MicroBatcher("test-batcher", (accountIds, values) -> {
+            throw batchFailure;
+        }, 2, ONE_MINUTE_MICROS, 16);
+
+        //WHEN
+        CompletableFuture<Void> firstPayment = microBatcher.submit(1L, 2500);
+        CompletableFuture<Void> secondPayment = microBatcher.submit(2L, 1500);
+
+        //THEN
+        assertEquals(batchFailure, assertThrows(ExecutionException.class, () -> firstPayment.get(5, TimeUnit.SECONDS)).getCause());
+        assertEquals(batchFailure, assertThrows(ExecutionException.class, () -> secondPayment.get(5, TimeUnit.SECONDS)).getCause());
+    }
+
+    @Test
+    void shouldFailBatchAndKeepDispatchingWhenDispatcherThrowsError() throws Exception {
+        //GIVEN
+        AssertionError dispatchError = new AssertionError("Dispatcher broke");
+        AtomicBoolean failNextDispatch = new AtomicBoolean(true);
+        microBatcher = new MicroBatcher("test-batcher", (accountIds, values) -> {
+            if (failNextDispatch.getAndSet(false)) {
+                throw dispatchError;
+            }
+            recordDispatch(accountIds, values);
+        }, 1, ONE_MINUTE_MICROS, 16);
+
+        //WHEN
+        CompletableFuture<Void> failedPayment = microBatcher.submit(1L, 2500);
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> failedPayment.get(5, TimeUnit.SECONDS));
+        microBatcher.submit(2L, 1500).get(5, TimeUnit.SECONDS);
+
+        //THEN
+        assertEquals(dispatchError, exception.getCause());
+        failNextDispatch.set(true);
+        assertEquals(dispatchError, assertThrows(AssertionError.class, () -> microBatcher.submitAndWait(3L, 500)));
+        assertEquals(1, dispatchedAccountIds.size());
+        assertArrayEquals(new long[]{2L}, dispatchedAccountIds.get(0));
+    }
+
+    @Test
+    void shouldDispatchQueuedEntriesWhenClosed() throws Exception {
+        //GIVEN
+        microBatcher = new MicroBatcher("test-batcher", this::recordDispatch, 64, ONE_MINUTE_MICROS, 16);
+        CompletableFuture<Void> pendingReservation = microBatcher.submit(1L, 2);
+
+        //WHEN
+        microBatcher.close();
+
+        //THEN
+        pendingReservation.get(5, TimeUnit.SECONDS);
+        assertArrayEquals(new long[]{1L}, dispatchedAccountIds.get(0));
+    }
+
+    @Test
+    void shouldCompleteEveryEntrySubmittedWhileClosing() throws Exception {
+        //GIVEN
+        microBatcher = new MicroBatcher("test-batcher", this::recordDispatch, 16, 100, 64);
+        AtomicBoolean closed = new AtomicBoolean();
+        List<Callable<List<CompletableFuture<Void>>>> submitters = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            submitters.add(() -> {
+                List<CompletableFuture<Void>> completions = new ArrayList<>();
+                for (long accountId = 1; !closed.get() || completions.size() < 1_000; accountId++) {
+                    completions.add(microBatcher.submit(accountId, 1));
+                }
+                return completions;
+            });
+        }
+
+        //WHEN
+        List<CompletableFuture<Void>> completions = new ArrayList<>();
+        try (ExecutorService executorService = Executors.newFixedThreadPool(submitters.size())) {
+            List<Future<List<CompletableFuture<Void>>>> submitted = new ArrayList<>();
+            for (Callable<List<CompletableFuture<Void>>> submitter : submitters) {
+                submitted.add(executorService.submit(submitter));
+            }
+            Thread.sleep(20);
+            microBatcher.close();
+            closed.set(true);
+            for (Future<List<CompletableFuture<Void>>> submitterCompletions : submitted) {
+                completions.addAll(submitterCompletions.get());
+            }
+        }
+
+        //THEN
+        for (CompletableFuture<Void> completion : completions) {
+            assertTrue(completion.isDone());
+        }
+    }
+
+    @Test
+    void shouldNotInterruptBatchBeingDispatchedWhenClosed() throws Exception {
+        //GIVEN
+        CountDownLatch dispatchStarted = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        microBatcher = new MicroBatcher("test-batcher", (accountIds, values) -> {
+            dispatchStarted.countDown();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        }, 1, ONE_MINUTE_MICROS, 16);
+        CompletableFuture<Void> reservation = microBatcher.submit(1L, 2);
+        assertTrue(dispatchStarted.await(5, TimeUnit.SECONDS));
+
+        //WHEN
+        microBatcher.close();
+
+        //THEN
+        reservation.get(5, TimeUnit.SECONDS);
+        assertFalse(interrupted.get());
+    }
+
+    private void recordDispatch(long[] accountIds, int[] values) {
+        dispatchedAccountIds.add(accountIds);
+        dispatchedValues.add(values);
+    }
+
+}
@@ -0,0 +1,64 @@
+package uk.gov.dwp.uc.pairtest.domain;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TicketBasketTest {
+
+    @Test
+    void shouldKeepEachCountInItsOwnField() {
+        //GIVEN/WHEN
+        TicketBasket ticketBasket = TicketBasket.of(TicketBasket.MAXIMUM_COUNT, 0, 7);
+
+        //THEN
+        assertEquals(TicketBasket.MAXIMUM_COUNT, ticketBasket.getNumberOfTickets(Type.ADULT));
+        assertEquals(0, ticketBasket.getNumberOfTickets(Type.CHILD));
+        assertEquals(7, ticketBasket.getNumberOfTickets(Type.INFANT));
+        assertEquals(TicketBasket.MAXIMUM_COUNT + 7, ticketBasket.getNumberOfTickets());
+    }
+
+    @Test
+    void shouldRejectCountsThatDoNotFit() {
+        //GIVEN/WHEN/THEN
+        assertThrows(IllegalArgumentException.class, () -> TicketBasket.of(-1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> TicketBasket.of(0, TicketBasket.MAXIMUM_COUNT + 1, 0));
+    }
+
+    @Test
+    void shouldMergeRequestsForTheSameType() {
+        //GIVEN
+        TicketTypeRequest[] ticketTypeRequests = {
+                new TicketTypeRequest(Type.ADULT, 2),
+                new TicketTypeRequest(Type.INFANT, 1),
+                new TicketTypeRequest(Type.ADULT, 3)
+        };
+
+        //WHEN
+        TicketBasket ticketBasket = TicketBasket.fromRequests(ticketTypeRequests);
+
+        //THEN
+        assertEquals(TicketBasket.of(5, 0, 1), ticketBasket);
+    }
+
+    @Test
+    void shouldReportMalformedRequestWhenMerging() {
+        //GIVEN/WHEN
+        InvalidPurchaseException exception = assertThrows(InvalidPurchaseException.class,
+                () -> TicketBasket.fromRequests(new TicketTypeRequest(Type.ADULT, 1), new TicketTypeRequest(Type.CHILD, 0)));
+
+        //THEN
+        assertEquals(RejectionReason.MALFORMED_TICKET_REQUEST, exception.getRejectionReason());
+    }
+
+    @Test
+    void shouldMergeNoRequestsIntoEmptyBasket() {
+        //GIVEN/WHEN/THEN
+        assertTrue(TicketBasket.fromRequests().isEmpty());
+    }
+
+}
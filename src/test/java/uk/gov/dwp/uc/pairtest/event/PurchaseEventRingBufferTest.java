@@ -0,0 +1,391 @@
+package uk.gov.dwp.uc.pairtest.event;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PurchaseEventRingBufferTest {
+
+    private static final TicketPurchaseSummary PURCHASE_SUMMARY = TicketPurchaseSummary.valid(2, 1, 1, 6500, 3);
+
+    @Test
+    void shouldDeliverEveryEventInOrderWithItsPurchase() throws Exception {
+        //GIVEN
+        InMemoryPurchaseEventSink sink = new InMemoryPurchaseEventSink();
+        PurchaseEventRingBuffer ringBuffer = new PurchaseEventRingBuffer(8, OverflowPolicy.DROP, 1, sink);
+
+        //WHEN
+        for (int purchase = 0; purchase < 100; purchase++) {
+            while (ringBuffer.getBacklog() == 8) {
+                Thread.onSpinWait();
+            }
+            ringBuffer.publish(purchase, 1000 + purchase, PURCHASE_SUMMARY);
+        }
+        ringBuffer.close();
+
+        //THEN
+        List<PurchaseEvent> events = sink.getEvents();
+        assertEquals(100, events.size());
+        for (int purchase = 0; purchase < 100; purchase++) {
+            PurchaseEvent event = events.get(purchase);
+            assertEquals(purchase, event.getSequence());
+            assertEquals(purchase, event.getPurchaseId());
+            assertEquals(1000 + purchase, event.getAccountId());
+            assertEquals(6500, event.getTotalTicketPricePence());
+            assertEquals(3, event.getNumberOfSeatsReserved());
+        }
+        assertEquals(0, ringBuffer.getDroppedCount());
+    }
+
+    @Test
+    void shouldDropEventsOnceFull() throws Exception {
+        //GIVEN
+        StallingSink sink = new StallingSink();
+        PurchaseEventRingBuffer ringBuffer = new PurchaseEventRingBuffer(4, OverflowPolicy.DROP, 1, sink);
+        ringBuffer.publish(0, 1, PURCHASE_SUMMARY);
+        sink.entered.await();
+
+        //WHEN
+        for (int purchase = 1; purchase < 6; purchase++) {
+            ringBuffer.publish(purchase, 1, PURCHASE_SUMMARY);
+        }
+        sink.release.countDown();
+        ringBuffer.close();
+
+        //THEN
+        assertEquals(2, ringBuffer.getDroppedCount());
+        assertEquals(4, sink.delegate.getEvents().size());
+        assertEquals(3, sink.delegate.getEvents().get(3).getPurchaseId());
+    }
+
+    @Test
+    void shouldSampleEventsOnceHalfFull() throws Exception {
+        //GIVEN
+        StallingSink sink = new StallingSink();
+        PurchaseEventRingBuffer ringBuffer = new PurchaseEventRingBuffer(8, OverflowPolicy.SAMPLE, 2, sink);
+        ringBuffer.publish(0, 1, PURCHASE_SUMMARY);
+        sink.entered.await();
+
+        //WHEN
+        for (int purchase = 1; purchase < 12; purchase++) {
+            ringBuffer.publish(purchase, 1, PURCHASE_SUMMARY);
+        }
+        sink.release.countDown();
+        ringBuffer.close();
+
+        //THEN
+        List<Long> purchaseIds = sink.delegate.getEvents().stream().map(PurchaseEvent::getPurchaseId).toList();
+        assertEquals(List.of(0L, 1L, 2L, 3L, 5L, 7L, 9L, 11L), purchaseIds);
+        assertEquals(4, ringBuffer.getDroppedCount());
+    }
+
+    @Test
+    void shouldLoseNothingWhenBlockingOnASlowConsumer() throws Exception {
+        //GIVEN
+        int numberOfThreads = 4;
+        int eventsPerThread = 10_000;
+        InMemoryPurchaseEventSink sink = new InMemoryPurchaseEventSink();
+        PurchaseEventRingBuffer ringBuffer = new PurchaseEventRingBuffer(16, OverflowPolicy.BLOCK, 1, sink);
+
+        List<Callable<Void>> producers = new ArrayList<>();
+        for (int thread = 0; thread < numberOfThreads; thread++) {
+            long accountId = thread;
+            producers.add(() -> {
+                for (int purchase = 0; purchase < eventsPerThread; purchase++) {
+                    ringBuffer.publish(purchase, accountId, PURCHASE_SUMMARY);
+                }
+                return null;
+            });
+        }
+
+        //WHEN
+        try (ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads)) {
+            for (Future<Void> result : executorService.invokeAll(producers)) {
+                result.get();
+            }
+        }
+        ringBuffer.close();
+
+        //THEN
+        List<PurchaseEvent> events = sink.getEvents();
+        assertEquals(numberOfThreads * eventsPerThread, events.size());
+        long[] nextPurchaseIdByAccount = new long[numberOfThreads];
+        for (int sequence = 0; sequence < events.size(); sequence++) {
+            PurchaseEvent event = events.get(sequence);
+            assertEquals(sequence, event.getSequence());
+            assertEquals(nextPurchaseIdByAccount[(int) event.getAccountId()]++, event.getPurchaseId());
+        }
+        assertEquals(0, ringBuffer.getDroppedCount());
+        assertTrue(sink.getNumberOfBatches() <= events.size());
+    }
+
+    @Test
+    void shouldCarryOnPastAFailingSink() throws Exception {
+        //GIVEN
+        InMemoryPurchaseEventSink delegate = new InMemoryPurchaseEventSink();
+        PurchaseEventSink sink = (event, endOfBatch) -> {
+            if (event.getPurchaseId() == 1) {
+                throw new IOException("Disk full");
+            }
+            delegate.onEvent(event, endOfBatch);
+        };
+        PurchaseEventRingBuffer ringBuffer = new PurchaseEventRingBuffer(8, OverflowPolicy.BLOCK, 1, sink);
+
+        //WHEN
+        for (int purchase = 0; purchase < 3; purchase++) {
+            ringBuffer.publish(purchase, 1, PURCHASE_SUMMARY);
+        }
+        ringBuffer.close();
+
+        //THEN
+        assertEquals(1, ringBuffer.getSinkFailureCount());
+        assertEquals(List.of(0L, 2L), delegate.getEvents().stream().map(PurchaseEvent::getPurchaseId).toList());
+    }
+
+    @Test
+    void shouldDeliverOrCountAsDroppedEveryEventPublishedWhileClosing() throws Exception {
+        //GIVEN
+        InMemoryPurchaseEventSink sink = new InMemoryPurchaseEventSink();
+        PurchaseEventRingBuffer ringBuffer = new PurchaseEventRingBuffer(1 << 16, OverflowPolicy.DROP, 1, sink);
+        AtomicBoolean closed = new AtomicBoolean();
+        List<Callable<Integer>> publishers = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            publishers.add(() -> {
+                int published = 0;
+                while (!closed.get() || published < 1_000) {
+                    ringBuffer.publish(published, 1, PURCHASE_SUMMARY);
+                    published++;
+                }
+                return published;
+            });
+        }
+
+        //WHEN
+        int published = 0;
+        try (ExecutorService executorService = Executors.newFixedThreadPool(publishers.size())) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (Callable<Integer> publisher : publishers) {
+                results.add(executorService.submit(publisher));
+            }
+            Thread.sleep(20);
+            ringBuffer.close();
+            closed.set(true);
+            for (Future<Integer> result : results) {
+                published += result.get();
+            }
+        }
+
+        //THEN
+        assertEquals(published, sink.getEvents().size() + ringBuffer.getDroppedCount());
+    }
+
+    @Test
+    void shouldAppendEventsToFileAsCsv(@TempDir Path directory) throws Exception {
+        //GIVEN
+        Path eventFile = directory.resolve("purchase-events.csv");
+        PurchaseEventRingBuffer ringBuffer = new PurchaseEventRingBuffer(8, OverflowPolicy.BLOCK, 1, new FilePurchaseEventSink(eventFile));
+
+        //WHEN
+        ringBuffer.publish(42, 123456789L, PURCHASE_SUMMARY);
+        ringBuffer.publish(43, -1L, TicketPurchaseSummary.valid(1, 0, 0, 2500, 1));
+        ringBuffer.close();
+
+        //THEN
+        List<String> lines = Files.readAllLines(eventFile);
+        assertEquals(3, lines.size());
+        assertEquals(FilePurchaseEventSink.HEADER.strip(), lines.get(0));
+        assertTrue(lines.get(1).matches("0,42,123456789,\\d+,2,1,1,6500,3"), lines.get(1));
+        assertTrue(lines.get(2).matches("1,43,-1,\\d+,1,0,0,2500,1"), lines.get(2));
+    }
+
+    @Test
+    void shouldLoseOnlyBufferedLinesWhenFileWriteFails(@TempDir Path directory) throws Exception {
+        //GIVEN
+        Path eventFile = directory.resolve("purchase-events.csv");
+        FailingFileChannel fileChannel = new FailingFileChannel(
+                FileChannel.open(eventFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+        FilePurchaseEventSink sink = new FilePurchaseEventSink(fileChannel);
+        sink.onEvent(event(0), true);
+
+        //WHEN
+        fileChannel.failAfterBytes(10);
+        assertThrows(IOException.class, () -> sink.onEvent(event(1), true));
+        sink.onEvent(event(2), true);
+        sink.close();
+
+        //THEN
+        List<String> lines = Files.readAllLines(eventFile);
+        assertEquals(3, lines.size());
+        assertEquals(FilePurchaseEventSink.HEADER.strip(), lines.get(0));
+        assertTrue(lines.get(1).matches("0,100,1000,\\d+,2,1,1,6500,3"), lines.get(1));
+        assertTrue(lines.get(2).matches("2,102,1002,\\d+,2,1,1,6500,3"), lines.get(2));
+    }
+
+    private static PurchaseEvent event(long sequence) {
+        PurchaseEvent event = new PurchaseEvent();
+        event.set(sequence, 100 + sequence, 1000 + sequence, System.currentTimeMillis(), PURCHASE_SUMMARY);
+        return event;
+    }
+
+    /**
+     * Holds up the consumer inside the first event until released, so the ring fills behind it.
+     */
+    private static final class StallingSink implements PurchaseEventSink {
+
+        private final InMemoryPurchaseEventSink delegate = new InMemoryPurchaseEventSink();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void onEvent(PurchaseEvent event, boolean endOfBatch) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delegate.onEvent(event, endOfBatch);
+        }
+    }
+
+    /**
+     * Writes through to a real file channel until told to fail, then writes only the given number of bytes before
+     * throwing once, like a disk filling up part way through a write.
+     */
+    private static final class FailingFileChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private long bytesBeforeFailure = -1;
+
+        private FailingFileChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        private void failAfterBytes(long numberOfBytes) {
+            bytesBeforeFailure = numberOfBytes;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (bytesBeforeFailure < 0) {
+                return delegate.write(src);
+            }
+            if (bytesBeforeFailure == 0) {
+                bytesBeforeFailure = -1;
+                throw new IOException("No space left on device");
+            }
+
+            ByteBuffer part = src.slice(src.position(), (int) Math.min(src.remaining(), bytesBeforeFailure));
+            int written = delegate.write(part);
+            src.position(src.position() + written);
+            bytesBeforeFailure -= written;
+            return written;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+
+}
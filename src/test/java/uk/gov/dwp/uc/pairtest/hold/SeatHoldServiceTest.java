@@ -0,0 +1,159 @@
+package uk.gov.dwp.uc.pairtest.hold;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import thirdparty.seatbooking.SeatInventory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SeatHoldServiceTest {
+
+    private static final long SCREENING_ID = 42L;
+    private static final long ACCOUNT_ID = 123456789L;
+    private static final Duration TICK = Duration.ofMillis(10);
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private final AtomicLong nanoClock = new AtomicLong();
+    private SeatInventory seatInventory;
+    private SeatHoldService seatHoldService;
+
+    @BeforeEach
+    void setup() {
+        seatInventory = new SeatInventory();
+        seatInventory.addScreening(SCREENING_ID, 10);
+        seatHoldService = new SeatHoldService(seatInventory, SCREENING_ID, TICK, 4, nanoClock::get);
+    }
+
+    @Test
+    void shouldTakeSeatsFromInventoryWhenHeld() {
+        //GIVEN/WHEN
+        SeatHold seatHold = seatHoldService.hold(ACCOUNT_ID, 4, TIME_TO_LIVE);
+
+        //THEN
+        assertNotNull(seatHold);
+        assertEquals(SeatHold.Status.HELD, seatHold.getStatus());
+        assertEquals(6, seatInventory.getRemainingSeats(SCREENING_ID));
+        assertEquals(ACCOUNT_ID, seatInventory.getAccountId(seatHold.getHoldId()));
+        assertEquals(1, seatHoldService.getActiveHoldCount());
+    }
+
+    @Test
+    void shouldRejectTimeToLiveTooLongToMeasureWithoutTakingSeats() {
+        //GIVEN
+        nanoClock.set(1);
+
+        //WHEN/THEN
+        assertThrows(IllegalArgumentException.class,
+                () -> seatHoldService.hold(ACCOUNT_ID, 4, Duration.ofNanos(Long.MAX_VALUE)));
+        assertThrows(IllegalArgumentException.class,
+                () -> seatHoldService.hold(ACCOUNT_ID, 4, Duration.ofDays(1_000_000)));
+        assertEquals(10, seatInventory.getRemainingSeats(SCREENING_ID));
+        assertEquals(0, seatHoldService.getActiveHoldCount());
+    }
+
+    @Test
+    void shouldNotHoldMoreSeatsThanRemain() {
+        //GIVEN
+        seatHoldService.hold(ACCOUNT_ID, 8, TIME_TO_LIVE);
+
+        //WHEN
+        SeatHold seatHold = seatHoldService.hold(ACCOUNT_ID, 3, TIME_TO_LIVE);
+
+        //THEN
+        assertNull(seatHold);
+        assertEquals(2, seatInventory.getRemainingSeats(SCREENING_ID));
+    }
+
+    @Test
+    void shouldReleaseSeatsOnceTimeToLiveHasPassed() {
+        //GIVEN
+        SeatHold seatHold = seatHoldService.hold(ACCOUNT_ID, 4, TIME_TO_LIVE);
+
+        //WHEN/THEN
+        nanoClock.addAndGet(TIME_TO_LIVE.toNanos() - 1);
+        assertEquals(0, seatHoldService.expireHolds());
+        assertEquals(SeatHold.Status.HELD, seatHold.getStatus());
+
+        nanoClock.addAndGet(TICK.toNanos());
+        assertEquals(1, seatHoldService.expireHolds());
+        assertEquals(SeatHold.Status.RELEASED, seatHold.getStatus());
+        assertEquals(10, seatInventory.getRemainingSeats(SCREENING_ID));
+        assertEquals(0, seatInventory.getActiveReservationCount());
+        assertEquals(0, seatHoldService.getActiveHoldCount());
+    }
+
+    @Test
+    void shouldKeepSeatsOfConfirmedHoldAfterTimeToLive() {
+        //GIVEN
+        SeatHold seatHold = seatHoldService.hold(ACCOUNT_ID, 4, TIME_TO_LIVE);
+
+        //WHEN
+        boolean confirmed = seatHoldService.confirm(seatHold);
+        nanoClock.addAndGet(TIME_TO_LIVE.multipliedBy(2).toNanos());
+
+        //THEN
+        assertTrue(confirmed);
+        assertEquals(0, seatHoldService.expireHolds());
+        assertEquals(SeatHold.Status.CONFIRMED, seatHold.getStatus());
+        assertEquals(6, seatInventory.getRemainingSeats(SCREENING_ID));
+        assertEquals(ACCOUNT_ID, seatInventory.getAccountId(seatHold.getHoldId()));
+    }
+
+    @Test
+    void shouldNotConfirmExpiredHold() {
+        //GIVEN
+        SeatHold seatHold = seatHoldService.hold(ACCOUNT_ID, 4, TIME_TO_LIVE);
+        nanoClock.addAndGet(TIME_TO_LIVE.plus(TICK).toNanos());
+        seatHoldService.expireHolds();
+
+        //WHEN/THEN
+        assertFalse(seatHoldService.confirm(seatHold));
+        assertEquals(SeatHold.Status.RELEASED, seatHold.getStatus());
+        assertEquals(10, seatInventory.getRemainingSeats(SCREENING_ID));
+    }
+
+    @Test
+    void shouldReleaseSeatsOnlyOnceWhenCancelled() {
+        //GIVEN
+        SeatHold seatHold = seatHoldService.hold(ACCOUNT_ID, 4, TIME_TO_LIVE);
+
+        //WHEN/THEN
+        assertTrue(seatHoldService.cancel(seatHold));
+        assertFalse(seatHoldService.cancel(seatHold));
+        assertFalse(seatHoldService.confirm(seatHold));
+        assertEquals(10, seatInventory.getRemainingSeats(SCREENING_ID));
+
+        nanoClock.addAndGet(TIME_TO_LIVE.plus(TICK).toNanos());
+        assertEquals(0, seatHoldService.expireHolds());
+        assertEquals(10, seatInventory.getRemainingSeats(SCREENING_ID));
+    }
+
+    @Test
+    void shouldExpireManyHoldsWithDifferentTimesToLiveInOrder() {
+        //GIVEN
+        seatInventory.addScreening(7L, 100_000);
+        SeatHoldService largeHoldService = new SeatHoldService(seatInventory, 7L, TICK, 4, nanoClock::get);
+        for (int seconds = 1; seconds <= 100_000; seconds++) {
+            largeHoldService.hold(seconds, 1, Duration.ofSeconds(seconds));
+        }
+
+        //WHEN/THEN
+        nanoClock.addAndGet(Duration.ofSeconds(50_000).toNanos());
+        assertEquals(50_000, largeHoldService.expireHolds());
+        assertEquals(50_000, seatInventory.getRemainingSeats(7L));
+
+        nanoClock.addAndGet(Duration.ofSeconds(50_000).toNanos());
+        assertEquals(50_000, largeHoldService.expireHolds());
+        assertEquals(100_000, seatInventory.getRemainingSeats(7L));
+        assertEquals(0, largeHoldService.getActiveHoldCount());
+    }
+
+}
@@ -0,0 +1,148 @@
+package uk.gov.dwp.uc.pairtest.hold;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+    @Test
+    void shouldExpireTimerOnItsDeadlineTickAndNotBefore() {
+        //GIVEN
+        TimingWheel timingWheel = new TimingWheel(0);
+        TimingWheel.Timer timer = new TimingWheel.Timer();
+        timingWheel.schedule(timer, 10);
+
+        //WHEN/THEN
+        assertNull(timingWheel.advanceTo(9));
+        assertSame(timer, timingWheel.advanceTo(10));
+        assertEquals(0, timingWheel.size());
+    }
+
+    @Test
+    void shouldExpireOverdueTimerOnNextTick() {
+        //GIVEN
+        TimingWheel timingWheel = new TimingWheel(100);
+        TimingWheel.Timer timer = new TimingWheel.Timer();
+
+        //WHEN
+        timingWheel.schedule(timer, 50);
+
+        //THEN
+        assertEquals(101, timer.getDeadlineTick());
+        assertSame(timer, timingWheel.advanceTo(101));
+    }
+
+    @Test
+    void shouldNotExpireCancelledTimer() {
+        //GIVEN
+        TimingWheel timingWheel = new TimingWheel(0);
+        TimingWheel.Timer timer = new TimingWheel.Timer();
+        timingWheel.schedule(timer, 5_000);
+
+        //WHEN/THEN
+        assertTrue(timingWheel.cancel(timer));
+        assertFalse(timingWheel.cancel(timer));
+        assertNull(timingWheel.advanceTo(10_000));
+        assertEquals(0, timingWheel.size());
+    }
+
+    @Test
+    void shouldCascadeTimersAcrossEveryLevelAndExpireThemInDeadlineOrder() {
+        //GIVEN
+        TimingWheel timingWheel = new TimingWheel(0);
+        SplittableRandom random = new SplittableRandom(42);
+        int numberOfTimers = 20_000;
+        for (int i = 0; i < numberOfTimers; i++) {
+            // Deadlines spread over a range that needs four levels of wheel
+            timingWheel.schedule(new TimingWheel.Timer(), random.nextLong(1, 1L << 22));
+        }
+
+        //WHEN
+        List<Long> expiredDeadlines = new ArrayList<>();
+        for (long tick = 0; tick <= 1L << 22; tick += random.nextInt(1, 5_000)) {
+            for (TimingWheel.Timer expired = timingWheel.advanceTo(tick); expired != null; expired = expired.nextExpired()) {
+                assertTrue(expired.getDeadlineTick() <= tick, "Timer expired early: " + expired.getDeadlineTick() + " at " + tick);
+                expiredDeadlines.add(expired.getDeadlineTick());
+            }
+        }
+        for (TimingWheel.Timer expired = timingWheel.advanceTo(1L << 22); expired != null; expired = expired.nextExpired()) {
+            expiredDeadlines.add(expired.getDeadlineTick());
+        }
+
+        //THEN
+        assertEquals(numberOfTimers, expiredDeadlines.size());
+        for (int i = 1; i < expiredDeadlines.size(); i++) {
+            assertTrue(expiredDeadlines.get(i - 1) <= expiredDeadlines.get(i));
+        }
+        assertEquals(0, timingWheel.size());
+    }
+
+    @Test
+    void shouldExpireTimerOnExactTickAfterCascading() {
+        //GIVEN
+        TimingWheel timingWheel = new TimingWheel(0);
+        TimingWheel.Timer timer = new TimingWheel.Timer();
+        long deadlineTick = (3L << 18) + (5L << 12) + 7;
+        timingWheel.schedule(timer, deadlineTick);
+
+        //WHEN/THEN
+        assertNull(timingWheel.advanceTo(deadlineTick - 1));
+        assertSame(timer, timingWheel.advanceTo(deadlineTick));
+    }
+
+    @Test
+    void shouldClampFarDeadlineToLastTickOfTopWheelTurn() {
+        //GIVEN
+        TimingWheel timingWheel = new TimingWheel(0);
+        timingWheel.advanceTo(1);
+        TimingWheel.Timer timer = new TimingWheel.Timer();
+
+        //WHEN
+        timingWheel.schedule(timer, Long.MAX_VALUE);
+
+        //THEN
+        assertEquals((1L << 36) - 1, timer.getDeadlineTick());
+        assertTrue(timingWheel.cancel(timer));
+    }
+
+    @Test
+    void shouldExpireClampedTimerOnLastTickOfTopWheelTurn() {
+        //GIVEN
+        long lastTickOfTurn = (3L << 36) - 1;
+        TimingWheel timingWheel = new TimingWheel(lastTickOfTurn - 100);
+        TimingWheel.Timer timer = new TimingWheel.Timer();
+
+        //WHEN
+        timingWheel.schedule(timer, Long.MAX_VALUE);
+
+        //THEN
+        assertEquals(lastTickOfTurn, timer.getDeadlineTick());
+        assertNull(timingWheel.advanceTo(lastTickOfTurn - 1));
+        assertSame(timer, timingWheel.advanceTo(lastTickOfTurn));
+    }
+
+    @Test
+    void shouldClampFarDeadlineToNextTickOnLastTickOfTopWheelTurn() {
+        //GIVEN
+        long lastTickOfTurn = (3L << 36) - 1;
+        TimingWheel timingWheel = new TimingWheel(lastTickOfTurn);
+        TimingWheel.Timer timer = new TimingWheel.Timer();
+
+        //WHEN
+        timingWheel.schedule(timer, Long.MAX_VALUE);
+
+        //THEN
+        assertEquals(lastTickOfTurn + 1, timer.getDeadlineTick());
+        assertSame(timer, timingWheel.advanceTo(lastTickOfTurn + 1));
+        assertEquals(0, timingWheel.size());
+    }
+}
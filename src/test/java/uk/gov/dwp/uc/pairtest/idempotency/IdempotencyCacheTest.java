@@ -0,0 +1,116 @@
+package uk.gov.dwp.uc.pairtest.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class IdempotencyCacheTest {
+
+    private final AtomicLong nanoClock = new AtomicLong();
+    private final Set<String> inFlightValues = ConcurrentHashMap.newKeySet();
+
+    private IdempotencyCache<String> idempotencyCache;
+
+    @BeforeEach
+    void setup() {
+        idempotencyCache = new IdempotencyCache<>(4, Duration.ofSeconds(10), value -> !inFlightValues.contains(value), 1, nanoClock::get);
+    }
+
+    @Test
+    void shouldReturnExistingValueForDuplicateKey() {
+        //GIVEN
+        assertNull(idempotencyCache.putIfAbsent("key-1", "first"));
+
+        //WHEN/THEN
+        assertEquals("first", idempotencyCache.putIfAbsent("key-1", "second"));
+        assertEquals("first", idempotencyCache.get("key-1"));
+    }
+
+    @Test
+    void shouldForgetKeysOnceTheyExpire() {
+        //GIVEN
+        idempotencyCache.putIfAbsent("key-1", "first");
+
+        //WHEN
+        nanoClock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        //THEN
+        assertNull(idempotencyCache.get("key-1"));
+        assertNull(idempotencyCache.putIfAbsent("key-1", "second"));
+        assertEquals("second", idempotencyCache.get("key-1"));
+    }
+
+    @Test
+    void shouldEvictOldestKeyWhenFull() {
+        //GIVEN
+        for (int i = 1; i <= 4; i++) {
+            idempotencyCache.putIfAbsent("key-" + i, "value-" + i);
+        }
+
+        //WHEN
+        idempotencyCache.putIfAbsent("key-5", "value-5");
+
+        //THEN
+        assertNull(idempotencyCache.get("key-1"));
+        assertEquals("value-5", idempotencyCache.get("key-5"));
+        assertEquals(4, idempotencyCache.size());
+    }
+
+    @Test
+    void shouldNotEvictInFlightValueToMakeRoom() {
+        //GIVEN
+        inFlightValues.add("value-1");
+        for (int i = 1; i <= 4; i++) {
+            idempotencyCache.putIfAbsent("key-" + i, "value-" + i);
+        }
+
+        //WHEN
+        idempotencyCache.putIfAbsent("key-5", "value-5");
+
+        //THEN
+        assertEquals("value-1", idempotencyCache.get("key-1"));
+        assertNull(idempotencyCache.get("key-2"));
+        assertEquals(4, idempotencyCache.size());
+    }
+
+    @Test
+    void shouldKeepExpiredValueUntilItIsNoLongerInFlight() {
+        //GIVEN
+        inFlightValues.add("first");
+        idempotencyCache.putIfAbsent("key-1", "first");
+        idempotencyCache.putIfAbsent("key-2", "second");
+        nanoClock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        //WHEN
+        String existing = idempotencyCache.putIfAbsent("key-1", "retry");
+
+        //THEN
+        assertEquals("first", existing);
+        assertNull(idempotencyCache.get("key-2"));
+        inFlightValues.remove("first");
+        assertNull(idempotencyCache.get("key-1"));
+        assertNull(idempotencyCache.putIfAbsent("key-1", "retry"));
+    }
+
+    @Test
+    void shouldOnlyRemoveKeyWhenValueStillMatches() {
+        //GIVEN
+        idempotencyCache.putIfAbsent("key-1", "first");
+
+        //WHEN
+        idempotencyCache.remove("key-1", "other");
+
+        //THEN
+        assertEquals("first", idempotencyCache.get("key-1"));
+        idempotencyCache.remove("key-1", "first");
+        assertNull(idempotencyCache.get("key-1"));
+    }
+
+}
@@ -0,0 +1,198 @@
+package uk.gov.dwp.uc.pairtest.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MappedPurchaseJournalTest {
+
+    private static final long ACCOUNT_ID = 123456789L;
+    private static final int SMALL_SEGMENT_SIZE_BYTES = 16 * JournalRecordLayout.RECORD_SIZE;
+
+    @TempDir
+    private Path journalDirectory;
+
+    private final TicketPurchaseSummary purchaseSummary = TicketPurchaseSummary.valid(2, 1, 1, 6500, 3);
+
+    @Test
+    void shouldReplayEveryFieldOfARecord() {
+        //GIVEN
+        try (MappedPurchaseJournal journal = new MappedPurchaseJournal(journalDirectory, JournalDurability.OS_CACHE)) {
+            long purchaseId = journal.recordIntent(ACCOUNT_ID, purchaseSummary);
+            journal.recordPaid(purchaseId, ACCOUNT_ID, purchaseSummary);
+        }
+
+        //WHEN
+        List<JournalRecord> journalRecords = new ArrayList<>();
+        JournalRecovery.replay(journalDirectory, journalRecords::add);
+
+        //THEN
+        assertEquals(2, journalRecords.size());
+        assertEquals(JournalStage.INTENT, journalRecords.get(0).stage());
+        assertEquals(journalRecords.get(0).purchaseId(), journalRecords.get(1).purchaseId());
+        JournalRecord journalRecord = journalRecords.get(1);
+        assertEquals(JournalStage.PAID, journalRecord.stage());
+        assertEquals(ACCOUNT_ID, journalRecord.accountId());
+        assertEquals(2, journalRecord.numberOfAdultTickets());
+        assertEquals(1, journalRecord.numberOfChildTickets());
+        assertEquals(1, journalRecord.numberOfInfantTickets());
+        assertEquals(6500, journalRecord.totalTicketPricePence());
+        assertEquals(3, journalRecord.numberOfSeatsReserved());
+    }
+
+    @ParameterizedTest
+    @EnumSource(JournalDurability.class)
+    void shouldFindPurchasesPaidButNotReservedAcrossSegments(final JournalDurability durability) {
+        //GIVEN
+        List<Long> unreservedPurchaseIds = new ArrayList<>();
+        try (MappedPurchaseJournal journal = new MappedPurchaseJournal(journalDirectory, durability, SMALL_SEGMENT_SIZE_BYTES, Duration.ofMillis(1))) {
+            for (long accountId = 0; accountId < 100; accountId++) {
+                long purchaseId = recordPaid(journal, accountId);
+                if (accountId % 7 == 0) {
+                    unreservedPurchaseIds.add(purchaseId);
+                } else {
+                    journal.recordReserved(purchaseId, accountId, purchaseSummary);
+                }
+            }
+        }
+
+        //WHEN
+        List<JournalRecord> paidButNotReserved = JournalRecovery.findPaidButNotReserved(journalDirectory);
+
+        //THEN
+        assertEquals(unreservedPurchaseIds, paidButNotReserved.stream().map(JournalRecord::purchaseId).toList());
+        assertEquals(List.of(0L, 7L, 14L), paidButNotReserved.stream().limit(3).map(JournalRecord::accountId).toList());
+    }
+
+    @Test
+    void shouldContinueSequenceWhenReopened() {
+        //GIVEN
+        long firstPurchaseId;
+        try (MappedPurchaseJournal journal = new MappedPurchaseJournal(journalDirectory, JournalDurability.OS_CACHE, SMALL_SEGMENT_SIZE_BYTES, Duration.ofMillis(1))) {
+            firstPurchaseId = recordPaid(journal, ACCOUNT_ID);
+        }
+
+        //WHEN
+        long secondPurchaseId;
+        try (MappedPurchaseJournal journal = new MappedPurchaseJournal(journalDirectory, JournalDurability.OS_CACHE, SMALL_SEGMENT_SIZE_BYTES, Duration.ofMillis(1))) {
+            secondPurchaseId = recordPaid(journal, ACCOUNT_ID);
+        }
+
+        //THEN
+        assertEquals(16, secondPurchaseId - firstPurchaseId);
+        assertEquals(2, JournalRecovery.findPaidButNotReserved(journalDirectory).size());
+    }
+
+    @Test
+    void shouldSkipTornRecordsOnReplay() throws IOException {
+        //GIVEN
+        try (MappedPurchaseJournal journal = new MappedPurchaseJournal(journalDirectory, JournalDurability.OS_CACHE, SMALL_SEGMENT_SIZE_BYTES, Duration.ofMillis(1))) {
+            recordPaid(journal, ACCOUNT_ID);
+            recordPaid(journal, ACCOUNT_ID + 1);
+        }
+        try (FileChannel channel = FileChannel.open(JournalSegments.path(journalDirectory, 0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}), JournalRecordLayout.RECORD_SIZE + 8);
+        }
+
+        //WHEN
+        List<JournalRecord> paidButNotReserved = JournalRecovery.findPaidButNotReserved(journalDirectory);
+        List<JournalRecord> paymentUnconfirmed = JournalRecovery.findPaymentUnconfirmed(journalDirectory);
+
+        //THEN
+        assertEquals(1, paidButNotReserved.size());
+        assertEquals(ACCOUNT_ID + 1, paidButNotReserved.get(0).accountId());
+        assertEquals(1, paymentUnconfirmed.size());
+        assertEquals(ACCOUNT_ID, paymentUnconfirmed.get(0).accountId());
+    }
+
+    @Test
+    void shouldKeepEveryRecordFromConcurrentGroupCommitAppenders() throws Exception {
+        //GIVEN
+        int numberOfThreads = 8;
+        int appendsPerThread = 500;
+
+        //WHEN
+        try (MappedPurchaseJournal journal = new MappedPurchaseJournal(journalDirectory, JournalDurability.GROUP_COMMIT, SMALL_SEGMENT_SIZE_BYTES, Duration.ofMillis(1));
+             ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads)) {
+            List<Future<?>> appenders = new ArrayList<>();
+            for (int thread = 0; thread < numberOfThreads; thread++) {
+                long accountId = thread;
+                appenders.add(executorService.submit(() -> {
+                    for (int append = 0; append < appendsPerThread; append++) {
+                        recordPaid(journal, accountId);
+                    }
+                }));
+            }
+            for (Future<?> appender : appenders) {
+                appender.get();
+            }
+        }
+
+        //THEN
+        assertEquals(numberOfThreads * appendsPerThread, JournalRecovery.findPaidButNotReserved(journalDirectory).size());
+    }
+
+    @Test
+    void shouldRejectAppendAfterClose() {
+        //GIVEN
+        MappedPurchaseJournal journal = new MappedPurchaseJournal(journalDirectory, JournalDurability.PERIODIC);
+        journal.close();
+
+        //WHEN/THEN
+        assertThrows(IllegalStateException.class, () -> journal.recordIntent(ACCOUNT_ID, purchaseSummary));
+    }
+
+    @Test
+    void shouldFindPurchasesWithNeitherPaidNorReservedRecord() {
+        //GIVEN
+        long unconfirmedPurchaseId;
+        try (MappedPurchaseJournal journal = new MappedPurchaseJournal(journalDirectory, JournalDurability.OS_CACHE)) {
+            unconfirmedPurchaseId = journal.recordIntent(ACCOUNT_ID, purchaseSummary);
+            recordPaid(journal, ACCOUNT_ID + 1);
+            long reservedWithoutPaidRecordPurchaseId = journal.recordIntent(ACCOUNT_ID + 2, purchaseSummary);
+            journal.recordReserved(reservedWithoutPaidRecordPurchaseId, ACCOUNT_ID + 2, purchaseSummary);
+        }
+
+        //WHEN
+        List<JournalRecord> paymentUnconfirmed = JournalRecovery.findPaymentUnconfirmed(journalDirectory);
+
+        //THEN
+        assertEquals(List.of(unconfirmedPurchaseId), paymentUnconfirmed.stream().map(JournalRecord::purchaseId).toList());
+        assertEquals(JournalStage.INTENT, paymentUnconfirmed.get(0).stage());
+    }
+
+    @Test
+    void shouldHandOutDistinctPurchaseIdsWithoutAJournal() {
+        //WHEN
+        long firstPurchaseId = PurchaseJournal.NO_OP.recordIntent(ACCOUNT_ID, purchaseSummary);
+        long secondPurchaseId = PurchaseJournal.NO_OP.recordIntent(ACCOUNT_ID, purchaseSummary);
+
+        //THEN
+        assertNotEquals(firstPurchaseId, secondPurchaseId);
+    }
+
+    private long recordPaid(MappedPurchaseJournal journal, long accountId) {
+        long purchaseId = journal.recordIntent(accountId, purchaseSummary);
+        journal.recordPaid(purchaseId, accountId, purchaseSummary);
+        return purchaseId;
+    }
+
+}
@@ -0,0 +1,60 @@
+package uk.gov.dwp.uc.pairtest.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @ParameterizedTest(name = "#{index} - Should bucket {0}ns to within 1/16 of its value")
+    @ValueSource(longs = {0, 1, 31, 32, 33, 63, 64, 1_000, 12_345, 1_000_000, 987_654_321L})
+    void shouldBucketValuesWithBoundedError(final long value) {
+        //GIVEN/WHEN
+        long lowestValueInBucket = LatencyHistogram.lowestValueInBucket(LatencyHistogram.bucketIndex(value));
+
+        //THEN
+        assertTrue(lowestValueInBucket <= value);
+        assertTrue(value - lowestValueInBucket <= value / 16, "Bucket for " + value + " starts at " + lowestValueInBucket);
+    }
+
+    @ParameterizedTest(name = "#{index} - Should map bucket {0} back to itself")
+    @ValueSource(ints = {0, 31, 32, 47, 48, 100, 400})
+    void shouldRoundTripBucketBoundaries(final int bucketIndex) {
+        //GIVEN/WHEN/THEN
+        assertEquals(bucketIndex, LatencyHistogram.bucketIndex(LatencyHistogram.lowestValueInBucket(bucketIndex)));
+    }
+
+    @ParameterizedTest(name = "#{index} - Should clamp {0}ns into the last bucket")
+    @ValueSource(longs = {1L << 40, Long.MAX_VALUE})
+    void shouldClampValuesAboveTrackableRange(final long value) {
+        //GIVEN/WHEN/THEN
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(value));
+    }
+
+    @Test
+    void shouldReportValuesAtPercentiles() {
+        //GIVEN
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (long value = 1; value <= 1_000; value++) {
+            latencyHistogram.record(value * 1_000);
+        }
+
+        //WHEN/THEN
+        assertEquals(1_000, latencyHistogram.getCount());
+        assertEquals(1_000_000, latencyHistogram.getMaximumValue());
+        long median = latencyHistogram.getValueAtPercentile(50.0);
+        assertTrue(median <= 500_000 && median > 500_000 * 15 / 16, "Median " + median);
+        long percentile99 = latencyHistogram.getValueAtPercentile(99.0);
+        assertTrue(percentile99 <= 990_000 && percentile99 > 990_000 * 15 / 16, "99th percentile " + percentile99);
+    }
+
+    @Test
+    void shouldReportZeroWhenNothingRecorded() {
+        //GIVEN/WHEN/THEN
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(99.0));
+    }
+
+}
@@ -0,0 +1,147 @@
+package uk.gov.dwp.uc.pairtest.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StripedPurchaseMetricsTest {
+
+    private StripedPurchaseMetrics purchaseMetrics;
+
+    @BeforeEach
+    void setup() {
+        purchaseMetrics = new StripedPurchaseMetrics(4, 1);
+    }
+
+    @Test
+    void shouldCountPurchasesAndTicketsByType() {
+        //GIVEN
+        purchaseMetrics.recordPurchased(TicketPurchaseSummary.valid(2, 1, 1, 6500, 3));
+        purchaseMetrics.recordPurchased(TicketPurchaseSummary.valid(1, 0, 0, 2500, 1));
+        purchaseMetrics.recordRejected();
+
+        //WHEN
+        PurchaseMetricsSnapshot snapshot = purchaseMetrics.snapshot();
+
+        //THEN
+        assertEquals(2, snapshot.getValidPurchases());
+        assertEquals(1, snapshot.getRejectedPurchases());
+        assertEquals(3, snapshot.getTicketsSold(Type.ADULT));
+        assertEquals(1, snapshot.getTicketsSold(Type.CHILD));
+        assertEquals(1, snapshot.getTicketsSold(Type.INFANT));
+    }
+
+    @Test
+    void shouldKeepExactCountsAcrossThreads() throws InterruptedException {
+        //GIVEN
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int purchase = 0; purchase < 50_000; purchase++) {
+                    purchaseMetrics.recordPurchased(TicketPurchaseSummary.valid(3, 2, 1, 11000, 5));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        //WHEN
+        PurchaseMetricsSnapshot snapshot = purchaseMetrics.snapshot();
+
+        //THEN
+        assertEquals(400_000, snapshot.getValidPurchases());
+        assertEquals(1_200_000, snapshot.getTicketsSold(Type.ADULT));
+        assertEquals(800_000, snapshot.getTicketsSold(Type.CHILD));
+        assertEquals(400_000, snapshot.getTicketsSold(Type.INFANT));
+    }
+
+    @Test
+    void shouldKeepExactCountsWhenLargePurchasesShareOneStripe() throws InterruptedException {
+        //GIVEN
+        StripedPurchaseMetrics singleStripePurchaseMetrics = new StripedPurchaseMetrics(1, 1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int purchase = 0; purchase < 20_000; purchase++) {
+                    singleStripePurchaseMetrics.recordPurchased(TicketPurchaseSummary.valid(32_767, 20_000, 1, 0, 52_767));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        //WHEN
+        PurchaseMetricsSnapshot snapshot = singleStripePurchaseMetrics.snapshot();
+
+        //THEN
+        assertEquals(160_000, snapshot.getValidPurchases());
+        assertEquals(160_000L * 32_767, snapshot.getTicketsSold(Type.ADULT));
+        assertEquals(160_000L * 20_000, snapshot.getTicketsSold(Type.CHILD));
+        assertEquals(160_000, snapshot.getTicketsSold(Type.INFANT));
+    }
+
+    @Test
+    void shouldAddUpLatenciesRecordedOnDifferentThreads() throws InterruptedException {
+        //GIVEN
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int lap = 0; lap < 1_000; lap++) {
+                    purchaseMetrics.lap(PurchaseStage.PAYMENT, purchaseMetrics.startTimer());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        //WHEN
+        PurchaseMetricsSnapshot snapshot = purchaseMetrics.snapshot();
+
+        //THEN
+        assertEquals(8_000, snapshot.getCount(PurchaseStage.PAYMENT));
+        assertEquals(0, snapshot.getCount(PurchaseStage.VALIDATION));
+        assertTrue(snapshot.getValueAtPercentileNanos(PurchaseStage.PAYMENT, 50.0) <= snapshot.getMaximumNanos(PurchaseStage.PAYMENT));
+    }
+
+    @Test
+    void shouldExportSnapshotAsText() {
+        //GIVEN
+        purchaseMetrics.recordPurchased(TicketPurchaseSummary.valid(2, 0, 0, 5000, 2));
+        purchaseMetrics.lap(PurchaseStage.VALIDATION, purchaseMetrics.startTimer());
+
+        //WHEN
+        String text = purchaseMetrics.snapshot().toText();
+
+        //THEN
+        assertTrue(text.contains("purchases_total{result=\"valid\"} 1\n"));
+        assertTrue(text.contains("tickets_sold_total{type=\"ADULT\"} 2\n"));
+        assertTrue(text.contains("purchase_stage_latency_nanos_count{stage=\"VALIDATION\"} 1\n"));
+        assertTrue(text.contains("purchase_stage_latency_nanos{stage=\"PAYMENT\",quantile=\"0.99\"} 0\n"));
+    }
+
+    @Test
+    void shouldOnlyTimeSampledPurchases() {
+        //GIVEN
+        StripedPurchaseMetrics sampledPurchaseMetrics = new StripedPurchaseMetrics(4, 16);
+
+        //WHEN
+        for (int i = 0; i < 16_000; i++) {
+            sampledPurchaseMetrics.lap(PurchaseStage.RESERVATION, sampledPurchaseMetrics.startTimer());
+        }
+
+        //THEN
+        long timedPurchases = sampledPurchaseMetrics.snapshot().getCount(PurchaseStage.RESERVATION);
+        assertTrue(timedPurchases > 500 && timedPurchases < 1_500, "Timed " + timedPurchases + " of 16000 purchases");
+    }
+
+}
@@ -0,0 +1,177 @@
+package uk.gov.dwp.uc.pairtest.pricing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PricingRuleCompilerTest {
+
+    private static final long IMAX_SCREENING_ID = 7L;
+    private static final long UNLISTED_SCREENING_ID = 99L;
+    private static final int MORNING = 10 * 60;
+    private static final int EVENING = 19 * 60 + 30;
+    private static final int LATE_NIGHT = 60;
+
+    @Test
+    void shouldPreferTheMostSpecificPriceRule() {
+        //GIVEN
+        Properties properties = baseRules();
+        properties.setProperty("price.*.PEAK.ADULT", "3000");
+        properties.setProperty("price.IMAX.*.ADULT", "3500");
+        properties.setProperty("price.IMAX.PEAK.ADULT", "4000");
+
+        //WHEN
+        PricingRules pricingRules = PricingRuleCompiler.compile(properties);
+
+        //THEN
+        assertEquals(4000, pricingRules.getPricePence(IMAX_SCREENING_ID, EVENING, Type.ADULT));
+        assertEquals(3500, pricingRules.getPricePence(IMAX_SCREENING_ID, MORNING, Type.ADULT));
+        assertEquals(3000, pricingRules.getPricePence(UNLISTED_SCREENING_ID, EVENING, Type.ADULT));
+        assertEquals(2500, pricingRules.getPricePence(UNLISTED_SCREENING_ID, MORNING, Type.ADULT));
+        assertEquals(1500, pricingRules.getPricePence(IMAX_SCREENING_ID, EVENING, Type.CHILD));
+    }
+
+    @Test
+    void shouldClassifyScreeningsAndMinutes() {
+        //GIVEN
+        Properties properties = baseRules();
+
+        //WHEN
+        PricingRules pricingRules = PricingRuleCompiler.compile(properties);
+
+        //THEN
+        assertEquals("IMAX", pricingRules.getScreeningClass(IMAX_SCREENING_ID));
+        assertEquals(PricingRules.DEFAULT_NAME, pricingRules.getScreeningClass(UNLISTED_SCREENING_ID));
+        assertEquals("PEAK", pricingRules.getTimeBand(17 * 60));
+        assertEquals("PEAK", pricingRules.getTimeBand(LATE_NIGHT));
+        assertEquals(PricingRules.DEFAULT_NAME, pricingRules.getTimeBand(2 * 60));
+        assertEquals(PricingRules.DEFAULT_NAME, pricingRules.getTimeBand(MORNING));
+    }
+
+    @Test
+    void shouldApplyTheDiscountStepForTheTotalNumberOfTickets() {
+        //GIVEN
+        Properties properties = baseRules();
+        properties.setProperty("discount.5", "10");
+        properties.setProperty("discount.10", "20");
+
+        //WHEN
+        PricingRules pricingRules = PricingRuleCompiler.compile(properties);
+
+        //THEN
+        assertEquals(0, pricingRules.getDiscountPercent(4));
+        assertEquals(10, pricingRules.getDiscountPercent(9));
+        assertEquals(20, pricingRules.getDiscountPercent(10));
+        assertEquals(20, pricingRules.getDiscountPercent(100));
+        assertEquals(3 * 2500 + 1500, pricingRules.getTotalPricePence(UNLISTED_SCREENING_ID, MORNING, 3, 1, 0));
+        assertEquals((4 * 2500 + 2 * 1500) * 9 / 10, pricingRules.getTotalPricePence(UNLISTED_SCREENING_ID, MORNING, 4, 2, 1));
+        assertEquals((4 * 2500 + 2 * 1500) * 9 / 10,
+                pricingRules.getTotalPricePence(UNLISTED_SCREENING_ID, MORNING, TicketBasket.of(4, 2, 1)));
+    }
+
+    @Test
+    void shouldLeaveTheDefaultBandUnpricedWhenBandsCoverTheWholeDay() {
+        //GIVEN
+        Properties properties = new Properties();
+        properties.setProperty("band.DAY", "06:00-18:00");
+        properties.setProperty("band.NIGHT", "18:00-06:00");
+        for (Type ticketType : Type.values()) {
+            properties.setProperty("price.*.DAY." + ticketType.name(), "1000");
+            properties.setProperty("price.*.NIGHT." + ticketType.name(), "1200");
+        }
+
+        //WHEN
+        PricingRules pricingRules = PricingRuleCompiler.compile(properties);
+
+        //THEN
+        assertEquals(1000, pricingRules.getPricePence(UNLISTED_SCREENING_ID, 6 * 60, Type.INFANT));
+        assertEquals(1200, pricingRules.getPricePence(UNLISTED_SCREENING_ID, 0, Type.INFANT));
+    }
+
+    @Test
+    void shouldCompileRulesFromFile(@TempDir Path directory) throws IOException {
+        //GIVEN
+        Path rulesFile = directory.resolve("pricing-rules.properties");
+        Files.writeString(rulesFile, """
+                screening.7=IMAX
+                price.*.*.ADULT=2500
+                price.*.*.CHILD=1500
+                price.*.*.INFANT=0
+                price.IMAX.*.ADULT=3500
+                maximumNumberOfTickets=30
+                """);
+
+        //WHEN
+        PricingRules pricingRules = PricingRuleCompiler.compile(rulesFile);
+
+        //THEN
+        assertEquals(3500, pricingRules.getPricePence(IMAX_SCREENING_ID, MORNING, Type.ADULT));
+        assertEquals(30, pricingRules.getMaximumNumberOfTickets());
+    }
+
+    @Test
+    void shouldRejectMissingPrice() {
+        //GIVEN
+        Properties properties = baseRules();
+        properties.remove("price.*.*.INFANT");
+
+        //WHEN/THEN
+        assertThrows(IllegalArgumentException.class, () -> PricingRuleCompiler.compile(properties));
+    }
+
+    @Test
+    void shouldRejectOverlappingTimeBands() {
+        //GIVEN
+        Properties properties = baseRules();
+        properties.setProperty("band.MATINEE", "13:00-17:30");
+
+        //WHEN/THEN
+        assertThrows(IllegalArgumentException.class, () -> PricingRuleCompiler.compile(properties));
+    }
+
+    @Test
+    void shouldRejectPricesThatOverflowForTheTicketCap() {
+        //GIVEN
+        Properties properties = baseRules();
+        properties.setProperty("price.IMAX.PEAK.ADULT", String.valueOf(Integer.MAX_VALUE / 25 + 1));
+
+        //WHEN/THEN
+        assertThrows(IllegalArgumentException.class, () -> PricingRuleCompiler.compile(properties));
+    }
+
+    @ParameterizedTest(name = "#{index} - Should reject the rule \"{0}\"")
+    @ValueSource(strings = {"price.*.*.ADULT=-1", "price.GOLD.*.ADULT=100", "price.*.MATINEE.ADULT=100",
+            "price.*.*.SENIOR=100", "price.*.ADULT=100", "band.EARLY=25:00-26:00", "band.EARLY=09:00-09:00",
+            "band.EARLY=9-10", "discount.5=101", "screening.abc=IMAX", "seat.1=A1"})
+    void shouldRejectInvalidRules(final String rule) {
+        //GIVEN
+        Properties properties = baseRules();
+        String[] nameAndValue = rule.split("=", 2);
+        properties.setProperty(nameAndValue[0], nameAndValue[1]);
+
+        //WHEN/THEN
+        assertThrows(IllegalArgumentException.class, () -> PricingRuleCompiler.compile(properties));
+    }
+
+    private static Properties baseRules() {
+        Properties properties = new Properties();
+        properties.setProperty("screening." + IMAX_SCREENING_ID, "IMAX");
+        properties.setProperty("band.PEAK", "17:00-02:00");
+        properties.setProperty("price.*.*.ADULT", "2500");
+        properties.setProperty("price.*.*.CHILD", "1500");
+        properties.setProperty("price.*.*.INFANT", "0");
+        return properties;
+    }
+
+}
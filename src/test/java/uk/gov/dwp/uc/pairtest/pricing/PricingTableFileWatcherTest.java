@@ -0,0 +1,123 @@
+package uk.gov.dwp.uc.pairtest.pricing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PricingTableFileWatcherTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final PricingTableReference pricingTableReference = new PricingTableReference(PricingTable.DEFAULT);
+
+    @Test
+    void shouldLoadPricingFileOnCreation() throws IOException {
+        //GIVEN
+        Path pricingFile = writePricingFile("3000", Instant.parse("2024-01-01T00:00:00Z"));
+
+        //WHEN
+        try (PricingTableFileWatcher ignored = new PricingTableFileWatcher(pricingFile, pricingTableReference)) {
+
+            //THEN
+            assertEquals(3000, pricingTableReference.get().getPricePence(Type.ADULT));
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidPricingFileOnCreation() throws IOException {
+        //GIVEN
+        Path pricingFile = writePricingFile("not-a-price", Instant.parse("2024-01-01T00:00:00Z"));
+
+        //WHEN/THEN
+        assertThrows(IllegalArgumentException.class, () -> new PricingTableFileWatcher(pricingFile, pricingTableReference));
+        assertSame(PricingTable.DEFAULT, pricingTableReference.get());
+    }
+
+    @Test
+    void shouldPublishNewTableWhenFileChanges() throws IOException {
+        //GIVEN
+        Path pricingFile = writePricingFile("3000", Instant.parse("2024-01-01T00:00:00Z"));
+
+        try (PricingTableFileWatcher pricingTableFileWatcher = new PricingTableFileWatcher(pricingFile, pricingTableReference)) {
+            PricingTable originalTable = pricingTableReference.get();
+            assertFalse(pricingTableFileWatcher.reloadIfChanged());
+            assertSame(originalTable, pricingTableReference.get());
+
+            //WHEN
+            writePricingFile("3200", Instant.parse("2024-01-02T00:00:00Z"));
+
+            //THEN
+            assertTrue(pricingTableFileWatcher.reloadIfChanged());
+            assertEquals(3200, pricingTableReference.get().getPricePence(Type.ADULT));
+        }
+    }
+
+    @Test
+    void shouldKeepPreviousTableWhenChangedFileIsInvalid() throws IOException {
+        //GIVEN
+        Path pricingFile = writePricingFile("3000", Instant.parse("2024-01-01T00:00:00Z"));
+
+        try (PricingTableFileWatcher pricingTableFileWatcher = new PricingTableFileWatcher(pricingFile, pricingTableReference)) {
+            PricingTable originalTable = pricingTableReference.get();
+
+            //WHEN
+            writePricingFile("-5", Instant.parse("2024-01-02T00:00:00Z"));
+
+            //THEN
+            assertFalse(pricingTableFileWatcher.reloadIfChanged());
+            assertSame(originalTable, pricingTableReference.get());
+            assertNotNull(pricingTableFileWatcher.getLastReloadFailure());
+
+            writePricingFile("3100", Instant.parse("2024-01-03T00:00:00Z"));
+            assertTrue(pricingTableFileWatcher.reloadIfChanged());
+            assertNull(pricingTableFileWatcher.getLastReloadFailure());
+        }
+    }
+
+    @Test
+    void shouldRetryInvalidFileUntilItLoads() throws IOException {
+        //GIVEN
+        Path pricingFile = writePricingFile("3000", Instant.parse("2024-01-01T00:00:00Z"));
+
+        try (PricingTableFileWatcher pricingTableFileWatcher = new PricingTableFileWatcher(pricingFile, pricingTableReference)) {
+            writePricingFile("-500", Instant.parse("2024-01-02T00:00:00Z"));
+            assertFalse(pricingTableFileWatcher.reloadIfChanged());
+
+            //WHEN
+            writePricingFile("3100", Instant.parse("2024-01-02T00:00:00Z"));
+
+            //THEN
+            assertTrue(pricingTableFileWatcher.reloadIfChanged());
+            assertEquals(3100, pricingTableReference.get().getPricePence(Type.ADULT));
+            assertNull(pricingTableFileWatcher.getLastReloadFailure());
+        }
+    }
+
+    private Path writePricingFile(String adultPrice, Instant modifiedTime) throws IOException {
+        Path pricingFile = tempDir.resolve("pricing.properties");
+        Files.writeString(pricingFile, """
+                price.ADULT=%s
+                price.CHILD=1500
+                price.INFANT=0
+                maximumNumberOfTickets=25
+                """.formatted(adultPrice));
+        Files.setLastModifiedTime(pricingFile, FileTime.from(modifiedTime));
+        return pricingFile;
+    }
+
+}
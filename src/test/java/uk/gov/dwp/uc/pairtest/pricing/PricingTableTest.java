@@ -0,0 +1,77 @@
+package uk.gov.dwp.uc.pairtest.pricing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest.Type;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PricingTableTest {
+
+    @Test
+    void shouldMatchConfigConstantsByDefault() {
+        //GIVEN/WHEN/THEN
+        assertEquals(2500, PricingTable.DEFAULT.getPricePence(Type.ADULT));
+        assertEquals(1500, PricingTable.DEFAULT.getPricePence(Type.CHILD));
+        assertEquals(0, PricingTable.DEFAULT.getPricePence(Type.INFANT));
+        assertEquals(25, PricingTable.DEFAULT.getMaximumNumberOfTickets());
+    }
+
+    @Test
+    void shouldReadPricesAndTicketCapFromProperties() {
+        //GIVEN
+        Properties properties = pricingProperties("3000", "1800", "100", "30");
+
+        //WHEN
+        PricingTable pricingTable = PricingTable.fromProperties(properties);
+
+        //THEN
+        assertEquals(3000, pricingTable.getPricePence(Type.ADULT));
+        assertEquals(1800, pricingTable.getPricePence(Type.CHILD));
+        assertEquals(100, pricingTable.getPricePence(Type.INFANT));
+        assertEquals(30, pricingTable.getMaximumNumberOfTickets());
+    }
+
+    @ParameterizedTest(name = "#{index} - Should reject an adult price of \"{0}\"")
+    @ValueSource(strings = {"", "-1", "twenty", "25.00"})
+    void shouldRejectInvalidPrices(final String adultPrice) {
+        //GIVEN
+        Properties properties = pricingProperties(adultPrice, "1500", "0", "25");
+
+        //WHEN/THEN
+        assertThrows(IllegalArgumentException.class, () -> PricingTable.fromProperties(properties));
+    }
+
+    @Test
+    void shouldRejectMissingTicketType() {
+        //GIVEN
+        Properties properties = pricingProperties("2500", "1500", "0", "25");
+        properties.remove("price.INFANT");
+
+        //WHEN/THEN
+        assertThrows(IllegalArgumentException.class, () -> PricingTable.fromProperties(properties));
+    }
+
+    @Test
+    void shouldRejectPricesThatOverflowForTheTicketCap() {
+        //GIVEN
+        Properties properties = pricingProperties("100000000", "1500", "0", "25");
+
+        //WHEN/THEN
+        assertThrows(IllegalArgumentException.class, () -> PricingTable.fromProperties(properties));
+    }
+
+    static Properties pricingProperties(String adultPrice, String childPrice, String infantPrice, String maximumNumberOfTickets) {
+        Properties properties = new Properties();
+        properties.setProperty("price.ADULT", adultPrice);
+        properties.setProperty("price.CHILD", childPrice);
+        properties.setProperty("price.INFANT", infantPrice);
+        properties.setProperty("maximumNumberOfTickets", maximumNumberOfTickets);
+        return properties;
+    }
+
+}
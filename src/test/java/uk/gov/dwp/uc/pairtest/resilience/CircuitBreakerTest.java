@@ -0,0 +1,143 @@
+package uk.gov.dwp.uc.pairtest.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CircuitBreakerTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(10);
+    private static final Duration SLOW_CALL_THRESHOLD = Duration.ofMillis(500);
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(5);
+
+    private final AtomicLong nanoClock = new AtomicLong(1_000_000_000L);
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setup() {
+        circuitBreaker = new CircuitBreaker(WINDOW, 10, 50, 50, SLOW_CALL_THRESHOLD, OPEN_DURATION, nanoClock::get);
+    }
+
+    @Test
+    void shouldStayClosedBelowMinimumNumberOfCalls() {
+        //GIVEN/WHEN
+        recordCalls(9, true);
+
+        //THEN
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void shouldOpenWhenFailureRateReachesThreshold() {
+        //GIVEN
+        recordCalls(5, false);
+
+        //WHEN
+        recordCalls(5, true);
+
+        //THEN
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void shouldStayClosedWhileFailureRateIsBelowThreshold() {
+        //GIVEN/WHEN
+        recordCalls(6, false);
+        recordCalls(4, true);
+
+        //THEN
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void shouldOpenWhenSlowCallRateReachesThreshold() {
+        //GIVEN/WHEN
+        for (int i = 0; i < 10; i++) {
+            long startNanos = nanoClock.get();
+            nanoClock.addAndGet(SLOW_CALL_THRESHOLD.toNanos());
+            circuitBreaker.record(startNanos, false);
+        }
+
+        //THEN
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void shouldForgetFailuresThatHaveLeftTheWindow() {
+        //GIVEN
+        recordCalls(9, true);
+        nanoClock.addAndGet(WINDOW.toNanos());
+
+        //WHEN
+        recordCalls(1, true);
+
+        //THEN
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void shouldLetOneTrialCallThroughAfterOpenDurationAndCloseIfItSucceeds() {
+        //GIVEN
+        recordCalls(10, true);
+        nanoClock.addAndGet(OPEN_DURATION.toNanos());
+
+        //WHEN/THEN
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+
+        circuitBreaker.record(nanoClock.get(), false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        // The failures from before the circuit opened no longer count
+        recordCalls(1, true);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void shouldOpenAgainIfTrialCallFails() {
+        //GIVEN
+        recordCalls(10, true);
+        nanoClock.addAndGet(OPEN_DURATION.toNanos());
+        circuitBreaker.tryAcquirePermission();
+
+        //WHEN
+        circuitBreaker.record(nanoClock.get(), true);
+
+        //THEN
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        nanoClock.addAndGet(OPEN_DURATION.toNanos());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void shouldLetAnotherTrialCallThroughIfFirstNeverReportsBack() {
+        //GIVEN
+        recordCalls(10, true);
+        nanoClock.addAndGet(OPEN_DURATION.toNanos());
+        circuitBreaker.tryAcquirePermission();
+
+        //WHEN
+        nanoClock.addAndGet(OPEN_DURATION.toNanos());
+
+        //THEN
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    private void recordCalls(int numberOfCalls, boolean failed) {
+        for (int i = 0; i < numberOfCalls; i++) {
+            circuitBreaker.record(nanoClock.get(), failed);
+        }
+    }
+
+}
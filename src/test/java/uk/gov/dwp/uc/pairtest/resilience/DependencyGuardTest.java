@@ -0,0 +1,132 @@
+package uk.gov.dwp.uc.pairtest.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.dwp.uc.pairtest.exception.DependencyUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DependencyGuardTest {
+
+    private static final long ACCOUNT_ID = 123456789L;
+
+    private final AtomicLong nanoClock = new AtomicLong();
+    private final FaultInjector faultInjector = new FaultInjector();
+    private FaultInjectingTicketPaymentService faultInjectingPaymentService;
+    private ResilientTicketPaymentService resilientPaymentService;
+
+    @BeforeEach
+    void setup() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(Duration.ofSeconds(10), 10, 50, 50, Duration.ofSeconds(1), Duration.ofSeconds(5), nanoClock::get);
+        faultInjectingPaymentService = new FaultInjectingTicketPaymentService(faultInjector);
+        resilientPaymentService = new ResilientTicketPaymentService(faultInjectingPaymentService,
+                new DependencyGuard("payment", new Bulkhead(2), circuitBreaker, nanoClock::get));
+    }
+
+    @Test
+    void shouldPassCallsThroughToHealthyDependency() {
+        //GIVEN/WHEN
+        resilientPaymentService.makePayment(ACCOUNT_ID, 2000);
+
+        //THEN
+        assertEquals(1, faultInjectingPaymentService.getNumberOfPayments());
+        assertEquals(0, resilientPaymentService.getDependencyGuard().getBulkhead().getConcurrentCalls());
+    }
+
+    @Test
+    void shouldRethrowFailureAndFailFastOnceCircuitIsOpen() {
+        //GIVEN
+        faultInjector.injectFailures(1.0);
+        for (int i = 0; i < 10; i++) {
+            assertThrows(FaultInjector.InjectedFaultException.class, () -> resilientPaymentService.makePayment(ACCOUNT_ID, 2000));
+        }
+        faultInjector.heal();
+
+        //WHEN
+        DependencyUnavailableException exception = assertThrows(DependencyUnavailableException.class,
+                () -> resilientPaymentService.makePayment(ACCOUNT_ID, 2000));
+
+        //THEN
+        assertEquals(DependencyUnavailableException.Reason.CIRCUIT_OPEN, exception.getReason());
+        assertEquals("payment", exception.getDependencyName());
+        assertEquals(0, faultInjectingPaymentService.getNumberOfPayments());
+        assertEquals(0, resilientPaymentService.getDependencyGuard().getBulkhead().getConcurrentCalls());
+    }
+
+    @Test
+    void shouldRecoverOnceTrialCallSucceeds() {
+        //GIVEN
+        faultInjector.injectFailures(1.0);
+        for (int i = 0; i < 10; i++) {
+            assertThrows(FaultInjector.InjectedFaultException.class, () -> resilientPaymentService.makePayment(ACCOUNT_ID, 2000));
+        }
+        faultInjector.heal();
+        nanoClock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        //WHEN
+        resilientPaymentService.makePayment(ACCOUNT_ID, 2000);
+        resilientPaymentService.makePayment(ACCOUNT_ID, 2000);
+
+        //THEN
+        assertEquals(CircuitBreaker.State.CLOSED, resilientPaymentService.getDependencyGuard().getCircuitBreaker().getState());
+        assertEquals(2, faultInjectingPaymentService.getNumberOfPayments());
+    }
+
+    @Test
+    void shouldRejectCallsBeyondBulkheadWithoutWaiting() throws Exception {
+        //GIVEN
+        CountDownLatch callsStarted = new CountDownLatch(2);
+        CountDownLatch releaseCalls = new CountDownLatch(1);
+        DependencyGuard dependencyGuard = resilientPaymentService.getDependencyGuard();
+
+        try (ExecutorService executorService = Executors.newFixedThreadPool(2)) {
+            Future<?> first = executorService.submit(() -> dependencyGuard.call(() -> awaitRelease(callsStarted, releaseCalls)));
+            Future<?> second = executorService.submit(() -> dependencyGuard.call(() -> awaitRelease(callsStarted, releaseCalls)));
+            callsStarted.await();
+
+            //WHEN
+            DependencyUnavailableException exception = assertThrows(DependencyUnavailableException.class,
+                    () -> resilientPaymentService.makePayment(ACCOUNT_ID, 2000));
+
+            //THEN
+            assertEquals(DependencyUnavailableException.Reason.BULKHEAD_FULL, exception.getReason());
+            releaseCalls.countDown();
+            first.get();
+            second.get();
+        }
+        resilientPaymentService.makePayment(ACCOUNT_ID, 2000);
+        assertEquals(1, faultInjectingPaymentService.getNumberOfPayments());
+    }
+
+    @Test
+    void shouldOpenCircuitOnSlowCalls() {
+        //GIVEN
+        DependencyGuard dependencyGuard = resilientPaymentService.getDependencyGuard();
+
+        //WHEN
+        for (int i = 0; i < 10; i++) {
+            dependencyGuard.call(() -> nanoClock.addAndGet(Duration.ofSeconds(1).toNanos()));
+        }
+
+        //THEN
+        assertEquals(CircuitBreaker.State.OPEN, dependencyGuard.getCircuitBreaker().getState());
+    }
+
+    private static void awaitRelease(CountDownLatch callsStarted, CountDownLatch releaseCalls) {
+        callsStarted.countDown();
+        try {
+            releaseCalls.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
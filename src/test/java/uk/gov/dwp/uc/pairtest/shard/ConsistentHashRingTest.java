@@ -0,0 +1,69 @@
+package uk.gov.dwp.uc.pairtest.shard;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConsistentHashRingTest {
+
+    private static final int NUMBER_OF_ACCOUNTS = 200_000;
+
+    @Test
+    void shouldRouteAccountToSameShardOnEveryRingWithSameSettings() {
+        //GIVEN
+        ConsistentHashRing ring = new ConsistentHashRing(16);
+        ConsistentHashRing otherRing = new ConsistentHashRing(16);
+
+        //WHEN/THEN
+        for (long accountId = 1; accountId <= NUMBER_OF_ACCOUNTS; accountId++) {
+            assertEquals(ring.shardFor(accountId), otherRing.shardFor(accountId));
+        }
+    }
+
+    @Test
+    void shouldSpreadAccountsEvenlyOverShards() {
+        //GIVEN
+        ConsistentHashRing ring = new ConsistentHashRing(16);
+        int[] accountsPerShard = new int[16];
+
+        //WHEN
+        for (long accountId = 1; accountId <= NUMBER_OF_ACCOUNTS; accountId++) {
+            accountsPerShard[ring.shardFor(accountId)]++;
+        }
+
+        //THEN
+        int fairShare = NUMBER_OF_ACCOUNTS / 16;
+        for (int accounts : accountsPerShard) {
+            assertTrue(accounts > fairShare * 0.75 && accounts < fairShare * 1.25, "Uneven shard: " + accounts);
+        }
+    }
+
+    @Test
+    void shouldOnlyMoveAccountsToNewShardWhenShardIsAdded() {
+        //GIVEN
+        ConsistentHashRing ring = new ConsistentHashRing(16);
+        ConsistentHashRing grownRing = new ConsistentHashRing(17);
+
+        //WHEN
+        int movedAccounts = 0;
+        for (long accountId = 1; accountId <= NUMBER_OF_ACCOUNTS; accountId++) {
+            int grownShard = grownRing.shardFor(accountId);
+            if (grownShard != ring.shardFor(accountId)) {
+                assertEquals(16, grownShard);
+                movedAccounts++;
+            }
+        }
+
+        //THEN
+        assertTrue(movedAccounts < NUMBER_OF_ACCOUNTS / 17 * 1.25, "Too many accounts moved: " + movedAccounts);
+    }
+
+    @Test
+    void shouldRejectRingWithoutShards() {
+        //GIVEN/WHEN/THEN
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(0));
+    }
+
+}
@@ -0,0 +1,343 @@
+package uk.gov.dwp.uc.pairtest.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.dwp.uc.pairtest.TicketRequestValidator;
+import uk.gov.dwp.uc.pairtest.TicketService;
+import uk.gov.dwp.uc.pairtest.domain.RejectionReason;
+import uk.gov.dwp.uc.pairtest.domain.TicketBasket;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatch;
+import uk.gov.dwp.uc.pairtest.domain.TicketOrderBatchResult;
+import uk.gov.dwp.uc.pairtest.domain.TicketPurchaseSummary;
+import uk.gov.dwp.uc.pairtest.domain.TicketTypeRequest;
+import uk.gov.dwp.uc.pairtest.exception.InvalidPurchaseException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardedTicketServiceTest {
+
+    private static final int NUMBER_OF_SHARDS = 8;
+
+    private final ConsistentHashRing ring = new ConsistentHashRing(NUMBER_OF_SHARDS);
+    private final ConcurrentHashMap<Integer, Set<String>> threadsByShard = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Integer> shardByAccount = new ConcurrentHashMap<>();
+    private final List<ShardedTicketService> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ShardedTicketService::close);
+    }
+
+    @Test
+    void shouldHandleEveryAccountOnOneShardAndEveryShardOnOneThread() throws Exception {
+        //GIVEN
+        ShardedTicketService shardedTicketService = createNode(allShards());
+
+        //WHEN
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            long seed = thread;
+            workers.add(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int purchase = 0; purchase < 5_000; purchase++) {
+                    shardedTicketService.purchaseTickets(random.nextLong(1, 1_000), TicketBasket.of(2, 1, 1));
+                }
+                return null;
+            });
+        }
+        try (ExecutorService executorService = Executors.newFixedThreadPool(8)) {
+            for (Future<Void> result : executorService.invokeAll(workers)) {
+                result.get();
+            }
+        }
+
+        //THEN
+        shardByAccount.forEach((accountId, shard) -> assertEquals(ring.shardFor(accountId), shard));
+        threadsByShard.forEach((shard, threads) -> assertEquals(Set.of("ticket-shard-" + shard), threads));
+    }
+
+    @Test
+    void shouldPriceBasketOnOwningShard() {
+        //GIVEN
+        ShardedTicketService shardedTicketService = createNode(allShards());
+
+        //WHEN
+        TicketPurchaseSummary purchaseSummary = shardedTicketService.tryPurchaseTickets(123456789L, TicketBasket.of(2, 1, 1));
+
+        //THEN
+        assertTrue(purchaseSummary.isValid());
+        assertEquals(6500, purchaseSummary.getTotalTicketPricePence());
+        assertEquals(3, purchaseSummary.getNumberOfSeatsToReserve());
+        assertEquals(ring.shardFor(123456789L), shardByAccount.get(123456789L));
+    }
+
+    @Test
+    void shouldRejectInvalidVarargsRequestsWithSameReasonsAsValidation() {
+        //GIVEN
+        ShardedTicketService shardedTicketService = createNode(allShards());
+
+        //WHEN/THEN
+        assertEquals(RejectionReason.INVALID_ACCOUNT_ID,
+                shardedTicketService.tryPurchaseTickets(null, new TicketTypeRequest(TicketTypeRequest.Type.ADULT, 1)).getRejectionReason());
+        assertEquals(RejectionReason.INVALID_ACCOUNT_ID,
+                shardedTicketService.tryPurchaseTickets(-1L, new TicketTypeRequest(TicketTypeRequest.Type.ADULT, 1)).getRejectionReason());
+        assertEquals(RejectionReason.NO_TICKETS_REQUESTED,
+                shardedTicketService.tryPurchaseTickets(1L).getRejectionReason());
+        assertEquals(RejectionReason.MALFORMED_TICKET_REQUEST,
+                shardedTicketService.tryPurchaseTickets(1L, new TicketTypeRequest(TicketTypeRequest.Type.ADULT, -1)).getRejectionReason());
+        assertEquals(RejectionReason.NO_ADULT_TICKET,
+                shardedTicketService.tryPurchaseTickets(1L, new TicketTypeRequest(TicketTypeRequest.Type.CHILD, 1)).getRejectionReason());
+
+        InvalidPurchaseException exception = assertThrows(InvalidPurchaseException.class,
+                () -> shardedTicketService.purchaseTickets(1L, new TicketTypeRequest(TicketTypeRequest.Type.INFANT, 1)));
+        assertEquals(RejectionReason.NO_ADULT_TICKET, exception.getRejectionReason());
+    }
+
+    @Test
+    void shouldRouteToShardsOnOtherNodeThroughTransport() {
+        //GIVEN
+        LoopbackShardTransport transport = new LoopbackShardTransport();
+        ShardedTicketService evenNode = createNode(new int[]{0, 2, 4, 6}, transport);
+        ShardedTicketService oddNode = createNode(new int[]{1, 3, 5, 7}, transport);
+        transport.register(evenNode);
+        transport.register(oddNode);
+
+        //WHEN/THEN
+        for (long accountId = 1; accountId <= 1_000; accountId++) {
+            TicketPurchaseSummary fromEvenNode = evenNode.tryPurchaseTickets(accountId, TicketBasket.of(1, 2, 0));
+            TicketPurchaseSummary fromOddNode = oddNode.tryPurchaseTickets(accountId, TicketBasket.of(1, 2, 0));
+            assertEquals(5500, fromEvenNode.getTotalTicketPricePence());
+            assertEquals(5500, fromOddNode.getTotalTicketPricePence());
+            assertEquals(ring.shardFor(accountId), shardByAccount.get(accountId));
+        }
+        threadsByShard.forEach((shard, threads) -> assertEquals(Set.of("ticket-shard-" + shard), threads));
+        assertEquals(RejectionReason.NO_ADULT_TICKET, evenNode.tryPurchaseTickets(7L, TicketBasket.of(0, 1, 0)).getRejectionReason());
+    }
+
+    @Test
+    void shouldFailPurchaseForShardWithNoTransport() {
+        //GIVEN
+        ShardedTicketService evenNode = createNode(new int[]{0, 2, 4, 6}, ShardTransport.NONE);
+        long accountOnOddShard = 1;
+        while (ring.shardFor(accountOnOddShard) % 2 == 0) {
+            accountOnOddShard++;
+        }
+        long accountId = accountOnOddShard;
+
+        //WHEN/THEN
+        assertThrows(IllegalStateException.class, () -> evenNode.tryPurchaseTickets(accountId, TicketBasket.of(1, 0, 0)));
+    }
+
+    @Test
+    void shouldSplitBatchAcrossNodesAndKeepOrdersInPlace() {
+        //GIVEN
+        LoopbackShardTransport transport = new LoopbackShardTransport();
+        ShardedTicketService evenNode = createNode(new int[]{0, 2, 4, 6}, transport);
+        ShardedTicketService oddNode = createNode(new int[]{1, 3, 5, 7}, transport);
+        transport.register(evenNode);
+        transport.register(oddNode);
+
+        int size = 10_000;
+        SplittableRandom random = new SplittableRandom(42);
+        long[] accountIds = new long[size];
+        int[] adults = new int[size];
+        int[] children = new int[size];
+        int[] infants = new int[size];
+        for (int order = 0; order < size; order++) {
+            accountIds[order] = random.nextLong(0, 100_000);
+            adults[order] = random.nextInt(0, 10);
+            children[order] = random.nextInt(0, 10);
+            infants[order] = random.nextInt(0, 10);
+        }
+        TicketOrderBatch ticketOrders = new TicketOrderBatch(accountIds, adults, children, infants);
+
+        //WHEN
+        TicketOrderBatchResult batchResult = evenNode.purchaseTickets(ticketOrders);
+
+        //THEN
+        TicketOrderBatchResult expected = new TicketRequestValidator().summarise(ticketOrders);
+        assertEquals(size, batchResult.size());
+        assertEquals(expected.getNumberOfAcceptedOrders(), batchResult.getNumberOfAcceptedOrders());
+        for (int order = 0; order < size; order++) {
+            assertEquals(expected.getRejectionReason(order), batchResult.getRejectionReason(order));
+            assertEquals(expected.getTotalTicketPricePence(order), batchResult.getTotalTicketPricePence(order));
+            assertEquals(expected.getNumberOfSeatsToReserve(order), batchResult.getNumberOfSeatsToReserve(order));
+        }
+    }
+
+    @Test
+    void shouldReportOrdersOfFailedShardAndKeepOtherShardsResults() {
+        //GIVEN
+        int failingShard = 3;
+        LoopbackShardTransport loopbackTransport = new LoopbackShardTransport();
+        ShardTransport transport = new ShardTransport() {
+            @Override
+            public CompletableFuture<TicketPurchaseSummary> purchase(int shard, long accountId, TicketBasket ticketBasket) {
+                return loopbackTransport.purchase(shard, accountId, ticketBasket);
+            }
+
+            @Override
+            public CompletableFuture<TicketOrderBatchResult> purchase(int shard, TicketOrderBatch ticketOrders) {
+                return shard == failingShard
+                        ? CompletableFuture.failedFuture(new IllegalStateException("Shard " + shard + " is unreachable"))
+                        : loopbackTransport.purchase(shard, ticketOrders);
+            }
+        };
+        ShardedTicketService evenNode = createNode(new int[]{0, 2, 4, 6}, transport);
+        loopbackTransport.register(createNode(new int[]{1, 3, 5, 7}, transport));
+
+        int size = 1_000;
+        long[] accountIds = new long[size];
+        int[] adults = new int[size];
+        for (int order = 0; order < size; order++) {
+            accountIds[order] = order;
+            adults[order] = 2;
+        }
+        TicketOrderBatch ticketOrders = new TicketOrderBatch(accountIds, adults, new int[size], new int[size]);
+
+        //WHEN
+        TicketOrderBatchResult batchResult = evenNode.purchaseTickets(ticketOrders);
+
+        //THEN
+        int numberOfFailedOrders = 0;
+        for (int order = 0; order < size; order++) {
+            if (ring.shardFor(accountIds[order]) == failingShard) {
+                assertEquals(RejectionReason.PURCHASE_FAILED, batchResult.getRejectionReason(order));
+                assertEquals(0, batchResult.getTotalTicketPricePence(order));
+                numberOfFailedOrders++;
+            } else {
+                assertTrue(batchResult.isAccepted(order));
+                assertEquals(5000, batchResult.getTotalTicketPricePence(order));
+            }
+        }
+        assertTrue(numberOfFailedOrders > 0);
+        assertEquals(size - numberOfFailedOrders, batchResult.getNumberOfAcceptedOrders());
+    }
+
+    @Test
+    void shouldFailPurchasesOnceClosed() {
+        //GIVEN
+        ShardedTicketService shardedTicketService = createNode(allShards());
+        shardedTicketService.close();
+
+        //WHEN/THEN
+        assertThrows(IllegalStateException.class, () -> shardedTicketService.tryPurchaseTickets(1L, TicketBasket.of(1, 0, 0)));
+    }
+
+    @Test
+    void shouldCompleteEveryPurchaseSubmittedWhileClosing() throws Exception {
+        //GIVEN
+        ShardedTicketService shardedTicketService = createNode(allShards());
+        AtomicBoolean closed = new AtomicBoolean();
+        List<Callable<List<CompletableFuture<TicketPurchaseSummary>>>> producers = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            producers.add(() -> {
+                List<CompletableFuture<TicketPurchaseSummary>> results = new ArrayList<>();
+                for (long accountId = 1; !closed.get() || results.size() < 1_000; accountId++) {
+                    results.add(shardedTicketService.purchaseOnLocalShard(ring.shardFor(accountId), accountId, TicketBasket.of(1, 0, 0)));
+                }
+                return results;
+            });
+        }
+
+        //WHEN
+        List<CompletableFuture<TicketPurchaseSummary>> results = new ArrayList<>();
+        try (ExecutorService executorService = Executors.newFixedThreadPool(producers.size())) {
+            List<Future<List<CompletableFuture<TicketPurchaseSummary>>>> submitted = new ArrayList<>();
+            for (Callable<List<CompletableFuture<TicketPurchaseSummary>>> producer : producers) {
+                submitted.add(executorService.submit(producer));
+            }
+            Thread.sleep(20);
+            shardedTicketService.close();
+            closed.set(true);
+            for (Future<List<CompletableFuture<TicketPurchaseSummary>>> producerResults : submitted) {
+                results.addAll(producerResults.get());
+            }
+        }
+
+        //THEN
+        for (CompletableFuture<TicketPurchaseSummary> result : results) {
+            assertTrue(result.isDone());
+        }
+    }
+
+    private ShardedTicketService createNode(int[] ownedShards) {
+        return createNode(ownedShards, ShardTransport.NONE);
+    }
+
+    private ShardedTicketService createNode(int[] ownedShards, ShardTransport transport) {
+        ShardedTicketService node = new ShardedTicketService(ring, ownedShards, RecordingTicketService::new, transport);
+        nodes.add(node);
+        return node;
+    }
+
+    private static int[] allShards() {
+        int[] shards = new int[NUMBER_OF_SHARDS];
+        for (int shard = 0; shard < NUMBER_OF_SHARDS; shard++) {
+            shards[shard] = shard;
+        }
+        return shards;
+    }
+
+    /**
+     * Validates purchases and records which thread handled each shard and account.
+     */
+    private final class RecordingTicketService implements TicketService {
+
+        private final int shard;
+        private final TicketRequestValidator ticketRequestValidator = new TicketRequestValidator();
+
+        private RecordingTicketService(int shard) {
+            this.shard = shard;
+        }
+
+        @Override
+        public void purchaseTickets(Long accountId, TicketTypeRequest... ticketTypeRequests) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TicketPurchaseSummary tryPurchaseTickets(Long accountId, TicketTypeRequest... ticketTypeRequests) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void purchaseTickets(long accountId, TicketBasket ticketBasket) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TicketPurchaseSummary tryPurchaseTickets(long accountId, TicketBasket ticketBasket) {
+            record(accountId);
+            return ticketRequestValidator.summarise(accountId, ticketBasket);
+        }
+
+        @Override
+        public TicketOrderBatchResult purchaseTickets(TicketOrderBatch ticketOrders) {
+            for (long accountId : ticketOrders.getAccountIds()) {
+                record(accountId);
+            }
+            return ticketRequestValidator.summarise(ticketOrders);
+        }
+
+        private void record(long accountId) {
+            threadsByShard.computeIfAbsent(shard, key -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread().getName());
+            shardByAccount.put(accountId, shard);
+        }
+    }
+
+}